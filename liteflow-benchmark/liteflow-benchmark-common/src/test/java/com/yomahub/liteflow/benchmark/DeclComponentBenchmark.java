@@ -0,0 +1,77 @@
+package com.yomahub.liteflow.benchmark;
+
+import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 声明式组件和继承NodeComponent的普通组件的对比基准测试，两种组件做的事情完全一样，用来观察声明式组件代理调用的额外开销
+ */
+@State(Scope.Benchmark)
+@EnableAutoConfiguration
+@PropertySource(value = "classpath:application.properties")
+@ComponentScan("com.yomahub.liteflow.benchmark.cmp")
+public class DeclComponentBenchmark {
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private FlowExecutor flowExecutor;
+
+    @Setup
+    public void setup() {
+        applicationContext = SpringApplication.run(DeclComponentBenchmark.class);
+        flowExecutor = applicationContext.getBean(FlowExecutor.class);
+
+        // 每条链路串行执行10次同一个组件，放大组件调用本身的开销
+        LiteFlowChainELBuilder.createChain().setChainId("declChain")
+                .setEL("THEN(decl,decl,decl,decl,decl,decl,decl,decl,decl,decl);").build();
+        LiteFlowChainELBuilder.createChain().setChainId("plainChain")
+                .setEL("THEN(plain,plain,plain,plain,plain,plain,plain,plain,plain,plain);").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public boolean declComponent() {
+        LiteflowResponse response = flowExecutor.execute2Resp("declChain");
+        return response.isSuccess();
+    }
+
+    @Benchmark
+    public boolean plainComponent() {
+        LiteflowResponse response = flowExecutor.execute2Resp("plainChain");
+        return response.isSuccess();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DeclComponentBenchmark.class.getSimpleName())
+                .mode(Mode.Throughput)
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(1)//预热次数
+                .measurementIterations(3)//执行次数
+                .measurementTime(new TimeValue(10, TimeUnit.SECONDS))//每次执行多少时间
+                .threads(100)//多少个线程
+                .forks(1)//多少个进程
+                .timeUnit(TimeUnit.SECONDS)
+                .build();
+        new Runner(opt).run();
+    }
+}
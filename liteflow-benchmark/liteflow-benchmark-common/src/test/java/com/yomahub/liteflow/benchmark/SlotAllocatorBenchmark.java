@@ -0,0 +1,60 @@
+package com.yomahub.liteflow.benchmark;
+
+import com.yomahub.liteflow.slot.ConcurrentMapSlotAllocator;
+import com.yomahub.liteflow.slot.DefaultSlotAllocator;
+import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.slot.SlotAllocator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * slot分配器的基准测试，对比默认的无锁分配器和原先ConcurrentHashMap + ConcurrentLinkedQueue的实现
+ * 每次操作为一次分配，一次查找，一次回收，对应一次流程执行中DataBus的开销
+ */
+@State(Scope.Benchmark)
+public class SlotAllocatorBenchmark {
+
+    @Param({"default", "concurrentMap"})
+    private String allocatorType;
+
+    private SlotAllocator allocator;
+
+    private final Slot slot = new Slot();
+
+    @Setup
+    public void setup() {
+        if ("default".equals(allocatorType)) {
+            allocator = new DefaultSlotAllocator();
+        } else {
+            allocator = new ConcurrentMapSlotAllocator();
+        }
+        allocator.init(1024);
+    }
+
+    @Benchmark
+    public Slot offerAndRelease() {
+        int slotIndex = allocator.offer(slot);
+        allocator.get(slotIndex);
+        return allocator.release(slotIndex);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SlotAllocatorBenchmark.class.getSimpleName())
+                .mode(Mode.Throughput)
+                .warmupIterations(1)//预热次数
+                .measurementIterations(3)//执行次数
+                .measurementTime(new TimeValue(10, TimeUnit.SECONDS))//每次执行多少时间
+                .threads(100)//多少个线程
+                .forks(1)//多少个进程
+                .timeUnit(TimeUnit.SECONDS)
+                .build();
+        new Runner(opt).run();
+    }
+}
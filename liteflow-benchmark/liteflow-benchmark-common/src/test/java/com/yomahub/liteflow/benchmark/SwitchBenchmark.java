@@ -0,0 +1,97 @@
+package com.yomahub.liteflow.benchmark;
+
+import com.yomahub.liteflow.benchmark.cmp.NCmp;
+import com.yomahub.liteflow.builder.LiteFlowNodeBuilder;
+import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SWITCH目标数量不同时的基准测试，每次都跳转到最后一个目标，用来观察查找目标节点的开销是否随目标数量增长
+ */
+@State(Scope.Benchmark)
+@EnableAutoConfiguration
+@PropertySource(value = "classpath:application.properties")
+@ComponentScan("com.yomahub.liteflow.benchmark.cmp")
+public class SwitchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int targetCount;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private FlowExecutor flowExecutor;
+
+    private String lastId;
+
+    private String lastTag;
+
+    @Setup
+    public void setup() {
+        applicationContext = SpringApplication.run(SwitchBenchmark.class);
+        flowExecutor = applicationContext.getBean(FlowExecutor.class);
+
+        // 注册targetCount个目标节点，每个节点都带上tag
+        List<String> targets = new ArrayList<>();
+        for (int i = 0; i < targetCount; i++) {
+            String nodeId = "t" + i;
+            LiteFlowNodeBuilder.createCommonNode().setId(nodeId).setName(nodeId).setClazz(NCmp.class).build();
+            targets.add(nodeId + ".tag(\"g" + i + "\")");
+        }
+        LiteFlowChainELBuilder.createChain()
+                .setChainId("switchChain")
+                .setEL("SWITCH(r).to(" + String.join(",", targets) + ");")
+                .build();
+
+        lastId = "t" + (targetCount - 1);
+        lastTag = "tag:g" + (targetCount - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public boolean switchById() {
+        LiteflowResponse response = flowExecutor.execute2Resp("switchChain", lastId);
+        return response.isSuccess();
+    }
+
+    @Benchmark
+    public boolean switchByTag() {
+        LiteflowResponse response = flowExecutor.execute2Resp("switchChain", lastTag);
+        return response.isSuccess();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SwitchBenchmark.class.getSimpleName())
+                .mode(Mode.Throughput)
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(1)//预热次数
+                .measurementIterations(3)//执行次数
+                .measurementTime(new TimeValue(10, TimeUnit.SECONDS))//每次执行多少时间
+                .threads(100)//多少个线程
+                .forks(1)//多少个进程
+                .timeUnit(TimeUnit.SECONDS)
+                .build();
+        new Runner(opt).run();
+    }
+}
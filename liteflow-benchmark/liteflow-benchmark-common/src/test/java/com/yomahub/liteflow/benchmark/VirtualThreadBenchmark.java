@@ -0,0 +1,77 @@
+package com.yomahub.liteflow.benchmark;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台线程池和虚拟线程的对比，每次调用同时发起10000个带有WHEN以及并行循环的chain，等待全部执行完
+ * 虚拟线程需要在JDK21以上运行，JDK21以下两组参数都会使用平台线程池
+ */
+@State(Scope.Benchmark)
+@EnableAutoConfiguration
+@PropertySource(value = "classpath:application.properties")
+@ComponentScan("com.yomahub.liteflow.benchmark.cmp")
+public class VirtualThreadBenchmark {
+
+    private static final int CONCURRENT_CHAINS = 10000;
+
+    @Param({"false", "true"})
+    private String enableVirtualThread;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private FlowExecutor flowExecutor;
+
+    @Setup
+    public void setup() {
+        applicationContext = SpringApplication.run(VirtualThreadBenchmark.class, "--liteflow.enable-virtual-thread=" + enableVirtualThread);
+        flowExecutor = applicationContext.getBean(FlowExecutor.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public int execute() {
+        CompletableFuture<?>[] futures = new CompletableFuture[CONCURRENT_CHAINS];
+        for (int i = 0; i < CONCURRENT_CHAINS; i++) {
+            futures[i] = flowExecutor.execute2Stage("ioChain").toCompletableFuture();
+        }
+        CompletableFuture.allOf(futures).join();
+        int success = 0;
+        for (CompletableFuture<?> future : futures) {
+            if (((LiteflowResponse) future.join()).isSuccess()) {
+                success++;
+            }
+        }
+        return success;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(VirtualThreadBenchmark.class.getSimpleName())
+                .mode(Mode.AverageTime)
+                .warmupIterations(1)//预热次数
+                .measurementIterations(5)//执行次数
+                .threads(1)//多少个线程，并发由每次调用内部发起的10000个chain提供
+                .forks(1)//多少个进程
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .build();
+        new Runner(opt).run();
+    }
+}
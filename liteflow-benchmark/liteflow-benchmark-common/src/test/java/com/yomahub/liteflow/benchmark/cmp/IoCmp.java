@@ -0,0 +1,17 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeComponent;
+
+/**
+ * 模拟一次耗时10ms的IO调用
+ */
+@LiteflowComponent("io")
+public class IoCmp extends NodeComponent {
+
+	@Override
+	public void process() throws Exception {
+		Thread.sleep(10);
+	}
+
+}
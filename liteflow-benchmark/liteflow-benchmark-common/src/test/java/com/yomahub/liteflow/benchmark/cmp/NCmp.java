@@ -0,0 +1,13 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeComponent;
+
+@LiteflowComponent("n")
+public class NCmp extends NodeComponent {
+
+	@Override
+	public void process() {
+	}
+
+}
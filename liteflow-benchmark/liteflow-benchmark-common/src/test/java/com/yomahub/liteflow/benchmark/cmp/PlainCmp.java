@@ -0,0 +1,25 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+@LiteflowComponent("plain")
+public class PlainCmp extends NodeComponent {
+
+	@Override
+	public boolean isAccess() {
+		return true;
+	}
+
+	@Override
+	public void process() {
+		DefaultContext context = this.getFirstContextBean();
+		context.setData("plain", 1);
+	}
+
+	@Override
+	public void onSuccess() {
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeSwitchComponent;
+
+@LiteflowComponent("r")
+public class RCmp extends NodeSwitchComponent {
+
+	@Override
+	public String processSwitch() {
+		// 直接把请求参数作为跳转的目标
+		return this.getRequestData();
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeSwitchComponent;
+
+@LiteflowComponent("s")
+public class SCmp extends NodeSwitchComponent {
+
+	@Override
+	public String processSwitch() {
+		return "c";
+	}
+
+}
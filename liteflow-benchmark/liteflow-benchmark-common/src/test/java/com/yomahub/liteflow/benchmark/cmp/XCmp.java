@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+
+@LiteflowComponent("x")
+public class XCmp extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() {
+		return true;
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+
+@LiteflowComponent("y")
+public class YCmp extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() {
+		return false;
+	}
+
+}
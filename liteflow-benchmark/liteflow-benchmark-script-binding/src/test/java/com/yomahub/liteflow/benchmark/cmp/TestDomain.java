@@ -0,0 +1,15 @@
+package com.yomahub.liteflow.benchmark.cmp;
+
+import com.yomahub.liteflow.script.annotation.ScriptBean;
+import org.springframework.stereotype.Component;
+
+
+@Component
+@ScriptBean("testDomain")
+public class TestDomain {
+
+    public String sayHello(String name){
+        return "hello," + name;
+    }
+
+}
@@ -42,6 +42,12 @@ public class ScriptJavaxProBenchmark {
         flowExecutor.execute2Resp("chain1");
     }
 
+    //并行执行，同一个脚本节点同时在多个线程里执行
+    @Benchmark
+    public  void test2(){
+        flowExecutor.execute2Resp("chain2");
+    }
+
 
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
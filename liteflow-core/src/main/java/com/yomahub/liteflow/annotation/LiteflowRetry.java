@@ -25,4 +25,19 @@ public @interface LiteflowRetry {
 
 	Class<? extends Exception>[] forExceptions() default { Exception.class };
 
+	// 第一次重试前等待的毫秒数，-1表示使用全局配置
+	long backoffDelay() default -1;
+
+	// 重试等待时间的上限，单位为毫秒，-1表示使用全局配置
+	long maxBackoffDelay() default -1;
+
+	// 每次重试等待时间的增长倍数，-1表示使用全局配置
+	double backoffMultiplier() default -1;
+
+	// 等待时间的随机抖动比例，0到1之间，-1表示使用全局配置
+	double backoffJitter() default -1;
+
+	// 重试次数最多为调用次数的百分比，0表示不限制，-1表示使用全局配置
+	int retryBudgetPercent() default -1;
+
 }
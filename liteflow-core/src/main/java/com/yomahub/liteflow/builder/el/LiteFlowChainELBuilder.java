@@ -109,7 +109,10 @@ public class LiteFlowChainELBuilder {
 		EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.MAX_WAIT_SECONDS, Object.class, new MaxWaitSecondsOperator());
         EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.MAX_WAIT_MILLISECONDS, Object.class, new MaxWaitMillisecondsOperator());
 		EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.PARALLEL, Object.class, new ParallelOperator());
+		EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.MAX_CONCURRENCY, Object.class, new MaxConcurrencyOperator());
 		EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.RETRY, Object.class, new RetryOperator());
+		EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.BACKOFF, Object.class, new BackoffOperator());
+		EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.RETRY_BUDGET, Object.class, new RetryBudgetOperator());
 		EXPRESS_RUNNER.addFunctionAndClassMethod(ChainConstant.BIND, Object.class, new BindOperator());
 
 	}
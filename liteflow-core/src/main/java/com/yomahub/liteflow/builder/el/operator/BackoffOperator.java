@@ -0,0 +1,57 @@
+package com.yomahub.liteflow.builder.el.operator;
+
+import com.ql.util.express.exception.QLException;
+import com.yomahub.liteflow.builder.el.operator.base.BaseOperator;
+import com.yomahub.liteflow.builder.el.operator.base.OperatorHelper;
+import com.yomahub.liteflow.flow.element.condition.RetryCondition;
+
+/**
+ * EL规则中的backoff的操作符，设置retry的退避等待
+ * <p>
+ * backoff(delay[, maxDelay[, multiplier[, jitter]]])，时间的单位为毫秒，没有设置的参数使用全局配置
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class BackoffOperator extends BaseOperator<RetryCondition> {
+
+	@Override
+	public RetryCondition build(Object[] objects) throws Exception {
+		OperatorHelper.checkObjectSizeGteTwo(objects);
+		if (objects.length > 5) {
+			throw new QLException("The backoff only supports delay, maxDelay, multiplier and jitter.");
+		}
+
+		String errorMsg = "The caller must be retry item";
+		RetryCondition retryCondition = OperatorHelper.convert(objects[0], RetryCondition.class, errorMsg);
+
+		long delay = OperatorHelper.convert2Double(objects[1]).longValue();
+		if (delay < 0) {
+			throw new QLException("The delay of backoff must not be less than 0.");
+		}
+		retryCondition.setBackoffDelay(delay);
+		if (objects.length > 2) {
+			long maxDelay = OperatorHelper.convert2Double(objects[2]).longValue();
+			if (maxDelay < delay) {
+				throw new QLException("The maxDelay of backoff must not be less than delay.");
+			}
+			retryCondition.setMaxBackoffDelay(maxDelay);
+		}
+		if (objects.length > 3) {
+			double multiplier = OperatorHelper.convert2Double(objects[3]);
+			if (multiplier < 1D) {
+				throw new QLException("The multiplier of backoff must not be less than 1.");
+			}
+			retryCondition.setBackoffMultiplier(multiplier);
+		}
+		if (objects.length > 4) {
+			double jitter = OperatorHelper.convert2Double(objects[4]);
+			if (jitter < 0D || jitter > 1D) {
+				throw new QLException("The jitter of backoff must be between 0 and 1.");
+			}
+			retryCondition.setBackoffJitter(jitter);
+		}
+		return retryCondition;
+	}
+
+}
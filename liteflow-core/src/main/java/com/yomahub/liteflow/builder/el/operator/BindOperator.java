@@ -26,6 +26,7 @@ public class BindOperator extends BaseOperator<Executable> {
         String key = OperatorHelper.convert(objects[1], String.class);
 
         String value = OperatorHelper.convert(objects[2], String.class);
+        OperatorHelper.checkNodeDataJson(value);
 
         AtomicBoolean override = new AtomicBoolean(false);
         if (objects.length > 3) {
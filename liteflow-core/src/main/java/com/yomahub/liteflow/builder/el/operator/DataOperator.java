@@ -21,6 +21,7 @@ public class DataOperator extends BaseOperator<Executable> {
 		Executable item = OperatorHelper.convert(objects[0], Executable.class);
 
 		String cmpData = OperatorHelper.convert(objects[1], String.class);
+		OperatorHelper.checkNodeDataJson(cmpData);
 
 		LiteflowMetaOperator.getNodes(item).forEach(node -> node.setCmpData(cmpData));
 
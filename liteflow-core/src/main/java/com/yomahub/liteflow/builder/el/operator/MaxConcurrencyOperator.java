@@ -0,0 +1,35 @@
+package com.yomahub.liteflow.builder.el.operator;
+
+import com.ql.util.express.exception.QLException;
+import com.yomahub.liteflow.builder.el.operator.base.BaseOperator;
+import com.yomahub.liteflow.builder.el.operator.base.OperatorHelper;
+import com.yomahub.liteflow.flow.element.condition.LoopCondition;
+
+/**
+ * EL规则中的maxConcurrency的操作符，限制并行循环同一时间最多执行的子项数
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class MaxConcurrencyOperator extends BaseOperator<LoopCondition> {
+
+	@Override
+	public LoopCondition build(Object[] objects) throws Exception {
+		OperatorHelper.checkObjectSizeEqTwo(objects);
+
+		String errorMsg = "The caller must be LoopCondition item";
+		LoopCondition loopCondition = OperatorHelper.convert(objects[0], LoopCondition.class, errorMsg);
+		// 串行循环上设置maxConcurrency不会生效，直接报错，而不是静默的忽略
+		if (!loopCondition.isParallel()) {
+			throw new QLException("The maxConcurrency can only be used on a parallel loop, call parallel(true) before it.");
+		}
+
+		Integer maxConcurrency = OperatorHelper.convert(objects[1], Integer.class);
+		if (maxConcurrency <= 0) {
+			throw new QLException("The maxConcurrency must be greater than 0.");
+		}
+		loopCondition.setMaxConcurrency(maxConcurrency);
+		return loopCondition;
+	}
+
+}
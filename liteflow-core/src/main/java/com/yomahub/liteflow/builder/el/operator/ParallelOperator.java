@@ -1,5 +1,6 @@
 package com.yomahub.liteflow.builder.el.operator;
 
+import com.ql.util.express.exception.QLException;
 import com.yomahub.liteflow.builder.el.operator.base.BaseOperator;
 import com.yomahub.liteflow.builder.el.operator.base.OperatorHelper;
 import com.yomahub.liteflow.flow.element.condition.LoopCondition;
@@ -20,6 +21,9 @@ public class ParallelOperator extends BaseOperator<LoopCondition> {
         LoopCondition loopCondition = OperatorHelper.convert(objects[0], LoopCondition.class, errorMsg);
 
         Boolean parallel = OperatorHelper.convert(objects[1], Boolean.class);
+        if (!parallel && loopCondition.getMaxConcurrency() != null) {
+            throw new QLException("The maxConcurrency can only be used on a parallel loop.");
+        }
         loopCondition.setParallel(parallel);
         return loopCondition;
     }
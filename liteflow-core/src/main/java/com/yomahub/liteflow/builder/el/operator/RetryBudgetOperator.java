@@ -0,0 +1,31 @@
+package com.yomahub.liteflow.builder.el.operator;
+
+import com.ql.util.express.exception.QLException;
+import com.yomahub.liteflow.builder.el.operator.base.BaseOperator;
+import com.yomahub.liteflow.builder.el.operator.base.OperatorHelper;
+import com.yomahub.liteflow.flow.element.condition.RetryCondition;
+
+/**
+ * EL规则中的retryBudget的操作符，重试次数最多为调用次数的百分比，0表示不限制
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryBudgetOperator extends BaseOperator<RetryCondition> {
+
+	@Override
+	public RetryCondition build(Object[] objects) throws Exception {
+		OperatorHelper.checkObjectSizeEqTwo(objects);
+
+		String errorMsg = "The caller must be retry item";
+		RetryCondition retryCondition = OperatorHelper.convert(objects[0], RetryCondition.class, errorMsg);
+
+		Integer percent = OperatorHelper.convert(objects[1], Integer.class);
+		if (percent < 0) {
+			throw new QLException("The percent of retryBudget must not be less than 0.");
+		}
+		retryCondition.setRetryBudgetPercent(percent);
+		return retryCondition;
+	}
+
+}
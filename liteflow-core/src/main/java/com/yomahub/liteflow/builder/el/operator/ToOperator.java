@@ -25,6 +25,8 @@ public class ToOperator extends BaseOperator<SwitchCondition> {
 			Executable target = OperatorHelper.convert(objects[i], Executable.class);
 			switchCondition.addTargetItem(target);
 		}
+		// 所有目标添加完之后生成索引，执行时直接查表
+		switchCondition.buildTargetTable();
 		return switchCondition;
 	}
 
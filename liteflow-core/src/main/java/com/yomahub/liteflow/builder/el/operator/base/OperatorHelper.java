@@ -1,15 +1,19 @@
 package com.yomahub.liteflow.builder.el.operator.base;
 
 import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.util.BooleanUtil;
 import cn.hutool.core.util.StrUtil;
 import com.ql.util.express.exception.QLException;
 import com.yomahub.liteflow.enums.ConditionTypeEnum;
 import com.yomahub.liteflow.enums.ExecuteableTypeEnum;
 import com.yomahub.liteflow.enums.NodeTypeEnum;
 import com.yomahub.liteflow.exception.DataNotFoundException;
+import com.yomahub.liteflow.exception.JsonProcessException;
 import com.yomahub.liteflow.flow.element.Condition;
 import com.yomahub.liteflow.flow.element.Executable;
 import com.yomahub.liteflow.flow.element.Node;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.util.JsonUtil;
 
 import java.util.Objects;
 
@@ -149,6 +153,28 @@ public class OperatorHelper {
 		throw new QLException(errorMsg);
 	}
 
+	/**
+	 * 开启了enableNodeDataEagerParse之后，在构建的时候就校验data和bind中的json，避免到运行时才报错
+	 * 不是以"{"或者"["开头的普通字符串不做校验
+	 * @param data data或者bind的值
+	 * @throws QLException json格式不正确
+	 */
+	public static void checkNodeDataJson(String data) throws QLException {
+		if (BooleanUtil.isFalse(LiteflowConfigGetter.get().getEnableNodeDataEagerParse())) {
+			return;
+		}
+		String text = StrUtil.trim(data);
+		if (!StrUtil.startWithAny(text, "{", "[")) {
+			return;
+		}
+		try {
+			JsonUtil.parseObject(text);
+		}
+		catch (JsonProcessException e) {
+			throw new QLException(StrUtil.format("The data[{}] is not a valid json", data), e);
+		}
+	}
+
 	public static void checkItemNotNull(Object[] objects) throws QLException {
 		for (Object object : objects) {
 			if (Objects.isNull(object)) {
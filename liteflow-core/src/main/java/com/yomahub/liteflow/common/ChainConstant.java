@@ -9,6 +9,8 @@ package com.yomahub.liteflow.common;
 public interface ChainConstant {
 	String PARALLEL = "parallel";
 
+	String MAX_CONCURRENCY = "maxConcurrency";
+
 	String CHAIN = "chain";
 
 	String ROUTE = "route";
@@ -111,6 +113,10 @@ public interface ChainConstant {
 
 	String RETRY = "retry";
 
+	String BACKOFF = "backoff";
+
+	String RETRY_BUDGET = "retryBudget";
+
 	String NODE_INSTANCE_PATH = ".node_instance_id";
 
 	String USER_DIR = "user.dir";
@@ -10,6 +10,7 @@ import com.yomahub.liteflow.flow.executor.NodeExecutor;
 import com.yomahub.liteflow.monitor.MonitorBus;
 import com.yomahub.liteflow.property.LiteflowConfig;
 import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.retry.RetryPolicy;
 import com.yomahub.liteflow.spi.holder.ContextAwareHolder;
 import com.yomahub.liteflow.spi.holder.LiteflowComponentSupportHolder;
 
@@ -55,13 +56,19 @@ public class ComponentInitializer {
 		// 默认retryForExceptions为Exception.class
 		LiteflowRetry liteFlowRetryAnnotation = AnnotationUtil.getAnnotationAlias(nodeComponent.getClass(), LiteflowRetry.class);
 		LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
+		RetryPolicy retryPolicy = RetryPolicy.of(liteflowConfig);
 		if (liteFlowRetryAnnotation != null) {
 			nodeComponent.setRetryCount(liteFlowRetryAnnotation.retry());
 			nodeComponent.setRetryForExceptions(liteFlowRetryAnnotation.forExceptions());
+			// 标注上没有设置的退避参数沿用全局配置
+			retryPolicy = retryPolicy.override(liteFlowRetryAnnotation.backoffDelay(),
+					liteFlowRetryAnnotation.maxBackoffDelay(), liteFlowRetryAnnotation.backoffMultiplier(),
+					liteFlowRetryAnnotation.backoffJitter(), liteFlowRetryAnnotation.retryBudgetPercent());
 		}
 		else {
 			nodeComponent.setRetryCount(liteflowConfig.getRetryCount());
 		}
+		nodeComponent.setRetryPolicy(retryPolicy);
 		nodeComponent.setNodeExecutorClass(buildNodeExecutorClass(liteflowConfig));
 
 		return nodeComponent;
@@ -0,0 +1,70 @@
+package com.yomahub.liteflow.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.yomahub.liteflow.flow.FlowBus;
+
+/**
+ * FlowExecutor#execute2RespWithEL的缓存，key为原始的EL字符串，value为编译好的chainId
+ * <p>
+ * 命中的时候直接执行对应的chain，跳过EL的规范化，校验，计算MD5以及编译
+ * 缓存的大小通过liteflow.el-cache-capacity来设置，超过之后按照最近最少使用的规则淘汰
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ElChainCache {
+
+	private final Cache<String, String> cache;
+
+	public ElChainCache(int capacity) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(capacity)
+				// 淘汰在调用线程里同步进行，这样统计到的淘汰次数是准确的
+				.executor(Runnable::run)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * 取得EL对应的chainId，如果chain已经被移除了（比如reload之后），则会把这个EL从缓存中去掉并返回null
+	 */
+	public String get(String elStr) {
+		String chainId = cache.getIfPresent(elStr);
+		if (chainId != null && !FlowBus.containChain(chainId)) {
+			cache.invalidate(elStr);
+			return null;
+		}
+		return chainId;
+	}
+
+	public void put(String elStr, String chainId) {
+		cache.put(elStr, chainId);
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	public long getHitCount() {
+		return cache.stats().hitCount();
+	}
+
+	public long getMissCount() {
+		return cache.stats().missCount();
+	}
+
+	public long getEvictionCount() {
+		return cache.stats().evictionCount();
+	}
+
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+}
@@ -10,7 +10,6 @@ package com.yomahub.liteflow.core;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.ListUtil;
-import cn.hutool.core.lang.Tuple;
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.*;
 import cn.hutool.crypto.digest.MD5;
@@ -27,11 +26,13 @@ import com.yomahub.liteflow.flow.element.Node;
 import com.yomahub.liteflow.flow.element.Rollbackable;
 import com.yomahub.liteflow.flow.entity.CmpStep;
 import com.yomahub.liteflow.flow.id.IdGeneratorHolder;
+import com.yomahub.liteflow.flow.parallel.CompletableFutureExpand;
 import com.yomahub.liteflow.lifecycle.LifeCycleHolder;
 import com.yomahub.liteflow.lifecycle.PostProcessChainExecuteLifeCycle;
 import com.yomahub.liteflow.lifecycle.impl.ChainCacheLifeCycle;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.monitor.MonitorBus;
 import com.yomahub.liteflow.monitor.MonitorFile;
 import com.yomahub.liteflow.parser.base.FlowParser;
 import com.yomahub.liteflow.parser.factory.FlowParserProvider;
@@ -41,15 +42,18 @@ import com.yomahub.liteflow.property.LiteflowConfigGetter;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.DefaultContext;
 import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.spi.holder.ContextAwareHolder;
 import com.yomahub.liteflow.spi.holder.ContextCmpInitHolder;
 import com.yomahub.liteflow.spi.holder.PathContentParserHolder;
 import com.yomahub.liteflow.thread.ExecutorHelper;
+import com.yomahub.liteflow.trace.TraceRecorder;
 import com.yomahub.liteflow.util.ElRegexUtil;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -66,11 +70,22 @@ public class FlowExecutor {
 
 	private LiteflowConfig liteflowConfig;
 
+	// EL字符串到chainId的缓存，第一次调用execute2RespWithEL的时候创建
+	private volatile ElChainCache elChainCache;
+
+	// 表示execute2RespWithEL的缓存没有开启
+	private static final ElChainCache DISABLED_EL_CHAIN_CACHE = new ElChainCache(0);
+
+	// 统计chain的耗时，init的时候从上下文中获取，没有的话不统计
+	private MonitorBus monitorBus;
+
 	public FlowExecutor() {
 		// 设置FlowExecutor的Holder，虽然大部分地方都可以通过Spring上下文获取到，但放入Holder，还是为了某些地方能方便的取到
 		FlowExecutorHolder.setHolder(this);
 		// 初始化DataBus
 		DataBus.init();
+		// 初始化执行轨迹记录
+		TraceRecorder.init();
 	}
 
 	public FlowExecutor(LiteflowConfig liteflowConfig) {
@@ -84,6 +99,8 @@ public class FlowExecutor {
 		}
 		// 初始化DataBus
 		DataBus.init();
+		// 初始化执行轨迹记录
+		TraceRecorder.init();
 	}
 
 	/**
@@ -100,6 +117,10 @@ public class FlowExecutor {
 		// 在非spring体系下是一个空实现，等于不做此步骤
 		ContextCmpInitHolder.loadContextCmpInit().initCmp();
 
+		if (ContextAwareHolder.loadContextAware().hasBean(ChainConstant.MONITOR_BUS)) {
+			this.monitorBus = ContextAwareHolder.loadContextAware().getBean(MonitorBus.class);
+		}
+
 		if (isStart){
 			// 进行id生成器的初始化
 			IdGeneratorHolder.init();
@@ -332,6 +353,13 @@ public class FlowExecutor {
 	 * @return LiteflowResponse
 	 */
 	private LiteflowResponse execute2RespWithEL(String elStr, Object param, String requestId, Class<?>[] contextBeanClazzArray, Object[] contextBeanArray) {
+		// 命中缓存的话，直接执行已经编译好的chain
+		ElChainCache cache = this.getElChainCache();
+		String cachedChainId;
+		if (ObjectUtil.isNotNull(cache) && StrUtil.isNotEmpty(cachedChainId = cache.get(elStr))) {
+			return this.execute2Resp(cachedChainId, param, requestId, contextBeanClazzArray, contextBeanArray);
+		}
+
 		// 规范化 el 表达式
 		String normalizedEl = ElRegexUtil.normalize(elStr);
 
@@ -357,9 +385,34 @@ public class FlowExecutor {
 					.build();
 		}
 
+		if (ObjectUtil.isNotNull(cache)) {
+			cache.put(elStr, chainId);
+		}
+
 		return this.execute2Resp(chainId, param, requestId, contextBeanClazzArray, contextBeanArray);
 	}
 
+	/**
+	 * 取得execute2RespWithEL的EL缓存，可以用来查看命中，未命中以及淘汰的次数
+	 * @return 缓存对象，liteflow.el-cache-capacity小于等于0时返回null
+	 */
+	public ElChainCache getElChainCache() {
+		ElChainCache cache = this.elChainCache;
+		if (ObjectUtil.isNull(cache) && ObjectUtil.isNotNull(liteflowConfig)) {
+			synchronized (this) {
+				cache = this.elChainCache;
+				if (ObjectUtil.isNull(cache)) {
+					Integer capacity = liteflowConfig.getElCacheCapacity();
+					// 没有开启缓存时也记录下来，之后的调用不用再进入同步块
+					cache = ObjectUtil.isNotNull(capacity) && capacity > 0 ? new ElChainCache(capacity)
+							: DISABLED_EL_CHAIN_CACHE;
+					this.elChainCache = cache;
+				}
+			}
+		}
+		return cache == DISABLED_EL_CHAIN_CACHE ? null : cache;
+	}
+
 	public List<LiteflowResponse> executeRouteChain(Object param, Class<?>... contextBeanClazzArray){
 		return this.executeWithRoute(null, param, null, contextBeanClazzArray, null);
 	}
@@ -429,6 +482,38 @@ public class FlowExecutor {
 				.submit(() -> FlowExecutorHolder.loadInstance().execute2RespWithRid(chainId, param, requestId, contextBeanArray));
 	}
 
+	/**
+	 * 异步执行一个流程，返回CompletionStage
+	 * <p>
+	 * 和execute2Future不同，这里不会占用一个线程去等待整个流程执行完。
+	 * 调用线程会一直执行到第一个并行的地方（WHEN，并行的FOR和ITERATOR），之后的部分由完成并行任务的线程接着执行，
+	 * 所以嵌套多少层并行都不会有线程阻塞在等待上。
+	 * 没有并行的流程会在调用线程上同步执行完，返回一个已经完成的CompletionStage
+	 */
+	public CompletionStage<LiteflowResponse> execute2Stage(String chainId) {
+		return this.execute2Stage(chainId, null, DefaultContext.class);
+	}
+
+	public CompletionStage<LiteflowResponse> execute2Stage(String chainId, Object param) {
+		return this.execute2Stage(chainId, param, DefaultContext.class);
+	}
+
+	public CompletionStage<LiteflowResponse> execute2Stage(String chainId, Object param, Class<?>... contextBeanClazzArray) {
+		return this.execute2Stage(chainId, param, null, contextBeanClazzArray, null);
+	}
+
+	public CompletionStage<LiteflowResponse> execute2Stage(String chainId, Object param, Object... contextBeanArray) {
+		return this.execute2Stage(chainId, param, null, null, contextBeanArray);
+	}
+
+	public CompletionStage<LiteflowResponse> execute2StageWithRid(String chainId, Object param, String requestId, Class<?>... contextBeanClazzArray) {
+		return this.execute2Stage(chainId, param, requestId, contextBeanClazzArray, null);
+	}
+
+	public CompletionStage<LiteflowResponse> execute2StageWithRid(String chainId, Object param, String requestId, Object... contextBeanArray) {
+		return this.execute2Stage(chainId, param, requestId, null, contextBeanArray);
+	}
+
 	// 调用一个流程，返回默认的上下文，适用于简单的调用
 	@Deprecated
 	public DefaultContext execute(String chainId, Object param) throws Exception {
@@ -437,7 +522,9 @@ public class FlowExecutor {
 			throw response.getCause();
 		}
 		else {
-			return response.getFirstContextBean();
+			DefaultContext context = response.getFirstContextBean();
+			response.release();
+			return context;
 		}
 	}
 
@@ -447,13 +534,134 @@ public class FlowExecutor {
 		return LiteflowResponse.newMainResponse(slot);
 	}
 
+	private CompletionStage<LiteflowResponse> execute2Stage(String chainId, Object param, String requestId, Class<?>[] contextBeanClazzArray,
+			Object[] contextBeanArray) {
+		try {
+			return doExecuteAsync(chainId, param, requestId, contextBeanClazzArray, contextBeanArray)
+					.thenApply(LiteflowResponse::newMainResponse);
+		}
+		catch (Exception e) {
+			// 分配slot之类的错误，和execute2Future一样以异常结束
+			return CompletableFutureExpand.failedFuture(e);
+		}
+	}
+
 	private List<LiteflowResponse> executeWithRoute(String namespace, Object param, String requestId, Class<?>[] contextBeanClazzArray, Object[] contextBeanArray){
-		List<Slot> slotList = doExecuteWithRoute(namespace, param, requestId, contextBeanClazzArray, contextBeanArray);
-		return slotList.stream().map(LiteflowResponse::newMainResponse).collect(Collectors.toList());
+		if (FlowBus.needInit()) {
+			init(true);
+		}
+
+		if (StrUtil.isBlank(namespace)){
+			namespace = ChainConstant.DEFAULT_NAMESPACE;
+		}
+
+		if (StrUtil.isBlank(requestId)){
+			requestId = IdGeneratorHolder.getInstance().generate();
+		}
+
+		// 决策路由的耗时单独统计
+		long routeStart = System.currentTimeMillis();
+		List<Chain> routeChainList = FlowBus.getRouteChains(namespace);
+		if (CollUtil.isEmpty(routeChainList)){
+			String errorMsg = StrUtil.format("no route found for namespace[{}]", namespace);
+			throw new RouteChainNotFoundException(errorMsg);
+		}
+		List<Chain> matchedRouteChainList = matchRouteChains(routeChainList, param, requestId, contextBeanClazzArray, contextBeanArray);
+		long routeTimeSpent = System.currentTimeMillis() - routeStart;
+
+		if (CollUtil.isEmpty(matchedRouteChainList)){
+			throw new NoMatchedRouteChainException("there is no matched route chain");
+		}
+
+		List<Slot> slotList = doExecuteWithRoute(matchedRouteChainList, param, requestId, contextBeanClazzArray, contextBeanArray);
+
+		LOG.info("chain namespace:[{}], total size:[{}], matched size:[{}], route time spent:[{}]ms", namespace,
+				routeChainList.size(), slotList.size(), routeTimeSpent);
+
+		return slotList.stream().map(slot -> {
+			LiteflowResponse response = LiteflowResponse.newMainResponse(slot);
+			response.setRouteTimeSpent(routeTimeSpent);
+			return response;
+		}).collect(Collectors.toList());
 	}
 
 	private Slot doExecute(String chainId, Object param, String requestId, Class<?>[] contextBeanClazzArray, Object[] contextBeanArray,
 						   ChainExecuteModeEnum chainExecuteModeEnum) {
+		long startNanos = System.nanoTime();
+		Integer slotIndex = this.prepareSlot(chainId, param, requestId, contextBeanClazzArray, contextBeanArray);
+		Slot slot = DataBus.getSlot(slotIndex);
+
+		Chain chain = null;
+		try {
+			chain = FlowBus.getChain(chainId);
+
+			if (ObjectUtil.isNull(chain)) {
+				String errorMsg = StrUtil.format("couldn't find chain with the id[{}]", chainId);
+				throw new ChainNotFoundException(errorMsg);
+			}
+			// 根据chain执行模式执行chain
+			if (chainExecuteModeEnum.equals(ChainExecuteModeEnum.BODY)){
+				chain.execute(slotIndex);
+			}else if(chainExecuteModeEnum.equals(ChainExecuteModeEnum.ROUTE)){
+				chain.executeRoute(slotIndex);
+			}else{
+				throw new LiteFlowException("chain execute mode error");
+			}
+		}
+		catch (Exception e) {
+			this.handleChainException(chain, slot, slotIndex, e);
+		}
+		finally {
+			// 决策路由的执行不算作chain的执行
+			if (chainExecuteModeEnum.equals(ChainExecuteModeEnum.BODY)) {
+				this.recordChainStatistics(chainId, slot, startNanos);
+			}
+			this.finishSlot(chainId, slot, slotIndex);
+		}
+		return slot;
+	}
+
+	// 异步执行chain，当前线程只负责开始执行，chain执行完成之后的收尾工作在完成chain的线程上进行
+	private CompletableFuture<Slot> doExecuteAsync(String chainId, Object param, String requestId, Class<?>[] contextBeanClazzArray,
+												   Object[] contextBeanArray) {
+		long startNanos = System.nanoTime();
+		Integer slotIndex = this.prepareSlot(chainId, param, requestId, contextBeanClazzArray, contextBeanArray);
+		Slot slot = DataBus.getSlot(slotIndex);
+
+		Chain chain = FlowBus.getChain(chainId);
+		CompletableFuture<Void> future;
+		if (ObjectUtil.isNull(chain)) {
+			String errorMsg = StrUtil.format("couldn't find chain with the id[{}]", chainId);
+			future = CompletableFutureExpand.failedFuture(new ChainNotFoundException(errorMsg));
+		}
+		else {
+			future = chain.executeAsync(slotIndex);
+		}
+		// 开始执行的线程不再需要requestId了，收尾的时候会在完成chain的线程上重新设置
+		LFLoggerManager.removeRequestId();
+
+		return future.handle((v, ex) -> {
+			LFLoggerManager.setRequestId(slot.getRequestId());
+			Throwable cause = CompletableFutureExpand.unwrap(ex);
+			try {
+				if (cause instanceof Exception) {
+					this.handleChainException(chain, slot, slotIndex, (Exception) cause);
+				}
+			}
+			finally {
+				this.recordChainStatistics(chainId, slot, startNanos);
+				this.finishSlot(chainId, slot, slotIndex);
+			}
+			// 和同步执行一样，Error不做处理，直接抛出
+			if (ObjectUtil.isNotNull(cause) && !(cause instanceof Exception)) {
+				throw new CompletionException(cause);
+			}
+			return slot;
+		});
+	}
+
+	// 分配slot，并且在slot中设置好requestId以及入参
+	private Integer prepareSlot(String chainId, Object param, String requestId, Class<?>[] contextBeanClazzArray, Object[] contextBeanArray) {
 		if (FlowBus.needInit()) {
 			init(true);
 		}
@@ -495,73 +703,71 @@ public class FlowExecutor {
 
 		LOG.info("slot[{}] offered", slotIndex);
 
+		TraceRecorder.startTrace(slot, chainId);
+
 		if (ObjectUtil.isNotNull(param)) {
 			slot.setChainReqData(chainId, param);
 		}
+		return slotIndex;
+	}
 
-		Chain chain = null;
-		try {
-			chain = FlowBus.getChain(chainId);
-
-			if (ObjectUtil.isNull(chain)) {
-				String errorMsg = StrUtil.format("couldn't find chain with the id[{}]", chainId);
-				throw new ChainNotFoundException(errorMsg);
-			}
-			// 根据chain执行模式执行chain
-			if (chainExecuteModeEnum.equals(ChainExecuteModeEnum.BODY)){
-				chain.execute(slotIndex);
-			}else if(chainExecuteModeEnum.equals(ChainExecuteModeEnum.ROUTE)){
-				chain.executeRoute(slotIndex);
-			}else{
-				throw new LiteFlowException("chain execute mode error");
-			}
-		}
-		catch (ChainEndException e) {
+	// chain执行出错的处理，ChainEndException为用户主动结束，不作为异常处理，其他的异常需要进行回滚
+	private void handleChainException(Chain chain, Slot slot, Integer slotIndex, Exception e) {
+		if (e instanceof ChainEndException) {
 			if (ObjectUtil.isNotNull(chain)) {
 				String warnMsg = StrUtil.format("chain[{}] execute end on slot[{}]", chain.getChainId(), slotIndex);
 				LOG.warn(warnMsg);
 			}
+			return;
 		}
-		catch (Exception e) {
-			if (ObjectUtil.isNotNull(chain)) {
-				String errMsg = StrUtil.format("chain[{}] execute error on slot[{}]", chain.getChainId(), slotIndex);
-				LOG.error(errMsg, e);
-			}
-			else {
-				LOG.error(e.getMessage(), e);
-			}
 
-			slot.setException(e);
-			Deque<CmpStep> executeSteps = slot.getExecuteSteps();
-			try {
-				Iterator<CmpStep> cmpStepIterator = executeSteps.descendingIterator();
-				while(cmpStepIterator.hasNext()) {
-					CmpStep cmpStep = cmpStepIterator.next();
-					if(cmpStep.getInstance().isRollback()) {
-						Rollbackable rollbackItem = cmpStep.getRefNode();
-						rollbackItem.rollback(slotIndex);
-					}
+		if (ObjectUtil.isNotNull(chain)) {
+			String errMsg = StrUtil.format("chain[{}] execute error on slot[{}]", chain.getChainId(), slotIndex);
+			LOG.error(errMsg, e);
+		}
+		else {
+			LOG.error(e.getMessage(), e);
+		}
+
+		slot.setException(e);
+		Deque<CmpStep> executeSteps = slot.getExecuteSteps();
+		try {
+			Iterator<CmpStep> cmpStepIterator = executeSteps.descendingIterator();
+			while(cmpStepIterator.hasNext()) {
+				CmpStep cmpStep = cmpStepIterator.next();
+				if(cmpStep.getInstance().isRollback()) {
+					Rollbackable rollbackItem = cmpStep.getRefNode();
+					rollbackItem.rollback(slotIndex);
 				}
-			} catch (Exception exception) {
-				LOG.error(exception.getMessage());
-			}
-			finally {
-				slot.printRollbackStep();
 			}
+		} catch (Exception exception) {
+			LOG.error(exception.getMessage());
 		}
 		finally {
-			slot.printStep();
-			DataBus.releaseSlot(slotIndex);
-			LFLoggerManager.removeRequestId();
+			slot.printRollbackStep();
+		}
+	}
 
-			// 如果有FlowExecute生命周期实现，则执行
-			if (CollUtil.isNotEmpty(LifeCycleHolder.getPostProcessFlowExecuteLifeCycleList())){
-				LifeCycleHolder.getPostProcessFlowExecuteLifeCycleList().forEach(
-						postProcessFlowExecuteLifeCycle -> postProcessFlowExecuteLifeCycle.postProcessAfterFlowExecute(chainId, slot)
-				);
-			}
+	// 记录整个chain的耗时，要在回收slot之前取异常
+	private void recordChainStatistics(String chainId, Slot slot, long startNanos) {
+		if (ObjectUtil.isNotNull(monitorBus)) {
+			monitorBus.recordChainStatistics(chainId, System.nanoTime() - startNanos, slot.getException() == null);
+		}
+	}
+
+	// chain执行完成之后的收尾工作，回收slot
+	private void finishSlot(String chainId, Slot slot, Integer slotIndex) {
+		TraceRecorder.endTrace(slot, chainId);
+		slot.printStep();
+		DataBus.releaseSlot(slotIndex);
+		LFLoggerManager.removeRequestId();
+
+		// 如果有FlowExecute生命周期实现，则执行
+		if (CollUtil.isNotEmpty(LifeCycleHolder.getPostProcessFlowExecuteLifeCycleList())){
+			LifeCycleHolder.getPostProcessFlowExecuteLifeCycleList().forEach(
+					postProcessFlowExecuteLifeCycle -> postProcessFlowExecuteLifeCycle.postProcessAfterFlowExecute(chainId, slot)
+			);
 		}
-		return slot;
 	}
 
 	public LiteflowConfig getLiteflowConfig() {
@@ -584,69 +790,81 @@ public class FlowExecutor {
 		MonitorFile.getInstance().addMonitorFilePaths(fileAbsolutePath);
 	}
 
-	private List<Slot> doExecuteWithRoute(String namespace, Object param, String requestId, Class<?>[] contextBeanClazzArray, Object[] contextBeanArray){
-		if (FlowBus.needInit()) {
-			init(true);
+	/**
+	 * 在WHEN线程池中并行执行各个chain的route，按照route chain的注册顺序得到匹配的chain
+	 * 每个route都使用一个新的slot和新的上下文，route之间的异常以及对上下文的修改不会互相影响。
+	 * 这些slot只用来计算route的结果，不会执行FlowExecute的生命周期，用完直接归还到slot池。
+	 * 按顺序匹配的数量达到了routeMatchLimit之后就直接返回，剩下还没有开始执行的route会被取消
+	 */
+	private List<Chain> matchRouteChains(List<Chain> routeChainList, Object param, String requestId,
+										 Class<?>[] contextBeanClazzArray, Object[] contextBeanArray) {
+		int matchLimit = liteflowConfig.getRouteMatchLimit();
+		List<CompletableFuture<Boolean>> routeCfList = new ArrayList<>(routeChainList.size());
+		for (Chain routeChain : routeChainList) {
+			routeCfList.add(CompletableFuture.supplyAsync(
+					() -> matchRoute(routeChain, param, requestId, contextBeanClazzArray, contextBeanArray),
+					ExecutorHelper.loadInstance().buildWhenExecutor()));
 		}
 
-		if (StrUtil.isBlank(namespace)){
-			namespace = ChainConstant.DEFAULT_NAMESPACE;
+		List<Chain> matchedRouteChainList = new ArrayList<>();
+		try {
+			// 按照注册顺序取结果，保证匹配的数量有限制时，得到的总是排在前面的chain
+			for (int i = 0; i < routeCfList.size(); i++) {
+				if (routeCfList.get(i).join()) {
+					matchedRouteChainList.add(routeChainList.get(i));
+					if (matchLimit > 0 && matchedRouteChainList.size() >= matchLimit) {
+						break;
+					}
+				}
+			}
 		}
-
-		String finalNamespace = namespace;
-		List<Chain> routeChainList = FlowBus.getChainMap().values().stream()
-				.filter(chain -> chain.getNamespace().equals(finalNamespace))
-				.filter(chain -> chain.getRouteItem() != null).collect(Collectors.toList());
-
-		if (CollUtil.isEmpty(routeChainList)){
-			String errorMsg = StrUtil.format("no route found for namespace[{}]", finalNamespace);
-			throw new RouteChainNotFoundException(errorMsg);
+		catch (CompletionException e) {
+			// 只有获取不到slot的时候才会抛出异常，route本身的异常视为不匹配
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
 		}
-
-		String finalRequestId;
-		if (StrUtil.isBlank(requestId)){
-			finalRequestId = IdGeneratorHolder.getInstance().generate();
-		}else{
-			finalRequestId = requestId;
+		finally {
+			// 已经执行的route会各自归还slot，这里只取消还没有开始执行的route
+			routeCfList.forEach(routeCf -> routeCf.cancel(false));
 		}
+		return matchedRouteChainList;
+	}
 
-		// 异步执行route el
-		List<Tuple> routeTupleList = new ArrayList<>();
-		for (Chain routeChain : routeChainList){
-			CompletableFuture<Slot> f = CompletableFuture.supplyAsync(
-                    () -> doExecute(routeChain.getChainId(), param, finalRequestId, contextBeanClazzArray, contextBeanArray, ChainExecuteModeEnum.ROUTE),
-					ExecutorHelper.loadInstance().buildWhenExecutor()
-			);
-
-			routeTupleList.add(new Tuple(routeChain, f));
+	private boolean matchRoute(Chain routeChain, Object param, String requestId, Class<?>[] contextBeanClazzArray,
+							   Object[] contextBeanArray) {
+		int slotIndex;
+		if (ArrayUtil.isNotEmpty(contextBeanClazzArray)) {
+			slotIndex = DataBus.offerSlotByClass(ListUtil.toList(contextBeanClazzArray));
 		}
-
-		CompletableFuture<?> resultRouteCf = CompletableFuture.allOf(routeTupleList.stream().map(
-				(Function<Tuple, CompletableFuture<?>>) tuple -> tuple.get(1)
-		).collect(Collectors.toList()).toArray(new CompletableFuture[] {}));
-		try{
-			resultRouteCf.get();
-		}catch (Exception e){
-			throw new LiteFlowException("There is An error occurred while executing the route.", e);
+		else {
+			slotIndex = DataBus.offerSlotByBean(ListUtil.toList(contextBeanArray));
 		}
-
-		// 把route执行为true都过滤出来
-		List<Chain> matchedRouteChainList = routeTupleList.stream().filter(tuple -> {
-			try{
-				CompletableFuture<Slot> f = tuple.get(1);
-				Slot slot = f.get();
-				return BooleanUtil.isTrue(slot.getRouteResult());
-			}catch (Exception e){
-				return false;
+		if (slotIndex == -1) {
+			throw new NoAvailableSlotException("there is no available slot");
+		}
+		LFLoggerManager.setRequestId(requestId);
+		Slot slot = DataBus.getSlot(slotIndex);
+		try {
+			slot.putRequestId(requestId);
+			if (ObjectUtil.isNotNull(param)) {
+				slot.setChainReqData(routeChain.getChainId(), param);
 			}
-		}).map(
-				(Function<Tuple, Chain>) tuple -> tuple.get(0)
-		).collect(Collectors.toList());
-
-		if (CollUtil.isEmpty(matchedRouteChainList)){
-			throw new NoMatchedRouteChainException("there is no matched route chain");
+			routeChain.executeRoute(slotIndex);
+			return BooleanUtil.isTrue(slot.getRouteResult());
+		}
+		catch (Exception e) {
+			// 和之前一样，route执行出错视为不匹配
+			LOG.error(StrUtil.format("chain[{}] execute route error", routeChain.getChainId()), e);
+			return false;
+		}
+		finally {
+			DataBus.releaseSlot(slotIndex);
+			DataBus.recycleSlot(slot);
+			LFLoggerManager.removeRequestId();
 		}
+	}
 
+	private List<Slot> doExecuteWithRoute(List<Chain> matchedRouteChainList, Object param, String finalRequestId,
+										  Class<?>[] contextBeanClazzArray, Object[] contextBeanArray){
 		// 异步分别执行这些chain
 		List<CompletableFuture<Slot>> executeChainCfList = new ArrayList<>();
 		for (Chain chain : matchedRouteChainList){
@@ -665,17 +883,13 @@ public class FlowExecutor {
 		}
 
 
-		List<Slot> resultSlotList = executeChainCfList.stream().map(slotCompletableFuture -> {
+		return executeChainCfList.stream().map(slotCompletableFuture -> {
 			try{
 				return slotCompletableFuture.get();
 			}catch (Exception e){
 				return null;
 			}
 		}).filter(Objects::nonNull).collect(Collectors.toList());
-
-		LOG.info("chain namespace:[{}], total size:[{}], matched size:[{}]", namespace, routeChainList.size(), resultSlotList.size());
-
-		return resultSlotList;
 	}
 
 	private void initChainCache() {
@@ -13,7 +13,7 @@ public abstract class NodeBooleanComponent extends NodeComponent {
 	@Override
 	public void process() throws Exception {
 		boolean result = this.processBoolean();
-		this.getSlot().setIfResult(this.getMetaValueKey(), result);
+		this.getSlot().setIfResult(this.getMetaValueIntKey(), result);
 	}
 
 	public abstract boolean processBoolean() throws Exception;
@@ -21,6 +21,6 @@ public abstract class NodeBooleanComponent extends NodeComponent {
 	@Override
 	@SuppressWarnings("unchecked")
 	public Boolean getItemResultMetaValue(Integer slotIndex) {
-		return DataBus.getSlot(slotIndex).getIfResult(this.getMetaValueKey());
+		return DataBus.getSlot(slotIndex).getIfResult(this.getMetaValueIntKey());
 	}
 }
@@ -9,6 +9,7 @@ package com.yomahub.liteflow.core;
 
 import cn.hutool.core.date.StopWatch;
 import cn.hutool.core.lang.Tuple;
+import cn.hutool.core.util.BooleanUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.ReUtil;
 import cn.hutool.core.util.StrUtil;
@@ -16,6 +17,7 @@ import com.yomahub.liteflow.common.ChainConstant;
 import com.yomahub.liteflow.core.proxy.LiteFlowProxyUtil;
 import com.yomahub.liteflow.enums.CmpStepTypeEnum;
 import com.yomahub.liteflow.enums.NodeTypeEnum;
+import com.yomahub.liteflow.enums.StepRecordModeEnum;
 import com.yomahub.liteflow.exception.ObjectConvertException;
 import com.yomahub.liteflow.flow.FlowBus;
 import com.yomahub.liteflow.flow.LiteflowResponse;
@@ -23,20 +25,26 @@ import com.yomahub.liteflow.flow.element.Node;
 import com.yomahub.liteflow.flow.entity.CmpStep;
 import com.yomahub.liteflow.flow.executor.DefaultNodeExecutor;
 import com.yomahub.liteflow.flow.executor.NodeExecutor;
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
-import com.yomahub.liteflow.monitor.CompStatistics;
 import com.yomahub.liteflow.monitor.MonitorBus;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.retry.RetryBudget;
+import com.yomahub.liteflow.retry.RetryPolicy;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.slot.SlotKeyRegistry;
 import com.yomahub.liteflow.spi.holder.CmpAroundAspectHolder;
+import com.yomahub.liteflow.trace.TraceRecorder;
 import com.yomahub.liteflow.util.JsonUtil;
 import com.yomahub.liteflow.util.LiteflowContextRegexMatcher;
 
 import java.lang.reflect.Method;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -73,9 +81,18 @@ public abstract class NodeComponent{
 	// 在目标异常抛出时才重试
 	private Class<? extends Exception>[] retryForExceptions = new Class[] { Exception.class };
 
+	// 重试的退避和预算策略，为null的时候立即重试并且不限制重试次数
+	private RetryPolicy retryPolicy;
+
+	// 这个组件的重试预算，所有请求共用
+	private RetryBudget retryBudget;
+
 	/** 节点执行器的类全名 */
 	private Class<? extends NodeExecutor> nodeExecutorClass = DefaultNodeExecutor.class;
 
+	// getMetaValueKey()对应的整数key，-1表示还没有注册
+	private int metaValueIntKey = -1;
+
 	/** 当前对象为单例，注册进spring上下文，但是node实例不是单例，这里通过对node实例的引用来获得一些链路属性 **/
 
 	private final ThreadLocal<Stack<Node>> refNodeStackTL = new ThreadLocal<>();
@@ -92,19 +109,22 @@ public abstract class NodeComponent{
 	}
 
 	public void execute() throws Exception {
+		// 每次执行(包括重试)都计数一次，作为执行轨迹中的重试次数
+		TraceRecorder.attempt();
 		Slot slot = this.getSlot();
+		StepRecordModeEnum stepRecordMode = slot.getStepRecordMode();
 
-		// 在元数据里加入step信息
-		CmpStep cmpStep = new CmpStep(nodeId, name, CmpStepTypeEnum.SINGLE);
-		cmpStep.setTag(this.getTag());
-		cmpStep.setInstance(this);
-		cmpStep.setRefNode(this.getRefNode());
-		cmpStep.setStartTime(new Date());
-		cmpStep.setThreadName(Thread.currentThread().getName());
-		slot.addStep(cmpStep);
+		// 在元数据里加入step信息，只有FULL模式在开始的时候就加入，其他模式在结束的时候按需要加入
+		CmpStep cmpStep = null;
+		if (stepRecordMode == StepRecordModeEnum.FULL) {
+			cmpStep = buildStep();
+			slot.addStep(cmpStep);
+		}
 
-		StopWatch stopWatch = new StopWatch();
-		stopWatch.start();
+		long startTime = System.currentTimeMillis();
+		long startNanos = System.nanoTime();
+		boolean success = false;
+		Exception exception = null;
 
 		try {
 			LOG.info("[O]start component[{}] execution", self.getDisplayName());
@@ -119,12 +139,11 @@ public abstract class NodeComponent{
 			self.onSuccess();
 
 			// 步骤状态设为true
-			cmpStep.setSuccess(true);
+			success = true;
 		}
 		catch (Exception e) {
 			// 步骤状态设为false，并加入异常
-			cmpStep.setSuccess(false);
-			cmpStep.setException(e);
+			exception = e;
 
 			// 执行失败后回调方法
 			// 这里要注意，失败方法本身抛出错误，只打出堆栈，往外抛出的还是主要的异常
@@ -141,27 +160,60 @@ public abstract class NodeComponent{
 			// 后置处理
 			self.afterProcess();
 
-			stopWatch.stop();
-			final long timeSpent = stopWatch.getTotalTimeMillis();
+			final long timeSpentNanos = System.nanoTime() - startNanos;
+			final long timeSpent = TimeUnit.NANOSECONDS.toMillis(timeSpentNanos);
 			LOG.info("component[{}] finished in {} milliseconds", this.getDisplayName(), timeSpent);
 
-			// 步骤自定义数据设置
-			cmpStep.setStepData(this.getRefNode().getStepData());
-
-			// 结束时间设置
-			cmpStep.setEndTime(new Date());
+			// 没有在开始时记录步骤的模式下，失败的步骤(ERROR_ONLY)以及需要回滚的步骤要补上，回滚是根据步骤来进行的
+			if (cmpStep == null && ((stepRecordMode == StepRecordModeEnum.ERROR_ONLY && !success) || this.isRollback())) {
+				cmpStep = buildStep();
+				slot.addStep(cmpStep);
+			}
 
-			// 往CmpStep中放入时间消耗信息
-			cmpStep.setTimeSpent(timeSpent);
+			if (cmpStep != null) {
+				cmpStep.setStartTimeMillis(startTime);
+				cmpStep.setSuccess(success);
+				cmpStep.setException(exception);
+
+				// 步骤自定义数据设置
+				cmpStep.setStepData(this.getRefNode().getStepData());
+
+				// 结束时间设置
+				cmpStep.setEndTimeMillis(startTime + timeSpent);
+
+				// 往CmpStep中放入时间消耗信息
+				cmpStep.setTimeSpent(timeSpent);
+
+				// 关键路径分析需要的纳秒时间以及所在的并行分支
+				if (slot.isStepAnalysis()) {
+					cmpStep.setStartNanos(startNanos);
+					cmpStep.setEndNanos(startNanos + timeSpentNanos);
+					ParallelSupplier branch = ParallelSupplier.getCurrent();
+					if (branch != null) {
+						cmpStep.setBranchId(branch.getExecutableItem().getId());
+						cmpStep.setBranchSubmitNanos(branch.getSubmitNanos());
+						cmpStep.setBranchStartNanos(branch.getStartNanos());
+					}
+				}
+			}
 
 			// 性能统计
 			if (ObjectUtil.isNotNull(monitorBus)) {
-				CompStatistics statistics = new CompStatistics(this.getClass().getSimpleName(), timeSpent);
-				monitorBus.addStatistics(statistics);
+				monitorBus.recordStatistics(this.getNodeId(), this.getCurrChainId(), timeSpentNanos, success);
 			}
 		}
 	}
 
+	private CmpStep buildStep() {
+		CmpStep cmpStep = new CmpStep(nodeId, name, CmpStepTypeEnum.SINGLE);
+		cmpStep.setTag(this.getTag());
+		cmpStep.setInstance(this);
+		cmpStep.setRefNode(this.getRefNode());
+		cmpStep.setStartTimeMillis(System.currentTimeMillis());
+		cmpStep.setThreadName(Thread.currentThread().getName());
+		return cmpStep;
+	}
+
 	public void doRollback() throws Exception {
 		Slot slot = this.getSlot();
 
@@ -250,6 +302,14 @@ public abstract class NodeComponent{
 		this.getRefNode().setIsEnd(isEnd);
 	}
 
+	/**
+	 * 所在的并行分支是否已经被取消(超时或者并行策略已经提前完成)
+	 * 耗时较长的组件可以在循环或者分批处理的时候检查这个状态，及时退出，被取消之后对slot的写入都会被忽略
+	 */
+	public boolean isCancelled() {
+		return ParallelSupplier.isCurrentCancelled();
+	}
+
 	public void setIsContinueOnError(boolean isContinueOnError) {
 		this.getRefNode().setIsContinueOnErrorResult(isContinueOnError);
 	}
@@ -330,6 +390,19 @@ public abstract class NodeComponent{
 		this.retryForExceptions = retryForExceptions;
 	}
 
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		this.retryBudget = retryPolicy == null ? null : retryPolicy.newBudget();
+	}
+
+	public RetryBudget getRetryBudget() {
+		return retryBudget;
+	}
+
 	public Class<? extends NodeExecutor> getNodeExecutorClass() {
 		return nodeExecutorClass;
 	}
@@ -417,7 +490,7 @@ public abstract class NodeComponent{
 	}
 
 	/**
-	 *
+	 * 开启了enableNodeDataCache时，返回的对象会被这个节点所有的执行共用，不能修改
 	 * @param clazz 要转换的class类型
 	 * @return data对象
 	 * @param <T> data的泛型
@@ -430,6 +503,9 @@ public abstract class NodeComponent{
 		if (clazz.equals(String.class) || clazz.equals(Object.class)) {
 			return (T) cmpData;
 		}
+		if (isNodeDataCacheEnabled()) {
+			return getRefNode().getParsedData(null, cmpData, clazz, false, () -> JsonUtil.parseObject(cmpData, clazz));
+		}
 		return JsonUtil.parseObject(cmpData, clazz);
 	}
 
@@ -438,6 +514,10 @@ public abstract class NodeComponent{
 		if (StrUtil.isBlank(cmpData)) {
 			return null;
 		}
+		if (isNodeDataCacheEnabled()) {
+			return getRefNode().getParsedData(null, cmpData, clazz, true,
+					() -> Collections.unmodifiableList(JsonUtil.parseList(cmpData, clazz)));
+		}
 		return JsonUtil.parseList(cmpData, clazz);
 	}
 
@@ -469,6 +549,9 @@ public abstract class NodeComponent{
 			if (clazz.equals(String.class) || clazz.equals(Object.class)) {
 				return (T) bindData;
 			}
+			if (isNodeDataCacheEnabled()) {
+				return getRefNode().getParsedData(key, bindData, clazz, false, () -> JsonUtil.parseObject(bindData, clazz));
+			}
 			return JsonUtil.parseObject(bindData, clazz);
 		}
 	}
@@ -478,9 +561,17 @@ public abstract class NodeComponent{
 		if (StrUtil.isBlank(bindData)) {
 			return null;
 		}
+		if (isNodeDataCacheEnabled()) {
+			return getRefNode().getParsedData(key, bindData, clazz, true,
+					() -> Collections.unmodifiableList(JsonUtil.parseList(bindData, clazz)));
+		}
 		return JsonUtil.parseList(bindData, clazz);
 	}
 
+	private boolean isNodeDataCacheEnabled() {
+		return BooleanUtil.isTrue(LiteflowConfigGetter.get().getEnableNodeDataCache());
+	}
+
 	@SuppressWarnings("unchecked")
 	public <T> T getContextValue(String expression){
 		return (T)LiteflowContextRegexMatcher.searchContext(this.getSlot().getContextBeanList(), expression);
@@ -531,6 +622,18 @@ public abstract class NodeComponent{
 		return originalClass.getName();
 	}
 
+	/**
+	 * getMetaValueKey()对应的整数key，第一次调用的时候注册，之后直接返回缓存的值
+	 */
+	protected int getMetaValueIntKey(){
+		int key = this.metaValueIntKey;
+		if (key < 0) {
+			key = SlotKeyRegistry.keyOf(this.getMetaValueKey());
+			this.metaValueIntKey = key;
+		}
+		return key;
+	}
+
 	public LiteflowResponse invoke2Resp(String chainId, Object requestData){
 		return invoke2Resp(chainId, requestData, this.getSlot());
 	}
@@ -16,7 +16,7 @@ public abstract class NodeForComponent extends NodeComponent {
 	public void process() throws Exception {
 		int forCount = processFor();
 		Slot slot = this.getSlot();
-		slot.setForResult(this.getMetaValueKey(), forCount);
+		slot.setForResult(this.getMetaValueIntKey(), forCount);
 	}
 
 	public abstract int processFor() throws Exception;
@@ -24,7 +24,7 @@ public abstract class NodeForComponent extends NodeComponent {
 	@Override
 	@SuppressWarnings("unchecked")
 	public Integer getItemResultMetaValue(Integer slotIndex) {
-		return DataBus.getSlot(slotIndex).getForResult(this.getMetaValueKey());
+		return DataBus.getSlot(slotIndex).getForResult(this.getMetaValueIntKey());
 	}
 
 }
@@ -18,7 +18,7 @@ public abstract class NodeIteratorComponent extends NodeComponent {
 	public void process() throws Exception {
 		Iterator<?> it = processIterator();
 		Slot slot = this.getSlot();
-		slot.setIteratorResult(this.getMetaValueKey(), it);
+		slot.setIteratorResult(this.getMetaValueIntKey(), it);
 	}
 
 	public abstract Iterator<?> processIterator() throws Exception;
@@ -26,7 +26,7 @@ public abstract class NodeIteratorComponent extends NodeComponent {
 	@Override
 	@SuppressWarnings("unchecked")
 	public Iterator<?> getItemResultMetaValue(Integer slotIndex) {
-		return DataBus.getSlot(slotIndex).getIteratorResult(this.getMetaValueKey());
+		return DataBus.getSlot(slotIndex).getIteratorResult(this.getMetaValueIntKey());
 	}
 
 }
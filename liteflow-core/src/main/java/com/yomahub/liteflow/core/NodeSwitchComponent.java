@@ -29,7 +29,7 @@ public abstract class NodeSwitchComponent extends NodeComponent {
 	@Override
 	public void process() throws Exception {
 		String nodeId = this.processSwitch();
-		this.getSlot().setSwitchResult(this.getMetaValueKey(), nodeId);
+		this.getSlot().setSwitchResult(this.getMetaValueIntKey(), nodeId);
 	}
 
 	// 用以返回路由节点的beanId
@@ -38,7 +38,7 @@ public abstract class NodeSwitchComponent extends NodeComponent {
 	@Override
 	@SuppressWarnings("unchecked")
 	public String getItemResultMetaValue(Integer slotIndex) {
-		return DataBus.getSlot(slotIndex).getSwitchResult(this.getMetaValueKey());
+		return DataBus.getSlot(slotIndex).getSwitchResult(this.getMetaValueIntKey());
 	}
 
 	public List<String> getTargetList(){
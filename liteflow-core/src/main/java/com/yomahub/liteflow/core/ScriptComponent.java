@@ -1,10 +1,12 @@
 package com.yomahub.liteflow.core;
 
 import com.yomahub.liteflow.enums.NodeTypeEnum;
+import com.yomahub.liteflow.flow.element.Node;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * 脚本接口
@@ -33,7 +35,15 @@ public interface ScriptComponent {
 	void loadScript(String script, String language);
 
 	default ScriptExecuteWrap buildWrap(NodeComponent thisCmp) {
-		ScriptExecuteWrap wrap = new ScriptExecuteWrap();
+		// 一次节点执行中isAccess、beforeProcess、process、onSuccess等方法共用同一个wrap
+		Node refNode = thisCmp.getRefNode();
+		ScriptExecuteWrap wrap = refNode.getScriptWrap();
+		if (wrap != null && wrap.getSlotIndex() == thisCmp.getSlotIndex()
+				&& Objects.equals(wrap.getLoopIndex(), thisCmp.getLoopIndex())
+				&& wrap.getLoopObject() == thisCmp.getCurrLoopObj()) {
+			return wrap;
+		}
+		wrap = new ScriptExecuteWrap();
 		wrap.setCurrChainId(thisCmp.getCurrChainId());
 		wrap.setNodeId(thisCmp.getNodeId());
 		wrap.setSlotIndex(thisCmp.getSlotIndex());
@@ -42,6 +52,7 @@ public interface ScriptComponent {
 		wrap.setLoopObject(thisCmp.getCurrLoopObj());
 		wrap.setCmpData(thisCmp.getCmpData(Map.class));
 		wrap.setCmp(thisCmp);
+		refNode.setScriptWrap(wrap);
 		return wrap;
 	}
 
@@ -1,10 +1,8 @@
 package com.yomahub.liteflow.core.proxy;
 
 import cn.hutool.core.collection.ListUtil;
-import cn.hutool.core.exceptions.InvocationTargetRuntimeException;
 import cn.hutool.core.lang.Tuple;
 import cn.hutool.core.util.ArrayUtil;
-import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.core.util.StrUtil;
 import com.ql.util.express.DefaultContext;
 import com.ql.util.express.ExpressRunner;
@@ -12,6 +10,7 @@ import com.ql.util.express.InstructionSet;
 import com.yomahub.liteflow.annotation.LiteflowMethod;
 import com.yomahub.liteflow.annotation.LiteflowRetry;
 import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.enums.LiteFlowMethodEnum;
 import com.yomahub.liteflow.exception.ComponentMethodDefineErrorException;
 import com.yomahub.liteflow.exception.LiteFlowException;
 import com.yomahub.liteflow.exception.ParameterFactException;
@@ -23,22 +22,26 @@ import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.util.LiteflowContextRegexMatcher;
 import com.yomahub.liteflow.util.SerialsUtil;
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
 import net.bytebuddy.implementation.InvocationHandlerAdapter;
 import net.bytebuddy.matcher.ElementMatchers;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * 声明式组件的代理核心生成类
@@ -88,12 +91,15 @@ public class DeclComponentProxy {
             // 这里package进行了重设，放到了被代理对象的所在目录
             // 生成的对象也加了上被代理对象拥有的注解
             // 被拦截的对象也根据被代理对象根据@LiteFlowMethod所标注的进行了动态判断
-            Object instance = new ByteBuddy().subclass(declWarpBean.getNodeType().getMappingClazz())
+            DynamicType.Builder<? extends NodeComponent> builder = new ByteBuddy().subclass(declWarpBean.getNodeType().getMappingClazz())
                     .name(StrUtil.format("{}$ByteBuddy${}${}", declWarpBean.getRawClazz().getName(), declWarpBean.getNodeId(), SerialsUtil.generateShortUUID()))
-                    .implement(declWarpBean.getRawClazz().getInterfaces())
-                    .method(ElementMatchers.namedOneOf(declWarpBean.getMethodWrapBeanList().stream().map(wrap -> wrap.getLiteflowMethod().value().getMethodName()).toArray(String[]::new)))
-                    .intercept(InvocationHandlerAdapter.of(new AopInvocationHandler(declWarpBean)))
-                    .annotateType(beanClassAnnotation)
+                    .implement(declWarpBean.getRawClazz().getInterfaces());
+            // 每个被代理的方法都绑定自己的InvocationHandler，调用的时候不需要再根据方法名去查找
+            for (Map.Entry<LiteFlowMethodEnum, AopInvocationHandler> entry : buildDispatchTable().entrySet()) {
+                builder = builder.method(ElementMatchers.named(entry.getKey().getMethodName()))
+                        .intercept(InvocationHandlerAdapter.of(entry.getValue()));
+            }
+            Object instance = builder.annotateType(beanClassAnnotation)
                     .make()
                     .load(DeclComponentProxy.class.getClassLoader(), ClassLoadingStrategy.Default.INJECTION)
                     .getLoaded()
@@ -110,79 +116,121 @@ public class DeclComponentProxy {
         }
     }
 
+    /**
+     * 在生成代理的时候就把每个@LiteflowMethod方法解析成MethodHandle，同一个方法声明了多次的话，和之前一样取第一个
+     */
+    private Map<LiteFlowMethodEnum, AopInvocationHandler> buildDispatchTable() throws IllegalAccessException {
+        Map<LiteFlowMethodEnum, AopInvocationHandler> dispatchTable = new EnumMap<>(LiteFlowMethodEnum.class);
+        for (MethodWrapBean methodWrapBean : declWarpBean.getMethodWrapBeanList()) {
+            LiteFlowMethodEnum methodEnum = methodWrapBean.getLiteflowMethod().value();
+            if (!dispatchTable.containsKey(methodEnum)) {
+                dispatchTable.put(methodEnum, new AopInvocationHandler(methodWrapBean));
+            }
+        }
+        return dispatchTable;
+    }
+
     public class AopInvocationHandler implements InvocationHandler {
 
-        private final DeclWarpBean declWarpBean;
+        private final MethodWrapBean methodWrapBean;
 
-        public AopInvocationHandler(DeclWarpBean declWarpBean) {
-            this.declWarpBean = declWarpBean;
-        }
+        // 方法定义不合法时的错误信息，为null表示合法
+        private final String defineErrorMsg;
 
-        @Override
-        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            // 获取当前调用方法，是否在被代理的对象方法里面(根据@LiteFlowMethod这个标注去判断)
-            // 如果在里面，则返回那个LiteFlowMethodBean，不在则返回null
-            MethodWrapBean currentMethodWrapBean = declWarpBean.getMethodWrapBeanList().stream()
-                    .filter(methodWrapBean -> methodWrapBean.getLiteflowMethod().value().getMethodName().equals(method.getName()))
-                    .findFirst()
-                    .orElse(null);
-
-            if (currentMethodWrapBean == null){
-                throw new ProxyException("currentMethodWrapBean is null");
-            }
+        // 调用被代理对象方法的句柄，类型为(Object bean, Object[] args)Object
+        private final MethodHandle methodHandle;
+
+        // 每个参数的取值方式
+        private final ParameterKind[] parameterKinds;
+
+        public AopInvocationHandler(MethodWrapBean methodWrapBean) throws IllegalAccessException {
+            this.methodWrapBean = methodWrapBean;
 
             // 如果被代理的对象里有此标注标的方法，则调用此被代理的对象里的方法，如果没有，则调用父类里的方法
             // 进行检查，检查被代理的bean里是否第一个参数为NodeComponent这个类型的
-            boolean checkFlag = currentMethodWrapBean.getMethod().getParameterTypes().length > 0
-                    && currentMethodWrapBean.getMethod().getParameterTypes()[0].equals(NodeComponent.class);
-            if (!checkFlag) {
-                String errMsg = StrUtil.format(
-                        "Method[{}.{}] must have NodeComponent parameter(first parameter is NodeComponent)",
-                        declWarpBean.getRawClazz().getName(), currentMethodWrapBean.getMethod().getName());
-                LOG.error(errMsg);
-                throw new ComponentMethodDefineErrorException(errMsg);
+            Method method = methodWrapBean.getMethod();
+            boolean checkFlag = method.getParameterTypes().length > 0
+                    && method.getParameterTypes()[0].equals(NodeComponent.class);
+            this.defineErrorMsg = checkFlag ? null : StrUtil.format(
+                    "Method[{}.{}] must have NodeComponent parameter(first parameter is NodeComponent)",
+                    declWarpBean.getRawClazz().getName(), method.getName());
+
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
             }
+            int parameterCount = method.getParameterCount();
+            this.methodHandle = handle.asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+
+            List<ParameterWrapBean> parameterWrapBeanList = methodWrapBean.getParameterWrapBeanList();
+            this.parameterKinds = new ParameterKind[parameterWrapBeanList.size()];
+            for (int i = 0; i < parameterKinds.length; i++) {
+                ParameterWrapBean parameterWrapBean = parameterWrapBeanList.get(i);
+                if (parameterWrapBean.getParameterType().isAssignableFrom(NodeComponent.class)) {
+                    parameterKinds[i] = ParameterKind.PROXY;
+                }
+                else if (parameterWrapBean.getFact() == null) {
+                    parameterKinds[i] = ParameterKind.ARG;
+                }
+                else {
+                    parameterKinds[i] = ParameterKind.FACT;
+                }
+            }
+        }
 
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (defineErrorMsg != null) {
+                LOG.error(defineErrorMsg);
+                throw new ComponentMethodDefineErrorException(defineErrorMsg);
+            }
 
             // 这里是针对于参数的处理
             // 首先需要保证第一个参数是NodeComponent
             // 其次需要针对于@LiteflowFact做处理
-            try {
-                Object[] realArgs = loadMethodParameter(proxy, currentMethodWrapBean, args);
-                return ReflectUtil.invoke(declWarpBean.getRawBean(), currentMethodWrapBean.getMethod(), realArgs);
-            }catch (InvocationTargetRuntimeException e) {
-                InvocationTargetException targetEx = (InvocationTargetException) e.getCause();
-                throw targetEx.getTargetException();
+            Object[] realArgs = loadMethodParameter(proxy, args);
+            return (Object) methodHandle.invokeExact(declWarpBean.getRawBean(), realArgs);
+        }
+
+        private Object[] loadMethodParameter(Object proxy, Object[] args) {
+            Object[] realArgs = new Object[parameterKinds.length];
+            for (int index = 0; index < parameterKinds.length; index++) {
+                switch (parameterKinds[index]) {
+                    case PROXY:
+                        // 如果参数是NodeComponent，那就返回proxy本身
+                        realArgs[index] = proxy;
+                        break;
+                    case ARG:
+                        // 如果没有@LiteflowFact标注，原方法的参数类型能对上就用原方法的参数，否则直接赋值null
+                        if (ArrayUtil.isNotEmpty(args) && index > 0 && index <= args.length && args[index - 1] != null
+                                && methodWrapBean.getParameterWrapBeanList().get(index).getParameterType().isAssignableFrom(args[index - 1].getClass())) {
+                            realArgs[index] = args[index - 1];
+                        }
+                        break;
+                    default:
+                        NodeComponent thisNodeComponent = (NodeComponent) proxy;
+                        realArgs[index] = LiteflowContextRegexMatcher.searchContext(
+                                DataBus.getSlot(thisNodeComponent.getSlotIndex()).getContextBeanList(),
+                                methodWrapBean.getParameterWrapBeanList().get(index).getFact().value());
+                }
             }
+            return realArgs;
         }
 
     }
 
-    private Object[] loadMethodParameter(Object proxy, MethodWrapBean methodWrapBean, Object[] args){
-        NodeComponent thisNodeComponent = (NodeComponent) proxy;
-
-        return IntStream.range(0, methodWrapBean.getParameterWrapBeanList().size()).boxed().map(index -> {
-            ParameterWrapBean parameterWrapBean = methodWrapBean.getParameterWrapBeanList().get(index);
+    private enum ParameterKind {
 
-            // 如果参数是NodeComponent，那就返回proxy本身
-            if (parameterWrapBean.getParameterType().isAssignableFrom(NodeComponent.class)) {
-                return proxy;
-            }
+        // 组件本身
+        PROXY,
 
-            if (parameterWrapBean.getFact() == null && ArrayUtil.isNotEmpty(args)){
-                if (parameterWrapBean.getParameterType().isAssignableFrom(args[index - 1].getClass())){
-                    return args[index -1];
-                }
-            }
+        // 原方法的参数
+        ARG,
 
-            // 如果没有@LiteflowFact标注，那么不处理，直接赋值null
-            if (parameterWrapBean.getFact() == null) {
-                return null;
-            }
+        // 通过@LiteflowFact从上下文中获取
+        FACT
 
-            return LiteflowContextRegexMatcher.searchContext(
-                    DataBus.getSlot(thisNodeComponent.getSlotIndex()).getContextBeanList(),
-                    parameterWrapBean.getFact().value());
-        }).toArray();
     }
 }
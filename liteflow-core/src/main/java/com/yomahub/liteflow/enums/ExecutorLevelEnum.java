@@ -0,0 +1,23 @@
+package com.yomahub.liteflow.enums;
+
+/**
+ * 线程池的层级
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public enum ExecutorLevelEnum {
+
+	// 全局的并行线程池
+	GLOBAL,
+
+	// FlowExecutor异步执行使用的线程池
+	MAIN,
+
+	// chain层级的线程池
+	CHAIN,
+
+	// condition层级的线程池
+	CONDITION
+
+}
@@ -0,0 +1,23 @@
+package com.yomahub.liteflow.enums;
+
+/**
+ * 组件执行步骤(CmpStep)的记录方式
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public enum StepRecordModeEnum {
+
+	// 记录所有请求的所有步骤，默认的方式
+	FULL,
+
+	// 每stepSampleRate个请求中记录1个请求的所有步骤，其余请求不记录
+	SAMPLED,
+
+	// 只记录执行失败的步骤
+	ERROR_ONLY,
+
+	// 不记录步骤
+	OFF
+
+}
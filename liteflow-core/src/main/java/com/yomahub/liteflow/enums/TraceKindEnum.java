@@ -0,0 +1,39 @@
+package com.yomahub.liteflow.enums;
+
+/**
+ * 执行轨迹中事件的类型
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public enum TraceKindEnum {
+
+	// 一次完整的请求，是整个轨迹的根节点
+	FLOW((byte) 0),
+
+	CHAIN((byte) 1),
+
+	CONDITION((byte) 2),
+
+	NODE((byte) 3);
+
+	private final byte code;
+
+	TraceKindEnum(byte code) {
+		this.code = code;
+	}
+
+	public byte getCode() {
+		return code;
+	}
+
+	public static TraceKindEnum getEnumByCode(byte code) {
+		for (TraceKindEnum e : TraceKindEnum.values()) {
+			if (e.getCode() == code) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.yomahub.liteflow.enums;
+
+/**
+ * 执行轨迹中事件的执行结果
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public enum TraceOutcomeEnum {
+
+	SUCCESS((byte) 0),
+
+	FAILED((byte) 1),
+
+	// 组件的isAccess返回了false，没有执行
+	SKIPPED((byte) 2);
+
+	private final byte code;
+
+	TraceOutcomeEnum(byte code) {
+		this.code = code;
+	}
+
+	public byte getCode() {
+		return code;
+	}
+
+	public static TraceOutcomeEnum getEnumByCode(byte code) {
+		for (TraceOutcomeEnum e : TraceOutcomeEnum.values()) {
+			if (e.getCode() == code) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+}
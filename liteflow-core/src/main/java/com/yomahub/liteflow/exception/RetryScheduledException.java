@@ -0,0 +1,19 @@
+package com.yomahub.liteflow.exception;
+
+/**
+ * 异步执行的组件在重试之前需要退避等待，这一段执行先结束，等待交给定时器调度，结束之后再继续重试。
+ * 只在组件的执行内部使用，不会抛给用户
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryScheduledException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public RetryScheduledException() {
+		// 只用来结束这一段执行，不需要堆栈
+		super(null, null, false, false);
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.yomahub.liteflow.exception;
+
+/**
+ * 并行分支已经被取消(超时或者并行策略已经提前完成)，分支里后续的组件不再执行
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class WhenCancelledException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 异常信息 */
+	private String message;
+
+	public WhenCancelledException(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
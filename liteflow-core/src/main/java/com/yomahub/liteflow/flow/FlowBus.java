@@ -42,6 +42,7 @@ import com.yomahub.liteflow.script.exception.ScriptSpiException;
 import com.yomahub.liteflow.spi.ContextAware;
 import com.yomahub.liteflow.spi.holder.ContextAwareHolder;
 import com.yomahub.liteflow.spi.holder.DeclComponentParserHolder;
+import com.yomahub.liteflow.thread.ExecutorHelper;
 import com.yomahub.liteflow.util.CopyOnWriteHashMap;
 
 import java.util.*;
@@ -69,6 +70,9 @@ public class FlowBus {
 
 	private static final Map<String/* elMd5 */, String/* chainId */> elMd5Map;
 
+	// namespace下所有带有route的chain，按照chain注册的顺序排列，list本身是不可变的，变更的时候整体替换
+	private static final Map<String/* namespace */, List<Chain>> routeChainIndex = new ConcurrentHashMap<>();
+
 	private static final AtomicBoolean initStat = new AtomicBoolean(false);
 
 	static {
@@ -106,7 +110,15 @@ public class FlowBus {
 			);
 		}
 
-		chainMap.put(chain.getChainId(), chain);
+		Chain oldChain = chainMap.put(chain.getChainId(), chain);
+		indexRouteChain(chain.getChainId(), chain);
+		// 被替换的chain的线程池不会再被使用，在原实例上重新构建的chain只回收老condition的线程池，都等任务结束之后回收
+		if (oldChain == chain) {
+			ExecutorHelper.loadInstance().retireStaleExecutors(chain);
+		}
+		else if (oldChain != null) {
+			ExecutorHelper.loadInstance().retireChainExecutors(oldChain);
+		}
 
 		if (StrUtil.isNotBlank(chain.getEl())){
 			elMd5Map.put(chain.getElMd5(), chain.getChainId());
@@ -120,6 +132,57 @@ public class FlowBus {
 		}
 	}
 
+	/**
+	 * 获取namespace下所有带有route的chain，没有的话返回空的list
+	 */
+	public static List<Chain> getRouteChains(String namespace) {
+		List<Chain> routeChainList = routeChainIndex.get(namespace);
+		return routeChainList == null ? Collections.emptyList() : routeChainList;
+	}
+
+	/**
+	 * 维护namespace到route chain的索引，chain为null或者没有route的时候从索引中移除
+	 * 同一个chain重新构建的时候，在原来的位置上替换，保证first-match的顺序不会因为重新加载而改变
+	 */
+	private static void indexRouteChain(String chainId, Chain chain) {
+		boolean routable = chain != null && chain.getRouteItem() != null;
+		synchronized (routeChainIndex) {
+			boolean indexed = false;
+			for (Map.Entry<String, List<Chain>> entry : routeChainIndex.entrySet()) {
+				List<Chain> routeChainList = entry.getValue();
+				int position = -1;
+				for (int i = 0; i < routeChainList.size(); i++) {
+					if (routeChainList.get(i).getChainId().equals(chainId)) {
+						position = i;
+						break;
+					}
+				}
+				if (position < 0) {
+					continue;
+				}
+				List<Chain> newList = new ArrayList<>(routeChainList);
+				if (routable && entry.getKey().equals(chain.getNamespace())) {
+					newList.set(position, chain);
+					indexed = true;
+				}
+				else {
+					newList.remove(position);
+				}
+				if (newList.isEmpty()) {
+					routeChainIndex.remove(entry.getKey());
+				}
+				else {
+					routeChainIndex.put(entry.getKey(), Collections.unmodifiableList(newList));
+				}
+			}
+			if (routable && !indexed) {
+				List<Chain> newList = new ArrayList<>(getRouteChains(chain.getNamespace()));
+				newList.add(chain);
+				routeChainIndex.put(chain.getNamespace(), Collections.unmodifiableList(newList));
+			}
+		}
+	}
+
 	public static boolean containChain(String chainId) {
 		return chainMap.containsKey(chainId);
 	}
@@ -340,6 +403,7 @@ public class FlowBus {
 
 	public static void cleanCache() {
 		chainMap.clear();
+		routeChainIndex.clear();
 		nodeMap.clear();
 		fallbackNodeMap.clear();
 		elMd5Map.clear();
@@ -374,6 +438,8 @@ public class FlowBus {
 	public static boolean removeChain(String chainId) {
 		if (containChain(chainId)) {
 			Chain removedChain = chainMap.remove(chainId);
+			indexRouteChain(chainId, null);
+			ExecutorHelper.loadInstance().retireChainExecutors(removedChain);
 			// 移除 elMd5 对应的 chainId
 			elMd5Map.remove(removedChain.getElMd5());
 			return true;
@@ -3,6 +3,8 @@ package com.yomahub.liteflow.flow;
 import cn.hutool.core.collection.ListUtil;
 import com.yomahub.liteflow.exception.LiteFlowException;
 import com.yomahub.liteflow.flow.entity.CmpStep;
+import com.yomahub.liteflow.flow.entity.StepAnalysis;
+import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
 
 import java.util.LinkedHashMap;
@@ -29,6 +31,12 @@ public class LiteflowResponse {
 
 	private Slot slot;
 
+	// 决策路由阶段的耗时，单位为毫秒，只有通过executeRouteChain执行的时候才有值
+	private Long routeTimeSpent;
+
+	// 步骤分析的结果，第一次获取的时候才计算
+	private StepAnalysis stepAnalysis;
+
 	public LiteflowResponse() {
 	}
 
@@ -105,6 +113,14 @@ public class LiteflowResponse {
 		this.slot = slot;
 	}
 
+	public Long getRouteTimeSpent() {
+		return routeTimeSpent;
+	}
+
+	public void setRouteTimeSpent(Long routeTimeSpent) {
+		this.routeTimeSpent = routeTimeSpent;
+	}
+
 	public <T> T getFirstContextBean() {
 		return this.getSlot().getFirstContextBean();
 	}
@@ -161,6 +177,20 @@ public class LiteflowResponse {
 		return this.getSlot().getExecuteSteps();
 	}
 
+	/**
+	 * 关键路径、并行分支排队时间以及并行效率的分析
+	 * 需要开启enableStepAnalysis，并且步骤是被记录的，否则返回null
+	 */
+	public StepAnalysis getStepAnalysis() {
+		if (this.getSlot() == null || !this.getSlot().isStepAnalysis()) {
+			return null;
+		}
+		if (stepAnalysis == null) {
+			stepAnalysis = StepAnalysis.analyze(this.getSlot().getExecuteSteps());
+		}
+		return stepAnalysis;
+	}
+
 	public String getExecuteStepStr() {
 		return getExecuteStepStrWithoutTime();
 	}
@@ -192,4 +222,33 @@ public class LiteflowResponse {
 	public List<String> getTimeoutItems(){
 		return slot.getTimeoutItemList();
 	}
+
+	/**
+	 * 复制出一个独立的LiteflowResponse
+	 * 开启了slot池(liteflow.slot-pool.enabled)的时候，如果需要在release()之后继续持有结果，需要先调用此方法复制一份
+	 */
+	public LiteflowResponse copy() {
+		LiteflowResponse response = new LiteflowResponse();
+		response.setChainId(this.chainId);
+		response.setSuccess(this.success);
+		response.setCode(this.code);
+		response.setMessage(this.message);
+		response.setCause(this.cause);
+		if (this.slot != null) {
+			response.setSlot(this.slot.copy());
+		}
+		return response;
+	}
+
+	/**
+	 * 把此次执行所用的slot归还到slot池中，只有开启了slot池(liteflow.slot-pool.enabled)的时候才有效果
+	 * 调用之后slot会被其他请求复用，所以不能再通过此response获取上下文，步骤等slot中的信息，
+	 * 如果还需要这些信息，请在调用之前通过copy()复制一份。
+	 * 没有调用此方法的response和未开启slot池时的行为一样，slot会被GC回收
+	 */
+	public void release() {
+		Slot slot = this.slot;
+		this.slot = null;
+		DataBus.recycleSlot(slot);
+	}
 }
@@ -16,17 +16,24 @@ import com.alibaba.ttl.TransmittableThreadLocal;
 import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
 import com.yomahub.liteflow.common.ChainConstant;
 import com.yomahub.liteflow.enums.ExecuteableTypeEnum;
+import com.yomahub.liteflow.enums.TraceKindEnum;
+import com.yomahub.liteflow.enums.TraceOutcomeEnum;
 import com.yomahub.liteflow.exception.ChainEndException;
 import com.yomahub.liteflow.exception.FlowSystemException;
 import com.yomahub.liteflow.lifecycle.LifeCycleHolder;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.flow.parallel.CompletableFutureExpand;
 import com.yomahub.liteflow.meta.LiteflowMetaOperator;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.trace.AsyncTraceSpan;
+import com.yomahub.liteflow.trace.TraceRecorder;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * chain对象，实现可执行器
@@ -40,6 +47,11 @@ public class Chain implements Executable {
 
 	private static final LFLog LOG = LFLoggerManager.getLogger(Chain.class);
 
+	private static final AtomicLong INSTANCE_ID_GENERATOR = new AtomicLong();
+
+	// 实例的唯一编号，chain层级的线程池以它作为key，hashCode是可能重复的
+	private final long instanceId = INSTANCE_ID_GENERATOR.incrementAndGet();
+
 	private String chainId;
 
 	private Executable routeItem;
@@ -70,6 +82,10 @@ public class Chain implements Executable {
 		this.conditionList = conditionList;
 	}
 
+	public long getInstanceId() {
+		return instanceId;
+	}
+
 	public List<Condition> getConditionList() {
 		return conditionList;
 	}
@@ -110,26 +126,10 @@ public class Chain implements Executable {
 		//生成runtimeId
 		this.runtimeIdTL.set(System.nanoTime());
 
-		//如果EL还未编译，则进行编译
-		if (BooleanUtil.isFalse(isCompiled)) {
-			synchronized (this) {
-				if (BooleanUtil.isFalse(isCompiled)) {
-					LiteFlowChainELBuilder.buildUnCompileChain(this);
-				}
-			}
-		}
-
-		// 这里先拿到this.conditionList的引用
-		// 因为在正式执行condition之前，this.conditionList有可能被其他线程置空
-		// 比如，该chain在规则缓存中被淘汰
-		List<Condition> conditionListRef = this.conditionList;
-		// 但在编译后到拿到引用之前，this.conditionList还是有可能已经被置空了
-		if (CollUtil.isEmpty(conditionListRef)) {
-			// 如果conditionListRef为空，
-			// 尝试构建临时conditionList确保本次一定可以执行
-			conditionListRef = buildTemporaryConditionList();
-		}
+		List<Condition> conditionListRef = this.getExecutableConditionList();
 		Slot slot = DataBus.getSlot(slotIndex);
+		long traceSpanId = TraceRecorder.enter();
+		TraceOutcomeEnum traceOutcome = TraceOutcomeEnum.SUCCESS;
 		try {
 			//如果有生命周期则执行相应生命周期实现
 			if (CollUtil.isNotEmpty(LifeCycleHolder.getPostProcessChainExecuteLifeCycleList())){
@@ -155,8 +155,10 @@ public class Chain implements Executable {
 		catch (Exception e) {
 			// 这里事先取到exception set到slot里，为了方便finally取到exception
 			slot.setException(e);
+			traceOutcome = TraceOutcomeEnum.FAILED;
 			throw e;
 		}finally {
+			TraceRecorder.exit(traceSpanId, slotIndex, TraceKindEnum.CHAIN, chainId, traceOutcome);
 			//如果有生命周期则执行相应生命周期实现
 			if (CollUtil.isNotEmpty(LifeCycleHolder.getPostProcessChainExecuteLifeCycleList())){
 				LifeCycleHolder.getPostProcessChainExecuteLifeCycleList().forEach(
@@ -167,6 +169,74 @@ public class Chain implements Executable {
 		}
 	}
 
+	// 异步执行chain，condition依次执行，前一个condition完成之后才开始下一个，不阻塞当前线程
+	@Override
+	public CompletableFuture<Void> executeAsync(Integer slotIndex) {
+		//生成runtimeId，后续的condition可能在其他线程上开始执行，所以每次开始执行condition之前都要设置一次
+		long runtimeId = System.nanoTime();
+		Slot slot = DataBus.getSlot(slotIndex);
+
+		List<Condition> conditionListRef;
+		try {
+			conditionListRef = this.getExecutableConditionList();
+		}
+		catch (Exception e) {
+			return CompletableFutureExpand.failedFuture(e);
+		}
+
+		CompletableFuture<Void> future;
+		long traceSpanId = TraceRecorder.enter();
+		try {
+			//如果有生命周期则执行相应生命周期实现
+			if (CollUtil.isNotEmpty(LifeCycleHolder.getPostProcessChainExecuteLifeCycleList())){
+				LifeCycleHolder.getPostProcessChainExecuteLifeCycleList().forEach(
+						postProcessChainExecuteLifeCycle -> postProcessChainExecuteLifeCycle.postProcessBeforeChainExecute(chainId, slot)
+				);
+			}
+
+			// 设置主ChainId
+			slot.setChainId(chainId);
+			slot.addChainInstance(this);
+
+			future = CompletableFuture.completedFuture(null);
+			for (Condition condition : conditionListRef) {
+				future = future.thenCompose(v -> {
+					this.runtimeIdTL.set(runtimeId);
+					// 在其他线程上开始的condition也要挂到这个chain下面
+					long previousTraceSpanId = TraceRecorder.attachParent(traceSpanId);
+					try {
+						condition.setCurrChainId(chainId);
+						return condition.executeAsync(slotIndex);
+					}
+					finally {
+						TraceRecorder.attachParent(previousTraceSpanId);
+						this.runtimeIdTL.remove();
+					}
+				});
+			}
+		}
+		catch (Exception e) {
+			future = CompletableFutureExpand.failedFuture(e);
+		}
+		AsyncTraceSpan traceSpan = TraceRecorder.detach(traceSpanId);
+
+		return future.whenComplete((v, ex) -> {
+			Throwable cause = CompletableFutureExpand.unwrap(ex);
+			TraceOutcomeEnum traceOutcome = TraceOutcomeEnum.SUCCESS;
+			if (cause instanceof Exception && !(cause instanceof ChainEndException)) {
+				slot.setException((Exception) cause);
+				traceOutcome = TraceOutcomeEnum.FAILED;
+			}
+			TraceRecorder.exitAsync(traceSpan, slotIndex, TraceKindEnum.CHAIN, chainId, traceOutcome);
+			//如果有生命周期则执行相应生命周期实现
+			if (CollUtil.isNotEmpty(LifeCycleHolder.getPostProcessChainExecuteLifeCycleList())){
+				LifeCycleHolder.getPostProcessChainExecuteLifeCycleList().forEach(
+						postProcessChainExecuteLifeCycle -> postProcessChainExecuteLifeCycle.postProcessAfterChainExecute(chainId, slot)
+				);
+			}
+		});
+	}
+
 	public void executeRoute(Integer slotIndex) throws Exception {
 		if (routeItem == null) {
 			throw new FlowSystemException("no route condition or node in this chain[" + chainId + "]");
@@ -270,6 +340,30 @@ public class Chain implements Executable {
         this.elMd5 = elMd5;
     }
 
+	// 拿到可以执行的ConditionList，如果EL还未编译，则进行编译
+	private List<Condition> getExecutableConditionList() {
+		//如果EL还未编译，则进行编译
+		if (BooleanUtil.isFalse(isCompiled)) {
+			synchronized (this) {
+				if (BooleanUtil.isFalse(isCompiled)) {
+					LiteFlowChainELBuilder.buildUnCompileChain(this);
+				}
+			}
+		}
+
+		// 这里先拿到this.conditionList的引用
+		// 因为在正式执行condition之前，this.conditionList有可能被其他线程置空
+		// 比如，该chain在规则缓存中被淘汰
+		List<Condition> conditionListRef = this.conditionList;
+		// 但在编译后到拿到引用之前，this.conditionList还是有可能已经被置空了
+		if (CollUtil.isEmpty(conditionListRef)) {
+			// 如果conditionListRef为空，
+			// 尝试构建临时conditionList确保本次一定可以执行
+			conditionListRef = buildTemporaryConditionList();
+		}
+		return conditionListRef;
+	}
+
 	// 构建临时的ConditionList
 	private List<Condition> buildTemporaryConditionList() {
 		if (StrUtil.isBlank(el)) {
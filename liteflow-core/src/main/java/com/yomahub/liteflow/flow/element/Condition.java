@@ -13,16 +13,23 @@ import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ConditionTypeEnum;
 import com.yomahub.liteflow.enums.ExecuteableTypeEnum;
+import com.yomahub.liteflow.enums.TraceKindEnum;
+import com.yomahub.liteflow.enums.TraceOutcomeEnum;
 import com.yomahub.liteflow.exception.ChainEndException;
 import com.yomahub.liteflow.flow.FlowBus;
 import com.yomahub.liteflow.flow.element.condition.ConditionKey;
+import com.yomahub.liteflow.flow.parallel.CompletableFutureExpand;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.trace.AsyncTraceSpan;
+import com.yomahub.liteflow.trace.TraceRecorder;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -35,6 +42,11 @@ import java.util.stream.Stream;
  */
 public abstract class Condition implements Executable{
 
+	private static final AtomicLong INSTANCE_ID_GENERATOR = new AtomicLong();
+
+	// 实例的唯一编号，condition层级的线程池以它作为key，hashCode是可能重复的
+	private final long instanceId = INSTANCE_ID_GENERATOR.incrementAndGet();
+
 	private String id;
 
 	private String tag;
@@ -52,6 +64,8 @@ public abstract class Condition implements Executable{
 	@Override
 	public void execute(Integer slotIndex) throws Exception {
 		Slot slot = DataBus.getSlot(slotIndex);
+		long traceSpanId = TraceRecorder.enter();
+		TraceOutcomeEnum traceOutcome = TraceOutcomeEnum.SUCCESS;
 		try {
 			// 当前 Condition 入栈
 			slot.pushCondition(this);
@@ -65,15 +79,76 @@ public abstract class Condition implements Executable{
 		catch (Exception e) {
 			// 这里事先取到exception set到slot里，为了方便finally取到exception
 			slot.setException(e);
+			traceOutcome = TraceOutcomeEnum.FAILED;
 			throw e;
 		} finally {
 			// 当前 Condition 出栈
 			slot.popCondition();
+			TraceRecorder.exit(traceSpanId, slotIndex, TraceKindEnum.CONDITION, this.getConditionType().getName(),
+					traceOutcome);
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> executeAsync(Integer slotIndex) {
+		Slot slot = DataBus.getSlot(slotIndex);
+		CompletableFuture<Void> future;
+		long traceSpanId = TraceRecorder.enter();
+		try {
+			// 当前 Condition 入栈，只在启动异步任务的这段时间内有效，后续在其他线程上执行的子项由executeItemAsync再次入栈
+			slot.pushCondition(this);
+			future = executeConditionAsync(slotIndex);
+		}
+		catch (Exception e) {
+			future = CompletableFutureExpand.failedFuture(e);
+		}
+		finally {
+			slot.popCondition();
 		}
+		AsyncTraceSpan traceSpan = TraceRecorder.detach(traceSpanId);
+		return future.whenComplete((v, ex) -> {
+			Throwable cause = CompletableFutureExpand.unwrap(ex);
+			TraceOutcomeEnum traceOutcome = TraceOutcomeEnum.SUCCESS;
+			// 和同步执行一样，ChainEndException不作为异常处理
+			if (cause instanceof Exception && !(cause instanceof ChainEndException)) {
+				slot.setException((Exception) cause);
+				traceOutcome = TraceOutcomeEnum.FAILED;
+			}
+			TraceRecorder.exitAsync(traceSpan, slotIndex, TraceKindEnum.CONDITION, this.getConditionType().getName(),
+					traceOutcome);
+		});
 	}
 
 	public abstract void executeCondition(Integer slotIndex) throws Exception;
 
+	/**
+	 * 异步执行Condition，默认为同步执行，能够拆分出并行任务的Condition需要覆盖此方法
+	 * @param slotIndex slotIndex
+	 * @return 执行完成的future
+	 */
+	public CompletableFuture<Void> executeConditionAsync(Integer slotIndex) throws Exception {
+		executeCondition(slotIndex);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * 异步执行子项，子项可能在其他线程上开始执行，所以这里要把当前Condition重新入栈，保证子项中取到的当前Condition是正确的
+	 * @param item 子项
+	 * @param slotIndex slotIndex
+	 * @return 子项执行完成的future
+	 */
+	protected CompletableFuture<Void> executeItemAsync(Executable item, Integer slotIndex) {
+		Slot slot = DataBus.getSlot(slotIndex);
+		slot.pushCondition(this);
+		try {
+			item.setCurrChainId(this.getCurrChainId());
+			return item.executeAsync(slotIndex);
+		}
+		finally {
+			slot.popCondition();
+		}
+	}
+
 	@Override
 	public ExecuteableTypeEnum getExecuteType() {
 		return ExecuteableTypeEnum.CONDITION;
@@ -179,6 +254,10 @@ public abstract class Condition implements Executable{
 		return currChainId;
 	}
 
+	public long getInstanceId() {
+		return instanceId;
+	}
+
 	public String getCurrChainId() {
 		return currChainId;
 	}
@@ -2,6 +2,8 @@ package com.yomahub.liteflow.flow.element;
 
 import com.yomahub.liteflow.enums.ExecuteableTypeEnum;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 可执行器接口 目前实现这个接口的有3个，Chain，Condition，Node
  *
@@ -11,6 +13,24 @@ public interface Executable{
 
 	void execute(Integer slotIndex) throws Exception;
 
+	/**
+	 * 异步执行，返回执行完成的future，不会阻塞当前线程去等待并行的子任务
+	 * 默认的实现是在当前线程同步执行，只有能够拆分出并行任务的对象（比如WHEN，并行循环）才会真正异步
+	 * @param slotIndex slotIndex
+	 * @return 执行完成的future，执行失败的话future会以异常结束
+	 */
+	default CompletableFuture<Void> executeAsync(Integer slotIndex) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		try {
+			this.execute(slotIndex);
+			future.complete(null);
+		}
+		catch (Throwable e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
 	default boolean isAccess(Integer slotIndex) throws Exception {
 		return true;
 	}
@@ -16,20 +16,32 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.yomahub.liteflow.core.NodeComponent;
 import com.yomahub.liteflow.enums.ExecuteableTypeEnum;
 import com.yomahub.liteflow.enums.NodeTypeEnum;
+import com.yomahub.liteflow.enums.TraceKindEnum;
+import com.yomahub.liteflow.enums.TraceOutcomeEnum;
 import com.yomahub.liteflow.exception.ChainEndException;
 import com.yomahub.liteflow.exception.FlowSystemException;
+import com.yomahub.liteflow.exception.RetryScheduledException;
+import com.yomahub.liteflow.exception.WhenCancelledException;
 import com.yomahub.liteflow.flow.FlowBus;
 import com.yomahub.liteflow.flow.element.condition.LoopCondition;
 import com.yomahub.liteflow.flow.executor.NodeExecutor;
 import com.yomahub.liteflow.flow.executor.NodeExecutorHelper;
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.retry.RetryHelper;
+import com.yomahub.liteflow.script.ScriptExecuteWrap;
+import com.yomahub.liteflow.trace.TraceRecorder;
 import com.yomahub.liteflow.util.TupleOf2;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 
 
@@ -68,6 +80,11 @@ public class Node implements Executable, Cloneable, Rollbackable{
 
 	private Map<String, String> bindDataMap = new HashMap<>();
 
+	// cmpData和bindData反序列化之后的对象，key为(bind的key, 目标class, 是否为list)，data或者bind变化的时候清空
+	// 缓存的值同时记录了反序列化时的原始字符串，清空和写入之间的竞争不会让旧的对象一直留在缓存里
+	@JsonIgnore
+	private Map<ParsedDataKey, ParsedData> parsedDataCache = new ConcurrentHashMap<>();
+
 	private String currChainId;
 
 	// 针对于脚本节点，这个属性代表脚本节点的脚本是否已经编译过
@@ -98,6 +115,9 @@ public class Node implements Executable, Cloneable, Rollbackable{
 	// step自定义数据
 	private ThreadLocal<Object> stepDataTL = new ThreadLocal<>();
 
+	// 脚本节点本次执行的包装参数，各个生命周期方法共用一个，执行结束时移除
+	private ThreadLocal<ScriptExecuteWrap> scriptWrapTL = new ThreadLocal<>();
+
 	public Node() {
 
 	}
@@ -192,6 +212,13 @@ public class Node implements Executable, Cloneable, Rollbackable{
 			throw new FlowSystemException("there is no instance for node id " + id);
 		}
 
+		// 所在的并行分支已经被取消，后续的组件不再执行
+		if (ParallelSupplier.isCurrentCancelled()) {
+			throw new WhenCancelledException(StrUtil.format("when item is cancelled, component[{}] is not executed", id));
+		}
+
+		long traceSpanId = TraceRecorder.enter();
+		TraceOutcomeEnum traceOutcome = TraceOutcomeEnum.SUCCESS;
 		try {
 			// 把线程属性赋值给组件对象
 			this.setSlotIndex(slotIndex);
@@ -206,6 +233,7 @@ public class Node implements Executable, Cloneable, Rollbackable{
 				nodeExecutor.execute(instance);
 			} else {
 				LOG.info("[X]skip component[{}] execution", instance.getDisplayName());
+				traceOutcome = TraceOutcomeEnum.SKIPPED;
 			}
 			// 如果组件覆盖了isEnd方法，或者在在逻辑中主要调用了setEnd(true)的话，流程就会立马结束
 			if (instance.isEnd()) {
@@ -217,6 +245,12 @@ public class Node implements Executable, Cloneable, Rollbackable{
 			if (e instanceof ChainEndException) {
 				throw e;
 			}
+			traceOutcome = TraceOutcomeEnum.FAILED;
+
+			// 异步执行的时候这次失败需要退避等待之后再重试，这一段执行先结束，不按照组件出错来处理
+			if (e instanceof RetryScheduledException) {
+				throw e;
+			}
 
 			// 这里再次写一遍的原因是：如果抛错了，还是要看isEnd这个状态，如果为true的话，还是要优先处理ChainEndException
 			if (instance.isEnd()) {
@@ -236,6 +270,7 @@ public class Node implements Executable, Cloneable, Rollbackable{
 			}
 		}
 		finally {
+			TraceRecorder.exit(traceSpanId, slotIndex, TraceKindEnum.NODE, id, traceOutcome);
 			// 移除threadLocal里的信息
 			this.getInstance().removeRefNode();
 			removeSlotIndex();
@@ -244,7 +279,23 @@ public class Node implements Executable, Cloneable, Rollbackable{
 			removeAccessResult();
 			removeIsContinueOnErrorResult();
 			removeStepData();
+			removeScriptWrap();
+		}
+	}
+
+	// 配置了重试的组件异步执行的时候，重试的退避等待交给定时器调度，不占用工作线程
+	@Override
+	public CompletableFuture<Void> executeAsync(Integer slotIndex) {
+		if (ObjectUtil.isNull(getInstance()) || instance.getRetryCount() <= 0) {
+			return Executable.super.executeAsync(slotIndex);
 		}
+		return RetryHelper.executeAsync(resumed -> {
+			// 等待之后继续重试的时候，isAccess已经判断过了
+			if (resumed) {
+				this.setAccessResult(true);
+			}
+			this.execute(slotIndex);
+		});
 	}
 
 	// 回滚的主要逻辑
@@ -263,6 +314,7 @@ public class Node implements Executable, Cloneable, Rollbackable{
 		finally {
 			// 移除threadLocal里的信息
 			this.removeSlotIndex();
+			this.removeScriptWrap();
 			instance.removeRefNode();
 		}
 	}
@@ -276,7 +328,13 @@ public class Node implements Executable, Cloneable, Rollbackable{
 		// 把线程属性赋值给组件对象
 		this.setSlotIndex(slotIndex);
 		getInstance().setRefNode(this);
-		return instance.isAccess();
+		try {
+			return instance.isAccess();
+		}
+		finally {
+			// 提前判断可能和真正执行不在一个线程，包装参数不留到执行的时候
+			removeScriptWrap();
+		}
 	}
 
 	@Override
@@ -290,6 +348,8 @@ public class Node implements Executable, Cloneable, Rollbackable{
 
 	public void setScript(String script) {
 		this.script = script;
+		// 脚本重新加载之后，脚本中用到的class可能已经变了，缓存的对象也要一起失效
+		this.parsedDataCache.clear();
 	}
 
 	public String getClazz() {
@@ -306,6 +366,7 @@ public class Node implements Executable, Cloneable, Rollbackable{
 
 	public void setCmpData(String cmpData) {
 		this.cmpData = cmpData;
+		this.parsedDataCache.clear();
 		if (BooleanUtil.isFalse(this.isCloned)){
 			this.setCloned(true);
 		}
@@ -522,6 +583,7 @@ public class Node implements Executable, Cloneable, Rollbackable{
 
 	public void putBindData(String key, String value) {
 		this.bindDataMap.put(key, value);
+		this.parsedDataCache.clear();
 		if (BooleanUtil.isFalse(this.isCloned)){
 			this.setCloned(true);
 		}
@@ -535,6 +597,30 @@ public class Node implements Executable, Cloneable, Rollbackable{
 		return this.bindDataMap.get(key);
 	}
 
+	/**
+	 * 获取cmpData或者bindData反序列化之后的对象，没有缓存过或者原始字符串已经变了则调用parser进行反序列化并缓存
+	 * 缓存的对象会被所有的执行共用，调用方不能修改
+	 * @param bindKey bind的key，cmpData为null
+	 * @param rawData 当前的原始字符串
+	 * @param clazz 目标class
+	 * @param list 是否反序列化为list
+	 * @param parser 反序列化的方法
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getParsedData(String bindKey, String rawData, Class<?> clazz, boolean list, Supplier<T> parser) {
+		ParsedDataKey key = new ParsedDataKey(bindKey, clazz, list);
+		ParsedData parsedData = parsedDataCache.get(key);
+		// 原始字符串通常是同一个对象，先比较引用
+		if (parsedData != null && (parsedData.rawData == rawData || parsedData.rawData.equals(rawData))) {
+			return (T) parsedData.value;
+		}
+		T value = parser.get();
+		if (value != null) {
+			parsedDataCache.put(key, new ParsedData(rawData, value));
+		}
+		return value;
+	}
+
 	public boolean isCloned() {
 		return isCloned;
 	}
@@ -556,6 +642,18 @@ public class Node implements Executable, Cloneable, Rollbackable{
 		this.stepDataTL.remove();
 	}
 
+	public ScriptExecuteWrap getScriptWrap() {
+		return this.scriptWrapTL.get();
+	}
+
+	public void setScriptWrap(ScriptExecuteWrap scriptWrap) {
+		this.scriptWrapTL.set(scriptWrap);
+	}
+
+	public void removeScriptWrap() {
+		this.scriptWrapTL.remove();
+	}
+
 	@Override
 	public Node clone() throws CloneNotSupportedException {
 		Node node = (Node)super.clone();
@@ -604,9 +702,58 @@ public class Node implements Executable, Cloneable, Rollbackable{
 		node.isEndTL = new TransmittableThreadLocal<>();
 		node.isContinueOnErrorResult = new TransmittableThreadLocal<>();
 		node.stepDataTL = new ThreadLocal<>();
+		node.scriptWrapTL = new ThreadLocal<>();
 		node.lock4LoopIndex = new ReentrantLock();
 		node.lock4LoopObj = new ReentrantLock();
 		node.bindDataMap = new HashMap<>();
+		node.parsedDataCache = new ConcurrentHashMap<>();
 		return node;
 	}
+
+	private static class ParsedData {
+
+		private final String rawData;
+
+		private final Object value;
+
+		private ParsedData(String rawData, Object value) {
+			this.rawData = rawData;
+			this.value = value;
+		}
+
+	}
+
+	private static class ParsedDataKey {
+
+		private final String bindKey;
+
+		private final Class<?> clazz;
+
+		private final boolean list;
+
+		private ParsedDataKey(String bindKey, Class<?> clazz, boolean list) {
+			this.bindKey = bindKey;
+			this.clazz = clazz;
+			this.list = list;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ParsedDataKey)) {
+				return false;
+			}
+			ParsedDataKey that = (ParsedDataKey) o;
+			return list == that.list && clazz == that.clazz && Objects.equals(bindKey, that.bindKey);
+		}
+
+		@Override
+		public int hashCode() {
+			return (Objects.hashCode(bindKey) * 31 + clazz.hashCode()) * 31 + (list ? 1 : 0);
+		}
+
+	}
+
 }
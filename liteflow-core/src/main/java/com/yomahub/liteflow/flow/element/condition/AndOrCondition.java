@@ -2,7 +2,6 @@ package com.yomahub.liteflow.flow.element.condition;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.BooleanUtil;
-import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ConditionTypeEnum;
 import com.yomahub.liteflow.exception.AndOrConditionException;
 import com.yomahub.liteflow.flow.element.Condition;
@@ -12,6 +11,7 @@ import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.slot.SlotKeyRegistry;
 
 import java.util.List;
 import java.util.function.Predicate;
@@ -20,6 +20,9 @@ public class AndOrCondition extends Condition {
 
     private final LFLog LOG = LFLoggerManager.getLogger(this.getClass());
 
+    // 在slot中存放结果用的key，每个条件对象在构建的时候分配一个，条件被回收之后key会被重用
+    private final int resultKey = SlotKeyRegistry.nextKey(this);
+
     private BooleanConditionTypeEnum booleanConditionType;
 
     @Override
@@ -34,10 +37,9 @@ public class AndOrCondition extends Condition {
 
         Slot slot = DataBus.getSlot(slotIndex);
 
-        String resultKey = StrUtil.format("{}_{}",this.getClass().getName(),this.hashCode());
         switch (booleanConditionType) {
             case AND:
-                slot.setAndOrResult(resultKey, itemList.stream().filter(executable -> {
+                slot.setAndOrResult(this.resultKey, itemList.stream().filter(executable -> {
                     try{
                         boolean flag = executable.isAccess(slotIndex);
                         if (executable instanceof Node){
@@ -50,7 +52,7 @@ public class AndOrCondition extends Condition {
                 }).allMatch(new AndOrConditionPredicate(slotIndex)));
                 break;
             case OR:
-                slot.setAndOrResult(resultKey, itemList.stream().filter(executable -> {
+                slot.setAndOrResult(this.resultKey, itemList.stream().filter(executable -> {
                     try{
                         boolean flag = executable.isAccess(slotIndex);
                         if (executable instanceof Node){
@@ -93,8 +95,7 @@ public class AndOrCondition extends Condition {
     @SuppressWarnings("unchecked")
     public Boolean getItemResultMetaValue(Integer slotIndex) {
         Slot slot = DataBus.getSlot(slotIndex);
-        String resultKey = StrUtil.format("{}_{}",this.getClass().getName(),this.hashCode());
-        return slot.getAndOrResult(resultKey);
+        return slot.getAndOrResult(this.resultKey);
     }
 
     @Override
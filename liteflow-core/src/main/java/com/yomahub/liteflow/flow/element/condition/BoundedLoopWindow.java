@@ -0,0 +1,138 @@
+package com.yomahub.liteflow.flow.element.condition;
+
+import com.yomahub.liteflow.flow.element.condition.LoopCondition.LoopItemSource;
+import com.yomahub.liteflow.flow.element.condition.LoopCondition.LoopParallelSupplier;
+import com.yomahub.liteflow.flow.parallel.CompletableFutureExpand;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 有界并行循环的执行窗口
+ * <p>
+ * 同一时间最多只有maxConcurrency个子项在执行，子项是按需从{@link LoopItemSource}中取出来的，
+ * 每完成一个子项才会再取下一个，所以不会一次性把所有的子项都提交到线程池里，也不会持有所有子项的future。
+ * 任何一个子项失败之后，不再提交新的子项，正在执行的子项会被取消，窗口直接以这个异常结束，不用等待其他子项执行完。
+ * <p>
+ * 取子项和提交子项只会在一个线程里串行进行(drain)，可能是发起循环的线程，也可能是刚执行完子项的线程。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+class BoundedLoopWindow {
+
+	private final LoopCondition condition;
+
+	private final ExecutorService executor;
+
+	private final boolean async;
+
+	private final LoopItemSource source;
+
+	private final Semaphore permits;
+
+	// drain的重入计数，保证同一时间只有一个线程在取子项
+	private final AtomicInteger wip = new AtomicInteger();
+
+	private final Set<LoopParallelSupplier> running = ConcurrentHashMap.newKeySet();
+
+	private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+	// 只在drain中修改
+	private boolean exhausted;
+
+	BoundedLoopWindow(LoopCondition condition, ExecutorService executor, boolean async, LoopItemSource source,
+			int maxConcurrency) {
+		this.condition = condition;
+		this.executor = executor;
+		this.async = async;
+		this.source = source;
+		this.permits = new Semaphore(maxConcurrency);
+	}
+
+	/**
+	 * 开始执行，返回所有子项都完成，或者有子项失败时结束的future
+	 */
+	CompletableFuture<Void> start() {
+		drain();
+		return result;
+	}
+
+	/**
+	 * 以失败结束整个窗口，并取消所有正在执行的子项
+	 */
+	void fail(Throwable ex) {
+		if (result.completeExceptionally(ex)) {
+			running.forEach(LoopParallelSupplier::cancel);
+		}
+	}
+
+	private void drain() {
+		if (wip.getAndIncrement() != 0) {
+			return;
+		}
+		int missed = 1;
+		do {
+			while (!result.isDone() && !exhausted && permits.tryAcquire()) {
+				LoopParallelSupplier supplier;
+				try {
+					supplier = source.next();
+				}
+				catch (Exception e) {
+					permits.release();
+					fail(e);
+					break;
+				}
+				if (supplier == null) {
+					permits.release();
+					exhausted = true;
+					break;
+				}
+				running.add(supplier);
+				condition.submitLoopItem(supplier, executor, async).whenComplete((loopFutureObj, ex) -> {
+					running.remove(supplier);
+					permits.release();
+					if (ex != null) {
+						fail(CompletableFutureExpand.unwrap(ex));
+					}
+					else if (!loopFutureObj.isSuccess()) {
+						fail(loopFutureObj.getEx());
+					}
+					drain();
+				});
+			}
+			if (exhausted && running.isEmpty()) {
+				result.complete(null);
+			}
+			missed = wip.addAndGet(-missed);
+		}
+		while (missed != 0);
+	}
+
+	/**
+	 * 同步等待窗口结束，子项的异常原样抛出
+	 */
+	void await() throws Exception {
+		try {
+			result.get();
+		}
+		catch (InterruptedException e) {
+			// 发起循环的线程被中断(比如所在的WHEN分支被取消)，正在执行的子项一起取消
+			fail(e);
+			throw e;
+		}
+		catch (Exception e) {
+			Throwable cause = CompletableFutureExpand.unwrap(e);
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new CompletionException(cause);
+		}
+	}
+
+}
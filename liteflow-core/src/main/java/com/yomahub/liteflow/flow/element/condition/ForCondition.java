@@ -27,6 +27,16 @@ public class ForCondition extends LoopCondition {
 
     @Override
     public void executeCondition(Integer slotIndex) throws Exception {
+        executeLoop(slotIndex, false);
+    }
+
+    // 异步执行时，并行循环不等待子项完成，而是返回所有子项完成之后的future
+    @Override
+    public CompletableFuture<Void> executeConditionAsync(Integer slotIndex) throws Exception {
+        return executeLoop(slotIndex, true);
+    }
+
+    private CompletableFuture<Void> executeLoop(Integer slotIndex, boolean async) throws Exception {
         Slot slot = DataBus.getSlot(slotIndex);
         Node forNode = this.getForNode();
         if (ObjectUtil.isNull(forNode)) {
@@ -39,7 +49,7 @@ public class ForCondition extends LoopCondition {
 
         // 先去判断isAccess方法，如果isAccess方法都返回false，整个FOR表达式不执行
         if (!forNode.isAccess(slotIndex)) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // 执行forCount组件
@@ -73,6 +83,20 @@ public class ForCondition extends LoopCondition {
                         }
                     }
                 }
+            }else if (isBounded()){
+                //有界并行循环执行，每次取下一个子项之前先执行上一个子项的break判断，和无界并行时的顺序一致
+                int[] nextIndex = {0};
+                return executeBounded(slotIndex, () -> {
+                    int i = nextIndex[0];
+                    if (i > 0 && executeBreak(breakItem, slotIndex, i - 1, null)) {
+                        return null;
+                    }
+                    if (i >= forCount) {
+                        return null;
+                    }
+                    nextIndex[0]++;
+                    return new LoopParallelSupplier(executableItem, this.getCurrChainId(), slotIndex, i);
+                }, async);
             }else{
                 //并行循环执行
                 //存储所有的并行执行子项的CompletableFuture
@@ -83,7 +107,7 @@ public class ForCondition extends LoopCondition {
                 for (int i = 0; i < forCount; i++){
                     //提交异步任务
                     CompletableFuture<LoopFutureObj> future =
-                            CompletableFuture.supplyAsync(new LoopParallelSupplier(executableItem, this.getCurrChainId(), slotIndex, i), parallelExecutor);
+                            submitLoopItem(new LoopParallelSupplier(executableItem, this.getCurrChainId(), slotIndex, i), parallelExecutor, async);
                     futureList.add(future);
                     if (ObjectUtil.isNotNull(breakItem)) {
                         breakItem.setCurrChainId(this.getCurrChainId());
@@ -95,9 +119,13 @@ public class ForCondition extends LoopCondition {
                         }
                     }
                 }
+                if (async) {
+                    return handleFutureListAsync(futureList);
+                }
                 //等待所有的异步执行完毕
                 handleFutureList(futureList);
             }
+            return CompletableFuture.completedFuture(null);
         } finally {
             removeLoopIndex(executableItem);
         }
@@ -28,6 +28,16 @@ public class IteratorCondition extends LoopCondition {
 
     @Override
     public void executeCondition(Integer slotIndex) throws Exception {
+        executeLoop(slotIndex, false);
+    }
+
+    // 异步执行时，并行循环不等待子项完成，而是返回所有子项完成之后的future
+    @Override
+    public CompletableFuture<Void> executeConditionAsync(Integer slotIndex) throws Exception {
+        return executeLoop(slotIndex, true);
+    }
+
+    private CompletableFuture<Void> executeLoop(Integer slotIndex, boolean async) throws Exception {
         Slot slot = DataBus.getSlot(slotIndex);
         Node iteratorNode = this.getIteratorNode();
 
@@ -41,7 +51,7 @@ public class IteratorCondition extends LoopCondition {
 
         // 先去判断isAccess方法，如果isAccess方法都返回false，整个ITERATOR表达式不执行
         if (!iteratorNode.isAccess(slotIndex)) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // 执行Iterator组件
@@ -82,6 +92,23 @@ public class IteratorCondition extends LoopCondition {
                     }
                     index++;
                 }
+            } else if (isBounded()) {
+                //有界并行循环执行，迭代器按需取值，不会一次性把所有元素都取出来
+                int[] nextIndex = {0};
+                Object[] lastObj = {null};
+                return executeBounded(slotIndex, () -> {
+                    int i = nextIndex[0];
+                    if (i > 0 && executeBreak(breakItem, slotIndex, i - 1, lastObj[0])) {
+                        return null;
+                    }
+                    if (!it.hasNext()) {
+                        return null;
+                    }
+                    Object itObj = it.next();
+                    lastObj[0] = itObj;
+                    nextIndex[0]++;
+                    return new LoopParallelSupplier(executableItem, this.getCurrChainId(), slotIndex, i, itObj);
+                }, async);
             } else {
                 //并行循环执行
                 //存储所有的并行执行子项的CompletableFuture
@@ -93,7 +120,7 @@ public class IteratorCondition extends LoopCondition {
                     Object itObj = it.next();
                     //提交异步任务
                     CompletableFuture<LoopFutureObj> future =
-                            CompletableFuture.supplyAsync(new LoopParallelSupplier(executableItem, this.getCurrChainId(), slotIndex, index, itObj), parallelExecutor);
+                            submitLoopItem(new LoopParallelSupplier(executableItem, this.getCurrChainId(), slotIndex, index, itObj), parallelExecutor, async);
                     futureList.add(future);
                     //break判断
                     if (ObjectUtil.isNotNull(breakItem)) {
@@ -108,9 +135,13 @@ public class IteratorCondition extends LoopCondition {
                     }
                     index++;
                 }
+                if (async) {
+                    return handleFutureListAsync(futureList);
+                }
                 //等待所有的异步执行完毕
                 handleFutureList(futureList);
             }
+            return CompletableFuture.completedFuture(null);
         } finally {
             removeLoopIndex(executableItem);
             removeCurrLoopObject(executableItem);
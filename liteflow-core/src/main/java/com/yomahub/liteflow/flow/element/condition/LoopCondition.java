@@ -1,14 +1,22 @@
 package com.yomahub.liteflow.flow.element.condition;
 
+import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.StrUtil;
+import com.yomahub.liteflow.exception.WhenCancelledException;
 import com.yomahub.liteflow.flow.element.Chain;
 import com.yomahub.liteflow.flow.element.Condition;
 import com.yomahub.liteflow.flow.element.Executable;
 import com.yomahub.liteflow.flow.element.Node;
 import com.yomahub.liteflow.flow.parallel.LoopFutureObj;
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
+import com.yomahub.liteflow.flow.parallel.WhenFutureObj;
 import com.yomahub.liteflow.meta.LiteflowMetaOperator;
+import com.yomahub.liteflow.thread.ExecutorHelper;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -24,6 +32,8 @@ public abstract class LoopCondition extends Condition {
     private boolean parallel = false;
     //loop condition层级的线程池
     private String threadPoolExecutorClass;
+    //并行循环同一时间最多执行的子项数，为null时不限制，所有子项一次性提交
+    private Integer maxConcurrency;
 
     protected Executable getBreakItem() {
         return this.getExecutableOne(ConditionKey.BREAK_KEY);
@@ -75,6 +85,53 @@ public abstract class LoopCondition extends Condition {
         this.parallel = parallel;
     }
 
+    public Integer getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(Integer maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    //是否以有界窗口的方式并行执行
+    protected boolean isBounded() {
+        return parallel && maxConcurrency != null;
+    }
+
+    //有界并行执行，子项从source中按需取出，同步执行时等待所有子项完成，异步执行时返回所有子项完成之后的future
+    protected CompletableFuture<Void> executeBounded(Integer slotIndex, LoopItemSource source, boolean async) throws Exception {
+        ExecutorService parallelExecutor = ExecutorHelper.loadInstance().buildExecutorService(this, slotIndex, this.getConditionType());
+        BoundedLoopWindow window = new BoundedLoopWindow(this, parallelExecutor, async, source, maxConcurrency);
+        CompletableFuture<Void> future = window.start();
+        if (async) {
+            return future;
+        }
+        window.await();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    //执行break组件，返回是否需要跳出循环，itObj为null时表示不是迭代循环
+    protected boolean executeBreak(Executable breakItem, Integer slotIndex, int index, Object itObj) throws Exception {
+        if (ObjectUtil.isNull(breakItem)) {
+            return false;
+        }
+        breakItem.setCurrChainId(this.getCurrChainId());
+        setLoopIndex(breakItem, index);
+        if (itObj != null) {
+            setCurrLoopObject(breakItem, itObj);
+        }
+        try {
+            breakItem.execute(slotIndex);
+            return breakItem.getItemResultMetaValue(slotIndex);
+        } finally {
+            // 有界并行时break组件可能在线程池的线程里执行，执行完就清理掉，避免残留在线程上
+            removeLoopIndex(breakItem);
+            if (itObj != null) {
+                removeCurrLoopObject(breakItem);
+            }
+        }
+    }
+
     //循环并行执行的futureList处理
     protected void handleFutureList(List<CompletableFuture<LoopFutureObj>> futureList)throws Exception{
         CompletableFuture<?> resultCompletableFuture = CompletableFuture.allOf(futureList.toArray(new CompletableFuture[]{}));
@@ -88,46 +145,90 @@ public abstract class LoopCondition extends Condition {
         }
     }
 
+    //循环并行执行的futureList处理的异步版本，不阻塞当前线程，所有子项完成之后如果有失败的，返回的future以失败的异常结束
+    protected CompletableFuture<Void> handleFutureListAsync(List<CompletableFuture<LoopFutureObj>> futureList) {
+        return CompletableFuture.allOf(futureList.toArray(new CompletableFuture[]{})).thenApply(v -> {
+            for (CompletableFuture<LoopFutureObj> future : futureList) {
+                LoopFutureObj loopFutureObj = future.join();
+                if (!loopFutureObj.isSuccess()) {
+                    throw new CompletionException(loopFutureObj.getEx());
+                }
+            }
+            return null;
+        });
+    }
+
+    //提交并行循环的子项，async为true时子项以异步的方式执行
+    protected CompletableFuture<LoopFutureObj> submitLoopItem(LoopParallelSupplier supplier, ExecutorService parallelExecutor, boolean async) {
+        if (async) {
+            return CompletableFuture.supplyAsync(supplier::getAsync, parallelExecutor).thenCompose(f -> f);
+        }
+        return CompletableFuture.supplyAsync(supplier, parallelExecutor);
+    }
+
+    // 有界并行循环的子项来源，返回null表示没有更多的子项了
+    @FunctionalInterface
+    protected interface LoopItemSource {
+        LoopParallelSupplier next() throws Exception;
+    }
+
     // 循环并行执行的Supplier封装
+    // 子项交给ParallelSupplier执行，和WHEN的分支一样会记录排队时间和执行轨迹的父span，
+    // 嵌套在被取消的WHEN分支里面的时候，子项也会感知到取消，之后的组件不再执行，对slot的写入会被忽略
     public class LoopParallelSupplier implements Supplier<LoopFutureObj> {
         private final Executable executableItem;
-        private final String currChainId;
-        private final Integer slotIndex;
         private final Integer loopIndex;
         private final Object itObj;
+        // 子项真正的执行以及取消都交给ParallelSupplier
+        private final ParallelSupplier delegate;
 
         public LoopParallelSupplier(Executable executableItem, String currChainId, Integer slotIndex, Integer loopIndex) {
-            this.executableItem = executableItem;
-            this.currChainId = currChainId;
-            this.slotIndex = slotIndex;
-            this.loopIndex = loopIndex;
-            this.itObj = null;
+            this(executableItem, currChainId, slotIndex, loopIndex, null);
         }
 
         public LoopParallelSupplier(Executable executableItem, String currChainId, Integer slotIndex, Integer loopIndex, Object itObj) {
             this.executableItem = executableItem;
-            this.currChainId = currChainId;
-            this.slotIndex = slotIndex;
             this.loopIndex = loopIndex;
             this.itObj = itObj;
+            this.delegate = new ParallelSupplier(executableItem, currChainId, slotIndex);
         }
 
 
         @Override
         public LoopFutureObj get() {
-            try {
-                executableItem.setCurrChainId(this.currChainId);
-                // 设置循环index
-                setLoopIndex(executableItem, loopIndex);
-                //IteratorCondition的情况下，需要设置当前循环对象
-                if(itObj != null){
-                    setCurrLoopObject(executableItem, itObj);
-                }
-                executableItem.execute(slotIndex);
+            // 设置循环index
+            setLoopIndex(executableItem, loopIndex);
+            //IteratorCondition的情况下，需要设置当前循环对象
+            if(itObj != null){
+                setCurrLoopObject(executableItem, itObj);
+            }
+            return toLoopFutureObj(delegate.get());
+        }
+
+        //以异步的方式执行子项，子项内部的并行任务不会阻塞当前线程
+        public CompletableFuture<LoopFutureObj> getAsync() {
+            setLoopIndex(executableItem, loopIndex);
+            if(itObj != null){
+                setCurrLoopObject(executableItem, itObj);
+            }
+            return delegate.getAsync().thenApply(this::toLoopFutureObj);
+        }
+
+        //取消这个子项，还没开始的不再执行，正在执行的会被中断
+        public void cancel() {
+            delegate.cancel();
+        }
+
+        private LoopFutureObj toLoopFutureObj(WhenFutureObj whenFutureObj) {
+            if (whenFutureObj.isSuccess()) {
                 return LoopFutureObj.success(executableItem.getId());
-            } catch (Exception e) {
-                return LoopFutureObj.fail(executableItem.getId(), e);
             }
+            // 并行循环没有超时，这里的超时结果只会是还没开始就被取消的子项
+            if (whenFutureObj.isTimeout()) {
+                return LoopFutureObj.fail(executableItem.getId(), new WhenCancelledException(
+                        StrUtil.format("loop item [{}] was cancelled before it started", executableItem.getId())));
+            }
+            return LoopFutureObj.fail(executableItem.getId(), whenFutureObj.getEx());
         }
     }
 
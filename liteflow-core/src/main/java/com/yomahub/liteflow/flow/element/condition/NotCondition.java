@@ -1,7 +1,6 @@
 package com.yomahub.liteflow.flow.element.condition;
 
 import cn.hutool.core.util.BooleanUtil;
-import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ConditionTypeEnum;
 import com.yomahub.liteflow.flow.element.Condition;
 import com.yomahub.liteflow.flow.element.Executable;
@@ -9,11 +8,15 @@ import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.slot.SlotKeyRegistry;
 
 public class NotCondition extends Condition {
 
     private final LFLog LOG = LFLoggerManager.getLogger(this.getClass());
 
+    // 在slot中存放结果用的key，每个条件对象在构建的时候分配一个，条件被回收之后key会被重用
+    private final int resultKey = SlotKeyRegistry.nextKey(this);
+
     @Override
     public void executeCondition(Integer slotIndex) throws Exception {
         Executable item = this.getItem();
@@ -26,8 +29,7 @@ public class NotCondition extends Condition {
 
         Slot slot = DataBus.getSlot(slotIndex);
 
-        String resultKey = StrUtil.format("{}_{}",this.getClass().getName(),this.hashCode());
-        slot.setNotResult(resultKey, !flag);
+        slot.setNotResult(this.resultKey, !flag);
     }
 
 
@@ -35,8 +37,7 @@ public class NotCondition extends Condition {
     @SuppressWarnings("unchecked")
     public Boolean getItemResultMetaValue(Integer slotIndex) {
         Slot slot = DataBus.getSlot(slotIndex);
-        String resultKey = StrUtil.format("{}_{}",this.getClass().getName(),this.hashCode());
-        return BooleanUtil.isTrue(slot.getNotResult(resultKey));
+        return BooleanUtil.isTrue(slot.getNotResult(this.resultKey));
     }
 
     @Override
@@ -2,17 +2,25 @@ package com.yomahub.liteflow.flow.element.condition;
 
 import cn.hutool.core.text.StrFormatter;
 import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.exception.ChainEndException;
+import com.yomahub.liteflow.flow.parallel.CompletableFutureExpand;
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
 import com.yomahub.liteflow.flow.element.Chain;
 import com.yomahub.liteflow.flow.element.Condition;
 import com.yomahub.liteflow.flow.element.Executable;
 import com.yomahub.liteflow.flow.element.Node;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.retry.RetryBudget;
+import com.yomahub.liteflow.retry.RetryHelper;
+import com.yomahub.liteflow.retry.RetryPolicy;
 import com.yomahub.liteflow.slot.DataBus;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
@@ -28,6 +36,25 @@ public class RetryCondition extends ThenCondition{
 
     private Class<? extends Exception>[] retryForExceptions = new Class[] { Exception.class };
 
+    // EL中backoff、retryBudget设置的值，小于0表示使用全局配置
+    private long backoffDelay = -1;
+
+    private long maxBackoffDelay = -1;
+
+    private double backoffMultiplier = -1;
+
+    private double backoffJitter = -1;
+
+    private int retryBudgetPercent = -1;
+
+    // 第一次执行的时候才根据全局配置生成，同一个retry表达式的所有请求共用一个预算
+    private volatile RetryPolicy retryPolicy;
+
+    private RetryBudget retryBudget;
+
+    // 重试统计的名称，chainId:被重试的对象id
+    private String retryName;
+
     public Class<? extends Exception>[] getRetryForExceptions() {
         return retryForExceptions;
     }
@@ -44,16 +71,78 @@ public class RetryCondition extends ThenCondition{
         this.retryTimes = retryTimes;
     }
 
+    public long getBackoffDelay() {
+        return backoffDelay;
+    }
+
+    public void setBackoffDelay(long backoffDelay) {
+        this.backoffDelay = backoffDelay;
+    }
+
+    public long getMaxBackoffDelay() {
+        return maxBackoffDelay;
+    }
+
+    public void setMaxBackoffDelay(long maxBackoffDelay) {
+        this.maxBackoffDelay = maxBackoffDelay;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    public double getBackoffJitter() {
+        return backoffJitter;
+    }
+
+    public void setBackoffJitter(double backoffJitter) {
+        this.backoffJitter = backoffJitter;
+    }
+
+    public int getRetryBudgetPercent() {
+        return retryBudgetPercent;
+    }
+
+    public void setRetryBudgetPercent(int retryBudgetPercent) {
+        this.retryBudgetPercent = retryBudgetPercent;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        if (retryPolicy == null) {
+            synchronized (this) {
+                if (retryPolicy == null) {
+                    RetryPolicy policy = RetryPolicy.of(LiteflowConfigGetter.get()).override(backoffDelay,
+                            maxBackoffDelay, backoffMultiplier, backoffJitter, retryBudgetPercent);
+                    retryBudget = policy.newBudget();
+                    retryPolicy = policy;
+                }
+            }
+        }
+        return retryPolicy;
+    }
+
     @Override
     public void executeCondition(Integer slotIndex) throws Exception {
         int retryTimes = this.getRetryTimes() < 0 ? 0 : this.getRetryTimes();
+        if (retryTimes == 0) {
+            super.executeCondition(slotIndex);
+            return;
+        }
         List<Class<? extends Exception>> forExceptions = Arrays.asList(this.getRetryForExceptions());
+        RetryPolicy policy = this.getRetryPolicy();
+        String retryName = this.getRetryName();
+        RetryHelper.onCall(retryName, retryBudget);
         for (int i = 0; i <= retryTimes; i ++) {
             try {
                 if(i == 0) {
                     super.executeCondition(slotIndex);
                 } else {
                     retry(slotIndex, i);
+                    RetryHelper.onRecovered(retryName);
                 }
                 break;
             } catch (ChainEndException e) {
@@ -61,7 +150,12 @@ public class RetryCondition extends ThenCondition{
             } catch (Exception e) {
                 // 判断抛出的异常是不是指定异常的子类
                 boolean flag = forExceptions.stream().anyMatch(clazz -> clazz.isAssignableFrom(e.getClass()));
-                if(!flag || i >= retryTimes) {
+                // 预算用完或者退避等待的过程中被取消，同样不再重试
+                if(!flag || i >= retryTimes || ParallelSupplier.isCurrentCancelled()
+                        || !RetryHelper.awaitRetry(retryName, policy, retryBudget, i + 1)) {
+                    if (i > 0) {
+                        RetryHelper.onExhausted(retryName);
+                    }
                     if(retryTimes > 0) {
                         String retryFailMsg = StrFormatter.format("retry fail when executing the chain[{}] because {} occurs {}.",
                                 this.getCurrChainId(), this.getCurrentExecutableId(), e);
@@ -75,6 +169,81 @@ public class RetryCondition extends ThenCondition{
         }
     }
 
+    // 异步执行的时候，退避等待交给定时器调度，等待结束之后在WHEN线程池中继续重试，不占用工作线程
+    @Override
+    public CompletableFuture<Void> executeConditionAsync(Integer slotIndex) {
+        int retryTimes = this.getRetryTimes() < 0 ? 0 : this.getRetryTimes();
+        if (retryTimes == 0) {
+            return super.executeConditionAsync(slotIndex);
+        }
+        RetryPolicy policy = this.getRetryPolicy();
+        String retryName = this.getRetryName();
+        RetryHelper.onCall(retryName, retryBudget);
+        return attemptAsync(slotIndex, 0, retryTimes, policy, retryName, ParallelSupplier.getCurrent());
+    }
+
+    private CompletableFuture<Void> attemptAsync(Integer slotIndex, int retryTime, int retryTimes, RetryPolicy policy,
+            String retryName, ParallelSupplier parallelSupplier) {
+        CompletableFuture<Void> attempt;
+        // 等待之后的重试在定时器调度的线程上执行，需要带上所在的并行分支
+        ParallelSupplier previous = ParallelSupplier.attachCurrent(parallelSupplier);
+        try {
+            if (retryTime > 0) {
+                LOG.info("{} performs {} retry ", this.getCurrentExecutableId(), retryTime);
+            }
+            attempt = super.executeConditionAsync(slotIndex);
+        } finally {
+            ParallelSupplier.restoreCurrent(previous);
+        }
+        return attempt.handle((v, ex) -> ex).thenCompose(ex -> {
+            if (ex == null) {
+                if (retryTime > 0) {
+                    RetryHelper.onRecovered(retryName);
+                }
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            Throwable cause = CompletableFutureExpand.unwrap(ex);
+            if (!(cause instanceof Exception) || cause instanceof ChainEndException) {
+                return CompletableFutureExpand.<Void>failedFuture(cause);
+            }
+            // 判断抛出的异常是不是指定异常的子类
+            boolean flag = Arrays.stream(this.getRetryForExceptions())
+                    .anyMatch(clazz -> clazz.isAssignableFrom(cause.getClass()));
+            if (!flag || retryTime >= retryTimes || (parallelSupplier != null && parallelSupplier.isCancelled())) {
+                return giveUpAsync(retryTime, retryName, cause);
+            }
+            // 预算用完或者退避等待的过程中被取消，同样不再重试
+            return RetryHelper.scheduleRetry(retryName, policy, retryBudget, retryTime + 1, parallelSupplier)
+                    .thenCompose(proceed -> {
+                        if (!proceed) {
+                            return giveUpAsync(retryTime, retryName, cause);
+                        }
+                        DataBus.getSlot(slotIndex).removeException();
+                        return attemptAsync(slotIndex, retryTime + 1, retryTimes, policy, retryName, parallelSupplier);
+                    });
+        });
+    }
+
+    private CompletableFuture<Void> giveUpAsync(int retryTime, String retryName, Throwable cause) {
+        if (retryTime > 0) {
+            RetryHelper.onExhausted(retryName);
+        }
+        String retryFailMsg = StrFormatter.format("retry fail when executing the chain[{}] because {} occurs {}.",
+                this.getCurrChainId(), this.getCurrentExecutableId(), cause);
+        LOG.error(retryFailMsg);
+        return CompletableFutureExpand.failedFuture(cause);
+    }
+
+    private String getRetryName() {
+        if (retryName == null) {
+            // 只有PRE、FINALLY的时候executableList是空的
+            String executableId = this.getExecutableList().isEmpty()
+                    ? "condition-" + this.getConditionType().getName() : this.getCurrentExecutableId();
+            retryName = StrUtil.format("{}:{}", this.getCurrChainId(), executableId);
+        }
+        return retryName;
+    }
+
     private void retry(Integer slotIndex, int retryTime) throws Exception {
         LOG.info("{} performs {} retry ", this.getCurrentExecutableId(), retryTime);
         super.executeCondition(slotIndex);
@@ -11,7 +11,10 @@ import com.yomahub.liteflow.flow.element.Node;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 选择Condition
@@ -21,9 +24,12 @@ import java.util.List;
  */
 public class SwitchCondition extends Condition {
 
-	private final String TAG_PREFIX = "tag";
+	private static final String TAG_PREFIX = "tag";
 
-	private final String TAG_FLAG = ":";
+	private static final char TAG_FLAG = ':';
+
+	// 目标节点的索引，在TO构建完之后生成，执行时根据switch的结果直接查表，不再遍历targetList
+	private volatile TargetTable targetTable;
 
 	@Override
 	public void executeCondition(Integer slotIndex) throws Exception {
@@ -50,21 +56,7 @@ public class SwitchCondition extends Condition {
 
 		Executable targetExecutor = null;
 		if (StrUtil.isNotBlank(targetId)) {
-			// 这里要判断是否使用tag模式跳转
-			if (targetId.contains(TAG_FLAG)) {
-				String[] target = targetId.split(TAG_FLAG, 2);
-				String _targetId = target[0];
-				String _targetTag = target[1];
-				targetExecutor = targetList.stream().filter(executable -> (StrUtil.startWith(_targetId, TAG_PREFIX) && ObjectUtil.equal(_targetTag,executable.getTag()))
-                        || ((StrUtil.isEmpty(_targetId) || _targetId.equals(executable.getId()))
-                        && (StrUtil.isEmpty(_targetTag) || _targetTag.equals(executable.getTag())))).findFirst().orElse(null);
-			}
-			else {
-				targetExecutor = targetList.stream()
-					.filter(executable -> ObjectUtil.equal(executable.getId(),targetId) )
-					.findFirst()
-					.orElse(null);
-			}
+			targetExecutor = getTargetTable().find(targetId);
 		}
 
 		if (ObjectUtil.isNull(targetExecutor)) {
@@ -97,6 +89,24 @@ public class SwitchCondition extends Condition {
 
 	public void addTargetItem(Executable executable) {
 		this.addExecutable(ConditionKey.SWITCH_TARGET_KEY, executable);
+		this.targetTable = null;
+	}
+
+	/**
+	 * 根据当前的targetList生成索引，由ToOperator在所有目标添加完之后调用
+	 */
+	public void buildTargetTable() {
+		this.targetTable = new TargetTable(this.getTargetList());
+	}
+
+	private TargetTable getTargetTable() {
+		TargetTable table = this.targetTable;
+		// 索引还没有生成，或者targetList在生成之后又被修改过，则重新生成
+		if (table == null || table.size != this.getTargetList().size()) {
+			table = new TargetTable(this.getTargetList());
+			this.targetTable = table;
+		}
+		return table;
 	}
 
 	public List<Executable> getTargetList() {
@@ -119,4 +129,94 @@ public class SwitchCondition extends Condition {
 		this.addExecutable(ConditionKey.SWITCH_DEFAULT_KEY, defaultExecutor);
 	}
 
+	/**
+	 * SWITCH目标节点的索引，生成之后不再修改
+	 * <p>
+	 * 每个map里存的都是该key在targetList中第一次出现的位置，这样查找的结果和之前按顺序遍历找到的第一个节点是一致的
+	 */
+	private static class TargetTable {
+
+		private final List<Executable> targetList;
+
+		private final int size;
+
+		// id -> 位置
+		private final Map<String, Integer> idIndex;
+
+		// tag -> 位置
+		private final Map<String, Integer> tagIndex;
+
+		// "id:tag" -> 位置
+		private final Map<String, Integer> idTagIndex;
+
+		private TargetTable(List<Executable> targetList) {
+			this.targetList = new ArrayList<>(targetList);
+			this.size = targetList.size();
+			Map<String, Integer> idIndex = new HashMap<>();
+			Map<String, Integer> tagIndex = new HashMap<>();
+			Map<String, Integer> idTagIndex = new HashMap<>();
+			for (int i = 0; i < size; i++) {
+				Executable executable = targetList.get(i);
+				String id = executable.getId();
+				String tag = executable.getTag();
+				if (id != null) {
+					idIndex.putIfAbsent(id, i);
+				}
+				if (tag != null) {
+					tagIndex.putIfAbsent(tag, i);
+				}
+				// id中本身带有":"的话，用"id:tag"去切分时id部分是对不上的，所以不放入索引
+				if (StrUtil.isNotEmpty(id) && StrUtil.isNotEmpty(tag) && id.indexOf(TAG_FLAG) < 0) {
+					idTagIndex.putIfAbsent(id + TAG_FLAG + tag, i);
+				}
+			}
+			this.idIndex = idIndex;
+			this.tagIndex = tagIndex;
+			this.idTagIndex = idTagIndex;
+		}
+
+		private Executable find(String targetId) {
+			int flagIndex = targetId.indexOf(TAG_FLAG);
+			// 不使用tag模式跳转，直接按id查找
+			if (flagIndex < 0) {
+				return get(idIndex.get(targetId));
+			}
+
+			String _targetId = targetId.substring(0, flagIndex);
+			String _targetTag = targetId.substring(flagIndex + 1);
+
+			// "tagxxx:yyy"的形式，所有tag为yyy的节点都能匹配上
+			Integer byTagPrefix = _targetId.startsWith(TAG_PREFIX) ? tagIndex.get(_targetTag) : null;
+
+			// id和tag都为空的时候匹配第一个节点，其中一个为空就只用另外一个去匹配
+			Integer byIdAndTag;
+			if (_targetId.isEmpty() && _targetTag.isEmpty()) {
+				byIdAndTag = size > 0 ? 0 : null;
+			}
+			else if (_targetId.isEmpty()) {
+				byIdAndTag = tagIndex.get(_targetTag);
+			}
+			else if (_targetTag.isEmpty()) {
+				byIdAndTag = idIndex.get(_targetId);
+			}
+			else {
+				byIdAndTag = idTagIndex.get(targetId);
+			}
+
+			// 两种方式都能匹配上的话，取在targetList中靠前的那一个
+			if (byTagPrefix == null) {
+				return get(byIdAndTag);
+			}
+			if (byIdAndTag == null) {
+				return get(byTagPrefix);
+			}
+			return get(Math.min(byTagPrefix, byIdAndTag));
+		}
+
+		private Executable get(Integer position) {
+			return position == null ? null : targetList.get(position);
+		}
+
+	}
+
 }
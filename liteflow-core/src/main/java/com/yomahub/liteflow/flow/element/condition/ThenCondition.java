@@ -11,9 +11,11 @@ import com.yomahub.liteflow.enums.ConditionTypeEnum;
 import com.yomahub.liteflow.exception.ChainEndException;
 import com.yomahub.liteflow.flow.element.Condition;
 import com.yomahub.liteflow.flow.element.Executable;
+import com.yomahub.liteflow.flow.parallel.CompletableFutureExpand;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -67,6 +69,37 @@ public class ThenCondition extends Condition {
 		}
 	}
 
+	@Override
+	public CompletableFuture<Void> executeConditionAsync(Integer slotIndex) {
+		List<FinallyCondition> finallyConditionList = this.getFinallyConditionList();
+
+		// 前置和主体依次串起来，前一个完成之后才开始下一个，任何一个失败后面的都不会执行
+		CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+		for (PreCondition preCondition : this.getPreConditionList()) {
+			future = future.thenCompose(v -> executeItemAsync(preCondition, slotIndex));
+		}
+		for (Executable executableItem : this.getExecutableList()) {
+			future = future.thenCompose(v -> executeItemAsync(executableItem, slotIndex));
+		}
+
+		return future.handle((v, ex) -> ex).thenCompose(ex -> {
+			Throwable cause = CompletableFutureExpand.unwrap(ex);
+			if (cause instanceof Exception && !(cause instanceof ChainEndException)) {
+				Slot slot = DataBus.getSlot(slotIndex);
+				if (slot != null) {
+					slot.setException((Exception) cause);
+				}
+			}
+			// 不管成功还是失败，后置都要执行
+			CompletableFuture<Void> finallyFuture = CompletableFuture.completedFuture(null);
+			for (FinallyCondition finallyCondition : finallyConditionList) {
+				finallyFuture = finallyFuture.thenCompose(v -> executeItemAsync(finallyCondition, slotIndex));
+			}
+			return finallyFuture.thenCompose(v -> ex == null ? CompletableFuture.<Void>completedFuture(null)
+					: CompletableFutureExpand.<Void>failedFuture(cause));
+		});
+	}
+
 	@Override
 	public void addExecutable(Executable executable) {
 		if (executable instanceof PreCondition) {
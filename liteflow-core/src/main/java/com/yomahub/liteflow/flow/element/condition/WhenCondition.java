@@ -18,6 +18,7 @@ import com.yomahub.liteflow.log.LFLoggerManager;
 import com.yomahub.liteflow.thread.ExecutorHelper;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -59,6 +60,13 @@ public class WhenCondition extends Condition {
 		executeAsyncCondition(slotIndex);
 	}
 
+	// 异步执行时，不等待并行任务完成，而是返回所有任务按照并行策略完成之后的future
+	@Override
+	public CompletableFuture<Void> executeConditionAsync(Integer slotIndex) {
+		ParallelStrategyExecutor parallelStrategyExecutor = ParallelStrategyHelper.loadInstance().buildParallelExecutor(this.getParallelStrategy());
+		return parallelStrategyExecutor.executeAsync(this, slotIndex);
+	}
+
 	@Override
 	public ConditionTypeEnum getConditionType() {
 		return ConditionTypeEnum.TYPE_WHEN;
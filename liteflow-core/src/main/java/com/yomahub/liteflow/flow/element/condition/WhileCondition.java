@@ -58,6 +58,20 @@ public class WhileCondition extends LoopCondition {
 				}
 				index++;
 			}
+		}else if (isBounded()){
+			//有界并行循环逻辑
+			int[] nextIndex = {0};
+			executeBounded(slotIndex, () -> {
+				int i = nextIndex[0];
+				if (i > 0 && executeBreak(breakItem, slotIndex, i - 1, null)) {
+					return null;
+				}
+				if (!getWhileResult(slotIndex, i)) {
+					return null;
+				}
+				nextIndex[0]++;
+				return new LoopParallelSupplier(executableItem, this.getCurrChainId(), slotIndex, i);
+			}, false);
 		}else{
 			//并行循环逻辑
 			List<CompletableFuture<LoopFutureObj>> futureList = new ArrayList<>();
@@ -0,0 +1,77 @@
+package com.yomahub.liteflow.flow.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个并行分支的排队和执行时间
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class BranchAnalysis {
+
+	private final String branchId;
+
+	private final String threadName;
+
+	private final long submitNanos;
+
+	private final long startNanos;
+
+	private long endNanos;
+
+	private final List<CmpStep> stepList = new ArrayList<>();
+
+	BranchAnalysis(CmpStep firstStep) {
+		this.branchId = firstStep.getBranchId();
+		this.threadName = firstStep.getThreadName();
+		this.submitNanos = firstStep.getBranchSubmitNanos();
+		this.startNanos = firstStep.getBranchStartNanos();
+		this.endNanos = firstStep.getEndNanos();
+	}
+
+	void addStep(CmpStep step) {
+		stepList.add(step);
+		endNanos = Math.max(endNanos, step.getEndNanos());
+	}
+
+	public String getBranchId() {
+		return branchId;
+	}
+
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * 分支提交到线程池之后，等待线程开始执行的时间
+	 */
+	public long getQueueWaitNanos() {
+		return Math.max(0L, startNanos - submitNanos);
+	}
+
+	/**
+	 * 分支从开始执行到最后一个组件执行结束的时间
+	 */
+	public long getRunNanos() {
+		return Math.max(0L, endNanos - startNanos);
+	}
+
+	public long getSubmitNanos() {
+		return submitNanos;
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public long getEndNanos() {
+		return endNanos;
+	}
+
+	public List<CmpStep> getStepList() {
+		return stepList;
+	}
+
+}
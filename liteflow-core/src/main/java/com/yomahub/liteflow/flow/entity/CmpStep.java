@@ -34,9 +34,10 @@ public class CmpStep {
 
 	private CmpStepTypeEnum stepType;
 
-	private Date startTime;
+	// 开始和结束时间，毫秒时间戳，0表示没有记录，Date对象只在获取的时候才创建
+	private long startTimeMillis;
 
-	private Date endTime;
+	private long endTimeMillis;
 
 	// 消耗的时间，毫秒为单位
 	private Long timeSpent;
@@ -62,6 +63,18 @@ public class CmpStep {
 	// 运行线程名称
 	private String threadName;
 
+	// 开始和结束的纳秒时间，只有开启了enableStepAnalysis才会记录，用于关键路径分析
+	private long startNanos;
+
+	private long endNanos;
+
+	// 所在的并行分支的id，提交到线程池的纳秒时间以及开始执行的纳秒时间，不在并行分支中执行的步骤为null和0
+	private String branchId;
+
+	private long branchSubmitNanos;
+
+	private long branchStartNanos;
+
 
 	public CmpStep(String nodeId, String nodeName, CmpStepTypeEnum stepType) {
 		this.nodeId = nodeId;
@@ -254,19 +267,35 @@ public class CmpStep {
 	}
 
 	public Date getStartTime() {
-		return startTime;
+		return startTimeMillis == 0 ? null : new Date(startTimeMillis);
 	}
 
 	public void setStartTime(Date startTime) {
-		this.startTime = startTime;
+		this.startTimeMillis = startTime == null ? 0 : startTime.getTime();
 	}
 
 	public Date getEndTime() {
-		return endTime;
+		return endTimeMillis == 0 ? null : new Date(endTimeMillis);
 	}
 
 	public void setEndTime(Date endTime) {
-		this.endTime = endTime;
+		this.endTimeMillis = endTime == null ? 0 : endTime.getTime();
+	}
+
+	public long getStartTimeMillis() {
+		return startTimeMillis;
+	}
+
+	public void setStartTimeMillis(long startTimeMillis) {
+		this.startTimeMillis = startTimeMillis;
+	}
+
+	public long getEndTimeMillis() {
+		return endTimeMillis;
+	}
+
+	public void setEndTimeMillis(long endTimeMillis) {
+		this.endTimeMillis = endTimeMillis;
 	}
 
 	public Object getStepData() {
@@ -284,4 +313,44 @@ public class CmpStep {
 	public void setThreadName(String threadName) {
 		this.threadName = threadName;
 	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public void setStartNanos(long startNanos) {
+		this.startNanos = startNanos;
+	}
+
+	public long getEndNanos() {
+		return endNanos;
+	}
+
+	public void setEndNanos(long endNanos) {
+		this.endNanos = endNanos;
+	}
+
+	public String getBranchId() {
+		return branchId;
+	}
+
+	public void setBranchId(String branchId) {
+		this.branchId = branchId;
+	}
+
+	public long getBranchSubmitNanos() {
+		return branchSubmitNanos;
+	}
+
+	public void setBranchSubmitNanos(long branchSubmitNanos) {
+		this.branchSubmitNanos = branchSubmitNanos;
+	}
+
+	public long getBranchStartNanos() {
+		return branchStartNanos;
+	}
+
+	public void setBranchStartNanos(long branchStartNanos) {
+		this.branchStartNanos = branchStartNanos;
+	}
 }
@@ -0,0 +1,182 @@
+package com.yomahub.liteflow.flow.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 一次请求的关键路径以及并行效率分析
+ * <p>
+ * 根据步骤的纳秒开始和结束时间进行计算，不依赖THEN、WHEN、循环的结构：
+ * 从最后结束的步骤开始往前推，每次找在当前步骤开始之前结束的最晚的步骤，这一串步骤就是决定请求耗时的关键路径，
+ * 并行的分支只有最慢的那个会出现在关键路径上。
+ * 墙上时间中不在关键路径步骤上的部分，是线程池排队、isAccess判断以及框架本身的开销。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class StepAnalysis {
+
+	private final List<CmpStep> criticalPath;
+
+	private final List<BranchAnalysis> branchList;
+
+	// 第一个步骤开始到最后一个步骤结束的时间
+	private final long wallNanos;
+
+	private final long criticalPathNanos;
+
+	// 所有步骤的执行时间之和
+	private final long busyNanos;
+
+	// 同一时刻最多有几个步骤在执行
+	private final int peakConcurrency;
+
+	private StepAnalysis(List<CmpStep> criticalPath, List<BranchAnalysis> branchList, long wallNanos,
+			long criticalPathNanos, long busyNanos, int peakConcurrency) {
+		this.criticalPath = criticalPath;
+		this.branchList = branchList;
+		this.wallNanos = wallNanos;
+		this.criticalPathNanos = criticalPathNanos;
+		this.busyNanos = busyNanos;
+		this.peakConcurrency = peakConcurrency;
+	}
+
+	public static StepAnalysis analyze(Collection<CmpStep> steps) {
+		// 只有记录了纳秒时间的步骤才参与分析
+		List<CmpStep> stepList = steps.stream()
+			.filter(step -> step.getEndNanos() != 0L)
+			.sorted(Comparator.comparingLong(CmpStep::getStartNanos))
+			.collect(Collectors.toList());
+		if (stepList.isEmpty()) {
+			return new StepAnalysis(Collections.emptyList(), Collections.emptyList(), 0L, 0L, 0L, 0);
+		}
+
+		long firstStart = Long.MAX_VALUE;
+		long lastEnd = Long.MIN_VALUE;
+		long busyNanos = 0L;
+		Map<String, BranchAnalysis> branchMap = new LinkedHashMap<>();
+		for (CmpStep step : stepList) {
+			firstStart = Math.min(firstStart, step.getStartNanos());
+			lastEnd = Math.max(lastEnd, step.getEndNanos());
+			busyNanos += step.getEndNanos() - step.getStartNanos();
+			if (step.getBranchStartNanos() != 0L) {
+				// 分支的开始时间加上线程名称可以唯一确定一个分支
+				String key = step.getBranchStartNanos() + "_" + step.getThreadName();
+				branchMap.computeIfAbsent(key, k -> new BranchAnalysis(step)).addStep(step);
+			}
+		}
+
+		List<CmpStep> criticalPath = new ArrayList<>();
+		boolean[] chosen = new boolean[stepList.size()];
+		long bound = Long.MAX_VALUE;
+		while (true) {
+			int latest = -1;
+			for (int i = 0; i < stepList.size(); i++) {
+				CmpStep step = stepList.get(i);
+				if (!chosen[i] && step.getEndNanos() <= bound
+						&& (latest < 0 || step.getEndNanos() > stepList.get(latest).getEndNanos())) {
+					latest = i;
+				}
+			}
+			if (latest < 0) {
+				break;
+			}
+			chosen[latest] = true;
+			criticalPath.add(stepList.get(latest));
+			bound = stepList.get(latest).getStartNanos();
+		}
+		Collections.reverse(criticalPath);
+		long criticalPathNanos = criticalPath.stream().mapToLong(step -> step.getEndNanos() - step.getStartNanos()).sum();
+
+		return new StepAnalysis(criticalPath, new ArrayList<>(branchMap.values()), lastEnd - firstStart,
+				criticalPathNanos, busyNanos, peakConcurrency(stepList));
+	}
+
+	private static int peakConcurrency(List<CmpStep> stepList) {
+		// 开始记为+1，结束记为-1，时间相同的时候先算结束
+		long[][] points = new long[stepList.size() * 2][];
+		for (int i = 0; i < stepList.size(); i++) {
+			points[i * 2] = new long[] { stepList.get(i).getStartNanos(), 1 };
+			points[i * 2 + 1] = new long[] { stepList.get(i).getEndNanos(), -1 };
+		}
+		Arrays.sort(points, Comparator.<long[]>comparingLong(point -> point[0]).thenComparingLong(point -> point[1]));
+		int current = 0;
+		int peak = 0;
+		for (long[] point : points) {
+			current += (int) point[1];
+			peak = Math.max(peak, current);
+		}
+		return peak;
+	}
+
+	/**
+	 * 关键路径上的步骤，按执行顺序排列
+	 */
+	public List<CmpStep> getCriticalPath() {
+		return criticalPath;
+	}
+
+	public String getCriticalPathStr() {
+		return criticalPath.stream().map(CmpStep::buildString).filter(Objects::nonNull).collect(Collectors.joining("==>"));
+	}
+
+	/**
+	 * 并行分支(WHEN以及并行循环)的排队时间和执行时间
+	 */
+	public List<BranchAnalysis> getBranchList() {
+		return branchList;
+	}
+
+	public long getWallNanos() {
+		return wallNanos;
+	}
+
+	public long getCriticalPathNanos() {
+		return criticalPathNanos;
+	}
+
+	/**
+	 * 墙上时间中关键路径上的组件没有在执行的时间，包括线程池排队、串行的isAccess判断以及框架本身的开销
+	 */
+	public long getCriticalPathGapNanos() {
+		return Math.max(0L, wallNanos - criticalPathNanos);
+	}
+
+	public long getBusyNanos() {
+		return busyNanos;
+	}
+
+	public int getPeakConcurrency() {
+		return peakConcurrency;
+	}
+
+	/**
+	 * 所有并行分支的排队时间之和
+	 */
+	public long getTotalQueueWaitNanos() {
+		return branchList.stream().mapToLong(BranchAnalysis::getQueueWaitNanos).sum();
+	}
+
+	/**
+	 * 平均并行度，也就是所有步骤的执行时间之和除以墙上时间，串行执行的时候不会超过1
+	 */
+	public double getParallelism() {
+		return wallNanos == 0L ? 0D : (double) busyNanos / wallNanos;
+	}
+
+	/**
+	 * 并行效率，平均并行度除以最大并行度，为1表示在整个执行过程中所有的并行线程都没有空闲
+	 */
+	public double getParallelEfficiency() {
+		return peakConcurrency == 0 ? 0D : getParallelism() / peakConcurrency;
+	}
+
+}
@@ -1,8 +1,12 @@
 package com.yomahub.liteflow.flow.executor;
 
 import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.exception.RetryScheduledException;
+import com.yomahub.liteflow.retry.AsyncRetry;
+import com.yomahub.liteflow.retry.RetryHelper;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
 import com.yomahub.liteflow.exception.ChainEndException;
@@ -26,8 +30,27 @@ public abstract class NodeExecutor {
 	 */
 	public void execute(NodeComponent instance) throws Exception {
 		int retryCount = instance.getRetryCount();
+		// 没有配置重试的组件直接执行，不做任何统计
+		if (retryCount <= 0) {
+			instance.execute();
+			return;
+		}
 		List<Class<? extends Exception>> forExceptions = Arrays.asList(instance.getRetryForExceptions());
-		for (int i = 0; i <= retryCount; i++) {
+		String nodeId = instance.getNodeId();
+		// 异步执行的时候，退避等待交给定时器调度，这一段执行先结束，等待之后从下一次重试继续
+		AsyncRetry asyncRetry = RetryHelper.takeAsyncRetry();
+		int start = asyncRetry == null ? 0 : asyncRetry.getRetryTime();
+		if (start == 0) {
+			RetryHelper.onCall(nodeId, instance.getRetryBudget());
+		}
+		else if (!asyncRetry.isProceed()) {
+			// 预算用完或者等待的过程中被取消，不再重试
+			if (start > 1) {
+				RetryHelper.onExhausted(nodeId);
+			}
+			throw asyncRetry.getException();
+		}
+		for (int i = start; i <= retryCount; i++) {
 			try {
 				// 先执行一次
 				if (i == 0) {
@@ -36,6 +59,7 @@ public abstract class NodeExecutor {
 				else {
 					// 进入重试逻辑
 					retry(instance, i);
+					RetryHelper.onRecovered(nodeId);
 				}
 				break;
 			}
@@ -46,8 +70,18 @@ public abstract class NodeExecutor {
 			catch (Exception e) {
 				// 判断抛出的异常是不是指定异常的子类
 				boolean flag = forExceptions.stream().anyMatch(clazz -> clazz.isAssignableFrom(e.getClass()));
-				// 两种情况不重试，1)抛出异常不在指定异常范围内 2)已经重试次数大于等于配置次数
-				if (!flag || i >= retryCount) {
+				// 三种情况直接不重试，1)抛出异常不在指定异常范围内 2)已经重试次数大于等于配置次数 3)所在的并行分支已经被取消
+				boolean giveUp = !flag || i >= retryCount || ParallelSupplier.isCurrentCancelled();
+				if (!giveUp && asyncRetry != null) {
+					asyncRetry.schedule(nodeId, instance.getRetryPolicy(), instance.getRetryBudget(), i + 1, e);
+					throw new RetryScheduledException();
+				}
+				// 同步执行的时候还有两种情况不重试，4)重试预算已经用完 5)退避等待的过程中被取消
+				if (giveUp
+						|| !RetryHelper.awaitRetry(nodeId, instance.getRetryPolicy(), instance.getRetryBudget(), i + 1)) {
+					if (i > 0) {
+						RetryHelper.onExhausted(nodeId);
+					}
 					throw e;
 				}
 			}
@@ -1,5 +1,7 @@
 package com.yomahub.liteflow.flow.parallel;
 
+import com.alibaba.ttl.TransmittableThreadLocal.Transmitter;
+
 import java.util.concurrent.*;
 import java.util.function.BiConsumer;
 
@@ -29,6 +31,51 @@ public class CompletableFutureExpand {
         );
     }
 
+    /**
+     * 在指定的延迟之后执行任务，等待期间不占用任何线程。任务在单线程的调度器上执行，只能做提交之类的轻量操作
+     */
+    public static ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return Delayer.delay(command, delay, unit);
+    }
+
+    /**
+     * 返回一个以异常结束的 CompletableFuture，java8 里没有 CompletableFuture.failedFuture
+     */
+    public static <T> CompletableFuture<T> failedFuture(Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+
+    /**
+     * 拿到 CompletableFuture 回调里真正的异常，回调中的异常会被包装成 CompletionException 或者 ExecutionException
+     */
+    public static Throwable unwrap(Throwable ex) {
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * 包装一个用来执行回调的 Executor，回调在执行的时候会带上调用这个方法时线程里的 TransmittableThreadLocal（比如 requestId）
+     * 回调通常是在完成上一个 future 的线程里提交的，这个线程可能是超时的调度线程，它身上并没有请求的上下文，所以要在这里提前捕获
+     * @param executor 真正执行回调的 Executor
+     * @return 包装后的 Executor
+     */
+    public static Executor captureContext(Executor executor) {
+        Object captured = Transmitter.capture();
+        return command -> executor.execute(() -> {
+            Object backup = Transmitter.replay(captured);
+            try {
+                command.run();
+            } finally {
+                Transmitter.restore(backup);
+            }
+        });
+    }
+
     /**
      * 超时时异常完成的操作
      */
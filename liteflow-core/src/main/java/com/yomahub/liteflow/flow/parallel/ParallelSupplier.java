@@ -1,12 +1,21 @@
 package com.yomahub.liteflow.flow.parallel;
 
+import cn.hutool.core.exceptions.ExceptionUtil;
 import com.yomahub.liteflow.flow.element.Executable;
+import com.yomahub.liteflow.flow.element.Node;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.trace.TraceRecorder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
 
 /**
  * 并行异步worker对象，提供给CompletableFuture用
+ * <p>
+ * 同时也是这个并行分支的取消句柄：分支超时或者并行策略已经提前完成的时候会调用{@link #cancel()}，
+ * 正在执行的线程会被中断，组件可以通过{@link com.yomahub.liteflow.core.NodeComponent#isCancelled()}感知到取消，
+ * 被取消的分支对slot的写入会被忽略。
  *
  * @author Bryan.Zhang
  * @since 2.6.4
@@ -15,28 +24,276 @@ public class ParallelSupplier implements Supplier<WhenFutureObj> {
 
 	private static final LFLog LOG = LFLoggerManager.getLogger(ParallelSupplier.class);
 
+	// 当前线程正在执行的并行分支
+	private static final ThreadLocal<ParallelSupplier> CURRENT = new ThreadLocal<>();
+
+	private static final int NEW = 0;
+
+	private static final int RUNNING = 1;
+
+	private static final int DONE = 2;
+
+	private static final int CANCELLED = 3;
+
 	private final Executable executableItem;
 
 	private final String currChainId;
 
 	private final Integer slotIndex;
 
+	// 是否在分支自己的线程里执行isAccess判断，为false的时候isAccess已经在提交之前判断过了
+	private final boolean checkAccess;
+
+	// 外层的并行分支，外层被取消的话，嵌套在里面的分支也视为被取消
+	private final ParallelSupplier parent;
+
+	// 提交分支时正在执行的span，作为分支中执行轨迹事件的父span
+	private final long traceParentSpanId;
+
+	// 分支提交到线程池以及开始执行的纳秒时间，两者之差就是分支在线程池中排队的时间
+	private final long submitNanos;
+
+	private volatile long startNanos;
+
+	// state和runner的修改都在synchronized里进行，保证中断只会发给还在执行这个分支的线程
+	private int state = NEW;
+
+	private Thread runner;
+
+	private volatile boolean cancelled;
+
+	// 分支内部是否已经感知到了取消
+	private volatile boolean cancelObserved;
+
 	public ParallelSupplier(Executable executableItem, String currChainId, Integer slotIndex) {
+		this(executableItem, currChainId, slotIndex, false);
+	}
+
+	public ParallelSupplier(Executable executableItem, String currChainId, Integer slotIndex, boolean checkAccess) {
 		this.executableItem = executableItem;
 		this.currChainId = currChainId;
 		this.slotIndex = slotIndex;
+		this.checkAccess = checkAccess;
+		this.parent = CURRENT.get();
+		this.traceParentSpanId = TraceRecorder.currentSpanId();
+		this.submitNanos = System.nanoTime();
 	}
 
 	@Override
 	public WhenFutureObj get() {
+		ParallelSupplier previous = CURRENT.get();
+		if (!begin()) {
+			return WhenFutureObj.timeOut(executableItem.getId());
+		}
+		CURRENT.set(this);
+		long previousTraceSpanId = TraceRecorder.attachParent(traceParentSpanId);
+		Exception ex = null;
 		try {
 			executableItem.setCurrChainId(currChainId);
+			if (checkAccess && !access()) {
+				return WhenFutureObj.skip(executableItem.getId());
+			}
 			executableItem.execute(slotIndex);
 			return WhenFutureObj.success(executableItem.getId());
 		}
 		catch (Exception e) {
+			ex = e;
 			return WhenFutureObj.fail(executableItem.getId(), e);
 		}
+		finally {
+			TraceRecorder.attachParent(previousTraceSpanId);
+			restore(previous);
+			end(ex);
+		}
+	}
+
+	/**
+	 * 以异步的方式执行子项，子项内部的并行任务不会阻塞当前线程
+	 * 这里只有启动子项的这段同步过程可以被中断，之后子项内部的并行分支通过parent感知取消
+	 */
+	public CompletableFuture<WhenFutureObj> getAsync() {
+		ParallelSupplier previous = CURRENT.get();
+		if (!begin()) {
+			return CompletableFuture.completedFuture(WhenFutureObj.timeOut(executableItem.getId()));
+		}
+		CURRENT.set(this);
+		long previousTraceSpanId = TraceRecorder.attachParent(traceParentSpanId);
+		CompletableFuture<Void> future;
+		try {
+			executableItem.setCurrChainId(currChainId);
+			if (checkAccess && !access()) {
+				end(null);
+				return CompletableFuture.completedFuture(WhenFutureObj.skip(executableItem.getId()));
+			}
+			future = executableItem.executeAsync(slotIndex);
+		}
+		finally {
+			TraceRecorder.attachParent(previousTraceSpanId);
+			restore(previous);
+			detach();
+		}
+		return future.handle((v, ex) -> {
+			Throwable cause = ex == null ? null : CompletableFutureExpand.unwrap(ex);
+			end(cause);
+			if (cause == null) {
+				return WhenFutureObj.success(executableItem.getId());
+			}
+			return WhenFutureObj.fail(executableItem.getId(),
+					cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+		});
+	}
+
+	/**
+	 * 执行分支的isAccess判断，判断结果会设置到node上，避免execute的时候重复执行isAccess
+	 */
+	private boolean access() {
+		boolean access;
+		try {
+			access = executableItem.isAccess(slotIndex);
+		}
+		catch (Exception e) {
+			LOG.error("there was an error when executing the when component isAccess", e);
+			access = false;
+		}
+		if (executableItem instanceof Node) {
+			Node node = (Node) executableItem;
+			if (access) {
+				node.setAccessResult(true);
+			}
+			else {
+				// 不会再执行execute，这里把isAccess设置的线程变量清理掉
+				node.removeSlotIndex();
+				node.getInstance().removeRefNode();
+			}
+		}
+		return access;
+	}
+
+	/**
+	 * 取消这个分支，如果分支正在执行，会中断执行它的线程
+	 */
+	public void cancel() {
+		synchronized (this) {
+			if (state == DONE || state == CANCELLED) {
+				return;
+			}
+			boolean running = state == RUNNING;
+			state = CANCELLED;
+			cancelled = true;
+			WhenCancelStatistics.cancelled();
+			if (running && runner != null) {
+				runner.interrupt();
+			}
+		}
+	}
+
+	public boolean isCancelled() {
+		return cancelled || (parent != null && parent.isCancelled());
+	}
+
+	/**
+	 * 当前线程正在执行的并行分支，不在并行分支中的时候返回null
+	 */
+	public static ParallelSupplier getCurrent() {
+		return CURRENT.get();
+	}
+
+	public Executable getExecutableItem() {
+		return executableItem;
+	}
+
+	public long getSubmitNanos() {
+		return submitNanos;
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * 当前线程所在的并行分支是否已经被取消，调用这个方法视为分支已经感知到了取消
+	 */
+	public static boolean isCurrentCancelled() {
+		ParallelSupplier current = CURRENT.get();
+		if (current != null && current.isCancelled()) {
+			current.cancelObserved = true;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 当前线程所在的并行分支对slot的写入是否需要被忽略
+	 */
+	public static boolean isCurrentFenced() {
+		ParallelSupplier current = CURRENT.get();
+		return current != null && current.isCancelled();
+	}
+
+	/**
+	 * 把当前线程设置为在指定的并行分支中执行，用于分支中的任务在其他线程上继续执行，比如退避等待之后的异步重试。
+	 * 这时分支的取消只能通过{@link #isCurrentCancelled()}感知，不会中断这个线程
+	 * @return 之前所在的并行分支，执行结束之后通过{@link #restoreCurrent}设置回去
+	 */
+	public static ParallelSupplier attachCurrent(ParallelSupplier supplier) {
+		ParallelSupplier previous = CURRENT.get();
+		restore(supplier);
+		return previous;
+	}
+
+	public static void restoreCurrent(ParallelSupplier previous) {
+		restore(previous);
+	}
+
+	private synchronized boolean begin() {
+		if (state == CANCELLED) {
+			// 还没开始就被取消了，直接不执行
+			state = DONE;
+			WhenCancelStatistics.stopped();
+			return false;
+		}
+		state = RUNNING;
+		runner = Thread.currentThread();
+		startNanos = System.nanoTime();
+		return true;
+	}
+
+	/**
+	 * 异步执行时，启动子项的线程返回之后就不再属于这个分支了，之后的取消不能再中断它
+	 */
+	private synchronized void detach() {
+		if (runner == Thread.currentThread() && state == CANCELLED) {
+			Thread.interrupted();
+		}
+		runner = null;
+	}
+
+	private void end(Throwable ex) {
+		synchronized (this) {
+			if (runner == Thread.currentThread() && state == CANCELLED) {
+				// 清除掉中断标记，避免影响到这个线程接下来执行的其他任务
+				Thread.interrupted();
+			}
+			runner = null;
+			if (state == CANCELLED) {
+				if (cancelObserved || (ex != null && ExceptionUtil.isCausedBy(ex, InterruptedException.class))) {
+					WhenCancelStatistics.stopped();
+				}
+				else {
+					WhenCancelStatistics.abandoned();
+				}
+			}
+			state = DONE;
+		}
+	}
+
+	private static void restore(ParallelSupplier previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		}
+		else {
+			CURRENT.set(previous);
+		}
 	}
 
 }
@@ -0,0 +1,61 @@
+package com.yomahub.liteflow.flow.parallel;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并行分支取消情况的统计
+ * <p>
+ * 被取消的分支最终只有两种结局：真正停下来的(还没开始执行、响应了中断或者通过isCancelled主动退出)，
+ * 以及被放弃的(没有理会取消，一直执行到结束)。被放弃的分支数量持续增长说明有组件在阻塞调用上没有响应中断。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class WhenCancelStatistics {
+
+	private static final LongAdder CANCELLED = new LongAdder();
+
+	private static final LongAdder STOPPED = new LongAdder();
+
+	private static final LongAdder ABANDONED = new LongAdder();
+
+	static void cancelled() {
+		CANCELLED.increment();
+	}
+
+	static void stopped() {
+		STOPPED.increment();
+	}
+
+	static void abandoned() {
+		ABANDONED.increment();
+	}
+
+	/**
+	 * 发出取消的分支数
+	 */
+	public static long getCancelledCount() {
+		return CANCELLED.sum();
+	}
+
+	/**
+	 * 取消之后真正停下来的分支数
+	 */
+	public static long getStoppedCount() {
+		return STOPPED.sum();
+	}
+
+	/**
+	 * 取消之后依然执行到结束的分支数
+	 */
+	public static long getAbandonedCount() {
+		return ABANDONED.sum();
+	}
+
+	public static void reset() {
+		CANCELLED.reset();
+		STOPPED.reset();
+		ABANDONED.reset();
+	}
+
+}
@@ -15,6 +15,9 @@ public class WhenFutureObj {
 
 	private boolean timeout;
 
+	// isAccess为false而没有执行的分支
+	private boolean skipped;
+
 	private String executorId;
 
 	private Exception ex;
@@ -36,6 +39,15 @@ public class WhenFutureObj {
 		return result;
 	}
 
+	public static WhenFutureObj skip(String executorId) {
+		WhenFutureObj result = new WhenFutureObj();
+		result.setSuccess(true);
+		result.setTimeout(false);
+		result.setSkipped(true);
+		result.setExecutorId(executorId);
+		return result;
+	}
+
 	public static WhenFutureObj timeOut(String executorId) {
 		WhenFutureObj result = new WhenFutureObj();
 		result.setSuccess(false);
@@ -78,4 +90,12 @@ public class WhenFutureObj {
 		this.timeout = timeout;
 	}
 
+	public boolean isSkipped() {
+		return skipped;
+	}
+
+	public void setSkipped(boolean skipped) {
+		this.skipped = skipped;
+	}
+
 }
@@ -18,16 +18,14 @@ import java.util.stream.Stream;
 public class AllOfParallelExecutor extends ParallelStrategyExecutor {
 
     @Override
-    public void execute(WhenCondition whenCondition, Integer slotIndex) throws Exception {
+    protected CompletableFuture<?> buildSpecifyTask(WhenCondition whenCondition, Integer slotIndex,
+                                                    List<CompletableFuture<WhenFutureObj>> allTaskList, boolean async) {
 
         // 获取所有 CompletableFuture 任务
-        List<CompletableFuture<WhenFutureObj>> whenAllTaskList = this.getWhenAllTaskList(whenCondition, slotIndex);
+        allTaskList.addAll(this.getWhenAllTaskList(whenCondition, slotIndex, async));
 
         // 把这些 CompletableFuture 通过 allOf 合成一个 CompletableFuture，表明完成所有任务
-        CompletableFuture<?> specifyTask = CompletableFuture.allOf(whenAllTaskList.toArray(new CompletableFuture[] {}));
-
-        // 结果处理
-        this.handleTaskResult(whenCondition, slotIndex, whenAllTaskList, specifyTask);
+        return CompletableFuture.allOf(allTaskList.toArray(new CompletableFuture[] {}));
 
     }
 
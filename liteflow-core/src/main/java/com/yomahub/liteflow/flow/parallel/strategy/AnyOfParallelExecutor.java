@@ -5,6 +5,7 @@ import com.yomahub.liteflow.flow.parallel.WhenFutureObj;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 完成任一任务
@@ -16,16 +17,28 @@ import java.util.concurrent.CompletableFuture;
 public class AnyOfParallelExecutor extends ParallelStrategyExecutor {
 
     @Override
-    public void execute(WhenCondition whenCondition, Integer slotIndex) throws Exception {
+    protected CompletableFuture<?> buildSpecifyTask(WhenCondition whenCondition, Integer slotIndex,
+                                                    List<CompletableFuture<WhenFutureObj>> allTaskList, boolean async) {
 
         // 获取所有 CompletableFuture 任务
-        List<CompletableFuture<WhenFutureObj>> whenAllTaskList = this.getWhenAllTaskList(whenCondition, slotIndex);
-
-        // 把这些 CompletableFuture 通过 anyOf 合成一个 CompletableFuture，表明完成任一任务
-        CompletableFuture<?> specifyTask = CompletableFuture.anyOf(whenAllTaskList.toArray(new CompletableFuture[] {}));
-
-        // 结果处理
-        this.handleTaskResult(whenCondition, slotIndex, whenAllTaskList, specifyTask);
+        allTaskList.addAll(this.getWhenAllTaskList(whenCondition, slotIndex, async));
+
+        // 把这些 CompletableFuture 合成一个 CompletableFuture，表明完成任一任务
+        // 和 anyOf 不同的是，isAccess 为 false 而被跳过的分支不算完成，只有所有分支都被跳过的时候才直接结束
+        CompletableFuture<Void> anyTask = new CompletableFuture<>();
+        if (allTaskList.isEmpty()) {
+            anyTask.complete(null);
+            return anyTask;
+        }
+        AtomicInteger remainingCount = new AtomicInteger(allTaskList.size());
+        allTaskList.forEach(future -> future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                anyTask.completeExceptionally(ex);
+            } else if (!result.isSkipped() || remainingCount.decrementAndGet() == 0) {
+                anyTask.complete(null);
+            }
+        }));
+        return anyTask;
 
     }
 
@@ -20,9 +20,13 @@ import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.slot.Slot;
 import com.yomahub.liteflow.thread.ExecutorHelper;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -51,13 +55,51 @@ public abstract class ParallelStrategyExecutor {
      */
     protected CompletableFuture<WhenFutureObj> wrappedFutureObj(Executable executable, ExecutorService parallelExecutor,
                                                                 WhenCondition whenCondition, String currChainId, Integer slotIndex) {
+        return wrappedFutureObj(executable, parallelExecutor, whenCondition, currChainId, slotIndex, false);
+    }
+
+    /**
+     * 封装 CompletableFuture 对象
+     * @param async 为 true 时，子项以异步的方式执行，子项内部的并行任务不会占用当前的线程去等待
+     * @return CompletableFuture
+     */
+    protected CompletableFuture<WhenFutureObj> wrappedFutureObj(Executable executable, ExecutorService parallelExecutor,
+                                                                WhenCondition whenCondition, String currChainId, Integer slotIndex,
+                                                                boolean async) {
+        return wrappedFutureObj(executable, parallelExecutor, whenCondition, currChainId, slotIndex, async, false);
+    }
+
+    /**
+     * 封装 CompletableFuture 对象
+     * @param checkAccess 为 true 时，isAccess 在分支自己的异步任务里判断，为 false 的分支以 skip 的结果完成
+     * @return CompletableFuture
+     */
+    protected CompletableFuture<WhenFutureObj> wrappedFutureObj(Executable executable, ExecutorService parallelExecutor,
+                                                                WhenCondition whenCondition, String currChainId, Integer slotIndex,
+                                                                boolean async, boolean checkAccess) {
+        ParallelSupplier parallelSupplier = new ParallelSupplier(executable, currChainId, slotIndex, checkAccess);
+        CompletableFuture<WhenFutureObj> future;
+        if (async) {
+            future = CompletableFuture.supplyAsync(parallelSupplier::getAsync, parallelExecutor).thenCompose(f -> f);
+        } else {
+            future = CompletableFuture.supplyAsync(parallelSupplier, parallelExecutor);
+        }
         // 套入 CompletableFutureTimeout 方法进行超时判断，如果超时则用 WhenFutureObj.timeOut 返回超时的对象
-        // 第 2 个参数是主要的本体 CompletableFuture，传入了 ParallelSupplier 和线程池对象
-        return CompletableFutureExpand.completeOnTimeout(
-                CompletableFuture.supplyAsync(new ParallelSupplier(executable, currChainId, slotIndex), parallelExecutor),
+        // 第 1 个参数是主要的本体 CompletableFuture，传入了 ParallelSupplier 和线程池对象
+        CompletableFuture<WhenFutureObj> wrappedFuture = CompletableFutureExpand.completeOnTimeout(
+                future,
                 whenCondition.getMaxWaitTime(),
                 whenCondition.getMaxWaitTimeUnit(),
                 WhenFutureObj.timeOut(executable.getId()));
+        // 超时的时候，把取消传递给真正执行分支的 ParallelSupplier，中断执行它的线程
+        // any、must、percentage 提前完成之后被放弃的分支，只有开启了 whenCancelAbandoned 才会取消，否则和之前一样执行到结束
+        wrappedFuture.whenComplete((whenFutureObj, ex) -> {
+            if (ex == null ? whenFutureObj.isTimeout()
+                    : ex instanceof CancellationException && LiteflowConfigGetter.get().getWhenCancelAbandoned()) {
+                parallelSupplier.cancel();
+            }
+        });
+        return wrappedFuture;
     }
 
     /**
@@ -92,13 +134,35 @@ public abstract class ParallelStrategyExecutor {
      * @return Executable的Stream对象
      */
     protected Stream<Executable> filterWhenTaskList(List<Executable> executableList, Integer slotIndex, String currentChainId) {
+        return filterWhenTaskList(executableList, slotIndex, currentChainId, false);
+    }
+
+    /**
+     * 过滤 WHEN 待执行任务
+     * @param parallelAccess 为 true 时不在这里判断 isAccess，而是交给各个分支自己的异步任务去判断，详见 {@link #isParallelAccess()}
+     * @return Executable的Stream对象
+     */
+    protected Stream<Executable> filterWhenTaskList(List<Executable> executableList, Integer slotIndex, String currentChainId,
+                                                    boolean parallelAccess) {
         // 1.先进行过滤，前置和后置组件过滤掉，因为在 EL Chain 处理的时候已经提出来了
         // 2.过滤 isAccess 为 false 的情况，因为不过滤这个的话，如果加上了 any，那么 isAccess 为 false 那就是最快的了
         Stream<Executable> stream = executableList.stream()
                 .filter(executable -> !(executable instanceof PreCondition) && !(executable instanceof FinallyCondition));
+        if (parallelAccess) {
+            return stream;
+        }
         return filterAccess(stream, slotIndex, currentChainId);
     }
 
+    /**
+     * 是否开启了分支并行判断 isAccess
+     * 开启之后 isAccess 为 false 的分支会以 skip 的结果完成，any 和 percentage 策略会忽略这些分支，
+     * 所以和提交之前串行过滤的语义是一样的，详见 {@link Node#isAccess(Integer)}
+     */
+    protected boolean isParallelAccess() {
+        return LiteflowConfigGetter.get().getWhenParallelAccess();
+    }
+
     // 过滤 isAccess 的方法，默认实现，同时为避免同一个 node 的 isAccess 方法重复执行，给 node 设置 isAccess 方法执行结果
     protected Stream<Executable> filterAccess(Stream<Executable> stream, Integer slotIndex, String currentChainId) {
         return stream.filter(executable -> {
@@ -125,6 +189,17 @@ public abstract class ParallelStrategyExecutor {
      * @return List
      */
     protected List<CompletableFuture<WhenFutureObj>> getWhenAllTaskList(WhenCondition whenCondition, Integer slotIndex) {
+        return getWhenAllTaskList(whenCondition, slotIndex, false);
+    }
+
+    /**
+     * 获取所有任务 CompletableFuture 集合
+     * @param whenCondition whenCondition
+     * @param slotIndex slotIndex
+     * @param async 子项是否以异步的方式执行
+     * @return List
+     */
+    protected List<CompletableFuture<WhenFutureObj>> getWhenAllTaskList(WhenCondition whenCondition, Integer slotIndex, boolean async) {
 
         String currChainId = whenCondition.getCurrChainId();
 
@@ -139,8 +214,9 @@ public abstract class ParallelStrategyExecutor {
 
         // 这里主要是做了封装 CompletableFuture 对象，用 lambda 表达式做了很多事情，这句代码要仔细理清
         // 根据 condition.getNodeList() 的集合进行流处理，用 map 进行把 executable 对象转换成 List<CompletableFuture<WhenFutureObj>>
-        List<CompletableFuture<WhenFutureObj>> completableFutureList = filterWhenTaskList(whenCondition.getExecutableList(), slotIndex, currChainId)
-                .map(executable -> wrappedFutureObj(executable, parallelExecutor, whenCondition, currChainId, slotIndex))
+        boolean parallelAccess = this.isParallelAccess();
+        List<CompletableFuture<WhenFutureObj>> completableFutureList = filterWhenTaskList(whenCondition.getExecutableList(), slotIndex, currChainId, parallelAccess)
+                .map(executable -> wrappedFutureObj(executable, parallelExecutor, whenCondition, currChainId, slotIndex, async, parallelAccess))
                 .collect(Collectors.toList());
 
         return completableFutureList;
@@ -157,20 +233,53 @@ public abstract class ParallelStrategyExecutor {
     protected void handleTaskResult(WhenCondition whenCondition, Integer slotIndex, List<CompletableFuture<WhenFutureObj>> whenAllFutureList,
                                     CompletableFuture<?> specifyTask) throws Exception {
 
-        Slot slot = DataBus.getSlot(slotIndex);
-
-        // 定义是否中断参数
-        // 这里为什么要定义成数组呢，因为后面 lambda 要用到，根据 final 不能修改引用的原则，这里用了数组对象
-        final boolean[] interrupted = { false };
-
+        boolean interrupted = false;
         try {
             // 进行执行，这句执行完后有三种可能，所有任务执行完成、任一任务执行完成、指定的任务执行完成
             specifyTask.get();
         } catch (InterruptedException | ExecutionException e) {
             LOG.error("there was an error when executing the CompletableFuture", e);
-            interrupted[0] = true;
+            interrupted = true;
         }
 
+        this.processTaskResult(whenCondition, slotIndex, whenAllFutureList, interrupted);
+    }
+
+    /**
+     * 任务结果处理的异步版本，不阻塞当前线程，而是在 specifyTask 完成之后再处理结果
+     * 结果处理以及之后的条件都放到 continuationExecutor 里执行，而不是在完成 specifyTask 的线程上执行，
+     * 因为分支超时的时候完成 specifyTask 的是全局唯一的超时调度线程，在它上面执行会拖慢其他请求的超时判断
+     * @param continuationExecutor 执行结果处理的 Executor，需要带上当前请求的上下文，详见 {@link CompletableFutureExpand#captureContext}
+     * @return 结果处理完成的 future，处理中抛出的异常会使 future 以异常结束
+     */
+    protected CompletableFuture<Void> handleTaskResultAsync(WhenCondition whenCondition, Integer slotIndex, List<CompletableFuture<WhenFutureObj>> whenAllFutureList,
+                                                           CompletableFuture<?> specifyTask, Executor continuationExecutor) {
+        return specifyTask.handleAsync((result, ex) -> {
+            if (ex != null) {
+                LOG.error("there was an error when executing the CompletableFuture", ex);
+            }
+            try {
+                this.processTaskResult(whenCondition, slotIndex, whenAllFutureList, ex != null);
+                return null;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, continuationExecutor);
+    }
+
+    /**
+     * 在 specifyTask 完成之后，处理各个任务的结果
+     * @param interruptedFlag specifyTask 是否异常结束
+     */
+    private void processTaskResult(WhenCondition whenCondition, Integer slotIndex, List<CompletableFuture<WhenFutureObj>> whenAllFutureList,
+                                   boolean interruptedFlag) throws Exception {
+
+        Slot slot = DataBus.getSlot(slotIndex);
+
+        // 定义是否中断参数
+        // 这里为什么要定义成数组呢，因为后面 lambda 要用到，根据 final 不能修改引用的原则，这里用了数组对象
+        final boolean[] interrupted = { interruptedFlag };
+
         // 拿到已经完成的 CompletableFuture 对象
         // 如果 any 为 false，那么所有任务都已经完成
         // 如果 any 为 true，那么这里拿到的是第一个完成的任务
@@ -181,17 +290,13 @@ public abstract class ParallelStrategyExecutor {
             if (f.isDone()) {
                 return true;
             } else {
-                //事实上CompletableFuture并不能cancel掉底层的线程
+                // 开启了 whenCancelAbandoned 的时候，cancel 会传递给执行这个分支的 ParallelSupplier，详见 wrappedFutureObj
                 f.cancel(true);
                 return false;
             }
         }).map(f -> {
             try {
                 WhenFutureObj whenFutureObj = f.get();
-                if (whenFutureObj.isTimeout()){
-                    //事实上CompletableFuture并不能cancel掉底层的线程
-                    f.cancel(true);
-                }
                 return whenFutureObj;
             } catch (InterruptedException | ExecutionException e) {
                 interrupted[0] = true;
@@ -231,6 +336,41 @@ public abstract class ParallelStrategyExecutor {
         }
     }
 
-    public abstract void execute(WhenCondition whenCondition, Integer slotIndex) throws Exception;
+    public void execute(WhenCondition whenCondition, Integer slotIndex) throws Exception {
+        List<CompletableFuture<WhenFutureObj>> allTaskList = new ArrayList<>();
+
+        CompletableFuture<?> specifyTask = this.buildSpecifyTask(whenCondition, slotIndex, allTaskList, false);
+
+        // 结果处理
+        this.handleTaskResult(whenCondition, slotIndex, allTaskList, specifyTask);
+    }
+
+    /**
+     * 异步执行，不阻塞当前线程等待并行任务完成
+     * @param whenCondition 并行组件对象
+     * @param slotIndex 当前 slot 的 index
+     * @return 所有任务按照并行策略完成，并且结果处理完之后的 future
+     */
+    public CompletableFuture<Void> executeAsync(WhenCondition whenCondition, Integer slotIndex) {
+        List<CompletableFuture<WhenFutureObj>> allTaskList = new ArrayList<>();
+
+        CompletableFuture<?> specifyTask = this.buildSpecifyTask(whenCondition, slotIndex, allTaskList, true);
+
+        // 结果处理放到 WHEN 的线程池里执行，并且带上当前线程里的 requestId 等上下文
+        Executor continuationExecutor = CompletableFutureExpand.captureContext(ExecutorHelper.loadInstance()
+                .buildExecutorService(whenCondition, slotIndex, whenCondition.getConditionType()));
+        return this.handleTaskResultAsync(whenCondition, slotIndex, allTaskList, specifyTask, continuationExecutor);
+    }
+
+    /**
+     * 提交所有任务，并且根据并行策略把这些任务组合成一个需要等待完成的任务
+     * @param whenCondition 并行组件对象
+     * @param slotIndex 当前 slot 的 index
+     * @param allTaskList 用来接收所有提交的任务
+     * @param async 子项是否以异步的方式执行
+     * @return 需要等待完成的任务，详见 {@link ParallelStrategyEnum}
+     */
+    protected abstract CompletableFuture<?> buildSpecifyTask(WhenCondition whenCondition, Integer slotIndex,
+                                                             List<CompletableFuture<WhenFutureObj>> allTaskList, boolean async);
 
 }
@@ -5,8 +5,7 @@ import com.yomahub.liteflow.flow.parallel.WhenFutureObj;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 完成指定阈值任务
@@ -17,53 +16,52 @@ import java.util.concurrent.atomic.LongAdder;
 public class PercentageOfParallelExecutor extends ParallelStrategyExecutor {
 
     @Override
-    public void execute(WhenCondition whenCondition, Integer slotIndex) throws Exception {
+    protected CompletableFuture<?> buildSpecifyTask(WhenCondition whenCondition, Integer slotIndex,
+                                                    List<CompletableFuture<WhenFutureObj>> whenAllTaskList, boolean async) {
 
         // 获取所有 CompletableFuture 任务
-        List<CompletableFuture<WhenFutureObj>> whenAllTaskList = this.getWhenAllTaskList(whenCondition, slotIndex);
+        whenAllTaskList.addAll(this.getWhenAllTaskList(whenCondition, slotIndex, async));
 
         int total = whenAllTaskList.size();
 
-        // 计算阈值数量（向上取整），为 0 时取 1，表示只等待一个完成，即 any
-        int thresholdCount = Math.max(1, (int) Math.ceil(total * whenCondition.getPercentage()));
-
-        // 已完成任务收集器
-        ConcurrentLinkedQueue<CompletableFuture<WhenFutureObj>> completedFutures = new ConcurrentLinkedQueue<>();
-
         // 阈值触发门闩
         CompletableFuture<Void> thresholdFuture = new CompletableFuture<>();
 
-        // 原子计数器
-        LongAdder completedCount = new LongAdder();
+        // 没有需要执行的任务，直接结束
+        if (total == 0) {
+            thresholdFuture.complete(null);
+            return thresholdFuture;
+        }
+
+        // 已完成的任务数，isAccess 为 false 而被跳过的任务单独计数
+        AtomicInteger completedCount = new AtomicInteger();
+        AtomicInteger skippedCount = new AtomicInteger();
 
         // 为每个任务添加回调
         whenAllTaskList.forEach(future ->
                 future.whenComplete((result, ex) -> {
-                    // 计数 +1
-                    completedCount.increment();
+                    if (ex == null && result.isSkipped()) {
+                        skippedCount.incrementAndGet();
+                    } else {
+                        completedCount.incrementAndGet();
+                    }
 
-                    int currentCount = completedCount.intValue();
+                    // 先计数再读取，最后一个读取的回调一定能看到所有的计数
+                    int skipped = skippedCount.get();
+                    int completed = completedCount.get();
 
-                    if (currentCount <= thresholdCount) {
-                        // 添加已完成任务
-                        completedFutures.add(future);
-                    }
+                    // 被跳过的任务不参与百分比的计算，阈值数量向上取整，为 0 时取 1，表示只等待一个完成，即 any
+                    // 跳过的任务越多阈值只会越小，所以提前达到阈值一定也满足最终的阈值
+                    int thresholdCount = Math.max(1, (int) Math.ceil((total - skipped) * whenCondition.getPercentage()));
 
-                    // 达到阈值时触发门闩（确保只触发一次）
-                    if (currentCount >= thresholdCount && !thresholdFuture.isDone()) {
+                    // 达到阈值，或者所有任务都已经结束(全部被跳过)时触发门闩，complete 本身只会生效一次
+                    if (completed >= thresholdCount || completed + skipped >= total) {
                         thresholdFuture.complete(null);
                     }
                 })
         );
 
-        // 创建组合任务（仅包含已完成任务）
-        CompletableFuture<Void> combinedTask = thresholdFuture.thenRun(() -> {
-            // 达到阈值时创建 allOf 任务
-            CompletableFuture.allOf(completedFutures.toArray(new CompletableFuture[]{})).join();
-        });
-
-        // 处理结果（会阻塞直到阈值任务完成）
-        this.handleTaskResult(whenCondition, slotIndex, whenAllTaskList, combinedTask);
+        return thresholdFuture;
 
     }
 
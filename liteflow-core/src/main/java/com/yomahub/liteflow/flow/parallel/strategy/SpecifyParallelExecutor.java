@@ -20,7 +20,8 @@ import java.util.concurrent.ExecutorService;
 public class SpecifyParallelExecutor extends ParallelStrategyExecutor {
 
     @Override
-    public void execute(WhenCondition whenCondition, Integer slotIndex) throws Exception {
+    protected CompletableFuture<?> buildSpecifyTask(WhenCondition whenCondition, Integer slotIndex,
+                                                    List<CompletableFuture<WhenFutureObj>> allTaskList, boolean async) {
 
         String currChainId = whenCondition.getCurrChainId();
 
@@ -39,16 +40,14 @@ public class SpecifyParallelExecutor extends ParallelStrategyExecutor {
         Set<String> exitingTaskIdSet = new HashSet<>();
 
         // 指定任务列表，可以为 0 或者多个
-        List<CompletableFuture<?>> specifyTaskList = new ArrayList<>();
-
-        // 所有任务集合
-        List<CompletableFuture<WhenFutureObj>> allTaskList = new ArrayList<>();
+        List<CompletableFuture<WhenFutureObj>> specifyTaskList = new ArrayList<>();
 
         // 遍历 when 所有 node，进行筛选及处理
-        filterWhenTaskList(whenCondition.getExecutableList(), slotIndex, currChainId)
+        boolean parallelAccess = this.isParallelAccess();
+        filterWhenTaskList(whenCondition.getExecutableList(), slotIndex, currChainId, parallelAccess)
                 .forEach(executable -> {
                     // 处理 task，封装成 CompletableFuture 对象
-                    CompletableFuture<WhenFutureObj> completableFutureTask = wrappedFutureObj(executable, parallelExecutor, whenCondition, currChainId, slotIndex);
+                    CompletableFuture<WhenFutureObj> completableFutureTask = wrappedFutureObj(executable, parallelExecutor, whenCondition, currChainId, slotIndex, async, parallelAccess);
                     // 存在 must 指定 ID 的 task，且该任务只会有一个或者没有
                     if (whenCondition.getSpecifyIdSet().contains(executable.getId())) {
                         // 设置指定任务 future 对象
@@ -72,10 +71,20 @@ public class SpecifyParallelExecutor extends ParallelStrategyExecutor {
             }
             // 将指定要完成的任务通过 allOf 合成一个 CompletableFuture，表示需要等待 must 方法里面所有任务完成
             specifyTask = CompletableFuture.allOf(specifyTaskList.toArray(new CompletableFuture[]{}));
+            // isAccess 在分支内部判断时，被跳过的 must 分支不算完成，和原先过滤掉它们的行为保持一致
+            // 所有 must 分支都被跳过的时候，退回到等待所有任务完成
+            if (parallelAccess) {
+                specifyTask = specifyTask.thenCompose(v -> {
+                    if (specifyTaskList.stream().allMatch(future -> future.join().isSkipped())) {
+                        LOG.warn("The specified task{} was not found, waiting for all tasks to complete by default.", whenCondition.getSpecifyIdSet());
+                        return CompletableFuture.allOf(allTaskList.toArray(new CompletableFuture[] {}));
+                    }
+                    return CompletableFuture.<Void>completedFuture(null);
+                });
+            }
         }
 
-        // 结果处理
-        this.handleTaskResult(whenCondition, slotIndex, allTaskList, specifyTask);
+        return specifyTask;
 
     }
 
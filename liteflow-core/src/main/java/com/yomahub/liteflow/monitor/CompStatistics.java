@@ -10,8 +10,11 @@ package com.yomahub.liteflow.monitor;
 /**
  * 统计类
  *
+ * @deprecated 2.15.0之后组件的执行不再以样本对象的形式记录，详见{@link MonitorBus#recordStatistics(String, String, long, boolean)}
+ *
  * @author Bryan.Zhang
  */
+@Deprecated
 public class CompStatistics implements Comparable<CompStatistics> {
 
 	private String componentClazzName;
@@ -0,0 +1,111 @@
+package com.yomahub.liteflow.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的耗时直方图，也是滑动窗口中的一个时间片
+ * <p>
+ * 桶的划分方式和HdrHistogram一样，是对数再线性的：每个2的幂次区间再平均分成 2^SUB_BITS 个桶，
+ * 所以任意一个值落到桶里之后的相对误差不会超过 1/2^SUB_BITS。记录一个样本只是几次位运算加上几次原子累加，不会产生任何对象。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+class LatencyHistogram {
+
+	// 每个2的幂次区间划分的桶的位数，3表示8个桶，相对误差12.5%
+	private static final int SUB_BITS = 3;
+
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+
+	// 能区分的最大的幂次，单位为微秒，2^32微秒大约为71分钟，超过的值都放入最后一个桶
+	private static final int MAX_EXPONENT = 32;
+
+	static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+	// 这个时间片所属的时间段编号
+	private final AtomicLong epoch = new AtomicLong(-1);
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder errorCount = new LongAdder();
+
+	private final LongAdder totalMicros = new LongAdder();
+
+	private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0L);
+
+	void record(long micros, boolean success) {
+		buckets.incrementAndGet(bucketIndex(micros));
+		count.increment();
+		totalMicros.add(micros);
+		maxMicros.accumulate(micros);
+		if (!success) {
+			errorCount.increment();
+		}
+	}
+
+	long getEpoch() {
+		return epoch.get();
+	}
+
+	/**
+	 * 把时间片切换到新的时间段，只有CAS成功的线程负责清空数据
+	 */
+	boolean rotate(long expectEpoch, long newEpoch) {
+		if (epoch.compareAndSet(expectEpoch, newEpoch)) {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				buckets.set(i, 0L);
+			}
+			count.reset();
+			errorCount.reset();
+			totalMicros.reset();
+			maxMicros.reset();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 把这个时间片的数据累加到汇总数组中，汇总数组的前BUCKET_COUNT位为各个桶的数量，后面依次为次数、错误次数、总耗时、最大耗时
+	 */
+	void mergeTo(long[] merged) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			merged[i] += buckets.get(i);
+		}
+		merged[BUCKET_COUNT] += count.sum();
+		merged[BUCKET_COUNT + 1] += errorCount.sum();
+		merged[BUCKET_COUNT + 2] += totalMicros.sum();
+		merged[BUCKET_COUNT + 3] = Math.max(merged[BUCKET_COUNT + 3], maxMicros.get());
+	}
+
+	static int bucketIndex(long micros) {
+		if (micros < SUB_COUNT) {
+			return (int) Math.max(0L, micros);
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		if (exponent > MAX_EXPONENT) {
+			return BUCKET_COUNT - 1;
+		}
+		int sub = (int) ((micros >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1));
+		return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+	}
+
+	/**
+	 * 桶能表示的最大值，百分位数用这个值来表示，保证不会低估
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_COUNT) {
+			return index;
+		}
+		int exponent = index / SUB_COUNT + SUB_BITS - 1;
+		int sub = index % SUB_COUNT;
+		long lower = (long) (SUB_COUNT + sub) << (exponent - SUB_BITS);
+		return lower + (1L << (exponent - SUB_BITS)) - 1;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.yomahub.liteflow.monitor;
+
+/**
+ * 一个统计维度(组件或者chain)的滑动窗口记录器
+ * <p>
+ * 窗口由固定数量的时间片组成，每个时间片是一个{@link LatencyHistogram}，时间片是预先创建好并且循环使用的。
+ * 时间走到一个旧的时间片时，由第一个CAS成功的线程把它清空，其他线程不会等待。
+ * 所以在切换时间片的一瞬间，可能会有极少量的样本被清空或者算到相邻的时间片里，对于统计来说这个误差是可以接受的。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+class MetricRecorder {
+
+	private final LatencyHistogram[] slices;
+
+	private final long sliceMillis;
+
+	MetricRecorder(long windowMillis, int sliceCount) {
+		this.slices = new LatencyHistogram[sliceCount];
+		for (int i = 0; i < sliceCount; i++) {
+			slices[i] = new LatencyHistogram();
+		}
+		this.sliceMillis = Math.max(1L, windowMillis / sliceCount);
+	}
+
+	void record(long now, long micros, boolean success) {
+		long epoch = now / sliceMillis;
+		LatencyHistogram slice = slices[(int) (epoch % slices.length)];
+		long sliceEpoch = slice.getEpoch();
+		// 只会往前切换，系统时间回拨的时候样本直接写入当前的时间片
+		if (sliceEpoch < epoch) {
+			slice.rotate(sliceEpoch, epoch);
+		}
+		slice.record(micros, success);
+	}
+
+	/**
+	 * 汇总窗口内所有时间片的数据
+	 */
+	MetricSnapshot snapshot(String name, long now) {
+		return MetricSnapshot.of(name, merge(now));
+	}
+
+	/**
+	 * 合并窗口内所有时间片的桶，数组末尾依次是次数、失败次数、总耗时和最大耗时
+	 */
+	long[] merge(long now) {
+		long currentEpoch = now / sliceMillis;
+		long[] merged = new long[LatencyHistogram.BUCKET_COUNT + 4];
+		for (LatencyHistogram slice : slices) {
+			long sliceEpoch = slice.getEpoch();
+			if (sliceEpoch >= 0 && sliceEpoch > currentEpoch - slices.length) {
+				slice.mergeTo(merged);
+			}
+		}
+		return merged;
+	}
+
+}
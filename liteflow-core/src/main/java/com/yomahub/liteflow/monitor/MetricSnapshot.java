@@ -0,0 +1,106 @@
+package com.yomahub.liteflow.monitor;
+
+/**
+ * 某个组件或者chain在统计窗口内的快照，耗时的单位为毫秒
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class MetricSnapshot {
+
+	private final String name;
+
+	private final long count;
+
+	private final long errorCount;
+
+	private final double avg;
+
+	private final double p50;
+
+	private final double p95;
+
+	private final double p99;
+
+	private final double max;
+
+	private MetricSnapshot(String name, long count, long errorCount, double avg, double p50, double p95, double p99,
+			double max) {
+		this.name = name;
+		this.count = count;
+		this.errorCount = errorCount;
+		this.avg = avg;
+		this.p50 = p50;
+		this.p95 = p95;
+		this.p99 = p99;
+		this.max = max;
+	}
+
+	static MetricSnapshot of(String name, long[] merged) {
+		int bucketCount = LatencyHistogram.BUCKET_COUNT;
+		long count = merged[bucketCount];
+		long errorCount = merged[bucketCount + 1];
+		long totalMicros = merged[bucketCount + 2];
+		long maxMicros = merged[bucketCount + 3];
+		// 计数和桶是分别累加的，以桶的总数来计算百分位数
+		long bucketTotal = 0;
+		for (int i = 0; i < bucketCount; i++) {
+			bucketTotal += merged[i];
+		}
+		double avg = count == 0 ? 0 : (double) totalMicros / count / 1000;
+		return new MetricSnapshot(name, count, errorCount, avg,
+				percentile(merged, bucketTotal, maxMicros, 0.50),
+				percentile(merged, bucketTotal, maxMicros, 0.95),
+				percentile(merged, bucketTotal, maxMicros, 0.99),
+				maxMicros / 1000d);
+	}
+
+	private static double percentile(long[] merged, long bucketTotal, long maxMicros, double percent) {
+		if (bucketTotal == 0) {
+			return 0;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(bucketTotal * percent));
+		long cumulative = 0;
+		for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+			cumulative += merged[i];
+			if (cumulative >= rank) {
+				// 桶的上界可能会比实际出现过的最大值还大
+				return Math.min(LatencyHistogram.bucketUpperBound(i), maxMicros) / 1000d;
+			}
+		}
+		return maxMicros / 1000d;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	public double getAvg() {
+		return avg;
+	}
+
+	public double getP50() {
+		return p50;
+	}
+
+	public double getP95() {
+		return p95;
+	}
+
+	public double getP99() {
+		return p99;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+}
@@ -8,19 +8,17 @@
 package com.yomahub.liteflow.monitor;
 
 import cn.hutool.core.util.BooleanUtil;
-import com.yomahub.liteflow.log.LFLog;
-import com.yomahub.liteflow.log.LFLoggerManager;
+import cn.hutool.core.util.StrUtil;
+import com.yomahub.liteflow.flow.parallel.WhenCancelStatistics;
 import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.retry.RetryStatistics;
 import com.yomahub.liteflow.slot.DataBus;
 import com.yomahub.liteflow.util.BoundedPriorityBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.text.MessageFormat;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -28,16 +26,29 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * 监控类元数据，打印执行器类
+ * <p>
+ * 2.15.0开始，每个组件、每个chain以及每个chain中的每个组件都有一个无锁的滑动窗口记录器，窗口长度为打印周期(period)，
+ * 记录一次执行只是几次原子累加，不会产生任何对象，详见{@link MetricRecorder}
  *
  * @author Bryan.Zhang
  */
 public class MonitorBus {
 
+	// 每个统计窗口划分的时间片数量
+	private static final int SLICE_COUNT = 10;
+
 	private LiteflowConfig liteflowConfig;
 
 	private final Logger LOG = LoggerFactory.getLogger(this.getClass());
 
-	private final ConcurrentHashMap<String, BoundedPriorityBlockingQueue<CompStatistics>> statisticsMap = new ConcurrentHashMap<>();
+	// 按照组件的nodeId统计
+	private final ConcurrentHashMap<String, MetricRecorder> nodeMetrics = new ConcurrentHashMap<>();
+
+	// 按照chainId和nodeId统计组件在某个chain中的执行，key为chainId，value的key为nodeId
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, MetricRecorder>> chainNodeMetrics = new ConcurrentHashMap<>();
+
+	// 按照chain统计整个chain的执行耗时
+	private final ConcurrentHashMap<String, MetricRecorder> chainMetrics = new ConcurrentHashMap<>();
 
 	private final ScheduledExecutorService printLogScheduler = Executors.newScheduledThreadPool(1);
 
@@ -50,47 +61,120 @@ public class MonitorBus {
 		}
 	}
 
+	/**
+	 * 记录一次组件的执行
+	 * @param nodeId 组件的nodeId
+	 * @param chainId 组件所在的chainId，会同时按照组件和(chainId, nodeId)两个维度记录，为null时只按组件记录。
+	 * chain自身的耗时由{@link #recordChainStatistics}单独记录
+	 * @param timeSpentNanos 耗时，单位为纳秒
+	 * @param success 是否执行成功
+	 */
+	public void recordStatistics(String nodeId, String chainId, long timeSpentNanos, boolean success) {
+		long now = System.currentTimeMillis();
+		long timeSpentMicros = TimeUnit.NANOSECONDS.toMicros(timeSpentNanos);
+		recorderOf(nodeMetrics, nodeId).record(now, timeSpentMicros, success);
+		if (chainId != null) {
+			recorderOf(chainNodeMetricsOf(chainId), nodeId).record(now, timeSpentMicros, success);
+		}
+	}
+
+	/**
+	 * 记录一次chain的执行，耗时为整个chain从开始到结束的时间，而不是chain里组件耗时的累加
+	 * @param chainId chainId
+	 * @param timeSpentNanos 耗时，单位为纳秒
+	 * @param success 是否执行成功
+	 */
+	public void recordChainStatistics(String chainId, long timeSpentNanos, boolean success) {
+		recorderOf(chainMetrics, chainId).record(System.currentTimeMillis(),
+				TimeUnit.NANOSECONDS.toMicros(timeSpentNanos), success);
+	}
+
+	/**
+	 * @deprecated 请使用{@link #recordStatistics(String, String, long, boolean)}，这里的统计会以组件类名作为nodeId记录
+	 */
+	@Deprecated
 	public void addStatistics(CompStatistics statistics) {
-		if (statisticsMap.containsKey(statistics.getComponentClazzName())) {
-			statisticsMap.get(statistics.getComponentClazzName()).add(statistics);
+		recordStatistics(statistics.getComponentClazzName(), null,
+				TimeUnit.MILLISECONDS.toNanos(statistics.getTimeSpent()), true);
+	}
+
+	private MetricRecorder recorderOf(ConcurrentHashMap<String, MetricRecorder> metrics, String key) {
+		// 先get，命中的时候不会创建computeIfAbsent的lambda对象
+		MetricRecorder recorder = metrics.get(key);
+		if (recorder == null) {
+			recorder = metrics.computeIfAbsent(key, k -> new MetricRecorder(liteflowConfig.getPeriod(), SLICE_COUNT));
 		}
-		else {
-			BoundedPriorityBlockingQueue<CompStatistics> queue = new BoundedPriorityBlockingQueue<>(
-					liteflowConfig.getQueueLimit());
-			queue.offer(statistics);
-			statisticsMap.put(statistics.getComponentClazzName(), queue);
+		return recorder;
+	}
+
+	private ConcurrentHashMap<String, MetricRecorder> chainNodeMetricsOf(String chainId) {
+		ConcurrentHashMap<String, MetricRecorder> metrics = chainNodeMetrics.get(chainId);
+		if (metrics == null) {
+			metrics = chainNodeMetrics.computeIfAbsent(chainId, k -> new ConcurrentHashMap<>());
 		}
+		return metrics;
 	}
 
-	public void printStatistics() {
-		try {
-			Map<String, BigDecimal> compAverageTimeSpent = new HashMap<String, BigDecimal>();
-
-			for (Entry<String, BoundedPriorityBlockingQueue<CompStatistics>> entry : statisticsMap.entrySet()) {
-				long totalTimeSpent = 0;
-				for (CompStatistics statistics : entry.getValue()) {
-					totalTimeSpent += statistics.getTimeSpent();
-				}
-				compAverageTimeSpent.put(entry.getKey(), new BigDecimal(totalTimeSpent)
-					.divide(new BigDecimal(entry.getValue().size()), 2, RoundingMode.HALF_UP));
-			}
+	/**
+	 * 获取各个组件在当前统计窗口内的快照
+	 */
+	public Map<String, MetricSnapshot> getNodeSnapshots() {
+		return snapshots(nodeMetrics);
+	}
+
+	/**
+	 * 获取各个chain在当前统计窗口内的快照
+	 */
+	public Map<String, MetricSnapshot> getChainSnapshots() {
+		return snapshots(chainMetrics);
+	}
 
-			List<Entry<String, BigDecimal>> compAverageTimeSpentEntryList = new ArrayList<>(
-					compAverageTimeSpent.entrySet());
+	/**
+	 * 获取各个组件在每个chain中当前统计窗口内的快照，key为chainId，value的key为nodeId。
+	 * 快照的名称为chainId/nodeId
+	 */
+	public Map<String, Map<String, MetricSnapshot>> getChainNodeSnapshots() {
+		long now = System.currentTimeMillis();
+		Map<String, Map<String, MetricSnapshot>> snapshotMap = new HashMap<>();
+		chainNodeMetrics.forEach((chainId, metrics) -> {
+			Map<String, MetricSnapshot> nodeSnapshotMap = new HashMap<>();
+			metrics.forEach((nodeId, recorder) -> nodeSnapshotMap.put(nodeId,
+					recorder.snapshot(StrUtil.format("{}/{}", chainId, nodeId), now)));
+			snapshotMap.put(chainId, nodeSnapshotMap);
+		});
+		return snapshotMap;
+	}
 
-			Collections.sort(compAverageTimeSpentEntryList, (o1, o2) -> o2.getValue().compareTo(o1.getValue()));
+	private Map<String, MetricSnapshot> snapshots(ConcurrentHashMap<String, MetricRecorder> metrics) {
+		long now = System.currentTimeMillis();
+		Map<String, MetricSnapshot> snapshotMap = new HashMap<>();
+		metrics.forEach((key, recorder) -> snapshotMap.put(key, recorder.snapshot(key, now)));
+		return snapshotMap;
+	}
 
+	public void printStatistics() {
+		try {
 			StringBuilder logStr = new StringBuilder();
 			logStr.append("以下为LiteFlow中间件统计信息：\n");
 			logStr.append("======================================================================================\n");
 			logStr.append("===================================SLOT INFO==========================================\n");
 			logStr.append(MessageFormat.format("SLOT TOTAL SIZE : {0}\n", liteflowConfig.getSlotSize()));
 			logStr.append(MessageFormat.format("SLOT OCCUPY COUNT : {0}\n", DataBus.OCCUPY_COUNT));
-			logStr.append("===============================TIME AVERAGE SPENT=====================================\n");
-			for (Entry<String, BigDecimal> entry : compAverageTimeSpentEntryList) {
-				logStr.append(MessageFormat.format("COMPONENT[{0}] AVERAGE TIME SPENT : {1}\n", entry.getKey(),
-						entry.getValue()));
-			}
+			logStr.append("===============================WHEN CANCEL INFO=======================================\n");
+			logStr.append(MessageFormat.format("WHEN CANCELLED COUNT : {0}\n", WhenCancelStatistics.getCancelledCount()));
+			logStr.append(MessageFormat.format("WHEN STOPPED COUNT : {0}\n", WhenCancelStatistics.getStoppedCount()));
+			logStr.append(MessageFormat.format("WHEN ABANDONED COUNT : {0}\n", WhenCancelStatistics.getAbandonedCount()));
+			logStr.append("===================================RETRY INFO=========================================\n");
+			appendRetryMetrics(logStr);
+			logStr.append("=================================COMPONENT INFO=======================================\n");
+			appendSnapshots(logStr, "COMPONENT", getNodeSnapshots());
+			logStr.append("===================================CHAIN INFO=========================================\n");
+			appendSnapshots(logStr, "CHAIN", getChainSnapshots());
+			logStr.append("==============================CHAIN COMPONENT INFO====================================\n");
+			getChainNodeSnapshots().entrySet()
+				.stream()
+				.sorted(Map.Entry.comparingByKey())
+				.forEach(entry -> appendSnapshots(logStr, "CHAIN COMPONENT", entry.getValue()));
 			logStr.append("======================================================================================\n");
 			LOG.info(logStr.toString());
 		}
@@ -99,6 +183,36 @@ public class MonitorBus {
 		}
 	}
 
+	private void appendSnapshots(StringBuilder logStr, String type, Map<String, MetricSnapshot> snapshotMap) {
+		// 按照平均耗时倒序输出，窗口内没有执行过的不输出
+		snapshotMap.values()
+			.stream()
+			.filter(snapshot -> snapshot.getCount() > 0)
+			.sorted((o1, o2) -> Double.compare(o2.getAvg(), o1.getAvg()))
+			.forEach(snapshot -> logStr.append(StrUtil.format(
+					"{}[{}] COUNT : {}, ERROR : {}, AVG : {}ms, P50 : {}ms, P95 : {}ms, P99 : {}ms, MAX : {}ms\n", type,
+					snapshot.getName(), snapshot.getCount(), snapshot.getErrorCount(), formatMillis(snapshot.getAvg()),
+					formatMillis(snapshot.getP50()), formatMillis(snapshot.getP95()), formatMillis(snapshot.getP99()),
+					formatMillis(snapshot.getMax()))));
+	}
+
+	private void appendRetryMetrics(StringBuilder logStr) {
+		// 按照重试次数倒序输出，没有发生过重试的不输出
+		RetryStatistics.getRetryMetrics()
+			.values()
+			.stream()
+			.filter(metric -> metric.getRetryCount() > 0 || metric.getDeniedCount() > 0)
+			.sorted((o1, o2) -> Long.compare(o2.getRetryCount(), o1.getRetryCount()))
+			.forEach(metric -> logStr.append(StrUtil.format(
+					"RETRY[{}] CALL : {}, RETRY : {}, DENIED : {}, RECOVERED : {}, EXHAUSTED : {}\n", metric.getName(),
+					metric.getCallCount(), metric.getRetryCount(), metric.getDeniedCount(), metric.getRecoveredCount(),
+					metric.getExhaustedCount())));
+	}
+
+	private String formatMillis(double millis) {
+		return String.format("%.2f", millis);
+	}
+
 	public LiteflowConfig getLiteflowConfig() {
 		return liteflowConfig;
 	}
@@ -111,8 +225,45 @@ public class MonitorBus {
 		this.printLogScheduler.shutdown();
 	}
 
+	/**
+	 * 2.15.0之后统计信息不再以样本的形式保存，这里按照当前窗口的直方图还原出样本，key为组件的nodeId。
+	 * 每个组件最多还原queueLimit个样本，样本的分布和直方图一致，耗时取所在桶的上界，单位为毫秒
+	 * @deprecated 请使用{@link #getNodeSnapshots()}
+	 */
+	@Deprecated
 	public ConcurrentHashMap<String, BoundedPriorityBlockingQueue<CompStatistics>> getStatisticsMap() {
+		long now = System.currentTimeMillis();
+		ConcurrentHashMap<String, BoundedPriorityBlockingQueue<CompStatistics>> statisticsMap = new ConcurrentHashMap<>();
+		nodeMetrics.forEach((nodeId, recorder) -> {
+			BoundedPriorityBlockingQueue<CompStatistics> queue = toSamples(nodeId, recorder.merge(now));
+			if (!queue.isEmpty()) {
+				statisticsMap.put(nodeId, queue);
+			}
+		});
 		return statisticsMap;
 	}
 
+	private BoundedPriorityBlockingQueue<CompStatistics> toSamples(String nodeId, long[] merged) {
+		int queueLimit = liteflowConfig.getQueueLimit();
+		BoundedPriorityBlockingQueue<CompStatistics> queue = new BoundedPriorityBlockingQueue<>(queueLimit);
+		long bucketTotal = 0;
+		for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+			bucketTotal += merged[i];
+		}
+		long maxMicros = merged[LatencyHistogram.BUCKET_COUNT + 3];
+		for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+			if (merged[i] == 0) {
+				continue;
+			}
+			// 样本数超过queueLimit时按比例缩减
+			long sampleCount = bucketTotal <= queueLimit ? merged[i]
+					: Math.round((double) merged[i] * queueLimit / bucketTotal);
+			long timeSpent = Math.min(LatencyHistogram.bucketUpperBound(i), maxMicros) / 1000;
+			for (long j = 0; j < sampleCount; j++) {
+				queue.offer(new CompStatistics(nodeId, timeSpent));
+			}
+		}
+		return queue;
+	}
+
 }
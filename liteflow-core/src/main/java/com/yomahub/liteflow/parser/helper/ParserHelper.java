@@ -8,10 +8,14 @@ import com.yomahub.liteflow.builder.LiteFlowNodeBuilder;
 import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
 import com.yomahub.liteflow.builder.prop.NodePropBean;
 import com.yomahub.liteflow.enums.NodeTypeEnum;
+import com.yomahub.liteflow.enums.ParseModeEnum;
 import com.yomahub.liteflow.exception.*;
 import com.yomahub.liteflow.flow.FlowBus;
 import com.yomahub.liteflow.flow.element.Chain;
 import com.yomahub.liteflow.flow.element.condition.AbstractCondition;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.script.ScriptExecutorFactory;
+import com.yomahub.liteflow.script.exception.ScriptSpiException;
 import com.yomahub.liteflow.util.ElRegexUtil;
 import org.dom4j.Document;
 import org.dom4j.Element;
@@ -94,6 +98,7 @@ public class ParserHelper {
      * @param documentList documentList
      */
     public static void parseNodeDocument(List<Document> documentList) {
+        List<NodePropBean> nodePropBeanList = new ArrayList<>();
         for (Document document : documentList) {
             Element rootElement = document.getRootElement();
             Element nodesElement = rootElement.element(NODES);
@@ -123,10 +128,40 @@ public class ParserHelper {
                             .setFile(file)
                             .setLanguage(language);
 
-                    ParserHelper.buildNode(nodePropBean);
+                    nodePropBeanList.add(nodePropBean);
                 }
             }
         }
+        // 所有文件里的节点一起预编译，再按顺序构建
+        precompileScripts(nodePropBeanList);
+        nodePropBeanList.forEach(ParserHelper::buildNode);
+    }
+
+    /**
+     * 把同一批节点里的脚本按语言交给脚本执行器预编译，执行器可以在这里并行编译
+     * @param nodePropBeanList 节点属性
+     */
+    private static void precompileScripts(List<NodePropBean> nodePropBeanList) {
+        if (LiteflowConfigGetter.get().getParseMode().equals(ParseModeEnum.PARSE_ONE_ON_FIRST_EXEC)) {
+            return;
+        }
+        Map<String, List<String>> languageScriptMap = new HashMap<>();
+        for (NodePropBean nodePropBean : nodePropBeanList) {
+            NodeTypeEnum nodeType = NodeTypeEnum.getEnumByCode(nodePropBean.getType());
+            if (ObjectUtil.isNull(nodeType) || !nodeType.isScript() || StrUtil.isBlank(nodePropBean.getScript())) {
+                continue;
+            }
+            languageScriptMap.computeIfAbsent(StrUtil.nullToEmpty(nodePropBean.getLanguage()), k -> new ArrayList<>())
+                    .add(nodePropBean.getScript());
+        }
+        languageScriptMap.forEach((language, scripts) -> {
+            try {
+                ScriptExecutorFactory.loadInstance().getScriptExecutor(language).precompile(scripts);
+            }
+            catch (ScriptSpiException ignored) {
+                // 没有对应的脚本插件时，构建节点的时候会抛出具体的错误
+            }
+        });
     }
 
     public static void parseChainDocument(List<Document> documentList, Set<String> chainIdSet,
@@ -192,6 +227,7 @@ public class ParserHelper {
     }
 
     public static void parseNodeJson(List<JsonNode> flowJsonObjectList) {
+        List<NodePropBean> nodePropBeanList = new ArrayList<>();
         for (JsonNode flowJsonNode : flowJsonObjectList) {
             // 当存在<nodes>节点定义时，解析node节点
             if (flowJsonNode.get(FLOW).has(NODES)) {
@@ -221,10 +257,13 @@ public class ParserHelper {
                             .setFile(file)
                             .setLanguage(language);
 
-                    ParserHelper.buildNode(nodePropBean);
+                    nodePropBeanList.add(nodePropBean);
                 }
             }
         }
+        // 所有文件里的节点一起预编译，再按顺序构建
+        precompileScripts(nodePropBeanList);
+        nodePropBeanList.forEach(ParserHelper::buildNode);
     }
 
     public static void parseChainJson(List<JsonNode> flowJsonObjectList, Set<String> chainIdSet,
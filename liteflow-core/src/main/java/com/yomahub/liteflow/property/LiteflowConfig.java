@@ -12,6 +12,7 @@ import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ParseModeEnum;
+import com.yomahub.liteflow.enums.StepRecordModeEnum;
 
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -56,7 +57,8 @@ public class LiteflowConfig {
 	// 是否打印监控log
 	private Boolean enableLog;
 
-	// 监控存储信息最大队列数量
+	// 监控存储信息最大队列数量，2.15.0之后监控改为滑动窗口统计，这个配置已经不再使用
+	@Deprecated
 	private Integer queueLimit;
 
 	// 延迟多少秒打印
@@ -125,6 +127,87 @@ public class LiteflowConfig {
 	// 是否开启虚拟线程(只在jdk21环境下奏效)
 	private Boolean enableVirtualThread;
 
+	// slot分配器的类全名
+	private String slotAllocatorClass;
+
+	// 是否启用slot对象池
+	private Boolean slotPoolEnabled;
+
+	// slot对象池的容量
+	private Integer slotPoolCapacity;
+
+	// 归还到池中的slot，内部容器超过这个大小则丢弃重建
+	private Integer slotPoolMaxRetainedSize;
+
+	// execute2RespWithEL中EL到chain的缓存容量，小于等于0表示不缓存
+	private Integer elCacheCapacity;
+
+	// WHEN的分支是否在各自的异步任务里执行isAccess判断
+	private Boolean whenParallelAccess;
+
+	// any、must、percentage提前完成之后，是否取消那些被放弃的WHEN分支，超时的分支总是会被取消
+	private Boolean whenCancelAbandoned;
+
+	// 决策路由最多匹配的chain数量，0表示不限制
+	private Integer routeMatchLimit;
+
+	// 是否缓存组件参数(data)和绑定参数(bind)反序列化之后的对象
+	private Boolean enableNodeDataCache;
+
+	// 是否在规则构建的时候就校验组件参数(data)和绑定参数(bind)中的json
+	private Boolean enableNodeDataEagerParse;
+
+	// 组件执行步骤的记录方式
+	private StepRecordModeEnum stepRecordMode;
+
+	// stepRecordMode为SAMPLED时，每多少个请求记录1个请求的步骤
+	private Integer stepSampleRate;
+
+	// 是否开启二进制执行轨迹记录
+	private Boolean enableTrace;
+
+	// 执行轨迹文件的路径，不配置的话放在临时目录下
+	private String traceFilePath;
+
+	// 每个线程的轨迹环形缓冲区大小，单位为字节
+	private Integer traceBufferSize;
+
+	// 执行轨迹文件的最大大小，单位为MB，超过之后滚动为.1文件
+	private Integer traceFileMaxSize;
+
+	// 是否开启步骤的关键路径以及并行效率分析
+	private Boolean enableStepAnalysis;
+
+	// 是否开启线程池大小的自动调整
+	private Boolean enableExecutorAutoTune;
+
+	// 线程池自动调整以及回收检查的间隔，单位为秒
+	private Integer executorAutoTuneInterval;
+
+	// 任务平均排队时间超过这个值的时候扩大线程池，单位为毫秒
+	private Integer executorAutoTuneWaitThreshold;
+
+	// 自动调整时线程池的最大大小
+	private Integer executorAutoTuneMaxPoolSize;
+
+	// 重试前等待的时间，单位为毫秒，0表示立即重试
+	private Integer retryBackoffDelay;
+
+	// 重试等待时间的上限，单位为毫秒
+	private Integer retryBackoffMaxDelay;
+
+	// 每次重试等待时间的增长倍数
+	private Double retryBackoffMultiplier;
+
+	// 重试等待时间的随机抖动比例，0到1之间
+	private Double retryBackoffJitter;
+
+	// 重试预算，重试次数最多为调用次数的百分比，0表示不限制
+	private Integer retryBudgetPercent;
+
+	// 重试预算中最多可以积攒的重试次数
+	private Integer retryBudgetCapacity;
+
 	public Boolean getEnableMonitorFile() {
 		return enableMonitorFile;
 	}
@@ -189,6 +272,7 @@ public class LiteflowConfig {
 		this.whenMaxWaitSeconds = whenMaxWaitSeconds;
 	}
 
+	@Deprecated
 	public Integer getQueueLimit() {
 		if (ObjectUtil.isNull(queueLimit)) {
 			return 200;
@@ -198,6 +282,7 @@ public class LiteflowConfig {
 		}
 	}
 
+	@Deprecated
 	public void setQueueLimit(Integer queueLimit) {
 		this.queueLimit = queueLimit;
 	}
@@ -538,4 +623,298 @@ public class LiteflowConfig {
 	public void setEnableVirtualThread(Boolean enableVirtualThread) {
 		this.enableVirtualThread = enableVirtualThread;
 	}
+
+	public String getSlotAllocatorClass() {
+		if (ObjectUtil.isNull(slotAllocatorClass)) {
+			return "com.yomahub.liteflow.slot.DefaultSlotAllocator";
+		}
+		return slotAllocatorClass;
+	}
+
+	public void setSlotAllocatorClass(String slotAllocatorClass) {
+		this.slotAllocatorClass = slotAllocatorClass;
+	}
+
+	public Boolean getSlotPoolEnabled() {
+		if (ObjectUtil.isNull(slotPoolEnabled)) {
+			return Boolean.FALSE;
+		}
+		return slotPoolEnabled;
+	}
+
+	public void setSlotPoolEnabled(Boolean slotPoolEnabled) {
+		this.slotPoolEnabled = slotPoolEnabled;
+	}
+
+	public Integer getSlotPoolCapacity() {
+		if (ObjectUtil.isNull(slotPoolCapacity)) {
+			return 1024;
+		}
+		return slotPoolCapacity;
+	}
+
+	public void setSlotPoolCapacity(Integer slotPoolCapacity) {
+		this.slotPoolCapacity = slotPoolCapacity;
+	}
+
+	public Integer getSlotPoolMaxRetainedSize() {
+		if (ObjectUtil.isNull(slotPoolMaxRetainedSize)) {
+			return 64;
+		}
+		return slotPoolMaxRetainedSize;
+	}
+
+	public void setSlotPoolMaxRetainedSize(Integer slotPoolMaxRetainedSize) {
+		this.slotPoolMaxRetainedSize = slotPoolMaxRetainedSize;
+	}
+
+	public Integer getElCacheCapacity() {
+		if (ObjectUtil.isNull(elCacheCapacity)) {
+			return 1024;
+		}
+		return elCacheCapacity;
+	}
+
+	public void setElCacheCapacity(Integer elCacheCapacity) {
+		this.elCacheCapacity = elCacheCapacity;
+	}
+
+	public Boolean getWhenParallelAccess() {
+		if (ObjectUtil.isNull(whenParallelAccess)) {
+			return Boolean.FALSE;
+		}
+		return whenParallelAccess;
+	}
+
+	public void setWhenParallelAccess(Boolean whenParallelAccess) {
+		this.whenParallelAccess = whenParallelAccess;
+	}
+
+	public Boolean getWhenCancelAbandoned() {
+		if (ObjectUtil.isNull(whenCancelAbandoned)) {
+			return Boolean.FALSE;
+		}
+		return whenCancelAbandoned;
+	}
+
+	public void setWhenCancelAbandoned(Boolean whenCancelAbandoned) {
+		this.whenCancelAbandoned = whenCancelAbandoned;
+	}
+
+	public Integer getRouteMatchLimit() {
+		if (ObjectUtil.isNull(routeMatchLimit)) {
+			return 0;
+		}
+		return routeMatchLimit;
+	}
+
+	public void setRouteMatchLimit(Integer routeMatchLimit) {
+		this.routeMatchLimit = routeMatchLimit;
+	}
+
+	public Boolean getEnableNodeDataCache() {
+		if (ObjectUtil.isNull(enableNodeDataCache)) {
+			return Boolean.FALSE;
+		}
+		return enableNodeDataCache;
+	}
+
+	public void setEnableNodeDataCache(Boolean enableNodeDataCache) {
+		this.enableNodeDataCache = enableNodeDataCache;
+	}
+
+	public Boolean getEnableNodeDataEagerParse() {
+		if (ObjectUtil.isNull(enableNodeDataEagerParse)) {
+			return Boolean.FALSE;
+		}
+		return enableNodeDataEagerParse;
+	}
+
+	public void setEnableNodeDataEagerParse(Boolean enableNodeDataEagerParse) {
+		this.enableNodeDataEagerParse = enableNodeDataEagerParse;
+	}
+
+	public StepRecordModeEnum getStepRecordMode() {
+		if (ObjectUtil.isNull(stepRecordMode)) {
+			return StepRecordModeEnum.FULL;
+		}
+		return stepRecordMode;
+	}
+
+	public void setStepRecordMode(StepRecordModeEnum stepRecordMode) {
+		this.stepRecordMode = stepRecordMode;
+	}
+
+	public Integer getStepSampleRate() {
+		if (ObjectUtil.isNull(stepSampleRate)) {
+			return 100;
+		}
+		return stepSampleRate;
+	}
+
+	public void setStepSampleRate(Integer stepSampleRate) {
+		this.stepSampleRate = stepSampleRate;
+	}
+
+	public Boolean getEnableTrace() {
+		if (ObjectUtil.isNull(enableTrace)) {
+			return Boolean.FALSE;
+		}
+		return enableTrace;
+	}
+
+	public void setEnableTrace(Boolean enableTrace) {
+		this.enableTrace = enableTrace;
+	}
+
+	public String getTraceFilePath() {
+		return traceFilePath;
+	}
+
+	public void setTraceFilePath(String traceFilePath) {
+		this.traceFilePath = traceFilePath;
+	}
+
+	public Integer getTraceBufferSize() {
+		if (ObjectUtil.isNull(traceBufferSize)) {
+			return 65536;
+		}
+		return traceBufferSize;
+	}
+
+	public void setTraceBufferSize(Integer traceBufferSize) {
+		this.traceBufferSize = traceBufferSize;
+	}
+
+	public Integer getTraceFileMaxSize() {
+		if (ObjectUtil.isNull(traceFileMaxSize)) {
+			return 256;
+		}
+		return traceFileMaxSize;
+	}
+
+	public void setTraceFileMaxSize(Integer traceFileMaxSize) {
+		this.traceFileMaxSize = traceFileMaxSize;
+	}
+
+	public Boolean getEnableStepAnalysis() {
+		if (ObjectUtil.isNull(enableStepAnalysis)) {
+			return Boolean.FALSE;
+		}
+		return enableStepAnalysis;
+	}
+
+	public void setEnableStepAnalysis(Boolean enableStepAnalysis) {
+		this.enableStepAnalysis = enableStepAnalysis;
+	}
+
+	public Boolean getEnableExecutorAutoTune() {
+		if (ObjectUtil.isNull(enableExecutorAutoTune)) {
+			return Boolean.FALSE;
+		}
+		return enableExecutorAutoTune;
+	}
+
+	public void setEnableExecutorAutoTune(Boolean enableExecutorAutoTune) {
+		this.enableExecutorAutoTune = enableExecutorAutoTune;
+	}
+
+	public Integer getExecutorAutoTuneInterval() {
+		if (ObjectUtil.isNull(executorAutoTuneInterval)) {
+			return 10;
+		}
+		return executorAutoTuneInterval;
+	}
+
+	public void setExecutorAutoTuneInterval(Integer executorAutoTuneInterval) {
+		this.executorAutoTuneInterval = executorAutoTuneInterval;
+	}
+
+	public Integer getExecutorAutoTuneWaitThreshold() {
+		if (ObjectUtil.isNull(executorAutoTuneWaitThreshold)) {
+			return 10;
+		}
+		return executorAutoTuneWaitThreshold;
+	}
+
+	public void setExecutorAutoTuneWaitThreshold(Integer executorAutoTuneWaitThreshold) {
+		this.executorAutoTuneWaitThreshold = executorAutoTuneWaitThreshold;
+	}
+
+	public Integer getExecutorAutoTuneMaxPoolSize() {
+		if (ObjectUtil.isNull(executorAutoTuneMaxPoolSize)) {
+			return Runtime.getRuntime().availableProcessors() * 8;
+		}
+		return executorAutoTuneMaxPoolSize;
+	}
+
+	public void setExecutorAutoTuneMaxPoolSize(Integer executorAutoTuneMaxPoolSize) {
+		this.executorAutoTuneMaxPoolSize = executorAutoTuneMaxPoolSize;
+	}
+
+	public Integer getRetryBackoffDelay() {
+		if (ObjectUtil.isNull(retryBackoffDelay)) {
+			return 0;
+		}
+		return retryBackoffDelay;
+	}
+
+	public void setRetryBackoffDelay(Integer retryBackoffDelay) {
+		this.retryBackoffDelay = retryBackoffDelay;
+	}
+
+	public Integer getRetryBackoffMaxDelay() {
+		if (ObjectUtil.isNull(retryBackoffMaxDelay)) {
+			return 10000;
+		}
+		return retryBackoffMaxDelay;
+	}
+
+	public void setRetryBackoffMaxDelay(Integer retryBackoffMaxDelay) {
+		this.retryBackoffMaxDelay = retryBackoffMaxDelay;
+	}
+
+	public Double getRetryBackoffMultiplier() {
+		if (ObjectUtil.isNull(retryBackoffMultiplier)) {
+			return 2.0D;
+		}
+		return retryBackoffMultiplier;
+	}
+
+	public void setRetryBackoffMultiplier(Double retryBackoffMultiplier) {
+		this.retryBackoffMultiplier = retryBackoffMultiplier;
+	}
+
+	public Double getRetryBackoffJitter() {
+		if (ObjectUtil.isNull(retryBackoffJitter)) {
+			return 0.5D;
+		}
+		return retryBackoffJitter;
+	}
+
+	public void setRetryBackoffJitter(Double retryBackoffJitter) {
+		this.retryBackoffJitter = retryBackoffJitter;
+	}
+
+	public Integer getRetryBudgetPercent() {
+		if (ObjectUtil.isNull(retryBudgetPercent)) {
+			return 0;
+		}
+		return retryBudgetPercent;
+	}
+
+	public void setRetryBudgetPercent(Integer retryBudgetPercent) {
+		this.retryBudgetPercent = retryBudgetPercent;
+	}
+
+	public Integer getRetryBudgetCapacity() {
+		if (ObjectUtil.isNull(retryBudgetCapacity)) {
+			return 10;
+		}
+		return retryBudgetCapacity;
+	}
+
+	public void setRetryBudgetCapacity(Integer retryBudgetCapacity) {
+		this.retryBudgetCapacity = retryBudgetCapacity;
+	}
 }
@@ -0,0 +1,78 @@
+package com.yomahub.liteflow.retry;
+
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
+
+/**
+ * 异步执行的组件的重试状态，组件的每一段执行都是一次完整的Node.execute，两段之间是退避等待
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class AsyncRetry {
+
+	// 组件所在的并行分支，后面几段执行在其他线程上也通过它感知取消
+	private final ParallelSupplier parallelSupplier;
+
+	// 下一段从第几次重试开始，0表示第一次执行
+	private int retryTime;
+
+	private String name;
+
+	private RetryPolicy policy;
+
+	private RetryBudget budget;
+
+	// 上一段执行最后抛出的异常，放弃重试的时候抛出
+	private Exception exception;
+
+	// 退避等待之后是否可以继续重试
+	private boolean proceed;
+
+	AsyncRetry(ParallelSupplier parallelSupplier) {
+		this.parallelSupplier = parallelSupplier;
+	}
+
+	/**
+	 * 第retryTime次重试之前需要等待，由NodeExecutor调用，之后要抛出{@link com.yomahub.liteflow.exception.RetryScheduledException}结束这一段执行
+	 */
+	public void schedule(String name, RetryPolicy policy, RetryBudget budget, int retryTime, Exception exception) {
+		this.name = name;
+		this.policy = policy;
+		this.budget = budget;
+		this.retryTime = retryTime;
+		this.exception = exception;
+	}
+
+	public int getRetryTime() {
+		return retryTime;
+	}
+
+	public Exception getException() {
+		return exception;
+	}
+
+	public boolean isProceed() {
+		return proceed;
+	}
+
+	void setProceed(boolean proceed) {
+		this.proceed = proceed;
+	}
+
+	ParallelSupplier getParallelSupplier() {
+		return parallelSupplier;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	RetryPolicy getPolicy() {
+		return policy;
+	}
+
+	RetryBudget getBudget() {
+		return budget;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.yomahub.liteflow.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算，一个令牌桶
+ * <p>
+ * 每次调用往桶里放入 percent/100 个令牌，每次重试取走一个令牌，桶空了就不再重试。
+ * 这样依赖的服务大面积失败时，重试带来的额外请求最多只有正常调用量的percent%，而不是成倍放大。
+ * 桶一开始是满的，低流量或者刚启动的时候也能正常重试。令牌以千分之一为单位保存，整个过程只有CAS，没有锁。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryBudget {
+
+	private static final long SCALE = 1000L;
+
+	private final long depositPerCall;
+
+	private final long capacity;
+
+	private final AtomicLong balance;
+
+	public RetryBudget(int percent, int capacity) {
+		this.depositPerCall = percent * SCALE / 100;
+		this.capacity = capacity * SCALE;
+		this.balance = new AtomicLong(this.capacity);
+	}
+
+	/**
+	 * 记录一次调用(不包括重试)
+	 */
+	public void deposit() {
+		while (true) {
+			long current = balance.get();
+			// 桶满的时候不做CAS，避免高并发下无谓的竞争
+			if (current >= capacity) {
+				return;
+			}
+			if (balance.compareAndSet(current, Math.min(capacity, current + depositPerCall))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 取走一次重试的令牌
+	 * @return 预算不足的时候返回false，这次失败不再重试
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			long current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (balance.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * 当前还可以重试的次数
+	 */
+	public double getAvailableRetries() {
+		return (double) balance.get() / SCALE;
+	}
+
+}
@@ -0,0 +1,190 @@
+package com.yomahub.liteflow.retry;
+
+import com.yomahub.liteflow.exception.RetryScheduledException;
+import com.yomahub.liteflow.flow.parallel.CompletableFutureExpand;
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
+import com.yomahub.liteflow.thread.ExecutorHelper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * NodeExecutor和RetryCondition共用的重试逻辑：统计、预算以及退避等待
+ * <p>
+ * 同步执行的时候退避等待直接在执行的线程上进行，异步执行(execute2Stage以及并行分支)的时候等待交给定时器调度，
+ * 等待期间不占用工作线程，等待结束之后在WHEN线程池中继续重试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryHelper {
+
+	// 异步执行组件的时候当前这一段执行的重试状态，NodeExecutor取走之后就清除，组件里嵌套执行的其他组件不会取到
+	private static final ThreadLocal<AsyncRetry> ASYNC_RETRY = new ThreadLocal<>();
+
+	/**
+	 * 记录一次调用，重试不算在内
+	 */
+	public static void onCall(String name, RetryBudget budget) {
+		RetryStatistics.called(name);
+		if (budget != null) {
+			budget.deposit();
+		}
+	}
+
+	/**
+	 * 同步执行的时候，失败之后准备进行第retryTime次重试：先按照退避策略等待，等待结束之后再从预算中取令牌
+	 * <p>
+	 * 等待是通过park在当前线程上实现的，只用于同步执行的api，这时调用方本来就在等待结果，异步执行的时候使用{@link #scheduleRetry}。
+	 * 所在的并行分支被取消或者超时的时候会被中断，这时马上结束等待并且放弃重试，
+	 * 不会像Thread.sleep那样一直占着线程等到时间结束再抛出InterruptedException，被取消的等待也不会消耗预算。
+	 * 预算已经用完的时候不再等待，直接放弃重试。
+	 * @param retryTime 第几次重试，从1开始
+	 * @return 是否可以进行重试
+	 */
+	public static boolean awaitRetry(String name, RetryPolicy policy, RetryBudget budget, int retryTime) {
+		if (!hasBudget(name, budget)) {
+			return false;
+		}
+		long backoffNanos = policy == null ? 0L : policy.getBackoffNanos(retryTime);
+		if (backoffNanos > 0L && !park(backoffNanos)) {
+			return false;
+		}
+		return acquire(name, budget);
+	}
+
+	/**
+	 * 异步执行的时候，失败之后准备进行第retryTime次重试，和{@link #awaitRetry}的区别是等待交给定时器调度，不占用当前线程
+	 * <p>
+	 * 返回的future在等待结束之后，在WHEN线程池中完成，后续的重试也就在这个线程上执行。
+	 * 等待结束的时候所在的并行分支已经被取消的话放弃重试，也不会消耗预算。
+	 * @param retryTime 第几次重试，从1开始
+	 * @param parallelSupplier 所在的并行分支，不在并行分支中的时候为null
+	 * @return 是否可以进行重试
+	 */
+	public static CompletableFuture<Boolean> scheduleRetry(String name, RetryPolicy policy, RetryBudget budget,
+			int retryTime, ParallelSupplier parallelSupplier) {
+		if (!hasBudget(name, budget)) {
+			return CompletableFuture.completedFuture(false);
+		}
+		CompletableFuture<Boolean> future = new CompletableFuture<>();
+		Runnable acquireTask = () -> future
+			.complete((parallelSupplier == null || !parallelSupplier.isCancelled()) && acquire(name, budget));
+		long backoffNanos = policy == null ? 0L : policy.getBackoffNanos(retryTime);
+		if (backoffNanos <= 0L) {
+			acquireTask.run();
+			return future;
+		}
+		// 在这里捕获请求的上下文，定时器线程上是没有的
+		Executor executor = CompletableFutureExpand.captureContext(ExecutorHelper.loadInstance().buildWhenExecutor());
+		CompletableFutureExpand.schedule(() -> {
+			try {
+				executor.execute(acquireTask);
+			}
+			catch (RejectedExecutionException e) {
+				// 线程池已经关闭，放弃重试
+				future.complete(false);
+			}
+		}, backoffNanos, TimeUnit.NANOSECONDS);
+		return future;
+	}
+
+	/**
+	 * 异步执行配置了重试的组件。每一段执行都是一次完整的segment，需要退避等待的时候NodeExecutor记录好重试状态，
+	 * 抛出{@link RetryScheduledException}结束这一段执行，等待结束之后从下一次重试开始执行下一段
+	 * @param segment 组件的一段执行，参数为是否是等待之后继续执行的
+	 */
+	public static CompletableFuture<Void> executeAsync(RetrySegment segment) {
+		return executeSegment(segment, new AsyncRetry(ParallelSupplier.getCurrent()));
+	}
+
+	private static CompletableFuture<Void> executeSegment(RetrySegment segment, AsyncRetry asyncRetry) {
+		ParallelSupplier previous = ParallelSupplier.attachCurrent(asyncRetry.getParallelSupplier());
+		ASYNC_RETRY.set(asyncRetry);
+		try {
+			segment.execute(asyncRetry.getRetryTime() > 0);
+			return CompletableFuture.completedFuture(null);
+		}
+		catch (RetryScheduledException e) {
+			// 需要退避等待，在下面调度
+		}
+		catch (Throwable e) {
+			return CompletableFutureExpand.failedFuture(e);
+		}
+		finally {
+			ASYNC_RETRY.remove();
+			ParallelSupplier.restoreCurrent(previous);
+		}
+		return scheduleRetry(asyncRetry.getName(), asyncRetry.getPolicy(), asyncRetry.getBudget(),
+				asyncRetry.getRetryTime(), asyncRetry.getParallelSupplier())
+			.thenCompose(proceed -> {
+				asyncRetry.setProceed(proceed);
+				return executeSegment(segment, asyncRetry);
+			});
+	}
+
+	/**
+	 * 取走当前线程上异步执行的重试状态，同步执行的时候返回null
+	 */
+	public static AsyncRetry takeAsyncRetry() {
+		AsyncRetry asyncRetry = ASYNC_RETRY.get();
+		if (asyncRetry != null) {
+			ASYNC_RETRY.remove();
+		}
+		return asyncRetry;
+	}
+
+	public static void onRecovered(String name) {
+		RetryStatistics.recovered(name);
+	}
+
+	public static void onExhausted(String name) {
+		RetryStatistics.exhausted(name);
+	}
+
+	// 预算已经用完的时候不再等待
+	private static boolean hasBudget(String name, RetryBudget budget) {
+		if (budget != null && budget.getAvailableRetries() < 1) {
+			RetryStatistics.denied(name);
+			return false;
+		}
+		return true;
+	}
+
+	// 等待的过程中预算可能被其他请求用完了
+	private static boolean acquire(String name, RetryBudget budget) {
+		if (budget != null && !budget.tryAcquire()) {
+			RetryStatistics.denied(name);
+			return false;
+		}
+		RetryStatistics.retried(name);
+		return true;
+	}
+
+	private static boolean park(long nanos) {
+		long deadline = System.nanoTime() + nanos;
+		long remaining = nanos;
+		while (remaining > 0L) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.currentThread().isInterrupted() || ParallelSupplier.isCurrentCancelled()) {
+				return false;
+			}
+			remaining = deadline - System.nanoTime();
+		}
+		return true;
+	}
+
+	/**
+	 * 组件的一段执行
+	 */
+	@FunctionalInterface
+	public interface RetrySegment {
+
+		void execute(boolean resumed) throws Exception;
+
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.yomahub.liteflow.retry;
+
+/**
+ * 一个组件或者一个retry表达式的重试统计快照
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryMetric {
+
+	// 组件的nodeId，或者retry表达式所在的chainId和被重试的对象id
+	private String name;
+
+	// 调用次数，不包括重试
+	private long callCount;
+
+	private long retryCount;
+
+	// 因为重试预算不足而放弃的重试次数
+	private long deniedCount;
+
+	// 重试之后成功的次数
+	private long recoveredCount;
+
+	// 重试之后依然失败的次数
+	private long exhaustedCount;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public long getCallCount() {
+		return callCount;
+	}
+
+	public void setCallCount(long callCount) {
+		this.callCount = callCount;
+	}
+
+	public long getRetryCount() {
+		return retryCount;
+	}
+
+	public void setRetryCount(long retryCount) {
+		this.retryCount = retryCount;
+	}
+
+	public long getDeniedCount() {
+		return deniedCount;
+	}
+
+	public void setDeniedCount(long deniedCount) {
+		this.deniedCount = deniedCount;
+	}
+
+	public long getRecoveredCount() {
+		return recoveredCount;
+	}
+
+	public void setRecoveredCount(long recoveredCount) {
+		this.recoveredCount = recoveredCount;
+	}
+
+	public long getExhaustedCount() {
+		return exhaustedCount;
+	}
+
+	public void setExhaustedCount(long exhaustedCount) {
+		this.exhaustedCount = exhaustedCount;
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.yomahub.liteflow.retry;
+
+import com.yomahub.liteflow.property.LiteflowConfig;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重试的退避和预算策略
+ * <p>
+ * 第n次重试前等待 delay * multiplier^(n-1) 毫秒，不超过maxDelay，然后在[等待时间 * (1 - jitter), 等待时间]之间随机取值，
+ * 避免大量请求在同一时刻一起重试。全局的策略来自LiteflowConfig，@LiteflowRetry和EL中的backoff、retryBudget可以覆盖其中的部分值。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryPolicy {
+
+	// 第一次重试前等待的时间，单位为毫秒，0表示立即重试
+	private final long delay;
+
+	private final long maxDelay;
+
+	private final double multiplier;
+
+	// 随机抖动的比例，0到1之间
+	private final double jitter;
+
+	// 重试次数最多为调用次数的百分比，0表示不限制
+	private final int budgetPercent;
+
+	// 预算中最多可以积攒的重试次数
+	private final int budgetCapacity;
+
+	public RetryPolicy(long delay, long maxDelay, double multiplier, double jitter, int budgetPercent,
+			int budgetCapacity) {
+		this.delay = Math.max(0L, delay);
+		this.maxDelay = Math.max(this.delay, maxDelay);
+		this.multiplier = Math.max(1D, multiplier);
+		this.jitter = Math.min(1D, Math.max(0D, jitter));
+		this.budgetPercent = Math.max(0, budgetPercent);
+		this.budgetCapacity = Math.max(1, budgetCapacity);
+	}
+
+	/**
+	 * 全局的重试策略
+	 */
+	public static RetryPolicy of(LiteflowConfig liteflowConfig) {
+		return new RetryPolicy(liteflowConfig.getRetryBackoffDelay(), liteflowConfig.getRetryBackoffMaxDelay(),
+				liteflowConfig.getRetryBackoffMultiplier(), liteflowConfig.getRetryBackoffJitter(),
+				liteflowConfig.getRetryBudgetPercent(), liteflowConfig.getRetryBudgetCapacity());
+	}
+
+	/**
+	 * 用指定的值覆盖当前的策略，小于0的值表示沿用当前策略的值
+	 */
+	public RetryPolicy override(long delay, long maxDelay, double multiplier, double jitter, int budgetPercent) {
+		return new RetryPolicy(delay < 0 ? this.delay : delay, maxDelay < 0 ? this.maxDelay : maxDelay,
+				multiplier < 0 ? this.multiplier : multiplier, jitter < 0 ? this.jitter : jitter,
+				budgetPercent < 0 ? this.budgetPercent : budgetPercent, this.budgetCapacity);
+	}
+
+	/**
+	 * 第retryTime次重试之前需要等待的纳秒数
+	 * @param retryTime 第几次重试，从1开始
+	 */
+	public long getBackoffNanos(int retryTime) {
+		if (delay == 0L) {
+			return 0L;
+		}
+		double backoff = delay * Math.pow(multiplier, Math.max(0, retryTime - 1));
+		long backoffNanos = TimeUnit.MILLISECONDS.toNanos((long) Math.min(backoff, maxDelay));
+		if (jitter == 0D) {
+			return backoffNanos;
+		}
+		long jitterNanos = (long) (backoffNanos * jitter);
+		return backoffNanos - (jitterNanos == 0L ? 0L : ThreadLocalRandom.current().nextLong(jitterNanos + 1));
+	}
+
+	/**
+	 * 新建一个按照此策略限制重试次数的预算，不限制的时候返回null
+	 */
+	public RetryBudget newBudget() {
+		return budgetPercent == 0 ? null : new RetryBudget(budgetPercent, budgetCapacity);
+	}
+
+	public long getDelay() {
+		return delay;
+	}
+
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	public double getJitter() {
+		return jitter;
+	}
+
+	public int getBudgetPercent() {
+		return budgetPercent;
+	}
+
+	public int getBudgetCapacity() {
+		return budgetCapacity;
+	}
+
+}
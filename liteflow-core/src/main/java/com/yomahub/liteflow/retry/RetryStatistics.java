@@ -0,0 +1,85 @@
+package com.yomahub.liteflow.retry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 重试情况的统计，按照组件的nodeId或者retry表达式统计
+ * <p>
+ * 只有配置了重试的组件和retry表达式才会被统计，重试次数和调用次数的比例持续升高说明依赖的服务出现了问题。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryStatistics {
+
+	private static final Map<String, Counter> COUNTER_MAP = new ConcurrentHashMap<>();
+
+	static void called(String name) {
+		counterOf(name).call.increment();
+	}
+
+	static void retried(String name) {
+		counterOf(name).retry.increment();
+	}
+
+	static void denied(String name) {
+		counterOf(name).denied.increment();
+	}
+
+	static void recovered(String name) {
+		counterOf(name).recovered.increment();
+	}
+
+	static void exhausted(String name) {
+		counterOf(name).exhausted.increment();
+	}
+
+	private static Counter counterOf(String name) {
+		// 先get，命中的时候不会创建computeIfAbsent的lambda对象
+		Counter counter = COUNTER_MAP.get(name);
+		if (counter == null) {
+			counter = COUNTER_MAP.computeIfAbsent(name, key -> new Counter());
+		}
+		return counter;
+	}
+
+	/**
+	 * 获取所有的重试统计，key为nodeId或者retry表达式的名称
+	 */
+	public static Map<String, RetryMetric> getRetryMetrics() {
+		Map<String, RetryMetric> metricMap = new HashMap<>();
+		COUNTER_MAP.forEach((name, counter) -> {
+			RetryMetric metric = new RetryMetric();
+			metric.setName(name);
+			metric.setCallCount(counter.call.sum());
+			metric.setRetryCount(counter.retry.sum());
+			metric.setDeniedCount(counter.denied.sum());
+			metric.setRecoveredCount(counter.recovered.sum());
+			metric.setExhaustedCount(counter.exhausted.sum());
+			metricMap.put(name, metric);
+		});
+		return metricMap;
+	}
+
+	public static void reset() {
+		COUNTER_MAP.clear();
+	}
+
+	private static class Counter {
+
+		private final LongAdder call = new LongAdder();
+
+		private final LongAdder retry = new LongAdder();
+
+		private final LongAdder denied = new LongAdder();
+
+		private final LongAdder recovered = new LongAdder();
+
+		private final LongAdder exhausted = new LongAdder();
+
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.yomahub.liteflow.script;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,6 +14,9 @@ public class ScriptBeanManager {
 
 	private static final Map<String, Object> scriptBeanMap = new HashMap<>();
 
+	// 脚本bean的只读视图，作为共享的一层挂到脚本的绑定表上，不再每次执行都复制一遍
+	private static final Map<String, Object> readOnlyScriptBeanMap = Collections.unmodifiableMap(scriptBeanMap);
+
 	public static void addScriptBean(String key, Object bean) {
 		scriptBeanMap.put(key, bean);
 	}
@@ -21,4 +25,8 @@ public class ScriptBeanManager {
 		return scriptBeanMap;
 	}
 
+	public static Map<String, Object> getReadOnlyScriptBeanMap() {
+		return readOnlyScriptBeanMap;
+	}
+
 }
@@ -1,9 +1,16 @@
 package com.yomahub.liteflow.script;
 
+import cn.hutool.core.util.ObjectUtil;
 import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.DataBus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * script执行前的包装元参数
+ * <p>
+ * 一次节点执行只会构建一个wrap，各个生命周期方法共用，脚本里的_meta元数据和上下文绑定也只在第一次用到时构建一次
  *
  * @author Bryan.Zhang
  * @since 2.9.0
@@ -26,12 +33,22 @@ public class ScriptExecuteWrap {
 
 	public NodeComponent cmp;
 
+	// 缓存的元数据，任意属性被修改之后重新构建
+	private Map<String, Object> metaMap;
+
+	// 缓存的上下文和元数据绑定，由执行器构建，任意属性被修改之后重新构建
+	private Map<String, Object> bindingMap;
+
+	// 执行器在本次节点执行中使用的脚本实例，各个生命周期方法共用，节点执行完之后随wrap一起回收
+	private Object scriptInstance;
+
 	public int getSlotIndex() {
 		return slotIndex;
 	}
 
 	public void setSlotIndex(int slotIndex) {
 		this.slotIndex = slotIndex;
+		clearCache();
 	}
 
 	/**
@@ -48,6 +65,7 @@ public class ScriptExecuteWrap {
 	 */
 	public void setCurrChainName(String currChainName) {
 		this.currChainId = currChainName;
+		clearCache();
 	}
 
 	public String getCurrChainId() {
@@ -56,6 +74,7 @@ public class ScriptExecuteWrap {
 
 	public void setCurrChainId(String currChainId) {
 		this.currChainId = currChainId;
+		clearCache();
 	}
 
 	public String getNodeId() {
@@ -64,6 +83,7 @@ public class ScriptExecuteWrap {
 
 	public void setNodeId(String nodeId) {
 		this.nodeId = nodeId;
+		clearCache();
 	}
 
 	public String getTag() {
@@ -72,6 +92,7 @@ public class ScriptExecuteWrap {
 
 	public void setTag(String tag) {
 		this.tag = tag;
+		clearCache();
 	}
 
 	public Object getCmpData() {
@@ -80,6 +101,7 @@ public class ScriptExecuteWrap {
 
 	public void setCmpData(Object cmpData) {
 		this.cmpData = cmpData;
+		clearCache();
 	}
 
 	public Integer getLoopIndex() {
@@ -88,6 +110,7 @@ public class ScriptExecuteWrap {
 
 	public void setLoopIndex(Integer loopIndex) {
 		this.loopIndex = loopIndex;
+		clearCache();
 	}
 
 	public Object getLoopObject() {
@@ -96,6 +119,7 @@ public class ScriptExecuteWrap {
 
 	public void setLoopObject(Object loopObject) {
 		this.loopObject = loopObject;
+		clearCache();
 	}
 
 	public NodeComponent getCmp() {
@@ -104,5 +128,59 @@ public class ScriptExecuteWrap {
 
 	public void setCmp(NodeComponent cmp) {
 		this.cmp = cmp;
+		clearCache();
 	}
+
+	/**
+	 * 脚本中_meta对应的元数据，直接按属性构建，不再通过反射把wrap转换成map
+	 * @return 元数据map
+	 */
+	public Map<String, Object> getMetaMap() {
+		if (metaMap != null) {
+			return metaMap;
+		}
+		Map<String, Object> map = new LinkedHashMap<>(16);
+		map.put("slotIndex", slotIndex);
+		map.put("currChainName", currChainId);
+		map.put("currChainId", currChainId);
+		map.put("nodeId", nodeId);
+		map.put("tag", tag);
+		map.put("cmpData", cmpData);
+		map.put("loopIndex", loopIndex);
+		map.put("loopObject", loopObject);
+		map.put("cmp", cmp);
+
+		// 在元数据里放入主Chain的流程参数
+		map.put("requestData", cmp.getRequestData());
+
+		// 如果有隐式流程，则放入隐式流程的流程参数
+		Object subRequestData = DataBus.getSlot(slotIndex).getChainReqData(currChainId);
+		if (ObjectUtil.isNotNull(subRequestData)) {
+			map.put("subRequestData", subRequestData);
+		}
+		this.metaMap = map;
+		return map;
+	}
+
+	public Object getScriptInstance() {
+		return scriptInstance;
+	}
+
+	public void setScriptInstance(Object scriptInstance) {
+		this.scriptInstance = scriptInstance;
+	}
+
+	Map<String, Object> getBindingMap() {
+		return bindingMap;
+	}
+
+	void setBindingMap(Map<String, Object> bindingMap) {
+		this.bindingMap = bindingMap;
+	}
+
+	private void clearCache() {
+		this.metaMap = null;
+		this.bindingMap = null;
+	}
+
 }
@@ -1,15 +1,16 @@
 package com.yomahub.liteflow.script;
 
-import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import com.yomahub.liteflow.enums.ScriptTypeEnum;
 import com.yomahub.liteflow.exception.LiteFlowException;
 import com.yomahub.liteflow.lifecycle.LifeCycleHolder;
 import com.yomahub.liteflow.slot.DataBus;
-import com.yomahub.liteflow.slot.Slot;
 import com.yomahub.liteflow.spi.holder.CmpAroundAspectHolder;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -65,31 +66,48 @@ public abstract class ScriptExecutor {
 
 	public abstract ScriptTypeEnum scriptType();
 
+	/**
+	 * 解析规则时把同一批脚本交给执行器预编译，之后逐个load时可以直接使用编译结果，默认不做处理
+	 * @param scripts 脚本内容
+	 */
+	public void precompile(Collection<String> scripts) {
+	}
+
 	public void bindParam(ScriptExecuteWrap wrap, BiConsumer<String, Object> putConsumer, BiConsumer<String, Object> putIfAbsentConsumer){
+		bindParam(wrap, putConsumer);
+
+		// 放入用户自己定义的bean
+		ScriptBeanManager.getScriptBeanMap().forEach(putIfAbsentConsumer);
+	}
+
+	/**
+	 * 只绑定上下文和元数据，用户自己定义的bean由执行器通过{@link ScriptBeanManager#getReadOnlyScriptBeanMap()}作为共享的一层挂载
+	 */
+	public void bindParam(ScriptExecuteWrap wrap, BiConsumer<String, Object> putConsumer){
 		// 往脚本语言绑定表里循环增加绑定上下文的key
 		// key的规则为自定义上下文的simpleName
 		// 比如你的自定义上下文为AbcContext，那么key就为:abcContext
 		// 这里不统一放一个map的原因是考虑到有些用户会调用上下文里的方法，而不是参数，所以脚本语言的绑定表里也是放多个上下文
 		DataBus.getContextBeanList(wrap.getSlotIndex()).forEach(tuple -> putConsumer.accept(tuple.get(0), tuple.get(1)));
 
-		// 把wrap对象转换成元数据map
-		Map<String, Object> metaMap = BeanUtil.beanToMap(wrap);
-
-		// 在元数据里放入主Chain的流程参数
-		Slot slot = DataBus.getSlot(wrap.getSlotIndex());
-		metaMap.put("requestData", wrap.cmp.getRequestData());
-
-		// 如果有隐式流程，则放入隐式流程的流程参数
-		Object subRequestData = slot.getChainReqData(wrap.getCurrChainId());
-		if (ObjectUtil.isNotNull(subRequestData)) {
-			metaMap.put("subRequestData", subRequestData);
-		}
-
 		// 往脚本上下文里放入元数据
-		putConsumer.accept("_meta", metaMap);
+		putConsumer.accept("_meta", wrap.getMetaMap());
+	}
 
-		// 放入用户自己定义的bean
-		ScriptBeanManager.getScriptBeanMap().forEach(putIfAbsentConsumer);
+	/**
+	 * 本次节点执行的上下文和元数据绑定，缓存在wrap上，isAccess、process等各个生命周期方法共用同一份
+	 * @param wrap 本次节点执行的wrap
+	 * @return 只读的绑定map，执行器在它上面再叠加本次调用可写的一层
+	 */
+	public Map<String, Object> getBindingMap(ScriptExecuteWrap wrap) {
+		Map<String, Object> bindingMap = wrap.getBindingMap();
+		if (bindingMap == null) {
+			Map<String, Object> map = new HashMap<>();
+			bindParam(wrap, map::put);
+			bindingMap = Collections.unmodifiableMap(map);
+			wrap.setBindingMap(bindingMap);
+		}
+		return bindingMap;
 	}
 
 	/**
@@ -0,0 +1,17 @@
+package com.yomahub.liteflow.script.bytecode;
+
+/**
+ * Java脚本字节码缓存的配置项Key，java、javax、javax-pro三个插件共用
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public interface BytecodeCacheSettingMapKey {
+
+	// 字节码缓存的本地目录，不配置时不使用磁盘缓存
+	String BYTECODE_CACHE_DIR = "java-bytecode-cache-dir";
+
+	// 启动时并行编译脚本的线程数，大于1时开启
+	String COMPILE_PARALLELISM = "java-compile-parallelism";
+
+}
@@ -0,0 +1,31 @@
+package com.yomahub.liteflow.script.bytecode;
+
+import java.util.Map;
+
+/**
+ * 直接从字节码定义脚本类的类加载器
+ * <p>
+ * 每个脚本单独一个类加载器，不同脚本生成的类名相同也不会冲突，脚本被卸载之后这些类也可以被回收。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class BytecodeClassLoader extends ClassLoader {
+
+	private final Map<String, byte[]> bytecodes;
+
+	public BytecodeClassLoader(ClassLoader parent, Map<String, byte[]> bytecodes) {
+		super(parent);
+		this.bytecodes = bytecodes;
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		byte[] bytecode = bytecodes.get(name);
+		if (bytecode == null) {
+			return super.findClass(name);
+		}
+		return defineClass(name, bytecode, 0, bytecode.length);
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.yomahub.liteflow.script.bytecode;
+
+import java.util.Map;
+
+/**
+ * 一个脚本编译出来的所有类的字节码
+ * <p>
+ * 脚本里定义的内部类、匿名类会编译成多个class，这里和入口类放在一起，定义时使用同一个类加载器。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class CompiledClasses {
+
+	// 入口类的类名
+	private final String mainClassName;
+
+	// 类名 -> 字节码
+	private final Map<String, byte[]> bytecodes;
+
+	public CompiledClasses(String mainClassName, Map<String, byte[]> bytecodes) {
+		this.mainClassName = mainClassName;
+		this.bytecodes = bytecodes;
+	}
+
+	/**
+	 * 用一个新的类加载器定义这些类，返回入口类
+	 * @param parentClassLoader 父类加载器，脚本里引用的类从这里加载
+	 * @return 入口类
+	 */
+	public Class<?> defineMainClass(ClassLoader parentClassLoader) throws ClassNotFoundException {
+		return new BytecodeClassLoader(parentClassLoader, bytecodes).loadClass(mainClassName);
+	}
+
+	public String getMainClassName() {
+		return mainClassName;
+	}
+
+	public Map<String, byte[]> getBytecodes() {
+		return bytecodes;
+	}
+
+}
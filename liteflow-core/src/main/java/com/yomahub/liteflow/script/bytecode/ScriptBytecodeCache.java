@@ -0,0 +1,298 @@
+package com.yomahub.liteflow.script.bytecode;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.yomahub.liteflow.log.LFLog;
+import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.util.LOGOPrinter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Java脚本的字节码缓存
+ * <p>
+ * 编译好的字节码按照脚本源码、执行器、编译器的包装方式，以及JDK、LiteFlow和编译器的版本的hash保存在本地目录里，
+ * 重启之后命中的脚本直接定义类，不用再编译。
+ * 启动时还可以把没有命中的脚本放到一个有界的线程池里并行编译，编译结果在节点load的时候取出使用。
+ * 缓存的key不包含脚本所引用的类，应用升级导致这些类的签名变化时，需要清空缓存目录。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ScriptBytecodeCache {
+
+	private static final LFLog LOG = LFLoggerManager.getLogger(ScriptBytecodeCache.class);
+
+	private static final int MAGIC = 0x4C46424B;
+
+	private static final String FILE_SUFFIX = ".lfclass";
+
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+	// 执行器的名称，同样的源码在不同执行器下生成的类不同
+	private final String executorName;
+
+	private final ClassLoader parentClassLoader;
+
+	// 缓存目录，为null时只在内存里保存并行预编译的结果
+	private final Path cacheDir;
+
+	private final int compileParallelism;
+
+	private final Compiler compiler;
+
+	// 并行预编译的结果，节点load时取出
+	private final Map<String, CompiledClasses> precompiledMap = new ConcurrentHashMap<>();
+
+	public ScriptBytecodeCache(String executorName, ClassLoader parentClassLoader, String cacheDir,
+			int compileParallelism, Compiler compiler) {
+		this.executorName = executorName;
+		this.parentClassLoader = parentClassLoader;
+		this.cacheDir = StrUtil.isBlank(cacheDir) ? null : Paths.get(cacheDir);
+		this.compileParallelism = compileParallelism;
+		this.compiler = compiler;
+	}
+
+	/**
+	 * 是否配置了磁盘缓存或者并行编译，都没有配置时执行器按照原来的方式编译
+	 */
+	public boolean isEnabled() {
+		return cacheDir != null || compileParallelism > 1;
+	}
+
+	/**
+	 * 得到脚本的入口类，依次从预编译结果、磁盘缓存中查找，都没有命中时编译并写入磁盘缓存
+	 * @param source 执行器转换之后的脚本源码
+	 * @return 入口类
+	 */
+	public Class<?> loadClass(String source) throws Exception {
+		String key = getKey(source);
+		CompiledClasses compiledClasses = precompiledMap.remove(key);
+		if (compiledClasses == null) {
+			compiledClasses = read(key);
+		}
+		if (compiledClasses == null) {
+			compiledClasses = compiler.compile(getClassName(key), source);
+			write(key, compiledClasses);
+		}
+		return compiledClasses.defineMainClass(parentClassLoader);
+	}
+
+	/**
+	 * 在有界的线程池里并行编译磁盘缓存没有命中的脚本，单个脚本编译失败时忽略，节点load时会再编译一次并抛出具体的错误
+	 * @param scripts 原始的脚本
+	 * @param converter 执行器把原始脚本转换成源码的方法
+	 */
+	public void precompile(Collection<String> scripts, Function<String, String> converter) {
+		if (compileParallelism <= 1) {
+			return;
+		}
+		Map<String, String> missSourceMap = new LinkedHashMap<>();
+		for (String script : scripts) {
+			try {
+				String source = converter.apply(script);
+				String key = getKey(source);
+				if (!precompiledMap.containsKey(key) && !missSourceMap.containsKey(key) && !exists(key)) {
+					missSourceMap.put(key, source);
+				}
+			}
+			catch (Exception e) {
+				LOG.debug("script precompile skipped, it will be compiled on loading: {}", e.getMessage());
+			}
+		}
+		if (missSourceMap.size() <= 1) {
+			return;
+		}
+
+		long start = System.currentTimeMillis();
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ExecutorService executorService = Executors.newFixedThreadPool(
+				Math.min(compileParallelism, missSourceMap.size()), r -> {
+					Thread thread = new Thread(r, "liteflow-script-compile-" + THREAD_NUMBER.getAndIncrement());
+					thread.setDaemon(true);
+					thread.setContextClassLoader(contextClassLoader);
+					return thread;
+				});
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			missSourceMap.forEach((key, source) -> futures.add(executorService.submit(() -> {
+				try {
+					CompiledClasses compiledClasses = compiler.compile(getClassName(key), source);
+					write(key, compiledClasses);
+					precompiledMap.put(key, compiledClasses);
+				}
+				catch (Exception e) {
+					LOG.debug("script precompile failed, it will be compiled again on loading: {}", e.getMessage());
+				}
+			})));
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (Exception e) {
+			LOG.debug("script precompile is not finished, the rest will be compiled on loading: {}", e.getMessage());
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+		LOG.info("[{}] precompiled {} scripts in parallel, cost {}ms", executorName, missSourceMap.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	public void clear() {
+		precompiledMap.clear();
+	}
+
+	private String getKey(String source) {
+		return DigestUtil.sha256Hex(executorName + "\n" + System.getProperty("java.version") + "\n"
+				+ LOGOPrinter.getVersionNo() + "\n" + compiler.getSignature() + "\n" + source);
+	}
+
+	private String getClassName(String key) {
+		return "LiteflowScript$" + key.substring(0, 16);
+	}
+
+	private boolean exists(String key) {
+		return cacheDir != null && Files.exists(getPath(key));
+	}
+
+	private Path getPath(String key) {
+		return cacheDir.resolve(key + FILE_SUFFIX);
+	}
+
+	private CompiledClasses read(String key) {
+		if (!exists(key)) {
+			return null;
+		}
+		Path path = getPath(key);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("unknown file format");
+			}
+			String mainClassName = in.readUTF();
+			int size = in.readInt();
+			Map<String, byte[]> bytecodes = new LinkedHashMap<>();
+			for (int i = 0; i < size; i++) {
+				String className = in.readUTF();
+				byte[] bytecode = new byte[in.readInt()];
+				in.readFully(bytecode);
+				bytecodes.put(className, bytecode);
+			}
+			return new CompiledClasses(mainClassName, bytecodes);
+		}
+		catch (Exception e) {
+			// 文件损坏时删除，重新编译
+			LOG.warn("script bytecode cache file[{}] is broken, it will be compiled again: {}", path, e.getMessage());
+			try {
+				Files.deleteIfExists(path);
+			}
+			catch (IOException ignored) {
+			}
+			return null;
+		}
+	}
+
+	private void write(String key, CompiledClasses compiledClasses) {
+		if (cacheDir == null) {
+			return;
+		}
+		// 先写临时文件再移动过去，多个进程共用一个目录时也不会读到写了一半的文件
+		Path tmpPath = null;
+		try {
+			Files.createDirectories(cacheDir);
+			tmpPath = Files.createTempFile(cacheDir, key, ".tmp");
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+				out.writeInt(MAGIC);
+				out.writeUTF(compiledClasses.getMainClassName());
+				out.writeInt(compiledClasses.getBytecodes().size());
+				for (Map.Entry<String, byte[]> entry : compiledClasses.getBytecodes().entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeInt(entry.getValue().length);
+					out.write(entry.getValue());
+				}
+			}
+			try {
+				Files.move(tmpPath, getPath(key), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpPath, getPath(key), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			// 写缓存失败不影响脚本的加载
+			LOG.warn("failed to write script bytecode cache to [{}]: {}", cacheDir, e.getMessage());
+			if (tmpPath != null) {
+				try {
+					Files.deleteIfExists(tmpPath);
+				}
+				catch (IOException ignored) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * 得到依赖的版本，先从jar的manifest里取，没有的话再从maven打包时生成的pom.properties里取
+	 * @param clazz 依赖里的任意一个类
+	 * @return 版本号，都取不到时返回unknown
+	 */
+	public static String getArtifactVersion(Class<?> clazz, String groupId, String artifactId) {
+		Package pkg = clazz.getPackage();
+		if (pkg != null && StrUtil.isNotBlank(pkg.getImplementationVersion())) {
+			return pkg.getImplementationVersion();
+		}
+		String resource = StrUtil.format("META-INF/maven/{}/{}/pom.properties", groupId, artifactId);
+		try (InputStream in = clazz.getClassLoader().getResourceAsStream(resource)) {
+			if (in != null) {
+				Properties properties = new Properties();
+				properties.load(in);
+				return properties.getProperty("version", "unknown");
+			}
+		}
+		catch (IOException e) {
+			LOG.debug("failed to read the version of {}:{}: {}", groupId, artifactId, e.getMessage());
+		}
+		return "unknown";
+	}
+
+	/**
+	 * 把源码编译成字节码，由各个执行器实现
+	 */
+	public interface Compiler {
+
+		/**
+		 * 编译器把源码包装成类的方式，比如编译器的版本、参数和返回类型，变化之后缓存的key也跟着变化
+		 */
+		String getSignature();
+
+		CompiledClasses compile(String className, String source) throws Exception;
+
+	}
+
+}
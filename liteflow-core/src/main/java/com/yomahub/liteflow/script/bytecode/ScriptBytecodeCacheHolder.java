@@ -0,0 +1,55 @@
+package com.yomahub.liteflow.script.bytecode;
+
+import cn.hutool.core.convert.Convert;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+
+import java.util.Map;
+
+/**
+ * 执行器持有的字节码缓存
+ * <p>
+ * 执行器在整个进程里只初始化一次，这里在配置对象变化之后按照新的配置重新构建缓存。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ScriptBytecodeCacheHolder {
+
+	private final String executorName;
+
+	private final ClassLoader parentClassLoader;
+
+	private final ScriptBytecodeCache.Compiler compiler;
+
+	// 构建字节码缓存时使用的配置
+	private LiteflowConfig liteflowConfig;
+
+	private ScriptBytecodeCache bytecodeCache;
+
+	public ScriptBytecodeCacheHolder(String executorName, ClassLoader parentClassLoader,
+			ScriptBytecodeCache.Compiler compiler) {
+		this.executorName = executorName;
+		this.parentClassLoader = parentClassLoader;
+		this.compiler = compiler;
+	}
+
+	public synchronized ScriptBytecodeCache get() {
+		LiteflowConfig currentConfig = LiteflowConfigGetter.get();
+		if (bytecodeCache == null || liteflowConfig != currentConfig) {
+			Map<String, String> scriptSetting = currentConfig.getScriptSetting();
+			bytecodeCache = new ScriptBytecodeCache(executorName, parentClassLoader,
+					scriptSetting.get(BytecodeCacheSettingMapKey.BYTECODE_CACHE_DIR),
+					Convert.toInt(scriptSetting.get(BytecodeCacheSettingMapKey.COMPILE_PARALLELISM), 1), compiler);
+			liteflowConfig = currentConfig;
+		}
+		return bytecodeCache;
+	}
+
+	public synchronized void clear() {
+		if (bytecodeCache != null) {
+			bytecodeCache.clear();
+		}
+	}
+
+}
@@ -3,6 +3,7 @@ package com.yomahub.liteflow.script.jsr223;
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.script.ScriptBeanManager;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 import com.yomahub.liteflow.script.ScriptExecutor;
 import com.yomahub.liteflow.script.exception.ScriptLoadException;
@@ -13,7 +14,6 @@ import javax.script.Compilable;
 import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
-import javax.script.SimpleBindings;
 import javax.script.ScriptException;
 import java.util.ArrayList;
 import java.util.List;
@@ -77,9 +77,8 @@ public abstract class JSR223ScriptExecutor extends ScriptExecutor {
 		}
 
 		CompiledScript compiledScript = compiledScriptMap.get(wrap.getNodeId());
-		Bindings bindings = new SimpleBindings();
-
-		bindParam(wrap, bindings::put, bindings::putIfAbsent);
+		// 上下文和元数据缓存在wrap上，脚本bean作为共享的只读层挂载，每次调用只新建一个可写的空层
+		Bindings bindings = new LayeredBindings(getBindingMap(wrap), ScriptBeanManager.getReadOnlyScriptBeanMap());
 
 		return compiledScript.eval(bindings);
 	}
@@ -0,0 +1,102 @@
+package com.yomahub.liteflow.script.jsr223;
+
+import javax.script.Bindings;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 分层的脚本绑定表
+ * <p>
+ * 最上层是本次调用可写的一层，中间是本次节点执行的上下文和元数据(各个生命周期方法共用)，最下层是所有执行共享的只读map(比如脚本bean)。
+ * 读取时从上往下找，写入和删除只作用于最上层，所以下面两层不用每次调用都复制一遍。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class LayeredBindings extends AbstractMap<String, Object> implements Bindings {
+
+	private final Map<String, Object> base;
+
+	private final Map<String, Object> shared;
+
+	// 脚本很少写入绑定表，用到时才创建
+	private Map<String, Object> local;
+
+	public LayeredBindings(Map<String, Object> shared) {
+		this(Collections.emptyMap(), shared);
+	}
+
+	public LayeredBindings(Map<String, Object> base, Map<String, Object> shared) {
+		this.base = base;
+		this.shared = shared;
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		checkKey(key);
+		if (local == null) {
+			local = new HashMap<>();
+		}
+		return local.put(key, value);
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ?> toMerge) {
+		toMerge.forEach(this::put);
+	}
+
+	@Override
+	public Object get(Object key) {
+		checkKey(key);
+		if (local != null) {
+			Object value = local.get(key);
+			if (value != null || local.containsKey(key)) {
+				return value;
+			}
+		}
+		Object value = base.get(key);
+		if (value != null || base.containsKey(key)) {
+			return value;
+		}
+		return shared.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		checkKey(key);
+		return (local != null && local.containsKey(key)) || base.containsKey(key) || shared.containsKey(key);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		checkKey(key);
+		return local == null ? null : local.remove(key);
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		// 遍历的场景很少，这时才把各层合并起来，合并结果是一个快照
+		Map<String, Object> merged = new HashMap<>(shared);
+		merged.putAll(base);
+		if (local != null) {
+			merged.putAll(local);
+		}
+		return merged.entrySet();
+	}
+
+	private void checkKey(Object key) {
+		if (key == null) {
+			throw new NullPointerException("key can not be null");
+		}
+		if (!(key instanceof String)) {
+			throw new ClassCastException("key should be a String");
+		}
+		if (((String) key).isEmpty()) {
+			throw new IllegalArgumentException("key can not be empty");
+		}
+	}
+
+}
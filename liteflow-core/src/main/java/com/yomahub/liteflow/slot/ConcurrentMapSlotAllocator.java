@@ -0,0 +1,94 @@
+package com.yomahub.liteflow.slot;
+
+import cn.hutool.core.util.ObjectUtil;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 基于ConcurrentHashMap + ConcurrentLinkedQueue的slot分配器
+ * 这是2.15.0之前DataBus内部的实现，保留下来供需要的时候切换回去
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ConcurrentMapSlotAllocator implements SlotAllocator {
+
+	/**
+	 * 这里为什么采用ConcurrentHashMap作为slot存放的容器？
+	 * 因为ConcurrentHashMap的随机取值复杂度也和数组一样为O(1)，并且没有并发问题，还有自动扩容的功能
+	 * 用数组的话，扩容涉及copy，线程安全问题还要自己处理
+	 */
+	private ConcurrentHashMap<Integer, Slot> slots;
+
+	private ConcurrentLinkedQueue<Integer> queue;
+
+	/**
+	 * 当前slot的下标index的最大值
+	 */
+	private volatile int currentIndexMaxValue;
+
+	@Override
+	public void init(int initialCapacity) {
+		currentIndexMaxValue = initialCapacity;
+		slots = new ConcurrentHashMap<>();
+		queue = IntStream.range(0, currentIndexMaxValue)
+			.boxed()
+			.collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+	}
+
+	@Override
+	public int offer(Slot slot) {
+		// 这里有没有并发问题？
+		// 没有，因为QUEUE的类型为ConcurrentLinkedQueue，并发情况下，每次取到的index不会相同
+		// 当然前提是QUEUE里面的值不会重复，但是这个是由其他机制来保证的
+		Integer slotIndex = queue.poll();
+
+		if (ObjectUtil.isNull(slotIndex)) {
+			// 只有在扩容的时候需要用到synchronized重量级锁
+			// 扩一次容，增强原来size的0.75，因为初始slot容量为1024，从某种层面来说，即便并发很大。但是扩容的次数不会很多。
+			// 因为单个机器的tps上限总归是有一个极限的，不可能无限制的增长。
+			synchronized (this) {
+				// 在扩容的一刹那，去竞争这个锁的线程还是有一些，所以获得这个锁的线程这里要再次取一次。如果为null，再真正扩容
+				slotIndex = queue.poll();
+				if (ObjectUtil.isNull(slotIndex)) {
+					int nextMaxIndex = (int) Math.round(currentIndexMaxValue * 1.75);
+					queue.addAll(IntStream.range(currentIndexMaxValue, nextMaxIndex)
+						.boxed()
+						.collect(Collectors.toCollection(ConcurrentLinkedQueue::new)));
+					currentIndexMaxValue = nextMaxIndex;
+					// 扩容好，从队列里再取出扩容好的index
+					slotIndex = queue.poll();
+				}
+			}
+		}
+
+		if (ObjectUtil.isNotNull(slotIndex)) {
+			slots.put(slotIndex, slot);
+			return slotIndex;
+		}
+		return -1;
+	}
+
+	@Override
+	public Slot get(int slotIndex) {
+		return slots.get(slotIndex);
+	}
+
+	@Override
+	public Slot release(int slotIndex) {
+		Slot slot = slots.remove(slotIndex);
+		if (ObjectUtil.isNotNull(slot)) {
+			queue.add(slotIndex);
+		}
+		return slot;
+	}
+
+	@Override
+	public int capacity() {
+		return currentIndexMaxValue;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.yomahub.liteflow.slot;
+
+import com.yomahub.liteflow.flow.element.Condition;
+
+/**
+ * 不可变的condition栈，用于记录当前线程正在执行的condition
+ * <p>
+ * push和pop都会返回一个新的栈，原来的栈不会被修改，所以子线程继承父线程的栈时直接复用引用即可，
+ * 不需要像之前的ConcurrentLinkedDeque那样每次提交并行任务都整体copy一遍。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+final class ConditionStack {
+
+	static final ConditionStack EMPTY = new ConditionStack(null, null, 0);
+
+	private final Condition condition;
+
+	private final ConditionStack next;
+
+	private final int size;
+
+	private ConditionStack(Condition condition, ConditionStack next, int size) {
+		this.condition = condition;
+		this.next = next;
+		this.size = size;
+	}
+
+	ConditionStack push(Condition condition) {
+		return new ConditionStack(condition, this, size + 1);
+	}
+
+	/**
+	 * 空栈pop之后仍然是空栈，和之前Deque的pop抛异常不同，这里不再因为不配对的pop中断流程
+	 */
+	ConditionStack pop() {
+		return size == 0 ? this : next;
+	}
+
+	Condition peek() {
+		return condition;
+	}
+
+	int size() {
+		return size;
+	}
+
+}
@@ -9,27 +9,29 @@ package com.yomahub.liteflow.slot;
 
 import cn.hutool.core.annotation.AnnotationUtil;
 import cn.hutool.core.lang.Tuple;
-import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.context.ContextBean;
+import com.yomahub.liteflow.enums.StepRecordModeEnum;
+import com.yomahub.liteflow.exception.ConfigErrorException;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
 import com.yomahub.liteflow.property.LiteflowConfig;
 import com.yomahub.liteflow.property.LiteflowConfigGetter;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * 数据BUS，主要用来管理Slot，用以分配和回收
+ * 具体的分配和回收由SlotAllocator来完成，默认为无锁的DefaultSlotAllocator
  *
  * @author Bryan.Zhang
  */
@@ -39,19 +41,23 @@ public class DataBus {
 
 	public static AtomicInteger OCCUPY_COUNT = new AtomicInteger(0);
 
-	/**
-	 * 这里为什么采用ConcurrentHashMap作为slot存放的容器？
-	 * 因为ConcurrentHashMap的随机取值复杂度也和数组一样为O(1)，并且没有并发问题，还有自动扩容的功能
-	 * 用数组的话，扩容涉及copy，线程安全问题还要自己处理
-	 */
-	private static ConcurrentHashMap<Integer, Slot> SLOTS;
+	private static SlotAllocator SLOT_ALLOCATOR;
 
-	private static ConcurrentLinkedQueue<Integer> QUEUE;
+	// slot对象池，没有开启的时候为null
+	private static SlotPool SLOT_POOL;
 
-	/**
-	 * 当前slot的下标index的最大值
-	 */
-	private static Integer currentIndexMaxValue;
+	// 步骤的记录方式以及采样率
+	private static StepRecordModeEnum STEP_RECORD_MODE = StepRecordModeEnum.FULL;
+
+	private static int STEP_SAMPLE_RATE = 1;
+
+	private static final AtomicLong STEP_SAMPLE_COUNTER = new AtomicLong();
+
+	// 是否在步骤中记录关键路径分析需要的数据
+	private static boolean STEP_ANALYSIS = false;
+
+	// 上下文class对应的key，避免每次都去解析注解
+	private static final Map<Class<?>, String> CONTEXT_KEY_CACHE = new ConcurrentHashMap<>();
 
 	/**
 	 * 这里原先版本中是static块，现在改成init静态方法，由FlowExecutor中的init去调用
@@ -60,14 +66,39 @@ public class DataBus {
 	 * 而由FlowExecutor中的init去调用，是会被执行多次的。保证了每个单元测试都能初始化一遍
 	 */
 	public static void init() {
-		if (MapUtil.isEmpty(SLOTS)) {
+		if (ObjectUtil.isNull(SLOT_ALLOCATOR) || OCCUPY_COUNT.get() == 0) {
 			LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
-			currentIndexMaxValue = liteflowConfig.getSlotSize();
+			SlotAllocator slotAllocator = buildSlotAllocator(liteflowConfig.getSlotAllocatorClass());
+			slotAllocator.init(liteflowConfig.getSlotSize());
+			SLOT_ALLOCATOR = slotAllocator;
+
+			if (liteflowConfig.getSlotPoolEnabled()) {
+				SLOT_POOL = new SlotPool(liteflowConfig.getSlotPoolCapacity(), liteflowConfig.getSlotPoolMaxRetainedSize());
+			}
+			else {
+				SLOT_POOL = null;
+			}
 
-			SLOTS = new ConcurrentHashMap<>();
-			QUEUE = IntStream.range(0, currentIndexMaxValue)
-				.boxed()
-				.collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+			STEP_RECORD_MODE = ObjectUtil.defaultIfNull(liteflowConfig.getStepRecordMode(), StepRecordModeEnum.FULL);
+			STEP_SAMPLE_RATE = Math.max(1, ObjectUtil.defaultIfNull(liteflowConfig.getStepSampleRate(), 1));
+			STEP_ANALYSIS = Boolean.TRUE.equals(liteflowConfig.getEnableStepAnalysis());
+		}
+	}
+
+	private static SlotAllocator buildSlotAllocator(String slotAllocatorClass) {
+		if (StrUtil.isBlank(slotAllocatorClass)) {
+			return new DefaultSlotAllocator();
+		}
+		try {
+			Class<?> clazz = Class.forName(slotAllocatorClass);
+			if (!SlotAllocator.class.isAssignableFrom(clazz)) {
+				throw new ConfigErrorException(
+						StrUtil.format("slot allocator class[{}] must implement SlotAllocator", slotAllocatorClass));
+			}
+			return (SlotAllocator) ReflectUtil.newInstance(clazz);
+		}
+		catch (ClassNotFoundException e) {
+			throw new ConfigErrorException(StrUtil.format("slot allocator class[{}] not found", slotAllocatorClass));
 		}
 	}
 
@@ -82,63 +113,68 @@ public class DataBus {
 	}
 
 	public static int offerSlotByBean(List<Object> contextList) {
-		List<Tuple> contextBeanList = contextList.stream().filter(Objects::nonNull).map(object -> {
-            ContextBean contextBean = AnnotationUtil.getAnnotationAlias(object.getClass(), ContextBean.class);
-            String contextKey;
-            if (contextBean != null && StrUtil.isNotBlank(contextBean.value())){
-                contextKey = contextBean.value();
-            }else{
-                contextKey = StrUtil.lowerFirst(object.getClass().getSimpleName());
-            }
-            return new Tuple(contextKey, object);
-        }).collect(Collectors.toList());
-
-		Slot slot = new Slot(contextBeanList);
+		Slot slot = null;
+		if (ObjectUtil.isNotNull(SLOT_POOL)) {
+			slot = SLOT_POOL.borrow();
+		}
+		if (ObjectUtil.isNull(slot)) {
+			slot = new Slot(new ArrayList<>(contextList.size()));
+		}
+		else {
+			slot.markInUse();
+		}
+
+		slot.setStepRecordMode(decideStepRecordMode());
+		slot.setStepAnalysis(STEP_ANALYSIS);
+
+		List<Tuple> contextBeanList = slot.getContextBeanList();
+		for (Object object : contextList) {
+			if (ObjectUtil.isNotNull(object)) {
+				contextBeanList.add(new Tuple(getContextKey(object.getClass()), object));
+			}
+		}
 
 		return offerIndex(slot);
 	}
 
-	private static int offerIndex(Slot slot) {
-		try {
-			// 这里有没有并发问题？
-			// 没有，因为QUEUE的类型为ConcurrentLinkedQueue，并发情况下，每次取到的index不会相同
-			// 当然前提是QUEUE里面的值不会重复，但是这个是由其他机制来保证的
-			Integer slotIndex = QUEUE.poll();
-
-			if (ObjectUtil.isNull(slotIndex)) {
-				// 只有在扩容的时候需要用到synchronized重量级锁
-				// 扩一次容，增强原来size的0.75，因为初始slot容量为1024，从某种层面来说，即便并发很大。但是扩容的次数不会很多。
-				// 因为单个机器的tps上限总归是有一个极限的，不可能无限制的增长。
-				synchronized (DataBus.class) {
-					// 在扩容的一刹那，去竞争这个锁的线程还是有一些，所以获得这个锁的线程这里要再次取一次。如果为null，再真正扩容
-					slotIndex = QUEUE.poll();
-					if (ObjectUtil.isNull(slotIndex)) {
-						int nextMaxIndex = (int) Math.round(currentIndexMaxValue * 1.75);
-						QUEUE.addAll(IntStream.range(currentIndexMaxValue, nextMaxIndex)
-							.boxed()
-							.collect(Collectors.toCollection(ConcurrentLinkedQueue::new)));
-						currentIndexMaxValue = nextMaxIndex;
-						// 扩容好，从队列里再取出扩容好的index
-						slotIndex = QUEUE.poll();
-					}
-				}
+	/**
+	 * 决定这个请求的步骤记录方式，采样模式下被采样到的请求记录所有步骤，其余请求不记录
+	 */
+	private static StepRecordModeEnum decideStepRecordMode() {
+		if (STEP_RECORD_MODE != StepRecordModeEnum.SAMPLED) {
+			return STEP_RECORD_MODE;
+		}
+		return STEP_SAMPLE_COUNTER.getAndIncrement() % STEP_SAMPLE_RATE == 0 ? StepRecordModeEnum.FULL : StepRecordModeEnum.OFF;
+	}
+
+	private static String getContextKey(Class<?> contextClazz) {
+		return CONTEXT_KEY_CACHE.computeIfAbsent(contextClazz, clazz -> {
+			ContextBean contextBean = AnnotationUtil.getAnnotationAlias(clazz, ContextBean.class);
+			if (contextBean != null && StrUtil.isNotBlank(contextBean.value())) {
+				return contextBean.value();
 			}
+			else {
+				return StrUtil.lowerFirst(clazz.getSimpleName());
+			}
+		});
+	}
 
-			if (ObjectUtil.isNotNull(slotIndex)) {
-				SLOTS.put(slotIndex, slot);
+	private static int offerIndex(Slot slot) {
+		try {
+			int slotIndex = SLOT_ALLOCATOR.offer(slot);
+			if (slotIndex >= 0) {
 				OCCUPY_COUNT.incrementAndGet();
-				return slotIndex;
 			}
+			return slotIndex;
 		}
 		catch (Exception e) {
 			LOG.error("offer slot error", e);
 			return -1;
 		}
-		return -1;
 	}
 
 	public static Slot getSlot(int slotIndex) {
-		return SLOTS.get(slotIndex);
+		return SLOT_ALLOCATOR.get(slotIndex);
 	}
 
 	public static List<Tuple> getContextBeanList(int slotIndex) {
@@ -147,10 +183,10 @@ public class DataBus {
 	}
 
 	public static void releaseSlot(int slotIndex) {
-		if (ObjectUtil.isNotNull(SLOTS.get(slotIndex))) {
+		Slot slot = SLOT_ALLOCATOR.release(slotIndex);
+		if (ObjectUtil.isNotNull(slot)) {
+			slot.markReleased();
 			LOG.info("slot[{}] released", slotIndex);
-			SLOTS.remove(slotIndex);
-			QUEUE.add(slotIndex);
 			OCCUPY_COUNT.decrementAndGet();
 		}
 		else {
@@ -158,4 +194,18 @@ public class DataBus {
 		}
 	}
 
+	/**
+	 * 把已经回收的slot归还到slot池中，没有开启slot池的话什么也不做
+	 * 归还之后slot会被重置并且被其他请求复用，所以调用之后不能再使用这个slot
+	 */
+	public static void recycleSlot(Slot slot) {
+		if (ObjectUtil.isNotNull(SLOT_POOL) && ObjectUtil.isNotNull(slot)) {
+			SLOT_POOL.recycle(slot);
+		}
+	}
+
+	public static SlotAllocator getSlotAllocator() {
+		return SLOT_ALLOCATOR;
+	}
+
 }
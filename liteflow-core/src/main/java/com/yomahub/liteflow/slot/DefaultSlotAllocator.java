@@ -0,0 +1,327 @@
+package com.yomahub.liteflow.slot;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 默认的slot分配器，无锁并且基于数组实现
+ * <p>
+ * slot存放在分段的数组中，第k段的长度为 base * 2^k，每次扩容只是追加一个新的段，已有的段不会被copy，
+ * 所以根据下标取slot只需要几次位运算加上两次数组访问。
+ * <p>
+ * 空闲的下标存放在多个条带化的无锁栈里，栈里存的是int下标，通过每个段里的next数组串联起来，整个过程没有任何装箱。
+ * 每个线程优先从自己对应的条带里分配和回收，自己的条带空了再去其他条带里取，都取不到才扩容。
+ * <p>
+ * 条带分成两组，分配只从空闲的一组里取，回收的下标放到回收的一组。空闲的一组取完之后，把回收的一组整条摘下来，
+ * 反转顺序之后再放进空闲的一组，这样最早回收的下标最先被分配，最近回收的下标最后才会被分配，和之前队列先进先出的效果一样，
+ * 避免上一个请求里还没有结束的并行任务(比如any、must、percentage提前结束的WHEN)写到新请求的slot里。
+ * 扩容是通过CAS抢占段的位置来完成的，同样不需要加锁。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class DefaultSlotAllocator implements SlotAllocator {
+
+	// 最小的段长度，避免slotSize配置的很小时段的数量过多
+	private static final int MIN_SEGMENT_SIZE = 16;
+
+	// 每个条带的栈顶在数组中间隔的距离，用来避免伪共享
+	private static final int STRIPE_PADDING = 16;
+
+	private static final long INDEX_MASK = 0xFFFFFFFFL;
+
+	// 空闲的一组条带，分配只从这一组里取
+	private static final int FREE_BANK = 0;
+
+	// 回收的一组条带，回收的下标先放到这一组
+	private static final int RELEASED_BANK = 1;
+
+	// 第一段长度的位数，第一段长度为 1 << baseShift
+	private int baseShift;
+
+	private int stripeMask;
+
+	private AtomicReferenceArray<Segment> segments;
+
+	// 已经把下标放入条带的段的数量
+	private final AtomicInteger readySegmentCount = new AtomicInteger();
+
+	/**
+	 * 两组条带栈顶的值，高32位是版本号用来避免ABA问题，低32位是栈顶的下标+1，为0表示栈为空
+	 */
+	private AtomicLongArray stripeHeads;
+
+	@Override
+	public void init(int initialCapacity) {
+		int baseSize = Math.max(MIN_SEGMENT_SIZE, ceilingPowerOfTwo(initialCapacity));
+		this.baseShift = Integer.numberOfTrailingZeros(baseSize);
+		// 下标不能超过int的最大值，所以段的数量最多为 31 - baseShift
+		this.segments = new AtomicReferenceArray<>(31 - baseShift);
+
+		int stripeCount = Math.min(64, ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors()));
+		this.stripeMask = stripeCount - 1;
+		this.stripeHeads = new AtomicLongArray(2 * stripeCount * STRIPE_PADDING);
+
+		Segment first = new Segment(baseSize);
+		segments.set(0, first);
+		distribute(FREE_BANK, 0, baseSize);
+		readySegmentCount.set(1);
+	}
+
+	@Override
+	public int offer(Slot slot) {
+		int slotIndex = pollIndex();
+		if (slotIndex < 0) {
+			return -1;
+		}
+		segmentOf(slotIndex).slots.set(offsetOf(slotIndex), slot);
+		return slotIndex;
+	}
+
+	@Override
+	public Slot get(int slotIndex) {
+		if (slotIndex < 0) {
+			return null;
+		}
+		int segmentIndex = segmentIndexOf(slotIndex);
+		if (segmentIndex >= segments.length()) {
+			return null;
+		}
+		Segment segment = segments.get(segmentIndex);
+		if (segment == null) {
+			return null;
+		}
+		return segment.slots.get(offsetOf(slotIndex));
+	}
+
+	@Override
+	public Slot release(int slotIndex) {
+		if (slotIndex < 0) {
+			return null;
+		}
+		int segmentIndex = segmentIndexOf(slotIndex);
+		if (segmentIndex >= segments.length()) {
+			return null;
+		}
+		Segment segment = segments.get(segmentIndex);
+		if (segment == null) {
+			return null;
+		}
+		// 只有把slot从非null置为null的线程才能把下标放回空闲栈，这样同一个下标不会被重复回收
+		Slot slot = segment.slots.getAndSet(offsetOf(slotIndex), null);
+		if (slot != null) {
+			push(RELEASED_BANK, currentStripe(), slotIndex, slotIndex);
+		}
+		return slot;
+	}
+
+	@Override
+	public int capacity() {
+		int capacity = 0;
+		for (int i = 0; i < segments.length() && segments.get(i) != null; i++) {
+			capacity += segments.get(i).slots.length();
+		}
+		return capacity;
+	}
+
+	private int pollIndex() {
+		int stripe = currentStripe();
+		while (true) {
+			int slotIndex = pollBank(FREE_BANK, stripe);
+			if (slotIndex >= 0) {
+				return slotIndex;
+			}
+			// 空闲的一组已经取完，把回收的下标转移过来再取，没有回收的下标才扩容
+			if (!transferReleased(stripe) && !grow()) {
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * 把回收的一组条带整条摘下来，反转之后放入空闲的一组，返回false表示没有回收的下标
+	 */
+	private boolean transferReleased(int stripe) {
+		boolean transferred = false;
+		for (int i = 0; i <= stripeMask; i++) {
+			int current = (stripe + i) & stripeMask;
+			int head = popAll(RELEASED_BANK, current);
+			if (head < 0) {
+				continue;
+			}
+			// 摘下来的链表只有当前线程能访问到，直接反转，反转之后最早回收的下标在栈顶
+			int tail = head;
+			int prev = -1;
+			int slotIndex = head;
+			while (slotIndex >= 0) {
+				int next = getNext(slotIndex);
+				setNext(slotIndex, prev);
+				prev = slotIndex;
+				slotIndex = next;
+			}
+			push(FREE_BANK, current, prev, tail);
+			transferred = true;
+		}
+		return transferred;
+	}
+
+	private int pollBank(int bank, int stripe) {
+		// 先从自己的条带取，然后依次去其他的条带里取
+		for (int i = 0; i <= stripeMask; i++) {
+			int slotIndex = pop(bank, (stripe + i) & stripeMask);
+			if (slotIndex >= 0) {
+				return slotIndex;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 追加一个新的段，返回false表示已经达到最大容量
+	 */
+	private boolean grow() {
+		for (int k = 1; k < segments.length(); k++) {
+			if (segments.get(k) != null) {
+				continue;
+			}
+			// 上一段刚被其他线程追加，下标还没有放入条带，这时候让出cpu等待，而不是再追加一段
+			if (readySegmentCount.get() < k) {
+				Thread.yield();
+				return true;
+			}
+			int segmentSize = 1 << (baseShift + k);
+			// 多个线程同时扩容的时候，只有一个线程能CAS成功，其他线程直接返回重新去条带里取
+			if (segments.compareAndSet(k, null, new Segment(segmentSize))) {
+				distribute(FREE_BANK, firstIndexOf(k), segmentSize);
+				readySegmentCount.accumulateAndGet(k + 1, Math::max);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 把一段连续的下标交错的分配到一组的各个条带中
+	 */
+	private void distribute(int bank, int firstIndex, int count) {
+		int stripeCount = stripeMask + 1;
+		for (int stripe = 0; stripe < stripeCount && stripe < count; stripe++) {
+			int head = firstIndex + stripe;
+			int tail = head;
+			for (int slotIndex = head + stripeCount; slotIndex < firstIndex + count; slotIndex += stripeCount) {
+				setNext(tail, slotIndex);
+				tail = slotIndex;
+			}
+			push(bank, stripe, head, tail);
+		}
+	}
+
+	/**
+	 * 把一条已经串联好的下标链表[head...tail]压入条带栈
+	 */
+	private void push(int bank, int stripe, int head, int tail) {
+		int position = stripePosition(bank, stripe);
+		while (true) {
+			long top = stripeHeads.get(position);
+			setNext(tail, (int) (top & INDEX_MASK) - 1);
+			long newTop = (((top >>> 32) + 1) << 32) | ((head + 1) & INDEX_MASK);
+			if (stripeHeads.compareAndSet(position, top, newTop)) {
+				return;
+			}
+		}
+	}
+
+	private int pop(int bank, int stripe) {
+		int position = stripePosition(bank, stripe);
+		while (true) {
+			long top = stripeHeads.get(position);
+			int slotIndex = (int) (top & INDEX_MASK) - 1;
+			if (slotIndex < 0) {
+				return -1;
+			}
+			// 版本号每次都会加1，即使next在读取之后被其他线程修改了，下面的CAS也会失败
+			long newTop = (((top >>> 32) + 1) << 32) | ((getNext(slotIndex) + 1) & INDEX_MASK);
+			if (stripeHeads.compareAndSet(position, top, newTop)) {
+				return slotIndex;
+			}
+		}
+	}
+
+	/**
+	 * 把整个条带栈摘下来，返回原来的栈顶，为-1表示栈为空
+	 */
+	private int popAll(int bank, int stripe) {
+		int position = stripePosition(bank, stripe);
+		while (true) {
+			long top = stripeHeads.get(position);
+			int slotIndex = (int) (top & INDEX_MASK) - 1;
+			if (slotIndex < 0) {
+				return -1;
+			}
+			long newTop = ((top >>> 32) + 1) << 32;
+			if (stripeHeads.compareAndSet(position, top, newTop)) {
+				return slotIndex;
+			}
+		}
+	}
+
+	private int stripePosition(int bank, int stripe) {
+		return (bank * (stripeMask + 1) + stripe) * STRIPE_PADDING;
+	}
+
+	private int getNext(int slotIndex) {
+		return segmentOf(slotIndex).next.get(offsetOf(slotIndex));
+	}
+
+	private void setNext(int slotIndex, int next) {
+		segmentOf(slotIndex).next.set(offsetOf(slotIndex), next);
+	}
+
+	private int currentStripe() {
+		return (int) Thread.currentThread().getId() & stripeMask;
+	}
+
+	private Segment segmentOf(int slotIndex) {
+		return segments.get(segmentIndexOf(slotIndex));
+	}
+
+	/**
+	 * 第k段的下标范围为[base * (2^k - 1), base * (2^(k+1) - 1))，所以 (slotIndex + base) 的最高位减去baseShift就是段的位置
+	 */
+	private int segmentIndexOf(int slotIndex) {
+		return (31 - Integer.numberOfLeadingZeros(slotIndex + (1 << baseShift))) - baseShift;
+	}
+
+	private int offsetOf(int slotIndex) {
+		int value = slotIndex + (1 << baseShift);
+		return value - Integer.highestOneBit(value);
+	}
+
+	private int firstIndexOf(int segmentIndex) {
+		return (1 << (baseShift + segmentIndex)) - (1 << baseShift);
+	}
+
+	private static int ceilingPowerOfTwo(int value) {
+		if (value <= 1) {
+			return 1;
+		}
+		return Integer.highestOneBit(value - 1) << 1;
+	}
+
+	private static class Segment {
+
+		private final AtomicReferenceArray<Slot> slots;
+
+		// 空闲栈中下一个下标，只有在下标空闲的时候才有意义，-1表示栈底
+		private final AtomicIntegerArray next;
+
+		private Segment(int size) {
+			this.slots = new AtomicReferenceArray<>(size);
+			this.next = new AtomicIntegerArray(size);
+		}
+
+	}
+
+}
@@ -11,22 +11,26 @@ import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.collection.ConcurrentHashSet;
 import cn.hutool.core.collection.ListUtil;
 import cn.hutool.core.lang.Tuple;
+import cn.hutool.core.util.BooleanUtil;
 import cn.hutool.core.util.ObjectUtil;
-import cn.hutool.core.util.StrUtil;
 import com.alibaba.ttl.TransmittableThreadLocal;
+import com.yomahub.liteflow.enums.StepRecordModeEnum;
 import com.yomahub.liteflow.exception.NoSuchContextBeanException;
 import com.yomahub.liteflow.exception.NullParamException;
 import com.yomahub.liteflow.flow.element.Chain;
 import com.yomahub.liteflow.flow.element.Condition;
 import com.yomahub.liteflow.flow.entity.CmpStep;
 import com.yomahub.liteflow.flow.id.IdGeneratorHolder;
+import com.yomahub.liteflow.flow.parallel.ParallelSupplier;
 import com.yomahub.liteflow.log.LFLog;
 import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Predicate;
 
 /**
@@ -50,21 +54,24 @@ public class Slot {
 
 	private static final String CHAIN_INSTANCE = "_chain_instance";
 
-	private static final String SWITCH_NODE_PREFIX = "_switch_";
+	// 条件结果的类型，和整数key一起组成结果表中的key，作用和以前的字符串前缀一样
+	private static final int SWITCH_RESULT = 0;
 
-	private static final String IF_NODE_PREFIX = "_if_";
+	private static final int IF_RESULT = 1;
 
-	private static final String AND_OR_PREFIX = "_and_or_";
+	private static final int AND_OR_RESULT = 2;
 
-	private static final String NOT_PREFIX = "_not_";
+	private static final int NOT_RESULT = 3;
 
-	private static final String FOR_PREFIX = "_for_";
+	private static final int FOR_RESULT = 4;
 
-	private static final String WHILE_PREFIX = "_while_";
+	private static final int WHILE_RESULT = 5;
 
-	private static final String ITERATOR_PREFIX = "_iterator_";
+	private static final int ITERATOR_RESULT = 6;
 
-	private static final String BREAK_PREFIX = "_break_";
+	private static final int BREAK_RESULT = 7;
+
+	private static final int RESULT_TYPE_BITS = 3;
 
 	private static final String NODE_INPUT_PREFIX = "_input_";
 
@@ -90,29 +97,46 @@ public class Slot {
 
 	protected ConcurrentHashMap<String, Object> metaDataMap = new ConcurrentHashMap<>();
 
-	private List<Tuple> contextBeanList;
+	// 各种条件组件的结果，按照(线程id, 整数key)存放
+	private final SlotResultTable resultTable = new SlotResultTable();
 
-	private static final TransmittableThreadLocal<Deque<Condition>> conditionStack = new TransmittableThreadLocal<Deque<Condition>>() {
-		@Override
-		protected Deque<Condition> initialValue() {
-			return new ConcurrentLinkedDeque<>();
-		}
-
-		@Override
-		public Deque<Condition> copy(Deque<Condition> parentValue) {
-			return new ConcurrentLinkedDeque<>(parentValue);
-		}
+	private List<Tuple> contextBeanList;
 
+	// 栈本身是不可变的，所以子线程直接复用父线程的栈，copy的开销是O(1)
+	private static final TransmittableThreadLocal<ConditionStack> conditionStack = new TransmittableThreadLocal<ConditionStack>() {
 		@Override
-		protected Deque<Condition> childValue(Deque<Condition> parentValue) {
-			return copy(parentValue);
+		protected ConditionStack initialValue() {
+			return ConditionStack.EMPTY;
 		}
 	};
 
 	private Boolean routeResult;
 
+	// 当前请求的步骤记录方式，在分配slot的时候根据stepRecordMode决定，只会是FULL、ERROR_ONLY、OFF其中之一
+	private StepRecordModeEnum stepRecordMode = StepRecordModeEnum.FULL;
+
+	// 是否在步骤中记录关键路径分析需要的数据
+	private boolean stepAnalysis;
+
+	// 执行轨迹的编号，为0表示这个请求没有记录执行轨迹
+	private long traceId;
+
+	// 执行轨迹开始的纳秒时间
+	private long traceStartNanos;
+
 	private List<String> timeoutItemList;
 
+	private static final int STATE_IN_USE = 0;
+
+	private static final int STATE_RELEASED = 1;
+
+	private static final int STATE_POOLED = 2;
+
+	private static final AtomicIntegerFieldUpdater<Slot> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Slot.class, "state");
+
+	// slot的状态，只在开启slot池的时候用来判断slot能否被归还
+	private volatile int state = STATE_IN_USE;
+
 	public Slot() {
 	}
 
@@ -124,14 +148,19 @@ public class Slot {
 		return metaDataMap.containsKey(key);
 	}
 
-	private <T> void putThreadMetaDataMap(String key, T t) {
-		String threadKey = StrUtil.format("{}_{}", key, Thread.currentThread().getId());
-		putMetaDataMap(threadKey, t);
+	private <T> void putThreadResult(int resultType, int key, T t) {
+		if (ObjectUtil.isNull(t)) {
+			throw new NullParamException("data slot can't accept null param");
+		}
+		// 已经被取消的并行分支不能再写入slot
+		if (ParallelSupplier.isCurrentFenced()) {
+			return;
+		}
+		resultTable.put(Thread.currentThread().getId(), (key << RESULT_TYPE_BITS) | resultType, t);
 	}
 
-	private <T> T getThreadMetaData(String key) {
-		String threadKey = StrUtil.format("{}_{}", key, Thread.currentThread().getId());
-        return (T) metaDataMap.get(threadKey);
+	private <T> T getThreadResult(int resultType, int key) {
+		return (T) resultTable.get(Thread.currentThread().getId(), (key << RESULT_TYPE_BITS) | resultType);
 	}
 
 	private <T> void putMetaDataMap(String key, T t) {
@@ -140,6 +169,10 @@ public class Slot {
 			// NullPointerException
 			throw new NullParamException("data slot can't accept null param");
 		}
+		// 已经被取消的并行分支不能再写入slot，这时候流程可能已经往下走了，甚至slot已经被其他请求复用
+		if (ParallelSupplier.isCurrentFenced()) {
+			return;
+		}
 		metaDataMap.put(key, t);
 	}
 
@@ -241,67 +274,131 @@ public class Slot {
 	}
 
 	public <T> void setSwitchResult(String key, T t) {
-		putThreadMetaDataMap(SWITCH_NODE_PREFIX + key, t);
+		setSwitchResult(SlotKeyRegistry.keyOf(key), t);
+	}
+
+	public <T> void setSwitchResult(int key, T t) {
+		putThreadResult(SWITCH_RESULT, key, t);
 	}
 
 	public <T> T getSwitchResult(String key) {
-		return getThreadMetaData(SWITCH_NODE_PREFIX + key);
+		return getSwitchResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public <T> T getSwitchResult(int key) {
+		return getThreadResult(SWITCH_RESULT, key);
 	}
 
 	public void setIfResult(String key, boolean result) {
-		putThreadMetaDataMap(IF_NODE_PREFIX + key, result);
+		setIfResult(SlotKeyRegistry.keyOf(key), result);
+	}
+
+	public void setIfResult(int key, boolean result) {
+		putThreadResult(IF_RESULT, key, result);
 	}
 
 	public Boolean getIfResult(String key) {
-		return getThreadMetaData(IF_NODE_PREFIX + key);
+		return getIfResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public Boolean getIfResult(int key) {
+		return getThreadResult(IF_RESULT, key);
 	}
 
 	public void setAndOrResult(String key, boolean result) {
-		putThreadMetaDataMap(AND_OR_PREFIX + key, result);
+		setAndOrResult(SlotKeyRegistry.keyOf(key), result);
+	}
+
+	public void setAndOrResult(int key, boolean result) {
+		putThreadResult(AND_OR_RESULT, key, result);
 	}
 
 	public Boolean getAndOrResult(String key) {
-		return getThreadMetaData(AND_OR_PREFIX + key);
+		return getAndOrResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public Boolean getAndOrResult(int key) {
+		return getThreadResult(AND_OR_RESULT, key);
 	}
 
 	public void setNotResult(String key, boolean result) {
-		putThreadMetaDataMap(NOT_PREFIX + key, result);
+		setNotResult(SlotKeyRegistry.keyOf(key), result);
+	}
+
+	public void setNotResult(int key, boolean result) {
+		putThreadResult(NOT_RESULT, key, result);
 	}
 
 	public Boolean getNotResult(String key) {
-		return getThreadMetaData(NOT_PREFIX + key);
+		return getNotResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public Boolean getNotResult(int key) {
+		return getThreadResult(NOT_RESULT, key);
 	}
 
 	public void setForResult(String key, int forCount) {
-		putThreadMetaDataMap(FOR_PREFIX + key, forCount);
+		setForResult(SlotKeyRegistry.keyOf(key), forCount);
+	}
+
+	public void setForResult(int key, int forCount) {
+		putThreadResult(FOR_RESULT, key, forCount);
 	}
 
 	public Integer getForResult(String key) {
-		return getThreadMetaData(FOR_PREFIX + key);
+		return getForResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public Integer getForResult(int key) {
+		return getThreadResult(FOR_RESULT, key);
 	}
 
 	public void setWhileResult(String key, boolean whileFlag) {
-		putThreadMetaDataMap(WHILE_PREFIX + key, whileFlag);
+		setWhileResult(SlotKeyRegistry.keyOf(key), whileFlag);
+	}
+
+	public void setWhileResult(int key, boolean whileFlag) {
+		putThreadResult(WHILE_RESULT, key, whileFlag);
 	}
 
 	public Boolean getWhileResult(String key) {
-		return getThreadMetaData(WHILE_PREFIX + key);
+		return getWhileResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public Boolean getWhileResult(int key) {
+		return getThreadResult(WHILE_RESULT, key);
 	}
 
 	public void setBreakResult(String key, boolean breakFlag) {
-		putThreadMetaDataMap(BREAK_PREFIX + key, breakFlag);
+		setBreakResult(SlotKeyRegistry.keyOf(key), breakFlag);
+	}
+
+	public void setBreakResult(int key, boolean breakFlag) {
+		putThreadResult(BREAK_RESULT, key, breakFlag);
 	}
 
 	public Boolean getBreakResult(String key) {
-		return getThreadMetaData(BREAK_PREFIX + key);
+		return getBreakResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public Boolean getBreakResult(int key) {
+		return getThreadResult(BREAK_RESULT, key);
 	}
 
 	public void setIteratorResult(String key, Iterator<?> it) {
-		putThreadMetaDataMap(ITERATOR_PREFIX + key, it);
+		setIteratorResult(SlotKeyRegistry.keyOf(key), it);
+	}
+
+	public void setIteratorResult(int key, Iterator<?> it) {
+		putThreadResult(ITERATOR_RESULT, key, it);
 	}
 
 	public Iterator<?> getIteratorResult(String key) {
-		return getThreadMetaData(ITERATOR_PREFIX + key);
+		return getIteratorResult(SlotKeyRegistry.keyOf(key));
+	}
+
+	public Iterator<?> getIteratorResult(int key) {
+		return getThreadResult(ITERATOR_RESULT, key);
 	}
 	
 	public Condition getCurrentCondition() {
@@ -309,11 +406,11 @@ public class Slot {
 	}
 	
 	public void pushCondition(Condition condition) {
-		conditionStack.get().push(condition);
+		conditionStack.set(conditionStack.get().push(condition));
 	}
 	
 	public void popCondition() {
-		conditionStack.get().pop();
+		conditionStack.set(conditionStack.get().pop());
 	}
 
 	/**
@@ -361,6 +458,9 @@ public class Slot {
 	}
 
 	public void addStep(CmpStep step) {
+		if (ParallelSupplier.isCurrentFenced()) {
+			return;
+		}
 		this.executeSteps.add(step);
 	}
 
@@ -404,6 +504,14 @@ public class Slot {
 	}
 
 	public void printStep() {
+		// 日志不会输出的话，就不去拼接步骤字符串了
+		if (!LOG.isInfoEnabled() || BooleanUtil.isFalse(LiteflowConfigGetter.get().getPrintExecutionLog())) {
+			return;
+		}
+		// 没有记录步骤的请求不输出
+		if (this.stepRecordMode != StepRecordModeEnum.FULL && this.executeSteps.isEmpty()) {
+			return;
+		}
 		if (ObjectUtil.isNull(this.executeStepsStr)) {
 			this.executeStepsStr = getExecuteStepStr(true);
 		}
@@ -516,6 +624,38 @@ public class Slot {
 		this.routeResult = routeResult;
 	}
 
+	public StepRecordModeEnum getStepRecordMode() {
+		return stepRecordMode;
+	}
+
+	public void setStepRecordMode(StepRecordModeEnum stepRecordMode) {
+		this.stepRecordMode = stepRecordMode;
+	}
+
+	public boolean isStepAnalysis() {
+		return stepAnalysis;
+	}
+
+	public void setStepAnalysis(boolean stepAnalysis) {
+		this.stepAnalysis = stepAnalysis;
+	}
+
+	public long getTraceId() {
+		return traceId;
+	}
+
+	public void setTraceId(long traceId) {
+		this.traceId = traceId;
+	}
+
+	public long getTraceStartNanos() {
+		return traceStartNanos;
+	}
+
+	public void setTraceStartNanos(long traceStartNanos) {
+		this.traceStartNanos = traceStartNanos;
+	}
+
 	public void addTimeoutItem(String executorItem){
 		if (CollectionUtil.isEmpty(timeoutItemList)){
 			timeoutItemList = new ArrayList<>();
@@ -526,4 +666,80 @@ public class Slot {
 	public List<String> getTimeoutItemList(){
 		return timeoutItemList;
 	}
+
+	/**
+	 * 复制出一个独立的slot，复制出来的slot不受slot池的影响，可以一直持有
+	 * 上下文对象本身不会被复制，复制的只是slot中的元数据，步骤信息以及上下文列表
+	 */
+	public Slot copy() {
+		Slot slot = new Slot(new ArrayList<>(this.contextBeanList == null ? ListUtil.empty() : this.contextBeanList));
+		slot.metaDataMap.putAll(this.metaDataMap);
+		this.resultTable.copyTo(slot.resultTable);
+		slot.executeSteps.addAll(this.executeSteps);
+		slot.rollbackSteps.addAll(this.rollbackSteps);
+		slot.executeStepsStr = this.executeStepsStr;
+		slot.rollbackStepsStr = this.rollbackStepsStr;
+		slot.routeResult = this.routeResult;
+		slot.stepRecordMode = this.stepRecordMode;
+		slot.stepAnalysis = this.stepAnalysis;
+		slot.traceId = this.traceId;
+		slot.traceStartNanos = this.traceStartNanos;
+		if (this.timeoutItemList != null) {
+			slot.timeoutItemList = new ArrayList<>(this.timeoutItemList);
+		}
+		slot.state = STATE_RELEASED;
+		return slot;
+	}
+
+	/**
+	 * 被DataBus回收时调用，只有第一次调用会返回true
+	 */
+	boolean markReleased() {
+		return STATE_UPDATER.compareAndSet(this, STATE_IN_USE, STATE_RELEASED);
+	}
+
+	/**
+	 * 归还到slot池时调用，还没有被DataBus回收，或者有超时的并行任务（这些任务可能还在往slot里写数据）的slot不能被归还
+	 */
+	boolean markPooled() {
+		if (CollectionUtil.isNotEmpty(timeoutItemList)) {
+			return false;
+		}
+		return STATE_UPDATER.compareAndSet(this, STATE_RELEASED, STATE_POOLED);
+	}
+
+	void markInUse() {
+		this.state = STATE_IN_USE;
+	}
+
+	/**
+	 * 重置slot，以便被再次使用
+	 * @param maxRetainedSize 超过这个大小的容器会被丢弃重新创建，而不是clear之后复用
+	 */
+	void reset(int maxRetainedSize) {
+		this.executeSteps.clear();
+		this.rollbackSteps.clear();
+		this.executeStepsStr = null;
+		this.rollbackStepsStr = null;
+		// ConcurrentHashMap在clear之后并不会缩容，所以太大的直接丢弃
+		if (this.metaDataMap.size() > maxRetainedSize) {
+			this.metaDataMap = new ConcurrentHashMap<>();
+		}
+		else {
+			this.metaDataMap.clear();
+		}
+		this.resultTable.clear(maxRetainedSize);
+		if (this.contextBeanList == null || this.contextBeanList.size() > maxRetainedSize) {
+			this.contextBeanList = new ArrayList<>();
+		}
+		else {
+			this.contextBeanList.clear();
+		}
+		this.routeResult = null;
+		this.stepRecordMode = StepRecordModeEnum.FULL;
+		this.stepAnalysis = false;
+		this.traceId = 0L;
+		this.traceStartNanos = 0L;
+		this.timeoutItemList = null;
+	}
 }
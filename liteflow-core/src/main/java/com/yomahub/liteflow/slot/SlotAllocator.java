@@ -0,0 +1,45 @@
+package com.yomahub.liteflow.slot;
+
+/**
+ * Slot分配器，负责slot下标的分配，查找以及回收
+ * DataBus通过此接口来管理Slot，可以通过liteflow.slot-allocator-class来指定自定义的实现
+ * 实现类必须是线程安全的，并且需要有无参构造方法
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public interface SlotAllocator {
+
+	/**
+	 * 初始化分配器
+	 * @param initialCapacity 初始容量，即slotSize
+	 */
+	void init(int initialCapacity);
+
+	/**
+	 * 为slot分配一个下标，返回的下标在被回收之前不会被再次分配
+	 * @param slot slot对象
+	 * @return 分配到的下标，分配失败返回-1
+	 */
+	int offer(Slot slot);
+
+	/**
+	 * 根据下标取得slot
+	 * @param slotIndex slot下标
+	 * @return slot对象，如果没有被占用则返回null
+	 */
+	Slot get(int slotIndex);
+
+	/**
+	 * 回收下标，回收之后此下标可以被再次分配
+	 * @param slotIndex slot下标
+	 * @return 被回收的slot，如果此下标已经被回收过则返回null
+	 */
+	Slot release(int slotIndex);
+
+	/**
+	 * 当前可以容纳的slot总数
+	 */
+	int capacity();
+
+}
@@ -0,0 +1,79 @@
+package com.yomahub.liteflow.slot;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * slot中条件结果的key注册中心
+ * <p>
+ * 组件和条件在构建的时候就拿到一个整数的key，执行的时候slot直接用这个整数去存取结果，
+ * 而不需要在每次执行的时候拼接字符串再做hash。
+ * 条件分配到的key在条件对象被回收之后会被重新使用，所以规则反复刷新的时候key的数量不会一直增长
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class SlotKeyRegistry {
+
+	private static final ConcurrentHashMap<String, Integer> KEY_MAP = new ConcurrentHashMap<>();
+
+	private static final AtomicInteger KEY_SEQUENCE = new AtomicInteger();
+
+	// 持有者已经被回收的key，可以再次分配
+	private static final ConcurrentLinkedQueue<Integer> FREE_KEYS = new ConcurrentLinkedQueue<>();
+
+	private static final ReferenceQueue<Object> OWNER_QUEUE = new ReferenceQueue<>();
+
+	// 保证引用本身不会先于持有者被回收
+	private static final Set<OwnerReference> OWNER_REFERENCES = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * 取得字符串key对应的整数key，同一个字符串永远返回相同的整数
+	 */
+	public static int keyOf(String key) {
+		Integer intKey = KEY_MAP.get(key);
+		if (intKey != null) {
+			return intKey;
+		}
+		return KEY_MAP.computeIfAbsent(key, k -> KEY_SEQUENCE.getAndIncrement());
+	}
+
+	/**
+	 * 给条件这种没有稳定名字的对象分配一个整数key，持有者被回收之后这个key会被重新分配
+	 * 持有者还活着的时候，执行中的请求才有可能读写这个key，所以回收之后重用是安全的
+	 * @param owner key的持有者
+	 */
+	public static int nextKey(Object owner) {
+		expungeReclaimedOwners();
+		Integer key = FREE_KEYS.poll();
+		int intKey = key == null ? KEY_SEQUENCE.getAndIncrement() : key;
+		OWNER_REFERENCES.add(new OwnerReference(owner, intKey));
+		return intKey;
+	}
+
+	private static void expungeReclaimedOwners() {
+		Reference<?> reference;
+		while ((reference = OWNER_QUEUE.poll()) != null) {
+			OwnerReference ownerReference = (OwnerReference) reference;
+			OWNER_REFERENCES.remove(ownerReference);
+			FREE_KEYS.offer(ownerReference.key);
+		}
+	}
+
+	private static class OwnerReference extends PhantomReference<Object> {
+
+		private final int key;
+
+		private OwnerReference(Object owner, int key) {
+			super(owner, OWNER_QUEUE);
+			this.key = key;
+		}
+
+	}
+
+}
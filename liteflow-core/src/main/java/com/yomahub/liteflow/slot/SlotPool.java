@@ -0,0 +1,74 @@
+package com.yomahub.liteflow.slot;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Slot对象池，开启liteflow.slot-pool.enabled之后生效
+ * <p>
+ * 池子本身是一个定长的数组，借出和归还都是从当前线程对应的位置开始，向后探测有限的几个位置，
+ * 探测不到就放弃（借出时新建一个Slot，归还时直接交给GC），所以借出和归还都不会产生额外的对象。
+ * <p>
+ * Slot只有在LiteflowResponse#release()被调用之后才会被归还，详见{@link com.yomahub.liteflow.flow.LiteflowResponse#release()}
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class SlotPool {
+
+	// 每次借出或者归还时最多探测的位置数
+	private static final int MAX_PROBE = 8;
+
+	private final AtomicReferenceArray<Slot> slots;
+
+	// 归还的slot中，metaDataMap以及上下文列表超过这个大小的话，会丢弃掉重新创建，避免一个很大的请求一直占用内存
+	private final int maxRetainedSize;
+
+	public SlotPool(int capacity, int maxRetainedSize) {
+		this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+		this.maxRetainedSize = maxRetainedSize;
+	}
+
+	/**
+	 * 借出一个已经重置过的slot，池子里没有则返回null
+	 */
+	public Slot borrow() {
+		int length = slots.length();
+		int start = probeStart(length);
+		for (int i = 0; i < MAX_PROBE && i < length; i++) {
+			int position = (start + i) % length;
+			// 先读再写，避免空位置上无谓的写操作
+			if (slots.get(position) != null) {
+				Slot slot = slots.getAndSet(position, null);
+				if (slot != null) {
+					return slot;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 归还slot，只有已经被DataBus回收的slot，并且没有超时未完成的并行任务的时候才会被放回池中
+	 * @return 是否放回了池子
+	 */
+	public boolean recycle(Slot slot) {
+		if (!slot.markPooled()) {
+			return false;
+		}
+		slot.reset(maxRetainedSize);
+		int length = slots.length();
+		int start = probeStart(length);
+		for (int i = 0; i < MAX_PROBE && i < length; i++) {
+			int position = (start + i) % length;
+			if (slots.get(position) == null && slots.compareAndSet(position, null, slot)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int probeStart(int length) {
+		return (int) (Thread.currentThread().getId() % length);
+	}
+
+}
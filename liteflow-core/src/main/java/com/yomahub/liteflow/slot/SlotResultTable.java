@@ -0,0 +1,179 @@
+package com.yomahub.liteflow.slot;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * slot中存放条件结果的表，key为(线程id, 整数key)
+ * <p>
+ * 结果都是按照线程存取的，所以每个线程单独有一个开放寻址的小表，只有这个线程自己会写，存取都不需要加锁。
+ * 线程的小表按照线程id分散在几个条带里，条带中的链表只会在头部通过CAS追加，并行分支之间互不阻塞。
+ * 一次请求里需要存放的条件结果通常只有几个到几十个，用基本类型的数组做线性探测，存取的时候没有字符串拼接，也没有装箱
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+class SlotResultTable {
+
+	private static final int STRIPE_COUNT = 8;
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private final AtomicReferenceArray<ThreadTable> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+
+	void put(long threadId, int itemKey, Object value) {
+		threadTable(threadId, true).put(itemKey, value);
+	}
+
+	Object get(long threadId, int itemKey) {
+		ThreadTable table = threadTable(threadId, false);
+		return table == null ? null : table.get(itemKey);
+	}
+
+	int size() {
+		int size = 0;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			for (ThreadTable table = stripes.get(i); table != null; table = table.next) {
+				size += table.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * 清空，只在请求结束、没有线程再写入的时候调用
+	 * 每个条带只保留第一个线程的小表，超过maxRetainedSize的话也直接丢弃，避免保留下来的小表越来越多
+	 */
+	void clear(int maxRetainedSize) {
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			ThreadTable table = stripes.get(i);
+			if (table == null) {
+				continue;
+			}
+			if (table.values.length > Math.max(INITIAL_CAPACITY, maxRetainedSize << 1)) {
+				stripes.set(i, null);
+			}
+			else {
+				table.clear();
+				table.next = null;
+			}
+		}
+	}
+
+	void copyTo(SlotResultTable target) {
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			for (ThreadTable table = stripes.get(i); table != null; table = table.next) {
+				for (int j = 0; j < table.values.length; j++) {
+					if (table.values[j] != null) {
+						target.put(table.threadId, table.itemKeys[j], table.values[j]);
+					}
+				}
+			}
+		}
+	}
+
+	private ThreadTable threadTable(long threadId, boolean create) {
+		int stripe = (int) (threadId ^ (threadId >>> 32)) & (STRIPE_COUNT - 1);
+		while (true) {
+			ThreadTable head = stripes.get(stripe);
+			for (ThreadTable table = head; table != null; table = table.next) {
+				if (table.threadId == threadId) {
+					return table;
+				}
+			}
+			if (!create) {
+				return null;
+			}
+			// 在头部追加，CAS失败说明有其他线程追加了自己的小表，重新查找一遍
+			ThreadTable table = new ThreadTable(threadId, head);
+			if (stripes.compareAndSet(stripe, head, table)) {
+				return table;
+			}
+		}
+	}
+
+	/**
+	 * 单个线程的结果表，只有这个线程会写入
+	 */
+	private static class ThreadTable {
+
+		private final long threadId;
+
+		// clear的时候才会修改，那时已经没有并发的写入
+		private volatile ThreadTable next;
+
+		private int[] itemKeys;
+
+		private Object[] values;
+
+		private int size;
+
+		private ThreadTable(long threadId, ThreadTable next) {
+			this.threadId = threadId;
+			this.next = next;
+			allocate(INITIAL_CAPACITY);
+		}
+
+		private void put(int itemKey, Object value) {
+			int position = find(itemKey);
+			if (values[position] == null) {
+				// 负载因子保持在0.5以下，保证探测的长度足够短
+				if ((size + 1) << 1 > values.length) {
+					rehash(values.length << 1);
+					position = find(itemKey);
+				}
+				itemKeys[position] = itemKey;
+				size++;
+			}
+			values[position] = value;
+		}
+
+		private Object get(int itemKey) {
+			return values[find(itemKey)];
+		}
+
+		private void clear() {
+			if (size > 0) {
+				Arrays.fill(values, null);
+			}
+			size = 0;
+		}
+
+		/**
+		 * 返回key所在的位置，如果不存在则返回key应该插入的空位置
+		 */
+		private int find(int itemKey) {
+			int mask = values.length - 1;
+			int position = hash(itemKey) & mask;
+			while (values[position] != null && itemKeys[position] != itemKey) {
+				position = (position + 1) & mask;
+			}
+			return position;
+		}
+
+		private void rehash(int capacity) {
+			int[] oldItemKeys = itemKeys;
+			Object[] oldValues = values;
+			allocate(capacity);
+			for (int i = 0; i < oldValues.length; i++) {
+				if (oldValues[i] != null) {
+					int position = find(oldItemKeys[i]);
+					itemKeys[position] = oldItemKeys[i];
+					values[position] = oldValues[i];
+				}
+			}
+		}
+
+		private void allocate(int capacity) {
+			this.itemKeys = new int[capacity];
+			this.values = new Object[capacity];
+		}
+
+		private static int hash(int itemKey) {
+			int h = itemKey * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+	}
+
+}
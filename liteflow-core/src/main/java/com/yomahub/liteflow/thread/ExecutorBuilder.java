@@ -1,11 +1,11 @@
 package com.yomahub.liteflow.thread;
 
-import cn.hutool.core.util.ReflectUtil;
 import com.alibaba.ttl.threadpool.TtlExecutors;
 
-import java.lang.reflect.Method;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 并行多线程执行器构造器接口
@@ -23,21 +23,12 @@ public interface ExecutorBuilder {
 		ExecutorService executorService;
 
 		if (ExecutorHelper.loadInstance().isEnabledVirtualThreads()){
-			Method method = ReflectUtil.getMethodByName(Executors.class, "newVirtualThreadPerTaskExecutor");
-			executorService = TtlExecutors.getTtlExecutorService(ReflectUtil.invokeStatic(method));
+			// 开启虚拟线程之后，所有默认线程池共用虚拟线程引擎里的执行器，每个任务一个虚拟线程
+			executorService = VirtualThreadEngine.loadInstance().getExecutorService();
 		}else{
 			executorService = TtlExecutors.getTtlExecutorService(new ThreadPoolExecutor(corePoolSize, maximumPoolSize, 60,
-					TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), new ThreadFactory() {
-				private final AtomicLong number = new AtomicLong();
-
-				@Override
-				public Thread newThread(Runnable r) {
-					Thread newThread = Executors.defaultThreadFactory().newThread(r);
-					newThread.setName(threadName + number.getAndIncrement());
-					newThread.setDaemon(false);
-					return newThread;
-				}
-			}, new ThreadPoolExecutor.CallerRunsPolicy()));
+					TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory(threadName),
+					new ThreadPoolExecutor.CallerRunsPolicy()));
 		}
 		return executorService;
 	}
@@ -45,17 +36,8 @@ public interface ExecutorBuilder {
 	default ExecutorService buildCommonExecutor(int corePoolSize, int maximumPoolSize, int queueCapacity,
 												 String threadName) {
 		return TtlExecutors.getTtlExecutorService(new ThreadPoolExecutor(corePoolSize, maximumPoolSize, 60,
-				TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), new ThreadFactory() {
-			private final AtomicLong number = new AtomicLong();
-
-			@Override
-			public Thread newThread(Runnable r) {
-				Thread newThread = Executors.defaultThreadFactory().newThread(r);
-				newThread.setName(threadName + number.getAndIncrement());
-				newThread.setDaemon(false);
-				return newThread;
-			}
-		}, new ThreadPoolExecutor.CallerRunsPolicy()));
+				TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory(threadName),
+				new ThreadPoolExecutor.CallerRunsPolicy()));
 	}
 
 }
@@ -10,10 +10,10 @@ package com.yomahub.liteflow.thread;
 
 import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.BooleanUtil;
-import cn.hutool.core.util.JdkUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ConditionTypeEnum;
+import com.yomahub.liteflow.enums.ExecutorLevelEnum;
 import com.yomahub.liteflow.exception.ThreadExecutorServiceCreateException;
 import com.yomahub.liteflow.flow.FlowBus;
 import com.yomahub.liteflow.flow.element.Chain;
@@ -27,9 +27,17 @@ import com.yomahub.liteflow.spi.holder.ContextAwareHolder;
 import com.yomahub.liteflow.thread.ExecutorCondition.ExecutorCondition;
 import com.yomahub.liteflow.thread.ExecutorCondition.ExecutorConditionBuilder;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * 线程池工具类
@@ -44,7 +52,13 @@ public class ExecutorHelper {
 	/**
 	 * 此处使用Map缓存线程池信息 key - 线程池构建者的Class全类名 value - 线程池对象
 	 */
-	private final Map<String, ExecutorService> executorServiceMap;
+	private final Map<String, ManagedExecutorService> executorServiceMap;
+
+	// 已经退役的chain和condition实例，还在执行的老请求不会再为它们新建线程池，实例不再被引用之后自动移除
+	private final Map<Object, Boolean> retiredOwnerMap = Collections.synchronizedMap(new WeakHashMap<>());
+
+	// 定时进行线程池自动调整和回收的线程，需要的时候才会创建
+	private volatile ScheduledExecutorService managerScheduler;
 
 	private ExecutorHelper() {
 		executorServiceMap = MapUtil.newConcurrentHashMap();
@@ -106,7 +120,7 @@ public class ExecutorHelper {
 		if (StrUtil.isBlank(clazz)) {
 			return buildWhenExecutor();
 		}
-		return getExecutorService(clazz);
+		return getExecutorService(clazz, ExecutorLevelEnum.GLOBAL);
 	}
 
 	// 构建when线程池 - clazz和condition的hash值共同作为缓存key
@@ -120,7 +134,7 @@ public class ExecutorHelper {
 		if (StrUtil.isBlank(clazz)) {
 			return buildWhenExecutorWithHash(hash);
 		}
-		return getExecutorService(clazz, hash);
+		return getExecutorService(clazz, hash, ExecutorLevelEnum.CONDITION, null, null);
 	}
 
 	// 构建默认的FlowExecutor线程池，用于execute2Future方法
@@ -133,34 +147,45 @@ public class ExecutorHelper {
 		if (StrUtil.isBlank(clazz)) {
 			return buildMainExecutor();
 		}
-		return getExecutorService(clazz);
+		return getExecutorService(clazz, ExecutorLevelEnum.MAIN);
 	}
 
-	private ExecutorService getExecutorService(String clazz){
-		return getExecutorService(clazz, null);
+	private ExecutorService getExecutorService(String clazz, ExecutorLevelEnum level){
+		return getExecutorService(clazz, null, level, null, null);
 	}
 
 	/**
 	 * 根据线程执行构建者Class类名获取ExecutorService实例
+	 * @param owner 线程池所属的chain或者condition实例，已经退役的话不再新建线程池，使用全局线程池
 	 */
-	private ExecutorService getExecutorService(String clazz, String hash) {
+	private ExecutorService getExecutorService(String clazz, String hash, ExecutorLevelEnum level, Chain ownerChain,
+			Object owner) {
 		try {
-			String key;
-			if (StrUtil.isBlank(hash)) {
-				key = clazz;
-			}else{
-				key = StrUtil.format("{}_{}", clazz, hash);
-			}
+			String key = buildKey(clazz, hash);
 
-			ExecutorService executorServiceFromCache = executorServiceMap.get(key);
+			ManagedExecutorService executorServiceFromCache = executorServiceMap.get(key);
 			if (ObjectUtil.isNotNull(executorServiceFromCache)) {
 				return executorServiceFromCache;
 			}
 			else {
+				// 线程池已经退役并且被回收，还在执行的老请求不能再新建一个没有人回收的线程池
+				if (isRetiredOwner(owner) || isRetiredOwner(ownerChain)) {
+					return getExecutorService(LiteflowConfigGetter.get().getGlobalThreadPoolExecutorClass(),
+							ExecutorLevelEnum.GLOBAL);
+				}
 				Class<ExecutorBuilder> executorClass = (Class<ExecutorBuilder>) Class.forName(clazz);
 				ExecutorBuilder executorBuilder = ContextAwareHolder.loadContextAware().registerBean(executorClass);
-				ExecutorService executorService = executorBuilder.buildExecutor();
+				ManagedExecutorService executorService = new ManagedExecutorService(key, level, ownerChain, owner,
+						executorBuilder.buildExecutor());
 				executorServiceMap.put(key, executorService);
+				// 新建的同时owner被退役了，也要跟着退役
+				if (isRetiredOwner(owner) || isRetiredOwner(ownerChain)) {
+					executorService.retire();
+					startManagerScheduler();
+				}
+				if (BooleanUtil.isTrue(LiteflowConfigGetter.get().getEnableExecutorAutoTune())) {
+					startManagerScheduler();
+				}
 				return executorService;
 			}
 		}
@@ -170,10 +195,25 @@ public class ExecutorHelper {
 		}
 	}
 
+	private String buildKey(String clazz, String hash) {
+		if (StrUtil.isBlank(hash)) {
+			return clazz;
+		}
+		return StrUtil.format("{}_{}", clazz, hash);
+	}
+
+	// chain和condition的编号是分别生成的，加上前缀区分
+	private String chainKeySuffix(Chain chain) {
+		return StrUtil.format("chain_{}", chain.getInstanceId());
+	}
+
 	public void clearExecutorServiceMap() {
 		if (MapUtil.isNotEmpty(executorServiceMap)) {
 			executorServiceMap.clear();
 		}
+		retiredOwnerMap.clear();
+		// 配置可能已经变化，下次重新判断是否开启虚拟线程
+		isEnabledVirtualThreadsCache = null;
 	}
 
 	/**
@@ -202,26 +242,169 @@ public class ExecutorHelper {
 		if (execCondition.isConditionLevel()) {
 			// condition层级线程池
 			executor = getExecutorService(execCondition.getConditionExecutorClass(),
-										  String.valueOf(condition.hashCode()));
+										  StrUtil.format("condition_{}", condition.getInstanceId()), ExecutorLevelEnum.CONDITION, chain, condition);
 
 		} else if (execCondition.isChainLevel()) {
 			// chain层级线程池
 			executor = getExecutorService(chain.getThreadPoolExecutorClass(),
-										  String.valueOf(chain.hashCode()));
+										  chainKeySuffix(chain), ExecutorLevelEnum.CHAIN, chain, chain);
 		} else {
 			// 全局线程池
-			executor = getExecutorService(liteflowConfig.getGlobalThreadPoolExecutorClass());
+			executor = getExecutorService(liteflowConfig.getGlobalThreadPoolExecutorClass(), ExecutorLevelEnum.GLOBAL);
 		}
 
 		return executor;
 	}
 
-	private Boolean isEnabledVirtualThreadsCache;
+	/**
+	 * 获取所有线程池的运行指标
+	 */
+	public List<ExecutorMetric> getExecutorMetrics() {
+		return executorServiceMap.values()
+			.stream()
+			.map(ManagedExecutorService::snapshot)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * chain被移除或者被新的chain替换之后，把它的chain和condition层级线程池标记为退役，任务全部结束之后回收
+	 * @param chain 被移除或者被替换的chain实例
+	 */
+	public void retireChainExecutors(Chain chain) {
+		if (ObjectUtil.isNull(chain)) {
+			return;
+		}
+		retiredOwnerMap.put(chain, Boolean.TRUE);
+		retireExecutors(executorService -> executorService.getOwnerChain() == chain);
+	}
+
+	/**
+	 * chain在原来的实例上重新构建之后，老的condition不会再被使用，把它们的condition层级线程池，以及线程池构建类已经改变的chain层级线程池标记为退役
+	 * @param chain 重新构建的chain实例
+	 */
+	public void retireStaleExecutors(Chain chain) {
+		if (ObjectUtil.isNull(chain)) {
+			return;
+		}
+		String chainKey = buildKey(chain.getThreadPoolExecutorClass(), chainKeySuffix(chain));
+		retireExecutors(executorService -> executorService.getOwnerChain() == chain
+				&& (executorService.getLevel() == ExecutorLevelEnum.CONDITION
+						|| !executorService.getKey().equals(chainKey)));
+	}
+
+	private void retireExecutors(Predicate<ManagedExecutorService> predicate) {
+		boolean found = false;
+		for (ManagedExecutorService executorService : executorServiceMap.values()) {
+			if (!executorService.isRetired() && predicate.test(executorService)) {
+				// chain仍然在使用的时候，chain层级的线程池只是换了构建类，新的key不会和老的冲突，只需要记录condition
+				if (executorService.getLevel() == ExecutorLevelEnum.CONDITION && executorService.getOwner() != null) {
+					retiredOwnerMap.put(executorService.getOwner(), Boolean.TRUE);
+				}
+				executorService.retire();
+				found = true;
+			}
+		}
+		if (found && !reclaimRetiredExecutors()) {
+			// 还有正在执行的任务，交给定时线程之后再回收
+			startManagerScheduler();
+		}
+	}
+
+	/**
+	 * 回收已经退役并且没有任务的线程池
+	 * @return 是否所有退役的线程池都已经回收
+	 */
+	public boolean reclaimRetiredExecutors() {
+		boolean allReclaimed = true;
+		for (ManagedExecutorService executorService : executorServiceMap.values()) {
+			if (!executorService.isRetired()) {
+				continue;
+			}
+			if (!executorService.isIdle()) {
+				allReclaimed = false;
+				continue;
+			}
+			if (executorServiceMap.remove(executorService.getKey(), executorService)) {
+				ExecutorService delegate = executorService.getDelegate();
+				// 用户自己构建的线程池，或者还有其他key在使用的线程池都不能关闭
+				boolean shared = executorServiceMap.values()
+					.stream()
+					.anyMatch(other -> other.getDelegate() == delegate);
+				if (executorService.isExclusiveDelegate() && !shared) {
+					delegate.shutdown();
+				}
+				LOG.info("thread pool[{}] of chain[{}] has been reclaimed", executorService.getKey(),
+						executorService.getOwnerChain().getChainId());
+			}
+		}
+		return allReclaimed;
+	}
+
+	private boolean isRetiredOwner(Object owner) {
+		return owner != null && retiredOwnerMap.containsKey(owner);
+	}
+
+	/**
+	 * 根据每个线程池上一次调整以来的平均排队时间，调整底层ThreadPoolExecutor的核心线程数
+	 * 只调整LiteFlow自己构建并且独占的线程池，用户自己构建的线程池以及多个key共用的线程池不做调整
+	 */
+	public void tuneExecutors() {
+		LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
+		long waitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(liteflowConfig.getExecutorAutoTuneWaitThreshold());
+		int maxPoolSize = liteflowConfig.getExecutorAutoTuneMaxPoolSize();
+		Map<ExecutorService, Integer> delegateCountMap = new IdentityHashMap<>();
+		for (ManagedExecutorService executorService : executorServiceMap.values()) {
+			delegateCountMap.merge(executorService.getDelegate(), 1, Integer::sum);
+		}
+		for (ManagedExecutorService executorService : executorServiceMap.values()) {
+			if (!executorService.isExclusiveDelegate() || delegateCountMap.get(executorService.getDelegate()) > 1) {
+				continue;
+			}
+			try {
+				executorService.tune(waitThresholdNanos, maxPoolSize);
+			}
+			catch (Exception e) {
+				LOG.warn("tune thread pool[{}] error: {}", executorService.getKey(), e.getMessage());
+			}
+		}
+	}
+
+	private void startManagerScheduler() {
+		if (managerScheduler != null) {
+			return;
+		}
+		synchronized (this) {
+			if (managerScheduler != null) {
+				return;
+			}
+			long interval = Math.max(1, LiteflowConfigGetter.get().getExecutorAutoTuneInterval());
+			ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "liteflow-executor-manager");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(() -> {
+				try {
+					if (BooleanUtil.isTrue(LiteflowConfigGetter.get().getEnableExecutorAutoTune())) {
+						tuneExecutors();
+					}
+					reclaimRetiredExecutors();
+				}
+				catch (Throwable t) {
+					LOG.warn("thread pool manager error: {}", t.getMessage());
+				}
+			}, interval, interval, TimeUnit.SECONDS);
+			managerScheduler = scheduler;
+		}
+	}
+
+	private volatile Boolean isEnabledVirtualThreadsCache;
 
 	public boolean isEnabledVirtualThreads(){
 		if (isEnabledVirtualThreadsCache == null){
 			LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
-			isEnabledVirtualThreadsCache = BooleanUtil.isTrue(liteflowConfig.getEnableVirtualThread() && JdkUtil.JVM_VERSION >= 21);
+			isEnabledVirtualThreadsCache = liteflowConfig != null && BooleanUtil.isTrue(liteflowConfig.getEnableVirtualThread())
+					&& VirtualThreadEngine.isSupported();
 		}
 		return isEnabledVirtualThreadsCache;
 	}
@@ -0,0 +1,169 @@
+package com.yomahub.liteflow.thread;
+
+import com.yomahub.liteflow.enums.ExecutorLevelEnum;
+
+/**
+ * 线程池运行指标的快照
+ * <p>
+ * 排队数量是已经提交但是还没有开始执行的任务数，等待时间是任务从提交到开始执行的时间。
+ * 拒绝次数包含抛出RejectedExecutionException的次数，以及线程池满了之后由提交线程自己执行(CallerRunsPolicy)的次数。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ExecutorMetric {
+
+	// 线程池在ExecutorHelper中的缓存key
+	private String key;
+
+	private ExecutorLevelEnum level;
+
+	// chain和condition层级线程池所属的chainId
+	private String chainId;
+
+	// 所属的chain已经被移除或者重新加载，等待回收
+	private boolean retired;
+
+	private long submittedCount;
+
+	private long completedCount;
+
+	private long rejectedCount;
+
+	private int activeCount;
+
+	private int queueSize;
+
+	private long avgWaitNanos;
+
+	private long maxWaitNanos;
+
+	// 以下为底层ThreadPoolExecutor的大小，非ThreadPoolExecutor(比如虚拟线程)的时候为-1
+	private int corePoolSize;
+
+	private int maximumPoolSize;
+
+	private int poolSize;
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public ExecutorLevelEnum getLevel() {
+		return level;
+	}
+
+	public void setLevel(ExecutorLevelEnum level) {
+		this.level = level;
+	}
+
+	public String getChainId() {
+		return chainId;
+	}
+
+	public void setChainId(String chainId) {
+		this.chainId = chainId;
+	}
+
+	public boolean isRetired() {
+		return retired;
+	}
+
+	public void setRetired(boolean retired) {
+		this.retired = retired;
+	}
+
+	public long getSubmittedCount() {
+		return submittedCount;
+	}
+
+	public void setSubmittedCount(long submittedCount) {
+		this.submittedCount = submittedCount;
+	}
+
+	public long getCompletedCount() {
+		return completedCount;
+	}
+
+	public void setCompletedCount(long completedCount) {
+		this.completedCount = completedCount;
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	public void setRejectedCount(long rejectedCount) {
+		this.rejectedCount = rejectedCount;
+	}
+
+	public int getActiveCount() {
+		return activeCount;
+	}
+
+	public void setActiveCount(int activeCount) {
+		this.activeCount = activeCount;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public long getAvgWaitNanos() {
+		return avgWaitNanos;
+	}
+
+	public void setAvgWaitNanos(long avgWaitNanos) {
+		this.avgWaitNanos = avgWaitNanos;
+	}
+
+	public long getMaxWaitNanos() {
+		return maxWaitNanos;
+	}
+
+	public void setMaxWaitNanos(long maxWaitNanos) {
+		this.maxWaitNanos = maxWaitNanos;
+	}
+
+	public int getCorePoolSize() {
+		return corePoolSize;
+	}
+
+	public void setCorePoolSize(int corePoolSize) {
+		this.corePoolSize = corePoolSize;
+	}
+
+	public int getMaximumPoolSize() {
+		return maximumPoolSize;
+	}
+
+	public void setMaximumPoolSize(int maximumPoolSize) {
+		this.maximumPoolSize = maximumPoolSize;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutorMetric{" + "key='" + key + '\'' + ", level=" + level + ", chainId='" + chainId + '\''
+				+ ", retired=" + retired + ", submitted=" + submittedCount + ", completed=" + completedCount
+				+ ", rejected=" + rejectedCount + ", active=" + activeCount + ", queued=" + queueSize
+				+ ", avgWaitNanos=" + avgWaitNanos + ", maxWaitNanos=" + maxWaitNanos + ", corePoolSize="
+				+ corePoolSize + ", maximumPoolSize=" + maximumPoolSize + ", poolSize=" + poolSize + '}';
+	}
+
+}
@@ -0,0 +1,301 @@
+package com.yomahub.liteflow.thread;
+
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import com.yomahub.liteflow.enums.ExecutorLevelEnum;
+import com.yomahub.liteflow.flow.element.Chain;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 被ExecutorHelper管理的线程池，包装了ExecutorBuilder构建出来的线程池
+ * <p>
+ * 每个任务在提交时记录纳秒时间，开始执行时就能得到排队的时间，整个过程只有几次原子累加。
+ * 如果底层是LiteFlow自己构建并且独占的ThreadPoolExecutor，可以根据排队时间调整它的核心线程数，用户自己构建的或者共用的线程池不会被调整。
+ * 所属的chain被移除或者重新加载之后，线程池被标记为退役，等任务全部结束之后由ExecutorHelper关闭回收。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+class ManagedExecutorService extends AbstractExecutorService {
+
+	private final String key;
+
+	private final ExecutorLevelEnum level;
+
+	// chain和condition层级线程池所属的chain实例，全局和主线程池为null
+	private final Chain ownerChain;
+
+	// 线程池所属的chain或者condition实例，全局和主线程池为null，退役之后老的请求不会再为它新建线程池
+	private final Object owner;
+
+	private final ExecutorService delegate;
+
+	// 底层可以调整大小的线程池，不是ThreadPoolExecutor的时候为null
+	private final ThreadPoolExecutor threadPool;
+
+	private final int initialCorePoolSize;
+
+	private final int initialMaximumPoolSize;
+
+	private volatile boolean retired;
+
+	private final LongAdder submittedCount = new LongAdder();
+
+	private final LongAdder completedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder totalWaitNanos = new LongAdder();
+
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final AtomicInteger queueSize = new AtomicInteger();
+
+	// 两次调整之间的最大活跃线程数
+	private final AtomicInteger peakActiveCount = new AtomicInteger();
+
+	// 上一次调整时的统计值，只在调整线程中读写
+	private long lastStartedCount;
+
+	private long lastTotalWaitNanos;
+
+	private long lastRejectedCount;
+
+	ManagedExecutorService(String key, ExecutorLevelEnum level, Chain ownerChain, Object owner,
+			ExecutorService delegate) {
+		this.key = key;
+		this.level = level;
+		this.ownerChain = ownerChain;
+		this.owner = owner;
+		this.delegate = delegate;
+		Executor raw = TtlExecutors.unwrap((Executor) delegate);
+		if (raw instanceof ThreadPoolExecutor) {
+			this.threadPool = (ThreadPoolExecutor) raw;
+			this.initialCorePoolSize = threadPool.getCorePoolSize();
+			this.initialMaximumPoolSize = threadPool.getMaximumPoolSize();
+		}
+		else {
+			this.threadPool = null;
+			this.initialCorePoolSize = -1;
+			this.initialMaximumPoolSize = -1;
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		ManagedTask task = new ManagedTask(command);
+		submittedCount.increment();
+		queueSize.incrementAndGet();
+		if (retired && delegate.isShutdown()) {
+			// 已经被回收的线程池，还在执行的老请求直接在当前线程执行
+			rejectedCount.increment();
+			task.run();
+			return;
+		}
+		try {
+			delegate.execute(task);
+			task.submitted = true;
+		}
+		catch (RejectedExecutionException e) {
+			if (retired) {
+				rejectedCount.increment();
+				task.run();
+				return;
+			}
+			queueSize.decrementAndGet();
+			rejectedCount.increment();
+			throw e;
+		}
+	}
+
+	/**
+	 * 根据上一次调整以来的排队时间调整核心线程数，只能对{@link #isExclusiveDelegate()}并且没有被其他key共用的线程池调用
+	 * @param waitThresholdNanos 平均排队时间超过这个值就扩大线程池
+	 * @param maxPoolSize 扩大时的上限
+	 */
+	void tune(long waitThresholdNanos, int maxPoolSize) {
+		if (threadPool == null || retired || threadPool.isShutdown()) {
+			return;
+		}
+		long startedCount = completedCount.sum() + activeCount.get();
+		long waitNanos = totalWaitNanos.sum();
+		long rejected = rejectedCount.sum();
+		long deltaStarted = startedCount - lastStartedCount;
+		long avgWaitNanos = deltaStarted > 0 ? (waitNanos - lastTotalWaitNanos) / deltaStarted : 0L;
+		boolean saturated = rejected > lastRejectedCount;
+		lastStartedCount = startedCount;
+		lastTotalWaitNanos = waitNanos;
+		lastRejectedCount = rejected;
+		int peakActive = peakActiveCount.getAndSet(activeCount.get());
+
+		int corePoolSize = threadPool.getCorePoolSize();
+		if ((avgWaitNanos > waitThresholdNanos || saturated) && corePoolSize < maxPoolSize) {
+			// 任务排队太久或者已经由提交线程自己执行了，每次扩大四分之一
+			int newSize = Math.min(maxPoolSize, corePoolSize + Math.max(1, corePoolSize / 4));
+			if (newSize > threadPool.getMaximumPoolSize()) {
+				threadPool.setMaximumPoolSize(newSize);
+			}
+			threadPool.setCorePoolSize(newSize);
+		}
+		else if (corePoolSize > initialCorePoolSize && avgWaitNanos <= waitThresholdNanos / 4
+				&& peakActive * 2 < corePoolSize) {
+			// 一半以上的线程都空闲，逐步缩小到初始大小，先缩核心线程数再缩最大线程数
+			int newSize = Math.max(initialCorePoolSize, corePoolSize - Math.max(1, corePoolSize / 4));
+			threadPool.setCorePoolSize(newSize);
+			int newMaximumPoolSize = Math.max(initialMaximumPoolSize, newSize);
+			if (newMaximumPoolSize < threadPool.getMaximumPoolSize()) {
+				threadPool.setMaximumPoolSize(newMaximumPoolSize);
+			}
+		}
+	}
+
+	/**
+	 * 是否已经没有在执行和排队的任务
+	 */
+	boolean isIdle() {
+		if (activeCount.get() == 0 && queueSize.get() == 0) {
+			return true;
+		}
+		// 被拒绝策略丢弃的任务不会再执行，以底层线程池的状态为准
+		return threadPool != null && threadPool.getActiveCount() == 0 && threadPool.getQueue().isEmpty();
+	}
+
+	ExecutorMetric snapshot() {
+		ExecutorMetric metric = new ExecutorMetric();
+		metric.setKey(key);
+		metric.setLevel(level);
+		metric.setChainId(ownerChain == null ? null : ownerChain.getChainId());
+		metric.setRetired(retired);
+		long completed = completedCount.sum();
+		int active = activeCount.get();
+		metric.setSubmittedCount(submittedCount.sum());
+		metric.setCompletedCount(completed);
+		metric.setRejectedCount(rejectedCount.sum());
+		metric.setActiveCount(active);
+		metric.setQueueSize(queueSize.get());
+		long started = completed + active;
+		metric.setAvgWaitNanos(started > 0 ? totalWaitNanos.sum() / started : 0L);
+		metric.setMaxWaitNanos(maxWaitNanos.get());
+		if (threadPool != null) {
+			metric.setCorePoolSize(threadPool.getCorePoolSize());
+			metric.setMaximumPoolSize(threadPool.getMaximumPoolSize());
+			metric.setPoolSize(threadPool.getPoolSize());
+		}
+		else {
+			metric.setCorePoolSize(-1);
+			metric.setMaximumPoolSize(-1);
+			metric.setPoolSize(-1);
+		}
+		return metric;
+	}
+
+	/**
+	 * 底层线程池是否由ExecutorBuilder的默认方法新建，只有这样的线程池回收时才会被关闭，用户自己构建的线程池可能在其他地方共用
+	 */
+	boolean isExclusiveDelegate() {
+		return threadPool != null && threadPool.getThreadFactory() instanceof NamedThreadFactory;
+	}
+
+	ExecutorLevelEnum getLevel() {
+		return level;
+	}
+
+	String getKey() {
+		return key;
+	}
+
+	Chain getOwnerChain() {
+		return ownerChain;
+	}
+
+	Object getOwner() {
+		return owner;
+	}
+
+	ExecutorService getDelegate() {
+		return delegate;
+	}
+
+	boolean isRetired() {
+		return retired;
+	}
+
+	void retire() {
+		this.retired = true;
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		return delegate.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+	private class ManagedTask implements Runnable {
+
+		private final Runnable command;
+
+		private final Thread submitThread = Thread.currentThread();
+
+		private final long submitNanos = System.nanoTime();
+
+		// delegate.execute已经返回，在这之前由提交线程执行说明线程池已满，触发了CallerRunsPolicy
+		private volatile boolean submitted;
+
+		private ManagedTask(Runnable command) {
+			this.command = command;
+		}
+
+		@Override
+		public void run() {
+			long waitNanos = System.nanoTime() - submitNanos;
+			queueSize.decrementAndGet();
+			if (!submitted && Thread.currentThread() == submitThread && !retired) {
+				rejectedCount.increment();
+			}
+			totalWaitNanos.add(waitNanos);
+			maxWaitNanos.accumulate(waitNanos);
+			int active = activeCount.incrementAndGet();
+			peakActiveCount.accumulateAndGet(active, Math::max);
+			try {
+				command.run();
+			}
+			finally {
+				// 先增加完成数再减少活跃数，保证任意时刻完成数加上活跃数都是已经开始执行的任务数
+				completedCount.increment();
+				activeCount.decrementAndGet();
+			}
+		}
+
+	}
+
+}
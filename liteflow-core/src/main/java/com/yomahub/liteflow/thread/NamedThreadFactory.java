@@ -0,0 +1,33 @@
+package com.yomahub.liteflow.thread;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExecutorBuilder默认线程池使用的线程工厂
+ * <p>
+ * 用这个工厂创建的线程池一定是ExecutorBuilder新建的，不会被其他地方共用，回收的时候可以放心关闭。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+class NamedThreadFactory implements ThreadFactory {
+
+	private final AtomicLong number = new AtomicLong();
+
+	private final String threadName;
+
+	NamedThreadFactory(String threadName) {
+		this.threadName = threadName;
+	}
+
+	@Override
+	public Thread newThread(Runnable r) {
+		Thread newThread = Executors.defaultThreadFactory().newThread(r);
+		newThread.setName(threadName + number.getAndIncrement());
+		newThread.setDaemon(false);
+		return newThread;
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.yomahub.liteflow.thread;
+
+import cn.hutool.core.util.JdkUtil;
+import com.alibaba.ttl.threadpool.TtlExecutors;
+import com.yomahub.liteflow.exception.ThreadExecutorServiceCreateException;
+import com.yomahub.liteflow.log.LFLog;
+import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.trace.TraceRecorder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程执行引擎，开启liteflow.enable-virtual-thread并且运行在JDK21以上时生效
+ * <p>
+ * 引擎内部只有一个thread-per-task的执行器，WHEN的每个分支以及并行循环的每次迭代都会跑在一个独立的虚拟线程上，
+ * 所有线程池构建者构建出来的默认线程池都会共用这一个执行器，而不是每个condition、每个chain各自创建一个。
+ * 每个任务的生命周期由提交它的WHEN或者循环通过CompletableFuture来管理，超时、异常的处理和平台线程池完全一致。
+ * <p>
+ * 由于编译目标是JDK8，这里所有JDK21的api都是通过反射在第一次使用的时候解析的。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class VirtualThreadEngine {
+
+	private static final LFLog LOG = LFLoggerManager.getLogger(VirtualThreadEngine.class);
+
+	public static final String THREAD_NAME_PREFIX = "lf-virtual-";
+
+	private volatile ExecutorService executorService;
+
+	private VirtualThreadEngine() {
+	}
+
+	private static class Holder {
+
+		static final VirtualThreadEngine INSTANCE = new VirtualThreadEngine();
+
+	}
+
+	public static VirtualThreadEngine loadInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * 当前运行环境是否支持虚拟线程
+	 */
+	public static boolean isSupported() {
+		return SupportHolder.SUPPORTED;
+	}
+
+	/**
+	 * 获取共享的虚拟线程执行器，执行器本身不需要关闭，虚拟线程在任务结束后就会被回收
+	 */
+	public ExecutorService getExecutorService() {
+		if (executorService == null) {
+			synchronized (this) {
+				if (executorService == null) {
+					executorService = TtlExecutors.getTtlExecutorService(newThreadPerTaskExecutor());
+				}
+			}
+		}
+		return executorService;
+	}
+
+	private static ExecutorService newThreadPerTaskExecutor() {
+		try {
+			// Thread.ofVirtual().name(prefix, 0).factory()
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+			ThreadFactory virtualThreadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			// 每个虚拟线程只执行一个任务，任务结束的时候把执行轨迹的缓冲区交给之后的虚拟线程
+			ThreadFactory threadFactory = runnable -> virtualThreadFactory.newThread(() -> {
+				try {
+					runnable.run();
+				}
+				finally {
+					TraceRecorder.releaseBuffer();
+				}
+			});
+
+			Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) method.invoke(null, threadFactory);
+		}
+		catch (Exception e) {
+			LOG.error(e.getMessage(), e);
+			throw new ThreadExecutorServiceCreateException("virtual thread executor could not be created: " + e.getMessage());
+		}
+	}
+
+	// 只在第一次调用isSupported的时候探测一次
+	private static class SupportHolder {
+
+		static final boolean SUPPORTED = detect();
+
+		private static boolean detect() {
+			if (JdkUtil.JVM_VERSION < 21) {
+				return false;
+			}
+			try {
+				Thread.class.getMethod("ofVirtual");
+				Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+				return true;
+			}
+			catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+
+	}
+
+}
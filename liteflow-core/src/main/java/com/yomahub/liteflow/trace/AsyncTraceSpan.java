@@ -0,0 +1,37 @@
+package com.yomahub.liteflow.trace;
+
+/**
+ * 异步执行的span，开始和结束可能在不同的线程上
+ * <p>
+ * 开始的线程启动完异步任务之后，span就从这个线程的栈上移除，结束时在完成的线程上写入事件
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public final class AsyncTraceSpan {
+
+	private final long spanId;
+
+	private final long parentSpanId;
+
+	private final long startNanos;
+
+	AsyncTraceSpan(long spanId, long parentSpanId, long startNanos) {
+		this.spanId = spanId;
+		this.parentSpanId = parentSpanId;
+		this.startNanos = startNanos;
+	}
+
+	public long getSpanId() {
+		return spanId;
+	}
+
+	long getParentSpanId() {
+		return parentSpanId;
+	}
+
+	long getStartNanos() {
+		return startNanos;
+	}
+
+}
@@ -0,0 +1,314 @@
+package com.yomahub.liteflow.trace;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 每个线程独有的执行轨迹环形缓冲区
+ * <p>
+ * 只有所属的线程会写入，只有flush线程会读取，所以写入和读取都不需要加锁，只需要通过published和consumed两个位置进行交接。
+ * 缓冲区满了之后新的事件直接丢弃，不会阻塞执行的线程。写入的过程中不会产生任何对象。
+ * <p>
+ * 同时维护了当前线程上正在执行的span的栈，用来确定每个事件的父span。
+ * <p>
+ * 虚拟线程使用的是共享的缓冲区，一个虚拟线程的任务结束之后，缓冲区马上交给下一个虚拟线程，同一时刻仍然只有一个线程写入。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+final class TraceBuffer {
+
+	// spanId的低40位是线程内的序号，高位是缓冲区的编号
+	private static final int SPAN_SEQ_BITS = 40;
+
+	private final byte[] data;
+
+	private final int mask;
+
+	// 是否是虚拟线程共享的缓冲区
+	private final boolean shared;
+
+	// 以下字段在缓冲区被复用的时候重新设置，复用之前缓冲区已经不在flush的列表里了
+	// 所属的TraceRecorder的代数，重新初始化之后旧的缓冲区不再使用
+	private long generation;
+
+	private WeakReference<Thread> owner;
+
+	private long threadId;
+
+	private String threadName;
+
+	private long spanPrefix;
+
+	// 已经写完可以被读取的位置
+	private final AtomicLong published = new AtomicLong();
+
+	// 已经被flush线程读取的位置
+	private final AtomicLong consumed = new AtomicLong();
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	// 以下字段只有所属的线程会访问
+	private long position;
+
+	private long spanSeq;
+
+	private final long[] spanIds;
+
+	private final long[] parentSpanIds;
+
+	private final long[] startNanos;
+
+	private final int[] attempts;
+
+	private int depth;
+
+	// 栈为空的时候事件的父span，并行分支开始执行的时候设置为提交分支时的span
+	private long baseSpanId;
+
+	// 共享的缓冲区没能放回池中，数据写完之后由flush线程移除
+	private volatile boolean retired;
+
+	// 以下字段只有flush线程会访问，线程信息已经写入的文件的代数
+	int announcedFileGeneration = -1;
+
+	/**
+	 * @param maxDepth span栈的最大深度，超过的部分不再记录
+	 */
+	TraceBuffer(int capacity, int maxDepth, boolean shared, long generation, long bufferId) {
+		this.data = new byte[capacity];
+		this.mask = capacity - 1;
+		this.shared = shared;
+		this.spanIds = new long[maxDepth];
+		this.parentSpanIds = new long[maxDepth];
+		this.startNanos = new long[maxDepth];
+		this.attempts = new int[maxDepth];
+		bind(generation, bufferId);
+	}
+
+	/**
+	 * 绑定到当前线程，新建的缓冲区以及从池中取出复用的缓冲区都要调用。
+	 * 独占的缓冲区调用时数据都已经被读取了，线程信息由flush线程写入；
+	 * 共享的缓冲区中可能还有之前的线程没有被读取的数据，线程信息作为一条记录直接写在缓冲区里
+	 */
+	void bind(long generation, long bufferId) {
+		this.generation = generation;
+		Thread thread = Thread.currentThread();
+		this.owner = new WeakReference<>(thread);
+		this.threadId = thread.getId();
+		this.threadName = thread.getName();
+		this.spanPrefix = bufferId << SPAN_SEQ_BITS;
+		this.spanSeq = 0L;
+		this.depth = 0;
+		this.baseSpanId = 0L;
+		this.announcedFileGeneration = -1;
+		if (shared) {
+			writeThread();
+		}
+	}
+
+	long enter() {
+		if (depth == spanIds.length) {
+			return 0L;
+		}
+		long spanId = spanPrefix | (++spanSeq & ((1L << SPAN_SEQ_BITS) - 1));
+		spanIds[depth] = spanId;
+		parentSpanIds[depth] = currentSpanId();
+		startNanos[depth] = System.nanoTime();
+		attempts[depth] = 0;
+		depth++;
+		return spanId;
+	}
+
+	void exit(long spanId, long traceId, byte kind, int nameIndex, byte outcome) {
+		// 正常情况下一定是栈顶，这里兼容一下中间有span没有正常退出的情况
+		int index = depth - 1;
+		while (index >= 0 && spanIds[index] != spanId) {
+			index--;
+		}
+		if (index < 0) {
+			return;
+		}
+		depth = index;
+		if (traceId == 0L) {
+			return;
+		}
+		int retryCount = Math.min(Short.MAX_VALUE, Math.max(0, attempts[index] - 1));
+		writeEvent(kind, outcome, retryCount, nameIndex, traceId, spanId, parentSpanIds[index], startNanos[index],
+				System.nanoTime());
+	}
+
+	/**
+	 * 把span出栈但是不写入事件，用于异步执行的span，事件在结束的时候再写入
+	 */
+	AsyncTraceSpan detach(long spanId) {
+		int index = depth - 1;
+		while (index >= 0 && spanIds[index] != spanId) {
+			index--;
+		}
+		if (index < 0) {
+			return null;
+		}
+		depth = index;
+		return new AsyncTraceSpan(spanId, parentSpanIds[index], startNanos[index]);
+	}
+
+	void attempt() {
+		if (depth > 0) {
+			attempts[depth - 1]++;
+		}
+	}
+
+	long currentSpanId() {
+		return depth > 0 ? spanIds[depth - 1] : baseSpanId;
+	}
+
+	long attachParent(long spanId) {
+		long previous = baseSpanId;
+		baseSpanId = spanId;
+		return previous;
+	}
+
+	void writeEvent(byte kind, byte outcome, int retryCount, int nameIndex, long traceId, long spanId,
+			long parentSpanId, long start, long end) {
+		if (!reserve(TraceFormat.EVENT_LENGTH)) {
+			return;
+		}
+		putByte(TraceFormat.RECORD_EVENT);
+		putByte(kind);
+		putByte(outcome);
+		putShort(retryCount);
+		putInt(nameIndex);
+		putLong(traceId);
+		putLong(spanId);
+		putLong(parentSpanId);
+		putLong(start);
+		putLong(end);
+		putLong(threadId);
+		publish();
+	}
+
+	void writeTrace(long traceId, int chainNameIndex, String requestId) {
+		String value = requestId == null ? "" : requestId;
+		if (!reserve(1 + 8 + 4 + TraceFormat.stringLength(value))) {
+			return;
+		}
+		putByte(TraceFormat.RECORD_TRACE);
+		putLong(traceId);
+		putInt(chainNameIndex);
+		putString(value);
+		publish();
+	}
+
+	private void writeThread() {
+		if (!reserve(1 + 8 + TraceFormat.stringLength(threadName))) {
+			return;
+		}
+		putByte(TraceFormat.RECORD_THREAD);
+		putLong(threadId);
+		putString(threadName);
+		publish();
+	}
+
+	/**
+	 * 把已经写完的数据交给writer，只能由flush线程调用
+	 * @return 交出去的字节数
+	 */
+	int drainTo(TraceFileWriter writer) {
+		long from = consumed.get();
+		long to = published.get();
+		if (from == to) {
+			return 0;
+		}
+		int start = (int) (from & mask);
+		int length = (int) (to - from);
+		int first = Math.min(length, data.length - start);
+		writer.write(data, start, first);
+		if (length > first) {
+			writer.write(data, 0, length - first);
+		}
+		consumed.lazySet(to);
+		return length;
+	}
+
+	int pendingLength() {
+		return (int) (published.get() - consumed.get());
+	}
+
+	boolean isOwnerAlive() {
+		Thread thread = owner.get();
+		return thread != null && thread.isAlive();
+	}
+
+	boolean isShared() {
+		return shared;
+	}
+
+	void retire() {
+		this.retired = true;
+	}
+
+	boolean isRetired() {
+		return retired;
+	}
+
+	int getCapacity() {
+		return data.length;
+	}
+
+	long getGeneration() {
+		return generation;
+	}
+
+	long getThreadId() {
+		return threadId;
+	}
+
+	String getThreadName() {
+		return threadName;
+	}
+
+	long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	private boolean reserve(int length) {
+		if (length > data.length - (position - consumed.get())) {
+			droppedCount.incrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	private void publish() {
+		published.lazySet(position);
+	}
+
+	private void putByte(int value) {
+		data[(int) (position++ & mask)] = (byte) value;
+	}
+
+	private void putShort(int value) {
+		putByte(value >>> 8);
+		putByte(value);
+	}
+
+	private void putInt(int value) {
+		putShort(value >>> 16);
+		putShort(value);
+	}
+
+	private void putLong(long value) {
+		putInt((int) (value >>> 32));
+		putInt((int) value);
+	}
+
+	private void putString(String value) {
+		int length = Math.min(value.length(), TraceFormat.MAX_STRING_LENGTH);
+		putShort(length);
+		for (int i = 0; i < length; i++) {
+			putShort(value.charAt(i));
+		}
+	}
+
+}
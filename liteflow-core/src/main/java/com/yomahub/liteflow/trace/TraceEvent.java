@@ -0,0 +1,157 @@
+package com.yomahub.liteflow.trace;
+
+import com.yomahub.liteflow.enums.TraceKindEnum;
+import com.yomahub.liteflow.enums.TraceOutcomeEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从执行轨迹文件中读取出来的一个事件
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class TraceEvent {
+
+	private TraceKindEnum kind;
+
+	private TraceOutcomeEnum outcome;
+
+	private int retryCount;
+
+	private String name;
+
+	private long traceId;
+
+	private String requestId;
+
+	private long spanId;
+
+	private long parentSpanId;
+
+	private long startNanos;
+
+	private long endNanos;
+
+	private long threadId;
+
+	private String threadName;
+
+	private TraceEvent parent;
+
+	private final List<TraceEvent> children = new ArrayList<>();
+
+	public long getDurationNanos() {
+		return endNanos - startNanos;
+	}
+
+	public TraceKindEnum getKind() {
+		return kind;
+	}
+
+	public void setKind(TraceKindEnum kind) {
+		this.kind = kind;
+	}
+
+	public TraceOutcomeEnum getOutcome() {
+		return outcome;
+	}
+
+	public void setOutcome(TraceOutcomeEnum outcome) {
+		this.outcome = outcome;
+	}
+
+	public int getRetryCount() {
+		return retryCount;
+	}
+
+	public void setRetryCount(int retryCount) {
+		this.retryCount = retryCount;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public long getTraceId() {
+		return traceId;
+	}
+
+	public void setTraceId(long traceId) {
+		this.traceId = traceId;
+	}
+
+	public String getRequestId() {
+		return requestId;
+	}
+
+	public void setRequestId(String requestId) {
+		this.requestId = requestId;
+	}
+
+	public long getSpanId() {
+		return spanId;
+	}
+
+	public void setSpanId(long spanId) {
+		this.spanId = spanId;
+	}
+
+	public long getParentSpanId() {
+		return parentSpanId;
+	}
+
+	public void setParentSpanId(long parentSpanId) {
+		this.parentSpanId = parentSpanId;
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public void setStartNanos(long startNanos) {
+		this.startNanos = startNanos;
+	}
+
+	public long getEndNanos() {
+		return endNanos;
+	}
+
+	public void setEndNanos(long endNanos) {
+		this.endNanos = endNanos;
+	}
+
+	public long getThreadId() {
+		return threadId;
+	}
+
+	public void setThreadId(long threadId) {
+		this.threadId = threadId;
+	}
+
+	public String getThreadName() {
+		return threadName;
+	}
+
+	public void setThreadName(String threadName) {
+		this.threadName = threadName;
+	}
+
+	public TraceEvent getParent() {
+		return parent;
+	}
+
+	public void setParent(TraceEvent parent) {
+		this.parent = parent;
+	}
+
+	public List<TraceEvent> getChildren() {
+		return children;
+	}
+
+}
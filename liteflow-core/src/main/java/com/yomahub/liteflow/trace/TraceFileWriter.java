@@ -0,0 +1,164 @@
+package com.yomahub.liteflow.trace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于内存映射的执行轨迹文件写入器
+ * <p>
+ * 文件按段进行映射，当前段写满之后从写到的位置开始映射下一段，写入只是内存拷贝，不需要系统调用。
+ * 文件超过最大大小之后，当前文件被重命名为.1文件，然后重新开始一个新文件。
+ * 只会被flush线程访问，所以不是线程安全的。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+final class TraceFileWriter implements Closeable {
+
+	private static final int MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	private final File file;
+
+	private final long maxSize;
+
+	private final int chunkSize;
+
+	private FileChannel channel;
+
+	private MappedByteBuffer buffer;
+
+	// 当前映射段在文件中的开始位置
+	private long bufferStart;
+
+	// 每开始一个新文件加1，用来判断名称和线程信息是否已经写入了当前文件
+	private int generation;
+
+	TraceFileWriter(File file, long maxSize) throws IOException {
+		this.file = file;
+		this.maxSize = maxSize;
+		this.chunkSize = (int) Math.min(MAX_CHUNK_SIZE, maxSize);
+		open();
+	}
+
+	int getGeneration() {
+		return generation;
+	}
+
+	long size() {
+		return bufferStart + buffer.position();
+	}
+
+	boolean needRoll(long length) {
+		return size() + length > maxSize && size() > TraceFormat.EVENT_LENGTH;
+	}
+
+	void roll() throws IOException {
+		finish();
+		File rolled = new File(file.getPath() + ".1");
+		Files.move(file.toPath(), rolled.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		open();
+	}
+
+	void putByte(int value) {
+		ensure(1);
+		buffer.put((byte) value);
+	}
+
+	void putShort(int value) {
+		ensure(2);
+		buffer.putShort((short) value);
+	}
+
+	void putInt(int value) {
+		ensure(4);
+		buffer.putInt(value);
+	}
+
+	void putLong(long value) {
+		ensure(8);
+		buffer.putLong(value);
+	}
+
+	void putString(String value) {
+		int length = Math.min(value.length(), TraceFormat.MAX_STRING_LENGTH);
+		putShort(length);
+		for (int i = 0; i < length; i++) {
+			putShort(value.charAt(i));
+		}
+	}
+
+	void write(byte[] src, int offset, int length) {
+		while (length > 0) {
+			ensure(1);
+			int count = Math.min(length, buffer.remaining());
+			buffer.put(src, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+
+	void force() {
+		buffer.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+		finish();
+	}
+
+	private void open() throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists() && !parent.mkdirs()) {
+			throw new IOException("can not create directory " + parent.getPath());
+		}
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		map(0L);
+		generation++;
+		putInt(TraceFormat.MAGIC);
+		putShort(TraceFormat.VERSION);
+	}
+
+	private void ensure(int length) {
+		if (buffer.remaining() < length) {
+			try {
+				map(size());
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private void map(long position) throws IOException {
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, chunkSize);
+		bufferStart = position;
+	}
+
+	/**
+	 * 把没有写到的部分截掉，这样文件的末尾就是数据的末尾
+	 */
+	private void finish() throws IOException {
+		if (channel == null) {
+			return;
+		}
+		long size = size();
+		buffer.force();
+		buffer = null;
+		try {
+			channel.truncate(size);
+		}
+		finally {
+			channel.close();
+			channel = null;
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.yomahub.liteflow.trace;
+
+/**
+ * 执行轨迹文件的格式
+ * <p>
+ * 文件以MAGIC和VERSION开头，后面是一条接一条的记录，每条记录的第一个字节是记录的类型，类型为0表示数据结束。
+ * 所有的数值都是大端序，字符串为一个short的长度加上UTF-16的字符。
+ * <ul>
+ * <li>NAME: int 名称编号, string 名称</li>
+ * <li>THREAD: long 线程id, string 线程名称</li>
+ * <li>TRACE: long 轨迹编号, int chain名称编号, string requestId</li>
+ * <li>EVENT: byte 类型, byte 结果, short 重试次数, int 名称编号, long 轨迹编号, long spanId, long 父spanId,
+ * long 开始纳秒, long 结束纳秒, long 线程id</li>
+ * </ul>
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+final class TraceFormat {
+
+	static final int MAGIC = 0x4C465452;
+
+	static final short VERSION = 1;
+
+	static final byte RECORD_END = 0;
+
+	static final byte RECORD_NAME = 1;
+
+	static final byte RECORD_THREAD = 2;
+
+	static final byte RECORD_TRACE = 3;
+
+	static final byte RECORD_EVENT = 4;
+
+	static final int EVENT_LENGTH = 1 + 1 + 1 + 2 + 4 + 8 * 6;
+
+	// 字符串最多保留的字符数
+	static final int MAX_STRING_LENGTH = Short.MAX_VALUE;
+
+	private TraceFormat() {
+	}
+
+	static int stringLength(String value) {
+		return 2 + 2 * Math.min(value.length(), MAX_STRING_LENGTH);
+	}
+
+}
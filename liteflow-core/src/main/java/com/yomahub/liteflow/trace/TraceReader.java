@@ -0,0 +1,289 @@
+package com.yomahub.liteflow.trace;
+
+import cn.hutool.core.util.StrUtil;
+import com.yomahub.liteflow.enums.TraceKindEnum;
+import com.yomahub.liteflow.enums.TraceOutcomeEnum;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 执行轨迹文件的读取器
+ * <p>
+ * 把文件中的事件按照traceId和父span还原成树，可以输出火焰图使用的折叠栈格式，或者每个chain的关键路径报告。
+ * 文件可能是在写入的过程中被读取的，不完整的最后一条记录会被忽略。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class TraceReader {
+
+	private final List<TraceEvent> eventList = new ArrayList<>();
+
+	private final List<TraceEvent> rootEventList = new ArrayList<>();
+
+	private TraceReader() {
+	}
+
+	public static TraceReader read(String path) throws IOException {
+		TraceReader reader = new TraceReader();
+		reader.parse(ByteBuffer.wrap(Files.readAllBytes(Paths.get(path))));
+		reader.buildTree();
+		return reader;
+	}
+
+	/**
+	 * 文件中所有的事件
+	 */
+	public List<TraceEvent> getEventList() {
+		return eventList;
+	}
+
+	/**
+	 * 没有父事件的事件，正常情况下就是每个请求的根事件
+	 */
+	public List<TraceEvent> getRootEventList() {
+		return rootEventList;
+	}
+
+	/**
+	 * 输出火焰图工具(比如flamegraph.pl)使用的折叠栈格式，每行为"栈;栈;栈 自身耗时"，耗时单位为微秒
+	 */
+	public String toFoldedStacks() {
+		Map<String, Long> stackMap = new LinkedHashMap<>();
+		for (TraceEvent root : rootEventList) {
+			collectStacks(root, null, stackMap);
+		}
+		StringBuilder sb = new StringBuilder();
+		stackMap.forEach((stack, micros) -> {
+			if (micros > 0) {
+				sb.append(stack).append(' ').append(micros).append('\n');
+			}
+		});
+		return sb.toString();
+	}
+
+	/**
+	 * 每个chain的关键路径报告，列出在关键路径上的组件的平均耗时，以及占chain总耗时的比例
+	 */
+	public String toCriticalPathReport() {
+		Map<String, ChainStat> statMap = new LinkedHashMap<>();
+		for (TraceEvent root : rootEventList) {
+			if (root.getKind() != TraceKindEnum.FLOW) {
+				continue;
+			}
+			ChainStat stat = statMap.computeIfAbsent(root.getName(), key -> new ChainStat());
+			stat.count++;
+			stat.totalNanos += root.getDurationNanos();
+			for (TraceEvent event : getCriticalPath(root)) {
+				if (event.getKind() == TraceKindEnum.NODE) {
+					stat.nodeNanosMap.merge(event.getName(), event.getDurationNanos(), Long::sum);
+				}
+			}
+		}
+
+		StringBuilder sb = new StringBuilder();
+		statMap.forEach((chainId, stat) -> {
+			sb.append(StrUtil.format("chain[{}] traces:{} avg:{}ms\n", chainId, stat.count,
+					toMillis(stat.totalNanos / stat.count)));
+			stat.nodeNanosMap.entrySet()
+				.stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.forEach(entry -> sb.append(StrUtil.format("    {}\tavg:{}ms\tshare:{}%\n", entry.getKey(),
+						toMillis(entry.getValue() / stat.count),
+						String.format("%.2f", stat.totalNanos == 0 ? 0D : entry.getValue() * 100D / stat.totalNanos))));
+		});
+		return sb.toString();
+	}
+
+	/**
+	 * 计算一个事件下的关键路径，也就是决定了这个事件结束时间的那一串子事件
+	 * <p>
+	 * 从最后结束的子事件开始往前推，每次找在当前子事件开始之前结束的最晚的子事件，并行的分支只有最慢的那个会在关键路径上
+	 */
+	public List<TraceEvent> getCriticalPath(TraceEvent event) {
+		List<TraceEvent> path = new ArrayList<>();
+		collectCriticalPath(event, path);
+		return path;
+	}
+
+	private void collectCriticalPath(TraceEvent event, List<TraceEvent> path) {
+		path.add(event);
+		List<TraceEvent> chosenList = new ArrayList<>();
+		long bound = Long.MAX_VALUE;
+		while (true) {
+			TraceEvent latest = null;
+			for (TraceEvent child : event.getChildren()) {
+				if (child.getEndNanos() <= bound && (latest == null || child.getEndNanos() > latest.getEndNanos())) {
+					latest = child;
+				}
+			}
+			if (latest == null) {
+				break;
+			}
+			chosenList.add(latest);
+			bound = latest.getStartNanos();
+			// 开始和结束时间相同的子事件，避免死循环
+			if (latest.getStartNanos() == latest.getEndNanos()) {
+				bound--;
+			}
+		}
+		Collections.reverse(chosenList);
+		for (TraceEvent chosen : chosenList) {
+			collectCriticalPath(chosen, path);
+		}
+	}
+
+	private void collectStacks(TraceEvent event, String parentStack, Map<String, Long> stackMap) {
+		String frame = frameName(event);
+		String stack = parentStack == null ? frame : parentStack + ";" + frame;
+		long childNanos = 0L;
+		for (TraceEvent child : event.getChildren()) {
+			childNanos += child.getDurationNanos();
+		}
+		// 并行的子事件耗时之和会超过自身的耗时，这时自身耗时算作0
+		stackMap.merge(stack, Math.max(0L, event.getDurationNanos() - childNanos) / 1000L, Long::sum);
+		for (TraceEvent child : event.getChildren()) {
+			collectStacks(child, stack, stackMap);
+		}
+	}
+
+	private String frameName(TraceEvent event) {
+		String name = event.getKind() == TraceKindEnum.CONDITION ? event.getName().toUpperCase() : event.getName();
+		return name.replace(';', '_').replace(' ', '_');
+	}
+
+	private void parse(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < 6 || buffer.getInt() != TraceFormat.MAGIC) {
+			throw new IOException("not a liteflow trace file");
+		}
+		short version = buffer.getShort();
+		if (version != TraceFormat.VERSION) {
+			throw new IOException(StrUtil.format("unsupported trace file version[{}]", version));
+		}
+
+		Map<Integer, String> nameMap = new HashMap<>();
+		Map<Long, String> threadNameMap = new HashMap<>();
+		Map<Long, String> requestIdMap = new HashMap<>();
+		List<Integer> nameIndexList = new ArrayList<>();
+		try {
+			while (buffer.hasRemaining()) {
+				byte type = buffer.get();
+				if (type == TraceFormat.RECORD_END) {
+					break;
+				}
+				switch (type) {
+					case TraceFormat.RECORD_NAME:
+						int index = buffer.getInt();
+						nameMap.put(index, readString(buffer));
+						break;
+					case TraceFormat.RECORD_THREAD:
+						long threadId = buffer.getLong();
+						threadNameMap.put(threadId, readString(buffer));
+						break;
+					case TraceFormat.RECORD_TRACE:
+						long traceId = buffer.getLong();
+						buffer.getInt();
+						requestIdMap.put(traceId, readString(buffer));
+						break;
+					case TraceFormat.RECORD_EVENT:
+						TraceEvent event = new TraceEvent();
+						event.setKind(TraceKindEnum.getEnumByCode(buffer.get()));
+						event.setOutcome(TraceOutcomeEnum.getEnumByCode(buffer.get()));
+						event.setRetryCount(buffer.getShort());
+						nameIndexList.add(buffer.getInt());
+						event.setTraceId(buffer.getLong());
+						event.setSpanId(buffer.getLong());
+						event.setParentSpanId(buffer.getLong());
+						event.setStartNanos(buffer.getLong());
+						event.setEndNanos(buffer.getLong());
+						event.setThreadId(buffer.getLong());
+						eventList.add(event);
+						break;
+					default:
+						throw new IOException(StrUtil.format("unknown trace record type[{}] at position[{}]", type,
+								buffer.position() - 1));
+				}
+			}
+		}
+		catch (BufferUnderflowException ignore) {
+			// 最后一条记录没有写完整，忽略
+			if (nameIndexList.size() > eventList.size()) {
+				nameIndexList.remove(nameIndexList.size() - 1);
+			}
+		}
+
+		// 名称和线程信息可能在事件之后才写入，所以全部读完之后再设置
+		for (int i = 0; i < eventList.size(); i++) {
+			TraceEvent event = eventList.get(i);
+			event.setName(nameMap.getOrDefault(nameIndexList.get(i), "unknown"));
+			event.setThreadName(threadNameMap.get(event.getThreadId()));
+			event.setRequestId(requestIdMap.get(event.getTraceId()));
+		}
+	}
+
+	private void buildTree() {
+		Map<Long, Map<Long, TraceEvent>> traceMap = new HashMap<>();
+		for (TraceEvent event : eventList) {
+			traceMap.computeIfAbsent(event.getTraceId(), key -> new HashMap<>()).put(event.getSpanId(), event);
+		}
+		for (TraceEvent event : eventList) {
+			if (event.getKind() == TraceKindEnum.FLOW) {
+				rootEventList.add(event);
+				continue;
+			}
+			Map<Long, TraceEvent> spanMap = traceMap.get(event.getTraceId());
+			TraceEvent parent = spanMap.get(event.getParentSpanId());
+			// 父span不在这个轨迹里(比如在组件里又执行了一次flow)，挂到请求的根事件上
+			if (parent == null) {
+				parent = spanMap.get(0L);
+			}
+			if (parent == null || parent == event) {
+				rootEventList.add(event);
+			}
+			else {
+				event.setParent(parent);
+				parent.getChildren().add(event);
+			}
+		}
+		Comparator<TraceEvent> comparator = Comparator.comparingLong(TraceEvent::getStartNanos);
+		rootEventList.sort(comparator);
+		for (TraceEvent event : eventList) {
+			event.getChildren().sort(comparator);
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getShort();
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = buffer.getChar();
+		}
+		return new String(chars);
+	}
+
+	private static String toMillis(long nanos) {
+		return String.format("%.3f", nanos / 1000000D);
+	}
+
+	private static class ChainStat {
+
+		private int count;
+
+		private long totalNanos;
+
+		private final Map<String, Long> nodeNanosMap = new HashMap<>();
+
+	}
+
+}
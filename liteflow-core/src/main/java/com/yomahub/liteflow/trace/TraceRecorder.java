@@ -0,0 +1,439 @@
+package com.yomahub.liteflow.trace;
+
+import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.StrUtil;
+import com.yomahub.liteflow.enums.TraceKindEnum;
+import com.yomahub.liteflow.enums.TraceOutcomeEnum;
+import com.yomahub.liteflow.log.LFLog;
+import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.slot.DataBus;
+import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.thread.VirtualThreadEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 执行轨迹记录器
+ * <p>
+ * 每次请求、chain、condition以及组件的执行都会作为一个二进制事件写入当前线程的环形缓冲区，
+ * 事件中包含名称编号、类型、开始和结束的纳秒时间、线程、执行结果以及重试次数，记录的过程中不会产生任何对象。
+ * 后台的flush线程定时把各个缓冲区的数据写入到内存映射的文件中，文件可以通过{@link TraceReader}读取，生成火焰图或者关键路径的报告。
+ * 线程结束之后，它的缓冲区在数据写完之后放回一个有界的池中，给之后新的线程复用，线程频繁创建的时候也不需要每次都分配新的缓冲区。
+ * 虚拟线程每个任务都是一个新的线程，它们使用小得多的缓冲区，并且任务结束的时候缓冲区马上放回单独的池中，不需要等到数据写完。
+ * <p>
+ * 没有开启的时候，所有的方法只是读取一个volatile变量就返回。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public final class TraceRecorder {
+
+	private static final LFLog LOG = LFLoggerManager.getLogger(TraceRecorder.class);
+
+	private static final String DEFAULT_FILE_NAME = "liteflow-trace.lft";
+
+	private static final long FLUSH_INTERVAL_MILLIS = 100L;
+
+	private static final Object LOCK = new Object();
+
+	// 缓冲区池的最大数量，超过的直接丢弃
+	private static final int MAX_POOLED_BUFFERS = 64;
+
+	private static final int MAX_POOLED_VIRTUAL_BUFFERS = 1024;
+
+	private static final int MAX_DEPTH = 256;
+
+	// 虚拟线程上执行的只是一个分支或者一次迭代，缓冲区的大小是平台线程的1/16，span栈的深度也小很多
+	private static final int VIRTUAL_BUFFER_SHIFT = 4;
+
+	private static final int VIRTUAL_MAX_DEPTH = 32;
+
+	private static volatile boolean enabled = false;
+
+	// 每次初始化加1，旧的缓冲区不再使用
+	private static volatile long generation = 0L;
+
+	private static volatile int bufferSize;
+
+	private static volatile int virtualBufferSize;
+
+	private static final ThreadLocal<TraceBuffer> LOCAL_BUFFER = new ThreadLocal<>();
+
+	private static final Queue<TraceBuffer> BUFFER_LIST = new ConcurrentLinkedQueue<>();
+
+	// 线程已经结束并且数据已经写完的缓冲区
+	private static final Queue<TraceBuffer> BUFFER_POOL = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
+	// 虚拟线程的任务已经结束的缓冲区，这些缓冲区一直在flush的列表里
+	private static final Queue<TraceBuffer> VIRTUAL_BUFFER_POOL = new ArrayBlockingQueue<>(MAX_POOLED_VIRTUAL_BUFFERS);
+
+	private static final AtomicLong BUFFER_ID = new AtomicLong();
+
+	private static final AtomicLong TRACE_ID = new AtomicLong();
+
+	// 名称到编号的映射，编号是名称在NAME_LIST中的下标
+	private static final Map<String, Integer> NAME_INDEX_MAP = new ConcurrentHashMap<>();
+
+	private static final List<String> NAME_LIST = new ArrayList<>();
+
+	// 以下字段都在LOCK中访问
+	private static TraceFileWriter writer;
+
+	private static ScheduledExecutorService flushScheduler;
+
+	// 已经写入到当前文件的名称数量
+	private static int writtenNameCount;
+
+	private static boolean shutdownHookAdded = false;
+
+	private TraceRecorder() {
+	}
+
+	/**
+	 * 根据配置初始化，由FlowExecutor在初始化的时候调用，已经在记录的话会先关闭
+	 */
+	public static void init() {
+		LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
+		synchronized (LOCK) {
+			shutdown();
+			if (ObjectUtil.isNull(liteflowConfig) || !Boolean.TRUE.equals(liteflowConfig.getEnableTrace())) {
+				return;
+			}
+
+			File file = new File(StrUtil.isBlank(liteflowConfig.getTraceFilePath())
+					? System.getProperty("java.io.tmpdir") + File.separator + DEFAULT_FILE_NAME
+					: liteflowConfig.getTraceFilePath());
+			try {
+				writer = new TraceFileWriter(file, Math.max(1, liteflowConfig.getTraceFileMaxSize()) * 1024L * 1024L);
+			}
+			catch (IOException e) {
+				LOG.error(StrUtil.format("can not open trace file[{}], trace is disabled", file.getPath()), e);
+				return;
+			}
+			writtenNameCount = 0;
+			bufferSize = ceilingPowerOfTwo(Math.max(1024, liteflowConfig.getTraceBufferSize()));
+			virtualBufferSize = Math.max(1024, bufferSize >> VIRTUAL_BUFFER_SHIFT);
+			generation++;
+
+			flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "liteflow-trace-flush");
+				thread.setDaemon(true);
+				return thread;
+			});
+			flushScheduler.scheduleWithFixedDelay(TraceRecorder::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS,
+					TimeUnit.MILLISECONDS);
+
+			if (!shutdownHookAdded) {
+				Runtime.getRuntime().addShutdownHook(new Thread(TraceRecorder::shutdown, "liteflow-trace-shutdown"));
+				shutdownHookAdded = true;
+			}
+			enabled = true;
+			LOG.info("execution trace is recording to file[{}]", file.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * 停止记录，把缓冲区中剩余的数据写入文件之后关闭文件
+	 */
+	public static void shutdown() {
+		synchronized (LOCK) {
+			if (writer == null) {
+				return;
+			}
+			enabled = false;
+			flushScheduler.shutdownNow();
+			flushScheduler = null;
+			flush();
+			try {
+				writer.close();
+			}
+			catch (IOException e) {
+				LOG.error("close trace file error", e);
+			}
+			writer = null;
+			BUFFER_LIST.clear();
+			BUFFER_POOL.clear();
+			VIRTUAL_BUFFER_POOL.clear();
+		}
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 把所有线程缓冲区中的数据写入文件
+	 */
+	public static void flush() {
+		synchronized (LOCK) {
+			if (writer == null) {
+				return;
+			}
+			try {
+				for (Iterator<TraceBuffer> iterator = BUFFER_LIST.iterator(); iterator.hasNext();) {
+					TraceBuffer buffer = iterator.next();
+					if (writer.needRoll(buffer.pendingLength())) {
+						writer.roll();
+						writtenNameCount = 0;
+					}
+					writeNames();
+					if (!buffer.isShared() && buffer.announcedFileGeneration != writer.getGeneration()) {
+						writer.putByte(TraceFormat.RECORD_THREAD);
+						writer.putLong(buffer.getThreadId());
+						writer.putString(buffer.getThreadName());
+						buffer.announcedFileGeneration = writer.getGeneration();
+					}
+					buffer.drainTo(writer);
+					// 线程已经结束的缓冲区不会再有新的数据了，放回池中复用，共享的缓冲区只移除没能放回池中的
+					if (buffer.isShared()) {
+						if (buffer.isRetired() && buffer.pendingLength() == 0) {
+							iterator.remove();
+						}
+					}
+					else if (!buffer.isOwnerAlive() && buffer.pendingLength() == 0) {
+						iterator.remove();
+						BUFFER_POOL.offer(buffer);
+					}
+				}
+				writeNames();
+				writer.force();
+			}
+			catch (Exception e) {
+				LOG.error("flush trace file error, trace is disabled", e);
+				enabled = false;
+			}
+		}
+	}
+
+	/**
+	 * 所有线程缓冲区满了之后被丢弃的字节数之和
+	 */
+	public static long getDroppedCount() {
+		long count = 0L;
+		for (TraceBuffer buffer : BUFFER_LIST) {
+			count += buffer.getDroppedCount();
+		}
+		return count;
+	}
+
+	/**
+	 * 正在使用以及还有数据没有写入文件的缓冲区数量
+	 */
+	public static int getBufferCount() {
+		return BUFFER_LIST.size();
+	}
+
+	/**
+	 * 虚拟线程的任务结束的时候调用，把缓冲区交给之后的虚拟线程复用，缓冲区中还没有写入文件的数据不受影响
+	 */
+	public static void releaseBuffer() {
+		TraceBuffer buffer = LOCAL_BUFFER.get();
+		if (buffer == null) {
+			return;
+		}
+		LOCAL_BUFFER.remove();
+		if (buffer.isShared() && (buffer.getGeneration() != generation || !VIRTUAL_BUFFER_POOL.offer(buffer))) {
+			buffer.retire();
+		}
+	}
+
+	/**
+	 * 开始一次请求的轨迹，在slot分配好并且设置好requestId之后调用
+	 */
+	public static void startTrace(Slot slot, String chainId) {
+		if (!enabled) {
+			return;
+		}
+		long traceId = TRACE_ID.incrementAndGet();
+		slot.setTraceId(traceId);
+		slot.setTraceStartNanos(System.nanoTime());
+		currentBuffer().writeTrace(traceId, nameIndex(chainId), slot.getRequestId());
+	}
+
+	/**
+	 * 结束一次请求的轨迹，请求本身作为spanId为0的根事件写入
+	 */
+	public static void endTrace(Slot slot, String chainId) {
+		if (!enabled || slot.getTraceId() == 0L) {
+			return;
+		}
+		TraceOutcomeEnum outcome = ObjectUtil.isNull(slot.getException()) ? TraceOutcomeEnum.SUCCESS
+				: TraceOutcomeEnum.FAILED;
+		currentBuffer().writeEvent(TraceKindEnum.FLOW.getCode(), outcome.getCode(), 0, nameIndex(chainId),
+				slot.getTraceId(), 0L, 0L, slot.getTraceStartNanos(), System.nanoTime());
+	}
+
+	/**
+	 * 开始一个span，必须和{@link #exit}成对调用
+	 * @return spanId，没有开启的时候返回0
+	 */
+	public static long enter() {
+		if (!enabled) {
+			return 0L;
+		}
+		return currentBuffer().enter();
+	}
+
+	/**
+	 * 把{@link #enter}开始的span从当前线程上移除，用于异步执行的chain和condition，启动完异步任务之后调用
+	 * @return 异步的span，没有开启的时候返回null
+	 */
+	public static AsyncTraceSpan detach(long spanId) {
+		if (spanId == 0L) {
+			return null;
+		}
+		TraceBuffer buffer = LOCAL_BUFFER.get();
+		return buffer == null ? null : buffer.detach(spanId);
+	}
+
+	/**
+	 * 结束一个异步的span，可以在任意线程上调用，事件写入当前线程的缓冲区
+	 */
+	public static void exitAsync(AsyncTraceSpan span, Integer slotIndex, TraceKindEnum kind, String name,
+			TraceOutcomeEnum outcome) {
+		if (span == null || !enabled) {
+			return;
+		}
+		Slot slot = DataBus.getSlot(slotIndex);
+		if (slot == null || slot.getTraceId() == 0L) {
+			return;
+		}
+		currentBuffer().writeEvent(kind.getCode(), outcome.getCode(), 0, nameIndex(name), slot.getTraceId(),
+				span.getSpanId(), span.getParentSpanId(), span.getStartNanos(), System.nanoTime());
+	}
+
+	/**
+	 * 结束一个span，并且把事件写入当前线程的缓冲区
+	 */
+	public static void exit(long spanId, Integer slotIndex, TraceKindEnum kind, String name,
+			TraceOutcomeEnum outcome) {
+		if (spanId == 0L) {
+			return;
+		}
+		TraceBuffer buffer = LOCAL_BUFFER.get();
+		if (buffer == null) {
+			return;
+		}
+		Slot slot = DataBus.getSlot(slotIndex);
+		long traceId = slot == null ? 0L : slot.getTraceId();
+		buffer.exit(spanId, traceId, kind.getCode(), nameIndex(name), outcome.getCode());
+	}
+
+	/**
+	 * 组件每执行一次(包括重试)调用一次，用来计算重试次数
+	 */
+	public static void attempt() {
+		if (!enabled) {
+			return;
+		}
+		TraceBuffer buffer = LOCAL_BUFFER.get();
+		if (buffer != null) {
+			buffer.attempt();
+		}
+	}
+
+	/**
+	 * 当前线程正在执行的spanId，提交并行分支的时候获取，分支开始执行的时候通过{@link #attachParent}设置到分支的线程上
+	 */
+	public static long currentSpanId() {
+		if (!enabled) {
+			return 0L;
+		}
+		TraceBuffer buffer = LOCAL_BUFFER.get();
+		return buffer == null ? 0L : buffer.currentSpanId();
+	}
+
+	/**
+	 * 设置当前线程上没有正在执行的span时事件的父span
+	 * @return 之前设置的父span，分支执行结束之后需要设置回去
+	 */
+	public static long attachParent(long spanId) {
+		if (!enabled) {
+			return 0L;
+		}
+		return currentBuffer().attachParent(spanId);
+	}
+
+	private static TraceBuffer currentBuffer() {
+		TraceBuffer buffer = LOCAL_BUFFER.get();
+		if (buffer == null || buffer.getGeneration() != generation) {
+			long currentGeneration = generation;
+			if (Thread.currentThread().getName().startsWith(VirtualThreadEngine.THREAD_NAME_PREFIX)) {
+				buffer = virtualBuffer(currentGeneration);
+			}
+			else {
+				buffer = BUFFER_POOL.poll();
+				// 池中的缓冲区可能是重新初始化之前放进去的，大小可能已经不一样了
+				if (buffer != null && buffer.getGeneration() == currentGeneration && buffer.getCapacity() == bufferSize) {
+					buffer.bind(currentGeneration, BUFFER_ID.incrementAndGet());
+				}
+				else {
+					buffer = new TraceBuffer(bufferSize, MAX_DEPTH, false, currentGeneration, BUFFER_ID.incrementAndGet());
+				}
+				BUFFER_LIST.add(buffer);
+			}
+			LOCAL_BUFFER.set(buffer);
+		}
+		return buffer;
+	}
+
+	private static TraceBuffer virtualBuffer(long currentGeneration) {
+		TraceBuffer buffer = VIRTUAL_BUFFER_POOL.poll();
+		// 池中的缓冲区还在flush的列表里，不需要再加进去
+		if (buffer != null && buffer.getGeneration() == currentGeneration && buffer.getCapacity() == virtualBufferSize) {
+			buffer.bind(currentGeneration, BUFFER_ID.incrementAndGet());
+			return buffer;
+		}
+		buffer = new TraceBuffer(virtualBufferSize, VIRTUAL_MAX_DEPTH, true, currentGeneration,
+				BUFFER_ID.incrementAndGet());
+		BUFFER_LIST.add(buffer);
+		return buffer;
+	}
+
+	private static int nameIndex(String name) {
+		String key = name == null ? StrUtil.EMPTY : name;
+		Integer index = NAME_INDEX_MAP.get(key);
+		if (index != null) {
+			return index;
+		}
+		synchronized (NAME_LIST) {
+			index = NAME_INDEX_MAP.get(key);
+			if (index == null) {
+				index = NAME_LIST.size();
+				NAME_LIST.add(key);
+				NAME_INDEX_MAP.put(key, index);
+			}
+			return index;
+		}
+	}
+
+	private static void writeNames() {
+		synchronized (NAME_LIST) {
+			for (; writtenNameCount < NAME_LIST.size(); writtenNameCount++) {
+				writer.putByte(TraceFormat.RECORD_NAME);
+				writer.putInt(writtenNameCount);
+				writer.putString(NAME_LIST.get(writtenNameCount));
+			}
+		}
+	}
+
+	private static int ceilingPowerOfTwo(int value) {
+		return Integer.highestOneBit(value - 1) << 1;
+	}
+
+}
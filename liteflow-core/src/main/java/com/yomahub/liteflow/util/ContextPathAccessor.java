@@ -0,0 +1,318 @@
+package com.yomahub.liteflow.util;
+
+import com.ql.util.express.annotation.QLAlias;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 上下文属性路径的访问器
+ * <p>
+ * 对于"a.b.c"这种简单的属性路径，表达式只切分一次，每个属性在每个类上解析成MethodHandle之后缓存起来，
+ * 这样按路径取值和调用方法都不需要再经过QLExpress，找不到属性时也不会抛出异常。
+ * 解析的规则和QLExpress保持一致：Map按key取值，数组支持length，其他对象按JavaBean的getter取值。
+ * 碰到无法保证和QLExpress结果一致的情况（比如Class对象，带有@QLAlias的类，需要类型转换的方法参数），返回UNSUPPORTED，由调用方交给QLExpress处理。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+final class ContextPathAccessor {
+
+	// 路径上的属性不存在
+	static final Object NOT_FOUND = new Object();
+
+	// 无法用编译好的路径处理，需要交给QLExpress
+	static final Object UNSUPPORTED = new Object();
+
+	private static final Pattern SIMPLE_PATH = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)*");
+
+	private static final String[] NOT_SIMPLE_PATH = new String[0];
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	// 表达式 -> 切分好的路径
+	private static final Map<String, String[]> PATH_CACHE = new ConcurrentHashMap<>();
+
+	// 每个类的属性和方法的句柄，使用ClassValue避免类卸载的时候被缓存住
+	private static final ClassValue<ClassAccessor> CLASS_ACCESSOR = new ClassValue<ClassAccessor>() {
+		@Override
+		protected ClassAccessor computeValue(Class<?> type) {
+			return new ClassAccessor(type);
+		}
+	};
+
+	private ContextPathAccessor() {
+	}
+
+	/**
+	 * 把表达式切分成属性路径，不是简单属性路径的表达式返回null
+	 */
+	static String[] parse(String expression) {
+		String[] path = PATH_CACHE.computeIfAbsent(expression,
+				key -> SIMPLE_PATH.matcher(key).matches() ? key.split("\\.") : NOT_SIMPLE_PATH);
+		return path == NOT_SIMPLE_PATH ? null : path;
+	}
+
+	/**
+	 * 从target开始，依次取path中[from, to)的属性
+	 * @return 属性值，或者NOT_FOUND、UNSUPPORTED
+	 */
+	static Object get(Object target, String[] path, int from, int to) {
+		Object value = target;
+		for (int i = from; i < to; i++) {
+			// 中间的值为null，后面的属性也就取不到了，和QLExpress取不到值的结果一样，都当做没有找到
+			if (value == null) {
+				return NOT_FOUND;
+			}
+			value = getProperty(value, path[i]);
+			if (value == NOT_FOUND || value == UNSUPPORTED) {
+				return value;
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * 调用target上名称为methodName的方法
+	 * @return 调用成功返回null，否则返回NOT_FOUND、UNSUPPORTED
+	 */
+	static Object invoke(Object target, String methodName, Object[] args) {
+		if (target == null) {
+			return NOT_FOUND;
+		}
+		ClassAccessor accessor = accessorOf(target);
+		if (accessor == null) {
+			return UNSUPPORTED;
+		}
+		List<MethodHandle> candidates = accessor.methods(methodName, args.length);
+		if (candidates.isEmpty()) {
+			return accessor.hasInaccessibleMethod(methodName, args.length) ? UNSUPPORTED : NOT_FOUND;
+		}
+
+		// 只处理参数能直接匹配上唯一一个方法的情况，需要类型转换或者有多个重载匹配的交给QLExpress
+		MethodHandle matched = null;
+		for (MethodHandle candidate : candidates) {
+			if (isApplicable(candidate.type(), args)) {
+				if (matched != null) {
+					return UNSUPPORTED;
+				}
+				matched = candidate;
+			}
+		}
+		if (matched == null) {
+			return UNSUPPORTED;
+		}
+
+		try {
+			Object[] fullArgs = new Object[args.length + 1];
+			fullArgs[0] = target;
+			System.arraycopy(args, 0, fullArgs, 1, args.length);
+			matched.invokeWithArguments(fullArgs);
+			return null;
+		}
+		catch (Throwable t) {
+			// 方法本身抛出的异常和之前一样，当做这个上下文没有匹配上
+			return NOT_FOUND;
+		}
+	}
+
+	private static Object getProperty(Object value, String name) {
+		if (value instanceof Map) {
+			return ((Map<?, ?>) value).get(name);
+		}
+		if (value.getClass().isArray()) {
+			return "length".equals(name) ? Array.getLength(value) : NOT_FOUND;
+		}
+		ClassAccessor accessor = accessorOf(value);
+		if (accessor == null) {
+			return UNSUPPORTED;
+		}
+		Object getter = accessor.getter(name);
+		if (!(getter instanceof MethodHandle)) {
+			return getter;
+		}
+		try {
+			return (Object) ((MethodHandle) getter).invokeExact(value);
+		}
+		catch (Throwable t) {
+			return NOT_FOUND;
+		}
+	}
+
+	private static ClassAccessor accessorOf(Object value) {
+		// Class对象在QLExpress中是取静态属性的，这里不处理
+		if (value instanceof Class) {
+			return null;
+		}
+		ClassAccessor accessor = CLASS_ACCESSOR.get(value.getClass());
+		return accessor.aliased ? null : accessor;
+	}
+
+	private static boolean isApplicable(MethodType type, Object[] args) {
+		// 第一个参数是方法所在的对象
+		for (int i = 0; i < args.length; i++) {
+			Class<?> paramType = type.parameterType(i + 1);
+			Object arg = args[i];
+			if (paramType.isPrimitive()) {
+				if (arg == null || MethodType.methodType(paramType).wrap().returnType() != arg.getClass()) {
+					return false;
+				}
+			}
+			else if (arg != null && !paramType.isInstance(arg)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 找到一个可以通过publicLookup访问的方法，非public类上的方法从它的public父类或者接口上去找
+	 */
+	private static Method findAccessibleMethod(Method method) {
+		if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			return method;
+		}
+		for (Class<?> type = method.getDeclaringClass(); type != null; type = type.getSuperclass()) {
+			for (Class<?> candidate : allTypes(type)) {
+				if (!Modifier.isPublic(candidate.getModifiers())) {
+					continue;
+				}
+				try {
+					return candidate.getMethod(method.getName(), method.getParameterTypes());
+				}
+				catch (NoSuchMethodException ignore) {
+				}
+			}
+		}
+		return null;
+	}
+
+	private static List<Class<?>> allTypes(Class<?> type) {
+		List<Class<?>> types = new ArrayList<>();
+		types.add(type);
+		for (int i = 0; i < types.size(); i++) {
+			for (Class<?> itf : types.get(i).getInterfaces()) {
+				if (!types.contains(itf)) {
+					types.add(itf);
+				}
+			}
+		}
+		return types;
+	}
+
+	private static MethodHandle unreflect(Method method) {
+		Method accessible = findAccessibleMethod(method);
+		if (accessible == null) {
+			return null;
+		}
+		try {
+			return MethodHandles.publicLookup().unreflect(accessible);
+		}
+		catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 单个类上解析好的getter和方法
+	 */
+	private static class ClassAccessor {
+
+		private final Class<?> type;
+
+		// 类上有@QLAlias标注的字段，取值规则和JavaBean不一样
+		private final boolean aliased;
+
+		// 属性名 -> MethodHandle/NOT_FOUND/UNSUPPORTED
+		private final Map<String, Object> getters = new ConcurrentHashMap<>();
+
+		// 方法名/参数个数 -> 可以调用的方法
+		private final Map<String, List<MethodHandle>> methods = new ConcurrentHashMap<>();
+
+		private ClassAccessor(Class<?> type) {
+			this.type = type;
+			this.aliased = hasAliasField(type);
+		}
+
+		private Object getter(String name) {
+			return getters.computeIfAbsent(name, this::resolveGetter);
+		}
+
+		private Object resolveGetter(String name) {
+			try {
+				BeanInfo beanInfo = Introspector.getBeanInfo(type);
+				for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+					if (descriptor.getName().equals(name) && descriptor.getReadMethod() != null) {
+						MethodHandle handle = unreflect(descriptor.getReadMethod());
+						return handle == null ? UNSUPPORTED : handle.asType(GETTER_TYPE);
+					}
+				}
+				return NOT_FOUND;
+			}
+			catch (IntrospectionException e) {
+				return UNSUPPORTED;
+			}
+		}
+
+		private List<MethodHandle> methods(String name, int paramCount) {
+			return methods.computeIfAbsent(name + "/" + paramCount, key -> {
+				// 参数类型相同的方法只保留一个，优先用非桥接的方法
+				Map<List<Class<?>>, Method> candidates = new LinkedHashMap<>();
+				for (Method method : type.getMethods()) {
+					if (method.getName().equals(name) && method.getParameterCount() == paramCount
+							&& !Modifier.isStatic(method.getModifiers())) {
+						candidates.merge(Arrays.asList(method.getParameterTypes()), method,
+								(exist, current) -> exist.isBridge() ? current : exist);
+					}
+				}
+				List<MethodHandle> handles = new ArrayList<>();
+				for (Method method : candidates.values()) {
+					MethodHandle handle = unreflect(method);
+					if (handle != null) {
+						handles.add(handle);
+					}
+				}
+				return Collections.unmodifiableList(handles);
+			});
+		}
+
+		private boolean hasInaccessibleMethod(String name, int paramCount) {
+			for (Method method : type.getMethods()) {
+				if (method.getName().equals(name) && method.getParameterCount() == paramCount) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static boolean hasAliasField(Class<?> type) {
+			for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+				for (Field field : current.getDeclaredFields()) {
+					if (field.isAnnotationPresent(QLAlias.class)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -38,6 +38,10 @@ public class LOGOPrinter {
 		LOG.info(str.toString());
 	}
 
+	public static String getVersionNo() {
+		return VERSION_NO;
+	}
+
 	private static String getVersion() {
 		return Optional.ofNullable(LOGOPrinter.class.getPackage()).map(Package::getImplementationVersion).orElse("DEV");
 	}
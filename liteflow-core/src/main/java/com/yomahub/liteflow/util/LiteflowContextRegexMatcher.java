@@ -1,26 +1,22 @@
 package com.yomahub.liteflow.util;
 
-import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.lang.Tuple;
-import cn.hutool.core.util.BooleanUtil;
 import cn.hutool.core.util.StrUtil;
 import com.ql.util.express.DefaultContext;
 import com.ql.util.express.ExpressRunner;
 import com.ql.util.express.InstructionSet;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
  * LiteFlow上下文正则表达式匹配器
  * 用来根据正则表达式去寻找上下文中符合的对象
+ * <p>
+ * "a.b.c"这种简单的属性路径直接通过{@link ContextPathAccessor}取值和调用，只有复杂的表达式才会交给QLExpress
  * @author Bryan.Zhang
  * @since 2.13.0
  */
@@ -29,80 +25,151 @@ public class LiteflowContextRegexMatcher {
     private static final ExpressRunner expressRunner = new ExpressRunner();
 
     public static Object searchContext(List<Tuple> contextList, String regPattern){
+        String[] path = ContextPathAccessor.parse(regPattern);
+        if (path == null){
+            return searchContextByExpress(contextList, regPattern);
+        }
+
+        // 根据属性路径去每个上下文里搜索相匹配的数据
+        for (Tuple tuple : contextList){
+            Object result = ContextPathAccessor.get(tuple.get(1), path, 0, path.length);
+            if (result == ContextPathAccessor.UNSUPPORTED){
+                result = executeQuietly(tuple.get(0) + "." + regPattern, tuple.get(0), tuple.get(1), null);
+            }
+            if (result != null && result != ContextPathAccessor.NOT_FOUND){
+                return result;
+            }
+        }
+
+        // 如果没有搜到，那么尝试推断表达式是指定的上下文，第一段就是上下文的别名
+        Object result = ContextPathAccessor.get(findContext(contextList, path[0]), path, 1, path.length);
+        if (result == ContextPathAccessor.UNSUPPORTED){
+            return executeQuietly("contextMap." + regPattern, "contextMap", toContextMap(contextList), null);
+        }
+        return result == ContextPathAccessor.NOT_FOUND ? null : result;
+    }
+
+    public static void searchAndSetContext(List<Tuple> contextList, String methodExpress, Object... args){
+        String[] path = ContextPathAccessor.parse(methodExpress);
+        if (path == null){
+            searchAndSetContextByExpress(contextList, methodExpress, args);
+            return;
+        }
+
+        String methodName = path[path.length - 1];
+        for (Tuple tuple : contextList){
+            Object status = invoke(tuple.get(1), path, 0, methodName, args);
+            if (status == ContextPathAccessor.UNSUPPORTED){
+                if (executeMethodQuietly(tuple.get(0), tuple.get(1), methodExpress, args)){
+                    return;
+                }
+            }
+            else if (status != ContextPathAccessor.NOT_FOUND){
+                return;
+            }
+        }
+
+        // 如果没有搜到，那么尝试推断表达式是指定的上下文，按照指定上下文的方式去再设置
+        // 只有一段的话，方法是在上下文的map上调用的，不会对上下文产生影响，所以无需处理
+        if (path.length > 1){
+            Object status = invoke(findContext(contextList, path[0]), path, 1, methodName, args);
+            if (status == ContextPathAccessor.UNSUPPORTED){
+                executeMethodQuietly("contextMap", toContextMap(contextList), methodExpress, args);
+            }
+        }
+    }
+
+    private static Object invoke(Object context, String[] path, int from, String methodName, Object[] args){
+        Object target = ContextPathAccessor.get(context, path, from, path.length - 1);
+        if (target == ContextPathAccessor.NOT_FOUND || target == ContextPathAccessor.UNSUPPORTED){
+            return target;
+        }
+        return ContextPathAccessor.invoke(target, methodName, args);
+    }
+
+    private static Object findContext(List<Tuple> contextList, String alias){
+        for (Tuple tuple : contextList){
+            if (alias.equals(tuple.get(0))){
+                return tuple.get(1);
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Object> toContextMap(List<Tuple> contextList){
         // 把上下文数据转换成map形式的，key为别名，value为上下文
-        Map<String, Object> contextMap = contextList.stream().collect(
+        return contextList.stream().collect(
                 Collectors.toMap(tuple -> tuple.get(0), tuple -> tuple.get(1))
         );
+    }
 
-        List<String> errorList = new ArrayList<>();
+    private static Object searchContextByExpress(List<Tuple> contextList, String regPattern){
+        Map<String, Object> contextMap = toContextMap(contextList);
 
         Object result = null;
         // 根据表达式去上下文里搜索相匹配的数据
         for(Map.Entry<String, Object> entry : contextMap.entrySet()){
-            try{
-                InstructionSet instructionSet = expressRunner.getInstructionSetFromLocalCache(entry.getKey() + "." + regPattern);
-                DefaultContext<String, Object> context = new DefaultContext<>();
-                context.put(entry.getKey(), entry.getValue());
-                result = expressRunner.execute(instructionSet, context, errorList, false, false);
-                if (result != null){
-                    break;
-                }
-            }catch (Exception ignore){}
+            result = executeQuietly(entry.getKey() + "." + regPattern, entry.getKey(), entry.getValue(), null);
+            if (result != null){
+                break;
+            }
         }
 
         if (result == null){
-            try{
-                // 如果没有搜到，那么尝试推断表达式是指定的上下文，按照指定上下文的方式去再获取
-                InstructionSet instructionSet = expressRunner.getInstructionSetFromLocalCache("contextMap." + regPattern);
-                DefaultContext<String, Object> context = new DefaultContext<>();
-                context.put("contextMap", contextMap);
-                result = expressRunner.execute(instructionSet, context, errorList, false, false);
-            }catch (Exception ignore){}
+            // 如果没有搜到，那么尝试推断表达式是指定的上下文，按照指定上下文的方式去再获取
+            result = executeQuietly("contextMap." + regPattern, "contextMap", contextMap, null);
         }
 
         return result;
     }
 
-    public static void searchAndSetContext(List<Tuple> contextList, String methodExpress, Object... args){
-        // 把上下文数据转换成map形式的，key为别名，value为上下文
-        Map<String, Object> contextMap = contextList.stream().collect(
-                Collectors.toMap(tuple -> tuple.get(0), tuple -> tuple.get(1))
-        );
-
-        List<String> errorList = new ArrayList<>();
+    private static void searchAndSetContextByExpress(List<Tuple> contextList, String methodExpress, Object... args){
+        Map<String, Object> contextMap = toContextMap(contextList);
 
         boolean flag = false;
+        for(Map.Entry<String, Object> entry : contextMap.entrySet()){
+            if (executeMethodQuietly(entry.getKey(), entry.getValue(), methodExpress, args)){
+                flag = true;
+                break;
+            }
+        }
 
+        // 根据表达式去上下文里搜索相匹配的数据
+        if (!flag){
+            // 如果没有搜到，那么尝试推断表达式是指定的上下文，按照指定上下文的方式去再获取
+            executeMethodQuietly("contextMap", contextMap, methodExpress, args);
+        }
+    }
+
+    private static boolean executeMethodQuietly(String alias, Object context, String methodExpress, Object[] args){
         String argStr = IntStream.range(0, args.length).mapToObj(
                 idx -> StrUtil.format("arg{}", idx)
         ).collect(Collectors.joining(","));
+        try{
+            execute(StrUtil.format("{}.{}({})", alias, methodExpress, argStr), alias, context, args);
+            return true;
+        }catch (Exception ignore){
+            return false;
+        }
+    }
 
-        List<TupleOf2<String, Integer>> tupleList = IntStream.range(0, args.length).mapToObj(
-                idx -> new TupleOf2<>(StrUtil.format("arg{}", idx), idx)
-        ).collect(Collectors.toList());
-
-        for(Map.Entry<String, Object> entry : contextMap.entrySet()){
-            try{
-                InstructionSet instructionSet = expressRunner.getInstructionSetFromLocalCache(StrUtil.format("{}.{}({})", entry.getKey(), methodExpress, argStr));
-                DefaultContext<String, Object> context = new DefaultContext<>();
-                context.put(entry.getKey(), entry.getValue());
-                tupleList.forEach(tuple -> context.put(tuple.getA(), args[tuple.getB()]));
-                expressRunner.execute(instructionSet, context, errorList, false, false);
-                flag = true;
-                break;
-            }catch (Exception ignore){}
+    private static Object executeQuietly(String express, String alias, Object context, Object[] args){
+        try{
+            return execute(express, alias, context, args);
+        }catch (Exception ignore){
+            return null;
         }
+    }
 
-        // 根据表达式去上下文里搜索相匹配的数据
-        if (BooleanUtil.isFalse(flag)){
-            try{
-                // 如果没有搜到，那么尝试推断表达式是指定的上下文，按照指定上下文的方式去再获取
-                InstructionSet instructionSet = expressRunner.getInstructionSetFromLocalCache(StrUtil.format("contextMap.{}({})", methodExpress, argStr));
-                DefaultContext<String, Object> context = new DefaultContext<>();
-                context.put("contextMap", contextMap);
-                tupleList.forEach(tuple -> context.put(tuple.getA(), args[tuple.getB()]));
-                expressRunner.execute(instructionSet, context, errorList, false, false);
-            }catch (Exception ignore){}
+    private static Object execute(String express, String alias, Object context, Object[] args) throws Exception{
+        InstructionSet instructionSet = expressRunner.getInstructionSetFromLocalCache(express);
+        DefaultContext<String, Object> expressContext = new DefaultContext<>();
+        expressContext.put(alias, context);
+        if (args != null){
+            for (int i = 0; i < args.length; i++){
+                expressContext.put(StrUtil.format("arg{}", i), args[i]);
+            }
         }
+        return expressRunner.execute(instructionSet, expressContext, new ArrayList<>(), false, false);
     }
 }
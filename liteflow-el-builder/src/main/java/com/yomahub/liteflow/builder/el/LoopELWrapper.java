@@ -26,6 +26,8 @@ public class LoopELWrapper extends ELWrapper {
 
     protected boolean parallel;
 
+    protected Integer maxConcurrency;
+
     public LoopELWrapper(Integer loopNumber, String loopFunction){
         this.loopNumber = loopNumber;
         this.loopFunction = loopFunction;
@@ -42,6 +44,11 @@ public class LoopELWrapper extends ELWrapper {
         return this;
     }
 
+    public LoopELWrapper maxConcurrency(int maxConcurrency){
+        setMaxConcurrency(maxConcurrency);
+        return this;
+    }
+
     public LoopELWrapper doOpt(Object object){
         ELWrapper elWrapper = ELBus.convertToNonBooleanOpt(object);
         this.addWrapper(elWrapper, 1);
@@ -58,6 +65,10 @@ public class LoopELWrapper extends ELWrapper {
         this.parallel = parallel;
     }
 
+    protected void setMaxConcurrency(Integer maxConcurrency){
+        this.maxConcurrency = maxConcurrency;
+    }
+
     @Override
     public LoopELWrapper tag(String tag) {
         this.setTag(tag);
@@ -133,6 +144,10 @@ public class LoopELWrapper extends ELWrapper {
         if(this.parallel){
             sb.append(".parallel(true)");
         }
+        // 并行循环的最大并发数，串行循环上设置了也照样输出，由EL的构建去报错，而不是静默的丢掉
+        if(this.maxConcurrency != null){
+            sb.append(".maxConcurrency(").append(this.maxConcurrency).append(")");
+        }
 
         // 设置循环组件输出
         if(this.getElWrapperList().size() > 1) {
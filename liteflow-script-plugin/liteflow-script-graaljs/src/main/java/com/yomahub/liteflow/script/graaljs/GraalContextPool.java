@@ -0,0 +1,240 @@
+package com.yomahub.liteflow.script.graaljs;
+
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.script.ScriptBeanManager;
+import com.yomahub.liteflow.script.graaljs.vo.ContextResetPolicyEnum;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 共用同一个Engine的GraalJs Context池
+ * <p>
+ * 新建Context是js脚本执行时最大的开销，池里的Context被借出时只会被一个线程使用，归还时按照重置策略清理绑定。
+ * 脚本bean在Context新建时绑定一次，每个Context里解析过的脚本也会缓存下来，同一个Engine上的代码缓存和JIT一直是热的。
+ * 池满的时候多出来的Context直接关闭，池的大小只限制空闲的Context数量，不会让执行线程等待。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class GraalContextPool {
+
+	private final Engine engine;
+
+	// 构建这个池时使用的配置，配置对象变化之后执行器会重新构建池
+	private final LiteflowConfig liteflowConfig;
+
+	private final ContextResetPolicyEnum resetPolicy;
+
+	private final BlockingQueue<PooledContext> idleContexts;
+
+	// 被清理之后，借出中的Context归还时直接关闭
+	private volatile boolean cleared;
+
+	public GraalContextPool(Engine engine, LiteflowConfig liteflowConfig, int poolSize,
+			ContextResetPolicyEnum resetPolicy) {
+		this.engine = engine;
+		this.liteflowConfig = liteflowConfig;
+		this.resetPolicy = poolSize > 0 ? resetPolicy : ContextResetPolicyEnum.CLOSE;
+		this.idleContexts = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+	}
+
+	public PooledContext borrow() {
+		PooledContext pooledContext = idleContexts.poll();
+		if (pooledContext == null) {
+			pooledContext = new PooledContext(Context.newBuilder().allowAllAccess(true).engine(engine).build());
+		}
+		pooledContext.bindScriptBeans();
+		return pooledContext;
+	}
+
+	/**
+	 * 归还Context，执行中出现了引擎内部错误、被取消或者退出的Context不再复用
+	 * @param pooledContext 借出的Context
+	 * @param e 执行时抛出的异常，正常执行为null
+	 */
+	public void giveBack(PooledContext pooledContext, Exception e) {
+		if (cleared || resetPolicy == ContextResetPolicyEnum.CLOSE || isBroken(e)) {
+			pooledContext.close();
+			return;
+		}
+		try {
+			pooledContext.reset(resetPolicy == ContextResetPolicyEnum.GLOBALS);
+		}
+		catch (Exception resetException) {
+			pooledContext.close();
+			return;
+		}
+		if (!idleContexts.offer(pooledContext)) {
+			pooledContext.close();
+		}
+		else if (cleared && idleContexts.remove(pooledContext)) {
+			pooledContext.close();
+		}
+	}
+
+	/**
+	 * 关闭所有空闲的Context，之后这个池不再使用，借出中的Context归还时直接关闭
+	 */
+	public void clear() {
+		cleared = true;
+		List<PooledContext> contexts = new ArrayList<>();
+		idleContexts.drainTo(contexts);
+		contexts.forEach(PooledContext::close);
+	}
+
+	public LiteflowConfig getLiteflowConfig() {
+		return liteflowConfig;
+	}
+
+	public int getIdleSize() {
+		return idleContexts.size();
+	}
+
+	private boolean isBroken(Exception e) {
+		if (!(e instanceof PolyglotException)) {
+			return false;
+		}
+		PolyglotException polyglotException = (PolyglotException) e;
+		return polyglotException.isInternalError() || polyglotException.isCancelled() || polyglotException.isExit();
+	}
+
+	public static class PooledContext {
+
+		private final Context context;
+
+		private final Value bindings;
+
+		private final Value undefined;
+
+		// Context新建时就存在的全局变量，GLOBALS策略重置时保留
+		private final Set<String> initialMembers;
+
+		// 本次执行绑定的key
+		private final Set<String> boundKeys = new HashSet<>();
+
+		// 已经绑定的脚本bean数量，脚本bean是在启动过程中陆续注册的，数量变化时重新绑定
+		private int boundScriptBeanCount = -1;
+
+		// nodeId -> 在这个Context里解析好的脚本
+		private final Map<String, ParsedScript> parsedScriptMap = new HashMap<>();
+
+		private PooledContext(Context context) {
+			this.context = context;
+			this.bindings = context.getBindings("js");
+			this.undefined = context.eval("js", "undefined");
+			this.initialMembers = new HashSet<>(bindings.getMemberKeys());
+		}
+
+		public Context getContext() {
+			return context;
+		}
+
+		public void putMember(String key, Object value) {
+			bindings.putMember(key, value);
+			boundKeys.add(key);
+		}
+
+		public Value parse(String nodeId, Source source) {
+			ParsedScript parsedScript = parsedScriptMap.get(nodeId);
+			// 脚本被刷新之后source是新的对象，需要重新解析
+			if (parsedScript == null || parsedScript.source != source) {
+				parsedScript = new ParsedScript(source, context.parse(source));
+				parsedScriptMap.put(nodeId, parsedScript);
+			}
+			return parsedScript.value;
+		}
+
+		private void bindScriptBeans() {
+			Map<String, Object> scriptBeanMap = ScriptBeanManager.getReadOnlyScriptBeanMap();
+			if (boundScriptBeanCount == scriptBeanMap.size()) {
+				return;
+			}
+			scriptBeanMap.forEach(bindings::putMember);
+			boundScriptBeanCount = scriptBeanMap.size();
+		}
+
+		private void reset(boolean removeGlobals) {
+			Map<String, Object> scriptBeanMap = ScriptBeanManager.getReadOnlyScriptBeanMap();
+			for (String key : boundKeys) {
+				restore(key, scriptBeanMap);
+			}
+			boundKeys.clear();
+			if (removeGlobals) {
+				for (String key : new ArrayList<>(bindings.getMemberKeys())) {
+					if (!initialMembers.contains(key) && !scriptBeanMap.containsKey(key)) {
+						removeGlobal(key);
+					}
+				}
+			}
+			// 脚本可能给脚本bean重新赋了值，和绑定时的对象不一样的放回去
+			scriptBeanMap.forEach((key, bean) -> {
+				Value value = bindings.getMember(key);
+				if (value == null || !value.isHostObject() || value.asHostObject() != bean) {
+					bindings.putMember(key, bean);
+				}
+			});
+		}
+
+		private void restore(String key, Map<String, Object> scriptBeanMap) {
+			// 上下文和脚本bean同名时，绑定的时候覆盖了脚本bean，这里要放回去
+			if (scriptBeanMap.containsKey(key)) {
+				bindings.putMember(key, scriptBeanMap.get(key));
+			}
+			else {
+				removeQuietly(key);
+			}
+		}
+
+		private void removeGlobal(String key) {
+			if (removeQuietly(key) || !bindings.hasMember(key)) {
+				return;
+			}
+			// 用var或者function声明的全局变量不能被删除，改成undefined，下次执行时和新定义的一样
+			bindings.putMember(key, undefined);
+			// let和const声明的变量也无法覆盖，这时抛出异常，这个Context会被关闭而不是放回池里
+			if (!bindings.getMember(key).isNull()) {
+				throw new IllegalStateException("global variable [" + key + "] can not be reset");
+			}
+		}
+
+		private boolean removeQuietly(String key) {
+			try {
+				return bindings.removeMember(key);
+			}
+			catch (UnsupportedOperationException ignored) {
+				return false;
+			}
+		}
+
+		private void close() {
+			context.close();
+		}
+
+	}
+
+	private static class ParsedScript {
+
+		private final Source source;
+
+		private final Value value;
+
+		private ParsedScript(Source source, Value value) {
+			this.source = source;
+			this.value = value;
+		}
+
+	}
+
+}
@@ -2,12 +2,16 @@ package com.yomahub.liteflow.script.graaljs;
 
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ScriptTypeEnum;
-import com.yomahub.liteflow.lifecycle.LifeCycleHolder;
+import com.yomahub.liteflow.exception.ConfigErrorException;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 import com.yomahub.liteflow.script.ScriptExecutor;
 import com.yomahub.liteflow.script.exception.ScriptLoadException;
+import com.yomahub.liteflow.script.graaljs.GraalContextPool.PooledContext;
+import com.yomahub.liteflow.script.graaljs.vo.ContextResetPolicyEnum;
+import com.yomahub.liteflow.script.graaljs.vo.GraalJsSettingMapKey;
 import com.yomahub.liteflow.util.CopyOnWriteHashMap;
-import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
@@ -18,6 +22,8 @@ import java.util.Map;
 
 /**
  * GraalVM JavaScript脚本语言的执行器实现
+ * <p>
+ * 所有的Context共用一个Engine，并通过GraalContextPool复用，池的大小和重置策略通过scriptSetting配置
  *
  * @author zendwang
  * @since 2.9.4
@@ -28,6 +34,8 @@ public class GraalJavaScriptExecutor extends ScriptExecutor {
 
 	private Engine engine;
 
+	private volatile GraalContextPool contextPool;
+
 	@Override
 	public ScriptExecutor init() {
 		engine = Engine.create();
@@ -36,6 +44,42 @@ public class GraalJavaScriptExecutor extends ScriptExecutor {
 		return this;
 	}
 
+	/**
+	 * Context池在第一次用到时按照当前的scriptSetting构建，配置对象变化(比如刷新或者重新初始化)之后重新构建
+	 */
+	private GraalContextPool getContextPool() {
+		LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
+		GraalContextPool pool = contextPool;
+		if (pool == null || pool.getLiteflowConfig() != liteflowConfig) {
+			synchronized (this) {
+				pool = contextPool;
+				if (pool == null || pool.getLiteflowConfig() != liteflowConfig) {
+					GraalContextPool oldPool = pool;
+					pool = buildContextPool(liteflowConfig);
+					contextPool = pool;
+					if (oldPool != null) {
+						oldPool.clear();
+					}
+				}
+			}
+		}
+		return pool;
+	}
+
+	private GraalContextPool buildContextPool(LiteflowConfig liteflowConfig) {
+		Map<String, String> scriptSetting = liteflowConfig.getScriptSetting();
+		String poolSizeValue = scriptSetting.get(GraalJsSettingMapKey.CONTEXT_POOL_SIZE);
+		int poolSize = StrUtil.isBlank(poolSizeValue) ? Runtime.getRuntime().availableProcessors() * 2
+				: Integer.parseInt(poolSizeValue.trim());
+		String resetPolicyValue = scriptSetting.get(GraalJsSettingMapKey.CONTEXT_RESET_POLICY);
+		ContextResetPolicyEnum resetPolicy = StrUtil.isBlank(resetPolicyValue) ? ContextResetPolicyEnum.GLOBALS
+				: ContextResetPolicyEnum.getEnumByName(resetPolicyValue.trim());
+		if (resetPolicy == null) {
+			throw new ConfigErrorException(StrUtil.format("unsupported graaljs context reset policy[{}]", resetPolicyValue));
+		}
+		return new GraalContextPool(engine, liteflowConfig, poolSize, resetPolicy);
+	}
+
 	@Override
 	public void load(String nodeId, String script) {
 		try {
@@ -63,16 +107,14 @@ public class GraalJavaScriptExecutor extends ScriptExecutor {
 			String errorMsg = StrUtil.format("script for node[{}] is not loaded", wrap.getNodeId());
 			throw new ScriptLoadException(errorMsg);
 		}
-		try (Context context = Context.newBuilder().allowAllAccess(true).engine(this.engine).build()) {
-			Value bindings = context.getBindings("js");
-
-			bindParam(wrap, bindings::putMember, (s, o) -> {
-				if (!bindings.hasMember(s)) {
-					bindings.putMember(s, o);
-				}
-			});
+		GraalContextPool pool = getContextPool();
+		PooledContext pooledContext = pool.borrow();
+		Exception exception = null;
+		try {
+			// 脚本bean在Context新建的时候已经绑定过，这里只绑定上下文和元数据，归还时再移除
+			bindParam(wrap, pooledContext::putMember);
 
-			Value value = context.eval(scriptMap.get(wrap.getNodeId()));
+			Value value = pooledContext.parse(wrap.getNodeId(), scriptMap.get(wrap.getNodeId())).execute();
 			if (value.isBoolean()) {
 				return value.asBoolean();
 			}
@@ -85,13 +127,22 @@ public class GraalJavaScriptExecutor extends ScriptExecutor {
 			return value;
 		}
 		catch (Exception e) {
+			exception = e;
 			throw e;
 		}
+		finally {
+			pool.giveBack(pooledContext, exception);
+		}
 	}
 
 	@Override
 	public void cleanCache() {
 		scriptMap.clear();
+		GraalContextPool pool = contextPool;
+		contextPool = null;
+		if (pool != null) {
+			pool.clear();
+		}
 	}
 
 	@Override
@@ -102,9 +153,20 @@ public class GraalJavaScriptExecutor extends ScriptExecutor {
 	@Override
 	public Object compile(String script) throws Exception {
 		String wrapScript = StrUtil.format("function process(){{}} process();", script);
-		Context context = Context.newBuilder().allowAllAccess(true).engine(engine).build();
-		context.parse(Source.create("js", wrapScript));
-		context.close();
+		// 借用池里的Context校验语法，不再单独新建一个Context
+		GraalContextPool pool = getContextPool();
+		PooledContext pooledContext = pool.borrow();
+		Exception exception = null;
+		try {
+			pooledContext.getContext().parse(Source.create("js", wrapScript));
+		}
+		catch (Exception e) {
+			exception = e;
+			throw e;
+		}
+		finally {
+			pool.giveBack(pooledContext, exception);
+		}
 		return wrapScript;
 	}
 
@@ -0,0 +1,27 @@
+package com.yomahub.liteflow.script.graaljs.vo;
+
+/**
+ * GraalJs的Context归还到池里时的重置策略
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public enum ContextResetPolicyEnum {
+
+	// 只移除本次执行绑定的上下文和元数据，脚本自己定义的全局变量会保留下来，需要在多次执行之间保留全局变量时使用
+	BINDINGS,
+
+	// 默认策略，除了本次执行的绑定之外，脚本自己定义的全局变量也一并清理，不能删除的var和function声明被改成undefined
+	GLOBALS,
+
+	// 不复用，每次执行完直接关闭Context
+	CLOSE;
+
+	public static ContextResetPolicyEnum getEnumByName(String name) {
+		for (ContextResetPolicyEnum e : ContextResetPolicyEnum.values()) {
+			if (e.name().equalsIgnoreCase(name)) {
+				return e;
+			}
+		}
+		return null;
+	}
+}
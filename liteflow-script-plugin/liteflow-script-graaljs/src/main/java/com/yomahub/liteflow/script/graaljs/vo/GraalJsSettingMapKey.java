@@ -0,0 +1,15 @@
+package com.yomahub.liteflow.script.graaljs.vo;
+
+/**
+ * GraalJs语言特殊配置项的Key
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public interface GraalJsSettingMapKey {
+
+	// Context池的大小，默认为cpu核数的2倍，配置为0时不复用Context
+	String CONTEXT_POOL_SIZE = "graaljs-context-pool-size";
+
+	// Context归还到池里时的重置策略，见ContextResetPolicyEnum，默认为globals
+	String CONTEXT_RESET_POLICY = "graaljs-context-reset-policy";
+}
@@ -5,12 +5,18 @@ import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ScriptTypeEnum;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 import com.yomahub.liteflow.script.ScriptExecutor;
+import com.yomahub.liteflow.script.bytecode.CompiledClasses;
+import com.yomahub.liteflow.script.bytecode.ScriptBytecodeCache;
+import com.yomahub.liteflow.script.bytecode.ScriptBytecodeCacheHolder;
 import com.yomahub.liteflow.script.exception.ScriptLoadException;
 import com.yomahub.liteflow.util.CopyOnWriteHashMap;
 import org.codehaus.commons.compiler.CompilerFactoryFactory;
 import org.codehaus.commons.compiler.IScriptEvaluator;
+import org.codehaus.janino.ScriptEvaluator;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -20,12 +26,23 @@ import java.util.Map;
 @Deprecated
 public class JavaExecutor extends ScriptExecutor {
 
-    private final Map<String, IScriptEvaluator> compiledScriptMap = new CopyOnWriteHashMap<>();
+    private static final String METHOD_NAME = "eval0";
+
+    // nodeId -> 编译出来的静态方法
+    private final Map<String, Method> compiledScriptMap = new CopyOnWriteHashMap<>();
+
+    private final ScriptBytecodeCacheHolder bytecodeCacheHolder = new ScriptBytecodeCacheHolder("java",
+            this.getClass().getClassLoader(), new JaninoCompiler());
 
     @Override
     public void load(String nodeId, String script) {
         try{
-            compiledScriptMap.put(nodeId, (IScriptEvaluator) compile(script));
+            if (bytecodeCacheHolder.get().isEnabled()) {
+                Class<?> clazz = bytecodeCacheHolder.get().loadClass(convertScript(script));
+                compiledScriptMap.put(nodeId, clazz.getMethod(METHOD_NAME, ScriptExecuteWrap.class));
+            } else {
+                compiledScriptMap.put(nodeId, ((IScriptEvaluator) compile(script)).getMethod());
+            }
         }catch (Exception e){
             String errorMsg = StrUtil.format("script loading error for node[{}],error msg:{}", nodeId, e.getMessage());
             throw new ScriptLoadException(errorMsg);
@@ -49,13 +66,19 @@ public class JavaExecutor extends ScriptExecutor {
             String errorMsg = StrUtil.format("script for node[{}] is not loaded", wrap.getNodeId());
             throw new ScriptLoadException(errorMsg);
         }
-        IScriptEvaluator se = compiledScriptMap.get(wrap.getNodeId());
-        return se.evaluate(new Object[]{wrap});
+        Method method = compiledScriptMap.get(wrap.getNodeId());
+        return method.invoke(null, wrap);
+    }
+
+    @Override
+    public void precompile(Collection<String> scripts) {
+        bytecodeCacheHolder.get().precompile(scripts, this::convertScript);
     }
 
     @Override
     public void cleanCache() {
         compiledScriptMap.clear();
+        bytecodeCacheHolder.clear();
     }
 
     @Override
@@ -69,10 +92,36 @@ public class JavaExecutor extends ScriptExecutor {
         se.setTargetVersion(8);
         se.setReturnType(Object.class);
         se.setParameters(new String[] {"_meta"}, new Class[] {ScriptExecuteWrap.class});
+        se.setMethodName(METHOD_NAME);
         se.cook(convertScript(script));
         return se;
     }
 
+    /**
+     * 用和不走缓存时同样的参数让Janino编译出字节码
+     */
+    private class JaninoCompiler implements ScriptBytecodeCache.Compiler {
+
+        @Override
+        public String getSignature() {
+            return "janino:" + ScriptBytecodeCache.getArtifactVersion(ScriptEvaluator.class, "org.codehaus.janino", "janino")
+                    + "\n" + METHOD_NAME + "(" + ScriptExecuteWrap.class.getName() + " _meta)";
+        }
+
+        @Override
+        public CompiledClasses compile(String className, String source) throws Exception {
+            ScriptEvaluator se = new ScriptEvaluator();
+            se.setParentClassLoader(JavaExecutor.this.getClass().getClassLoader());
+            se.setClassName(className);
+            se.setTargetVersion(8);
+            se.setReturnType(Object.class);
+            se.setParameters(new String[] {"_meta"}, new Class[] {ScriptExecuteWrap.class});
+            se.setMethodName(METHOD_NAME);
+            se.cook(source);
+            return new CompiledClasses(className, se.getBytecodes());
+        }
+    }
+
     private String convertScript(String script){
         //替换掉public，private，protected等修饰词
         String script1 = script.replaceAll("public class", "class")
@@ -8,33 +8,45 @@ import com.yomahub.liteflow.property.LiteflowConfig;
 import com.yomahub.liteflow.property.LiteflowConfigGetter;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 import com.yomahub.liteflow.script.ScriptExecutor;
+import com.yomahub.liteflow.script.bytecode.ScriptBytecodeCacheHolder;
+import com.yomahub.liteflow.script.liquor.LiquorBytecodeCompiler;
 import com.yomahub.liteflow.script.exception.ScriptLoadException;
 import com.yomahub.liteflow.script.javaxpro.vo.JavaxProSettingMapKey;
 import com.yomahub.liteflow.util.CopyOnWriteHashMap;
 import org.noear.liquor.eval.CodeSpec;
+import org.noear.liquor.eval.Execable;
 import org.noear.liquor.eval.Scripts;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Javax语言执行器，基于liquor
  * 和静态类完全一样的定义模式
+ * <p>
+ * 脚本只编译一次，每次节点执行持有一个自己的组件实例，执行时不再修改所有线程共享的同一个实例
  * @author Bryan.Zhang
  * @since 2.13.0
  */
 public class JavaxProExecutor extends ScriptExecutor {
-    private final Map<String, NodeComponent> compiledScriptMap = new CopyOnWriteHashMap<>();
+    private final Map<String, CompiledCmp> compiledScriptMap = new CopyOnWriteHashMap<>();
 
     private boolean isCache;
 
+    private ScriptBytecodeCacheHolder bytecodeCacheHolder;
+
     @Override
     public ScriptExecutor init() {
         LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
         String isCacheValue = liteflowConfig.getScriptSetting().get(JavaxProSettingMapKey.IS_CACHE);
         isCache = Boolean.parseBoolean(isCacheValue);
+        ClassLoader parentClassLoader = Thread.currentThread().getContextClassLoader();
+        //字节码缓存和不走缓存时一样，由liquor包装脚本
+        bytecodeCacheHolder = new ScriptBytecodeCacheHolder("javax-pro", parentClassLoader,
+                new LiquorBytecodeCompiler(parentClassLoader, this::buildCodeSpec));
         //如果有生命周期则执行相应生命周期实现
         super.lifeCycle(null);
         return this;
@@ -43,7 +55,19 @@ public class JavaxProExecutor extends ScriptExecutor {
     @Override
     public void load(String nodeId, String script) {
         try{
-            compiledScriptMap.put(nodeId, (NodeComponent) compile(script));
+            Execable execable;
+            if (bytecodeCacheHolder.get().isEnabled()) {
+                Class<?> clazz = bytecodeCacheHolder.get().loadClass(convertScript(script));
+                execable = (Execable) clazz.getDeclaredConstructor().newInstance();
+            } else {
+                execable = (Execable) compile(script);
+            }
+            //加载时先实例化一次，类定义不对或者构造出错在加载阶段就能发现
+            Object cmp = execable.exec();
+            if (!(cmp instanceof NodeComponent)) {
+                throw new ScriptLoadException(StrUtil.format("script for node[{}] is not a NodeComponent", nodeId));
+            }
+            compiledScriptMap.put(nodeId, new CompiledCmp(execable, cmp.getClass()));
         }catch (InvocationTargetException e){
             String errorMsg = StrUtil.format("script loading error for node[{}],error msg:{}", nodeId, e.getTargetException().getMessage());
             throw new ScriptLoadException(errorMsg);
@@ -66,13 +90,25 @@ public class JavaxProExecutor extends ScriptExecutor {
     @Override
     public Object executeScript(ScriptExecuteWrap wrap) throws Exception {
         NodeComponent cmp = getExecutableCmp(wrap);
-        cmp.process();
-        return cmp.getItemResultMetaValue(wrap.slotIndex);
+        try {
+            cmp.process();
+            return cmp.getItemResultMetaValue(wrap.slotIndex);
+        } finally {
+            cmp.removeRefNode();
+        }
+    }
+
+    @Override
+    public void precompile(Collection<String> scripts) {
+        bytecodeCacheHolder.get().precompile(scripts, this::convertScript);
     }
 
     @Override
     public void cleanCache() {
         compiledScriptMap.clear();
+        if (bytecodeCacheHolder != null) {
+            bytecodeCacheHolder.clear();
+        }
     }
 
     @Override
@@ -82,73 +118,139 @@ public class JavaxProExecutor extends ScriptExecutor {
 
     @Override
     public Object compile(String script) throws Exception {
-        CodeSpec codeSpec = new CodeSpec(convertScript(script))
+        return Scripts.compile(buildCodeSpec(convertScript(script)));
+    }
+
+    private CodeSpec buildCodeSpec(String source) {
+        return new CodeSpec(source)
                 .returnType(Object.class)
                 .cached(isCache);
-        return Scripts.eval(codeSpec);
     }
 
     @Override
     public boolean executeIsAccess(ScriptExecuteWrap wrap) {
         NodeComponent cmp = getExecutableCmp(wrap);
-        return cmp.isAccess();
+        try {
+            return cmp.isAccess();
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     @Override
     public boolean executeIsContinueOnError(ScriptExecuteWrap wrap) {
         NodeComponent cmp = getExecutableCmp(wrap);
-        return cmp.isContinueOnError();
+        try {
+            return cmp.isContinueOnError();
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     @Override
     public boolean executeIsEnd(ScriptExecuteWrap wrap) {
         NodeComponent cmp = getExecutableCmp(wrap);
-        return cmp.isEnd();
+        try {
+            return cmp.isEnd();
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     @Override
     public void executeBeforeProcess(ScriptExecuteWrap wrap) {
         NodeComponent cmp = getExecutableCmp(wrap);
-        cmp.beforeProcess();
+        try {
+            cmp.beforeProcess();
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     @Override
     public void executeAfterProcess(ScriptExecuteWrap wrap) {
         NodeComponent cmp = getExecutableCmp(wrap);
-        cmp.afterProcess();
+        try {
+            cmp.afterProcess();
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     @Override
     public void executeOnSuccess(ScriptExecuteWrap wrap) throws Exception {
         NodeComponent cmp = getExecutableCmp(wrap);
-        cmp.onSuccess();
+        try {
+            cmp.onSuccess();
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     @Override
     public void executeOnError(ScriptExecuteWrap wrap, Exception e) throws Exception {
         NodeComponent cmp = getExecutableCmp(wrap);
-        cmp.onError(e);
+        try {
+            cmp.onError(e);
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     @Override
     public void executeRollback(ScriptExecuteWrap wrap) throws Exception {
         NodeComponent cmp = getExecutableCmp(wrap);
-        cmp.rollback();
+        try {
+            cmp.rollback();
+        } finally {
+            cmp.removeRefNode();
+        }
     }
 
     private NodeComponent getExecutableCmp(ScriptExecuteWrap wrap){
-        if (!compiledScriptMap.containsKey(wrap.getNodeId())) {
+        CompiledCmp compiledCmp = compiledScriptMap.get(wrap.getNodeId());
+        if (compiledCmp == null) {
             String errorMsg = StrUtil.format("script for node[{}] is not loaded", wrap.getNodeId());
             throw new ScriptLoadException(errorMsg);
         }
-        NodeComponent cmp = compiledScriptMap.get(wrap.getNodeId());
+        NodeComponent cmp = compiledCmp.get(wrap);
+        //refNode是线程隔离的栈，每个生命周期方法执行完之后出栈，避免一直累积
         cmp.setRefNode(wrap.getCmp().getRefNode());
-        cmp.setNodeId(wrap.getNodeId());
-        cmp.setType(wrap.getCmp().getType());
-        cmp.setSelf(cmp);
         return cmp;
     }
 
+    /**
+     * 编译好的脚本类
+     * <p>
+     * 组件实例挂在本次节点执行的wrap上，各个生命周期方法共用，不放在线程上，脚本刷新之后旧的类和类加载器可以被回收
+     */
+    private static class CompiledCmp {
+
+        private final Execable execable;
+
+        private final Class<?> cmpClass;
+
+        private CompiledCmp(Execable execable, Class<?> cmpClass) {
+            this.execable = execable;
+            this.cmpClass = cmpClass;
+        }
+
+        private NodeComponent get(ScriptExecuteWrap wrap) {
+            Object instance = wrap.getScriptInstance();
+            //执行中间脚本被刷新的话，wrap上的是旧的类的实例，重新实例化
+            if (instance != null && instance.getClass() == cmpClass) {
+                return (NodeComponent) instance;
+            }
+            //每次节点执行第一次用到时实例化，nodeId、type这些不变的属性只在这时设置一次
+            NodeComponent cmp = (NodeComponent) execable.exec();
+            cmp.setNodeId(wrap.getNodeId());
+            cmp.setType(wrap.getCmp().getType());
+            cmp.setSelf(cmp);
+            wrap.setScriptInstance(cmp);
+            return cmp;
+        }
+    }
+
     private String convertScript(String script){
         //替换掉public，private，protected等修饰词
         String script1 = script.replaceAll("public class", "class")
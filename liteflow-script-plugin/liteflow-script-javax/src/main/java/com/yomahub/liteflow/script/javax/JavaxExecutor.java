@@ -7,6 +7,8 @@ import com.yomahub.liteflow.property.LiteflowConfig;
 import com.yomahub.liteflow.property.LiteflowConfigGetter;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 import com.yomahub.liteflow.script.ScriptExecutor;
+import com.yomahub.liteflow.script.bytecode.ScriptBytecodeCacheHolder;
+import com.yomahub.liteflow.script.liquor.LiquorBytecodeCompiler;
 import com.yomahub.liteflow.script.exception.ScriptLoadException;
 import com.yomahub.liteflow.script.javax.vo.JavaxSettingMapKey;
 import com.yomahub.liteflow.util.CopyOnWriteHashMap;
@@ -14,6 +16,7 @@ import org.noear.liquor.Utils;
 import org.noear.liquor.eval.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -28,11 +31,17 @@ public class JavaxExecutor extends ScriptExecutor {
 
     private boolean isCache;
 
+    private ScriptBytecodeCacheHolder bytecodeCacheHolder;
+
     @Override
     public ScriptExecutor init() {
         LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
         String isCacheValue = liteflowConfig.getScriptSetting().get(JavaxSettingMapKey.IS_CACHE);
         isCache = Boolean.parseBoolean(isCacheValue);
+        ClassLoader parentClassLoader = Thread.currentThread().getContextClassLoader();
+        //字节码缓存和不走缓存时一样，由liquor包装脚本
+        bytecodeCacheHolder = new ScriptBytecodeCacheHolder("javax", parentClassLoader,
+                new LiquorBytecodeCompiler(parentClassLoader, this::buildCodeSpec));
         //如果有生命周期则执行相应生命周期实现
         super.lifeCycle(null);
         return this;
@@ -41,7 +50,12 @@ public class JavaxExecutor extends ScriptExecutor {
     @Override
     public void load(String nodeId, String script) {
         try{
-            compiledScriptMap.put(nodeId, (Execable) compile(script));
+            if (bytecodeCacheHolder.get().isEnabled()) {
+                Class<?> clazz = bytecodeCacheHolder.get().loadClass(convertScript(script));
+                compiledScriptMap.put(nodeId, (Execable) clazz.getDeclaredConstructor().newInstance());
+            } else {
+                compiledScriptMap.put(nodeId, (Execable) compile(script));
+            }
         }catch (Exception e){
             String errorMsg = StrUtil.format("script loading error for node[{}],error msg:{}", nodeId, e.getMessage());
             throw new ScriptLoadException(errorMsg);
@@ -69,9 +83,17 @@ public class JavaxExecutor extends ScriptExecutor {
         return execable.exec(Utils.asMap("_meta", wrap));
     }
 
+    @Override
+    public void precompile(Collection<String> scripts) {
+        bytecodeCacheHolder.get().precompile(scripts, this::convertScript);
+    }
+
     @Override
     public void cleanCache() {
         compiledScriptMap.clear();
+        if (bytecodeCacheHolder != null) {
+            bytecodeCacheHolder.clear();
+        }
     }
 
     @Override
@@ -81,10 +103,13 @@ public class JavaxExecutor extends ScriptExecutor {
 
     @Override
     public Object compile(String script) throws Exception {
-        CodeSpec codeSpec = new CodeSpec(convertScript(script))
+        return Scripts.compile(buildCodeSpec(convertScript(script)));
+    }
+
+    private CodeSpec buildCodeSpec(String source) {
+        return new CodeSpec(source)
                 .returnType(Object.class)
                 .parameters(new ParamSpec("_meta", ScriptExecuteWrap.class)).cached(isCache);
-        return Scripts.compile(codeSpec);
     }
 
     private String convertScript(String script){
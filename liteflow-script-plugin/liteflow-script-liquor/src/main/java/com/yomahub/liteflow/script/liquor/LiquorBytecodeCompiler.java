@@ -0,0 +1,74 @@
+package com.yomahub.liteflow.script.liquor;
+
+import com.yomahub.liteflow.script.bytecode.CompiledClasses;
+import com.yomahub.liteflow.script.bytecode.ScriptBytecodeCache;
+import org.noear.liquor.DynamicClassLoader;
+import org.noear.liquor.eval.CodeSpec;
+import org.noear.liquor.eval.LiquorEvaluator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 通过liquor编译脚本并取出字节码，javax和javax-pro两个插件共用
+ * <p>
+ * 脚本由liquor自己包装成Execable的实现类，和不走缓存时编译的源码完全一样。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class LiquorBytecodeCompiler implements ScriptBytecodeCache.Compiler {
+
+	private final ClassLoader parentClassLoader;
+
+	// 执行器构建CodeSpec的方法，和不走缓存时使用同一个
+	private final Function<String, CodeSpec> codeSpecBuilder;
+
+	private final String signature;
+
+	public LiquorBytecodeCompiler(ClassLoader parentClassLoader, Function<String, CodeSpec> codeSpecBuilder) {
+		this.parentClassLoader = parentClassLoader;
+		this.codeSpecBuilder = codeSpecBuilder;
+		// liquor的包装模板跟着版本走，参数、返回类型和import决定了包装出来的源码
+		CodeSpec codeSpec = codeSpecBuilder.apply("");
+		String parameters = codeSpec.getParameters()
+			.stream()
+			.map(param -> param.getName() + ":" + param.getType().getName())
+			.collect(Collectors.joining(","));
+		this.signature = "liquor:" + ScriptBytecodeCache.getArtifactVersion(LiquorEvaluator.class, "org.noear", "liquor-eval")
+				+ "\n" + codeSpec.getReturnType().getName() + "\n" + parameters + "\n" + codeSpec.getImports();
+	}
+
+	@Override
+	public String getSignature() {
+		return signature;
+	}
+
+	@Override
+	public CompiledClasses compile(String className, String source) {
+		// 每次用一个新的evaluator，编译出来的类都在它自己的类加载器里，可以并行编译
+		Class<?> mainClass = new BytecodeEvaluator(parentClassLoader).build(codeSpecBuilder.apply(source));
+		DynamicClassLoader classLoader = (DynamicClassLoader) mainClass.getClassLoader();
+		Map<String, byte[]> bytecodes = new HashMap<>();
+		for (String name : classLoader.getClassNames()) {
+			bytecodes.put(name, classLoader.getClassBytes(name).getByteCode());
+		}
+		return new CompiledClasses(mainClass.getName(), bytecodes);
+	}
+
+	private static class BytecodeEvaluator extends LiquorEvaluator {
+
+		private BytecodeEvaluator(ClassLoader parentClassLoader) {
+			super(parentClassLoader);
+		}
+
+		@Override
+		protected Class<?> build(CodeSpec codeSpec) {
+			return super.build(codeSpec);
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.yomahub.liteflow.script.python;
+
+import com.yomahub.liteflow.property.LiteflowConfig;
+import org.python.core.PyStringMap;
+import org.python.core.PySystemState;
+import org.python.util.PythonInterpreter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Python解释器池
+ * <p>
+ * 一个解释器同一时间只会被一个线程借用，所以绑定的参数和result不会被其他线程覆盖。
+ * 所有解释器共用同一个PySystemState(sys.path、已经导入的模块等)，编译好的PyCode也可以在任意一个解释器里执行。
+ * 归还时把变量空间重置为模板解释器变量空间的副本，生命周期里往模板解释器设置的变量在每个解释器里都能用到。
+ * 池的大小只限制空闲的解释器数量，池空的时候直接新建，不会让执行线程等待。
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class PythonInterpreterPool {
+
+    private final PythonInterpreter templateInterpreter;
+
+    private final PySystemState systemState;
+
+    // 构建这个池时使用的配置，配置对象变化之后执行器会重新构建池
+    private final LiteflowConfig liteflowConfig;
+
+    private final BlockingQueue<PythonInterpreter> idleInterpreters;
+
+    public PythonInterpreterPool(PythonInterpreter templateInterpreter, PySystemState systemState,
+                                 LiteflowConfig liteflowConfig, int poolSize) {
+        this.templateInterpreter = templateInterpreter;
+        this.systemState = systemState;
+        this.liteflowConfig = liteflowConfig;
+        this.idleInterpreters = poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null;
+    }
+
+    public PythonInterpreter borrow() {
+        PythonInterpreter interpreter = idleInterpreters == null ? null : idleInterpreters.poll();
+        if (interpreter == null) {
+            interpreter = new PythonInterpreter(newLocals(), systemState);
+        }
+        return interpreter;
+    }
+
+    public void giveBack(PythonInterpreter interpreter) {
+        if (idleInterpreters == null) {
+            return;
+        }
+        // 重置变量空间，不把这次执行的上下文和result带到下一次执行
+        interpreter.setLocals(newLocals());
+        idleInterpreters.offer(interpreter);
+    }
+
+    public void clear() {
+        if (idleInterpreters != null) {
+            idleInterpreters.clear();
+        }
+    }
+
+    public LiteflowConfig getLiteflowConfig() {
+        return liteflowConfig;
+    }
+
+    private PyStringMap newLocals() {
+        PyStringMap locals = new PyStringMap();
+        locals.update(templateInterpreter.getLocals());
+        return locals;
+    }
+
+}
@@ -3,9 +3,13 @@ package com.yomahub.liteflow.script.python;
 import cn.hutool.core.util.ReUtil;
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ScriptTypeEnum;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 import com.yomahub.liteflow.script.ScriptExecutor;
 import com.yomahub.liteflow.script.exception.ScriptLoadException;
+import com.yomahub.liteflow.script.python.vo.PythonSettingMapKey;
+import com.yomahub.liteflow.util.CopyOnWriteHashMap;
 import org.python.core.PyCode;
 import org.python.core.PyObject;
 import org.python.core.PySystemState;
@@ -15,22 +19,29 @@ import java.util.stream.Collectors;
 
 /**
  * Python脚本语言的执行器实现
+ * <p>
+ * 脚本在解释器池里的解释器上执行，池的大小通过scriptSetting配置
  *
  * @author Bryan.Zhang
  * @since 2.12.0
  */
 public class PythonScriptExecutor extends ScriptExecutor {
 
+    // 模板解释器，用于编译脚本和生命周期扩展，不直接执行脚本
     private PythonInterpreter pythonInterpreter;
 
+    private PySystemState systemState;
+
+    private volatile PythonInterpreterPool interpreterPool;
+
     private final String RESULT_KEY = "result";
 
-    private final Map<String, PyCode> compiledScriptMap = new HashMap<>();
+    private final Map<String, PyCode> compiledScriptMap = new CopyOnWriteHashMap<>();
 
 
     @Override
     public ScriptExecutor init(){
-        PySystemState systemState = new PySystemState();
+        this.systemState = new PySystemState();
         systemState.setdefaultencoding("UTF-8");
         this.pythonInterpreter = new PythonInterpreter(null, systemState);
         //如果有生命周期则执行相应生命周期实现
@@ -38,6 +49,27 @@ public class PythonScriptExecutor extends ScriptExecutor {
         return this;
     }
 
+    /**
+     * 解释器池在第一次用到时按照当前的scriptSetting构建，配置对象变化(比如刷新或者重新初始化)之后重新构建
+     */
+    private PythonInterpreterPool getInterpreterPool() {
+        LiteflowConfig liteflowConfig = LiteflowConfigGetter.get();
+        PythonInterpreterPool pool = interpreterPool;
+        if (pool == null || pool.getLiteflowConfig() != liteflowConfig) {
+            synchronized (this) {
+                pool = interpreterPool;
+                if (pool == null || pool.getLiteflowConfig() != liteflowConfig) {
+                    String poolSizeValue = liteflowConfig.getScriptSetting().get(PythonSettingMapKey.INTERPRETER_POOL_SIZE);
+                    int poolSize = StrUtil.isBlank(poolSizeValue) ? Runtime.getRuntime().availableProcessors() * 2
+                            : Integer.parseInt(poolSizeValue.trim());
+                    pool = new PythonInterpreterPool(pythonInterpreter, systemState, liteflowConfig, poolSize);
+                    interpreterPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
     @Override
     public void load(String nodeId, String script) {
         try {
@@ -69,31 +101,42 @@ public class PythonScriptExecutor extends ScriptExecutor {
 
         PyCode compiledScript = compiledScriptMap.get(wrap.getNodeId());
 
-        bindParam(wrap, pythonInterpreter::set, pythonInterpreter::set);
-
-        pythonInterpreter.exec(compiledScript);
+        // 每次执行借用一个独占的解释器，编译好的PyCode在所有解释器之间共用
+        PythonInterpreterPool pool = getInterpreterPool();
+        PythonInterpreter interpreter = pool.borrow();
+        try {
+            bindParam(wrap, interpreter::set, interpreter::set);
 
-        PyObject result = pythonInterpreter.get(RESULT_KEY);
+            interpreter.exec(compiledScript);
 
-        if (result == null){
-            return null;
-        }
+            PyObject result = interpreter.get(RESULT_KEY);
 
-        pythonInterpreter.cleanup();
+            if (result == null){
+                return null;
+            }
 
-        switch (wrap.getCmp().getType()){
-            case BOOLEAN_SCRIPT:
-                return result.__tojava__(Boolean.class);
-            case FOR_SCRIPT:
-                return result.__tojava__(Integer.class);
-            default:
-                return result.__tojava__(Object.class);
+            switch (wrap.getCmp().getType()){
+                case BOOLEAN_SCRIPT:
+                    return result.__tojava__(Boolean.class);
+                case FOR_SCRIPT:
+                    return result.__tojava__(Integer.class);
+                default:
+                    return result.__tojava__(Object.class);
+            }
+        }
+        finally {
+            pool.giveBack(interpreter);
         }
     }
 
     @Override
     public void cleanCache() {
         compiledScriptMap.clear();
+        PythonInterpreterPool pool = interpreterPool;
+        interpreterPool = null;
+        if (pool != null) {
+            pool.clear();
+        }
     }
 
     @Override
@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.script.python.vo;
+
+/**
+ * Python语言特殊配置项的Key
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public interface PythonSettingMapKey {
+
+    // 解释器池的大小，默认为cpu核数的2倍，配置为0时不复用解释器
+    String INTERPRETER_POOL_SIZE = "python-interpreter-pool-size";
+}
@@ -7,6 +7,7 @@ import com.ql.util.express.ExpressLoader;
 import com.ql.util.express.ExpressRunner;
 import com.ql.util.express.InstructionSet;
 import com.yomahub.liteflow.enums.ScriptTypeEnum;
+import com.yomahub.liteflow.script.ScriptBeanManager;
 import com.yomahub.liteflow.script.ScriptExecuteWrap;
 import com.yomahub.liteflow.script.ScriptExecutor;
 import com.yomahub.liteflow.script.exception.ScriptLoadException;
@@ -73,9 +74,9 @@ public class QLExpressScriptExecutor extends ScriptExecutor {
 			}
 
 			InstructionSet instructionSet = compiledScriptMap.get(wrap.getNodeId());
-			DefaultContext<String, Object> context = new DefaultContext<>();
-
-			bindParam(wrap, context::put, context::putIfAbsent);
+			// 上下文和元数据缓存在wrap上，脚本bean作为共享的只读层挂载，每次调用只新建一个可写的空层
+			DefaultContext<String, Object> context = new LayeredContext(getBindingMap(wrap),
+					ScriptBeanManager.getReadOnlyScriptBeanMap());
 
 			return expressRunner.execute(instructionSet, context, errorList, true, false);
 		}
@@ -104,4 +105,38 @@ public class QLExpressScriptExecutor extends ScriptExecutor {
 		return expressRunner.getInstructionSetFromLocalCache(script);
 	}
 
+	/**
+	 * 找不到的变量依次去本次节点执行的绑定和共享的只读map里找，写入只作用于本次调用
+	 */
+	private static class LayeredContext extends DefaultContext<String, Object> {
+
+		private final Map<String, Object> base;
+
+		private final Map<String, Object> shared;
+
+		private LayeredContext(Map<String, Object> base, Map<String, Object> shared) {
+			this.base = base;
+			this.shared = shared;
+		}
+
+		@Override
+		public Object get(Object key) {
+			Object value = super.get(key);
+			if (value != null || super.containsKey(key)) {
+				return value;
+			}
+			value = base.get(key);
+			if (value != null || base.containsKey(key)) {
+				return value;
+			}
+			return shared.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return super.containsKey(key) || base.containsKey(key) || shared.containsKey(key);
+		}
+
+	}
+
 }
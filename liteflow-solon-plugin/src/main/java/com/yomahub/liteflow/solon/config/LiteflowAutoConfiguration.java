@@ -53,6 +53,33 @@ public class LiteflowAutoConfiguration {
 		liteflowConfig.setEnableNodeInstanceId(property.isEnableNodeInstanceId());
 		liteflowConfig.setChainCacheEnabled(property.getChainCache().isEnabled());
 		liteflowConfig.setChainCacheCapacity(property.getChainCache().getCapacity());
+		liteflowConfig.setSlotAllocatorClass(property.getSlotAllocatorClass());
+		liteflowConfig.setSlotPoolEnabled(property.getSlotPool().isEnabled());
+		liteflowConfig.setSlotPoolCapacity(property.getSlotPool().getCapacity());
+		liteflowConfig.setSlotPoolMaxRetainedSize(property.getSlotPool().getMaxRetainedSize());
+		liteflowConfig.setElCacheCapacity(property.getElCacheCapacity());
+		liteflowConfig.setWhenParallelAccess(property.getWhenParallelAccess());
+		liteflowConfig.setWhenCancelAbandoned(property.getWhenCancelAbandoned());
+		liteflowConfig.setRouteMatchLimit(property.getRouteMatchLimit());
+		liteflowConfig.setEnableNodeDataCache(property.getEnableNodeDataCache());
+		liteflowConfig.setEnableNodeDataEagerParse(property.getEnableNodeDataEagerParse());
+		liteflowConfig.setStepRecordMode(property.getStepRecordMode());
+		liteflowConfig.setStepSampleRate(property.getStepSampleRate());
+		liteflowConfig.setEnableTrace(property.getEnableTrace());
+		liteflowConfig.setTraceFilePath(property.getTraceFilePath());
+		liteflowConfig.setTraceBufferSize(property.getTraceBufferSize());
+		liteflowConfig.setTraceFileMaxSize(property.getTraceFileMaxSize());
+		liteflowConfig.setEnableStepAnalysis(property.getEnableStepAnalysis());
+		liteflowConfig.setEnableExecutorAutoTune(property.getEnableExecutorAutoTune());
+		liteflowConfig.setExecutorAutoTuneInterval(property.getExecutorAutoTuneInterval());
+		liteflowConfig.setExecutorAutoTuneWaitThreshold(property.getExecutorAutoTuneWaitThreshold());
+		liteflowConfig.setExecutorAutoTuneMaxPoolSize(property.getExecutorAutoTuneMaxPoolSize());
+		liteflowConfig.setRetryBackoffDelay(property.getRetryBackoffDelay());
+		liteflowConfig.setRetryBackoffMaxDelay(property.getRetryBackoffMaxDelay());
+		liteflowConfig.setRetryBackoffMultiplier(property.getRetryBackoffMultiplier());
+		liteflowConfig.setRetryBackoffJitter(property.getRetryBackoffJitter());
+		liteflowConfig.setRetryBudgetPercent(property.getRetryBudgetPercent());
+		liteflowConfig.setRetryBudgetCapacity(property.getRetryBudgetCapacity());
 		return liteflowConfig;
 	}
 
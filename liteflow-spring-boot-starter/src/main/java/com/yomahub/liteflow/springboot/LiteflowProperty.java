@@ -3,6 +3,7 @@ package com.yomahub.liteflow.springboot;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import com.yomahub.liteflow.enums.ParseModeEnum;
+import com.yomahub.liteflow.enums.StepRecordModeEnum;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -103,6 +104,117 @@ public class LiteflowProperty {
 	// 是否开启虚拟线程(只在jdk21环境下奏效)
 	private boolean enableVirtualThread;
 
+	// slot分配器的类全名
+	private String slotAllocatorClass;
+
+	// slot对象池配置
+	@NestedConfigurationProperty
+	private SlotPoolProperty slotPool;
+
+	public static class SlotPoolProperty {
+		// 是否启用slot对象池
+		private Boolean enabled;
+
+		// slot对象池的容量
+		private Integer capacity;
+
+		// 归还到池中的slot，内部容器超过这个大小则丢弃重建
+		private Integer maxRetainedSize;
+
+		public Boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(Boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Integer getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(Integer capacity) {
+			this.capacity = capacity;
+		}
+
+		public Integer getMaxRetainedSize() {
+			return maxRetainedSize;
+		}
+
+		public void setMaxRetainedSize(Integer maxRetainedSize) {
+			this.maxRetainedSize = maxRetainedSize;
+		}
+	}
+
+	// execute2RespWithEL中EL到chain的缓存容量，小于等于0表示不缓存
+	private Integer elCacheCapacity;
+
+	// WHEN的分支是否在各自的异步任务里执行isAccess判断
+	private Boolean whenParallelAccess;
+
+	// any、must、percentage提前完成之后，是否取消那些被放弃的WHEN分支，超时的分支总是会被取消
+	private Boolean whenCancelAbandoned;
+
+	// 决策路由最多匹配的chain数量，0表示不限制
+	private Integer routeMatchLimit;
+
+	// 是否缓存组件参数(data)和绑定参数(bind)反序列化之后的对象
+	private Boolean enableNodeDataCache;
+
+	// 是否在规则构建的时候就校验组件参数(data)和绑定参数(bind)中的json
+	private Boolean enableNodeDataEagerParse;
+
+	// 组件执行步骤的记录方式
+	private StepRecordModeEnum stepRecordMode;
+
+	// stepRecordMode为SAMPLED时，每多少个请求记录1个请求的步骤
+	private Integer stepSampleRate;
+
+	// 是否开启二进制执行轨迹记录
+	private Boolean enableTrace;
+
+	// 执行轨迹文件的路径，不配置的话放在临时目录下
+	private String traceFilePath;
+
+	// 每个线程的轨迹环形缓冲区大小，单位为字节
+	private Integer traceBufferSize;
+
+	// 执行轨迹文件的最大大小，单位为MB，超过之后滚动为.1文件
+	private Integer traceFileMaxSize;
+
+	// 是否开启步骤的关键路径以及并行效率分析
+	private Boolean enableStepAnalysis;
+
+	// 是否开启线程池大小的自动调整
+	private Boolean enableExecutorAutoTune;
+
+	// 线程池自动调整以及回收检查的间隔，单位为秒
+	private Integer executorAutoTuneInterval;
+
+	// 任务平均排队时间超过这个值的时候扩大线程池，单位为毫秒
+	private Integer executorAutoTuneWaitThreshold;
+
+	// 自动调整时线程池的最大大小
+	private Integer executorAutoTuneMaxPoolSize;
+
+	// 重试前等待的时间，单位为毫秒，0表示立即重试
+	private Integer retryBackoffDelay;
+
+	// 重试等待时间的上限，单位为毫秒
+	private Integer retryBackoffMaxDelay;
+
+	// 每次重试等待时间的增长倍数
+	private Double retryBackoffMultiplier;
+
+	// 重试等待时间的随机抖动比例，0到1之间
+	private Double retryBackoffJitter;
+
+	// 重试预算，重试次数最多为调用次数的百分比，0表示不限制
+	private Integer retryBudgetPercent;
+
+	// 重试预算中最多可以积攒的重试次数
+	private Integer retryBudgetCapacity;
+
 	// 规则缓存配置
 	@NestedConfigurationProperty
 	private ChainCacheProperty chainCache;
@@ -378,4 +490,204 @@ public class LiteflowProperty {
 	public void setEnableVirtualThread(boolean enableVirtualThread) {
 		this.enableVirtualThread = enableVirtualThread;
 	}
+
+	public String getSlotAllocatorClass() {
+		return slotAllocatorClass;
+	}
+
+	public void setSlotAllocatorClass(String slotAllocatorClass) {
+		this.slotAllocatorClass = slotAllocatorClass;
+	}
+
+	public SlotPoolProperty getSlotPool() {
+		return slotPool;
+	}
+
+	public void setSlotPool(SlotPoolProperty slotPool) {
+		this.slotPool = slotPool;
+	}
+
+	public Integer getElCacheCapacity() {
+		return elCacheCapacity;
+	}
+
+	public void setElCacheCapacity(Integer elCacheCapacity) {
+		this.elCacheCapacity = elCacheCapacity;
+	}
+
+	public Boolean getWhenParallelAccess() {
+		return whenParallelAccess;
+	}
+
+	public void setWhenParallelAccess(Boolean whenParallelAccess) {
+		this.whenParallelAccess = whenParallelAccess;
+	}
+
+	public Boolean getWhenCancelAbandoned() {
+		return whenCancelAbandoned;
+	}
+
+	public void setWhenCancelAbandoned(Boolean whenCancelAbandoned) {
+		this.whenCancelAbandoned = whenCancelAbandoned;
+	}
+
+	public Integer getRouteMatchLimit() {
+		return routeMatchLimit;
+	}
+
+	public void setRouteMatchLimit(Integer routeMatchLimit) {
+		this.routeMatchLimit = routeMatchLimit;
+	}
+
+	public Boolean getEnableNodeDataCache() {
+		return enableNodeDataCache;
+	}
+
+	public void setEnableNodeDataCache(Boolean enableNodeDataCache) {
+		this.enableNodeDataCache = enableNodeDataCache;
+	}
+
+	public Boolean getEnableNodeDataEagerParse() {
+		return enableNodeDataEagerParse;
+	}
+
+	public void setEnableNodeDataEagerParse(Boolean enableNodeDataEagerParse) {
+		this.enableNodeDataEagerParse = enableNodeDataEagerParse;
+	}
+
+	public StepRecordModeEnum getStepRecordMode() {
+		return stepRecordMode;
+	}
+
+	public void setStepRecordMode(StepRecordModeEnum stepRecordMode) {
+		this.stepRecordMode = stepRecordMode;
+	}
+
+	public Integer getStepSampleRate() {
+		return stepSampleRate;
+	}
+
+	public void setStepSampleRate(Integer stepSampleRate) {
+		this.stepSampleRate = stepSampleRate;
+	}
+
+	public Boolean getEnableTrace() {
+		return enableTrace;
+	}
+
+	public void setEnableTrace(Boolean enableTrace) {
+		this.enableTrace = enableTrace;
+	}
+
+	public String getTraceFilePath() {
+		return traceFilePath;
+	}
+
+	public void setTraceFilePath(String traceFilePath) {
+		this.traceFilePath = traceFilePath;
+	}
+
+	public Integer getTraceBufferSize() {
+		return traceBufferSize;
+	}
+
+	public void setTraceBufferSize(Integer traceBufferSize) {
+		this.traceBufferSize = traceBufferSize;
+	}
+
+	public Integer getTraceFileMaxSize() {
+		return traceFileMaxSize;
+	}
+
+	public void setTraceFileMaxSize(Integer traceFileMaxSize) {
+		this.traceFileMaxSize = traceFileMaxSize;
+	}
+
+	public Boolean getEnableStepAnalysis() {
+		return enableStepAnalysis;
+	}
+
+	public void setEnableStepAnalysis(Boolean enableStepAnalysis) {
+		this.enableStepAnalysis = enableStepAnalysis;
+	}
+
+	public Boolean getEnableExecutorAutoTune() {
+		return enableExecutorAutoTune;
+	}
+
+	public void setEnableExecutorAutoTune(Boolean enableExecutorAutoTune) {
+		this.enableExecutorAutoTune = enableExecutorAutoTune;
+	}
+
+	public Integer getExecutorAutoTuneInterval() {
+		return executorAutoTuneInterval;
+	}
+
+	public void setExecutorAutoTuneInterval(Integer executorAutoTuneInterval) {
+		this.executorAutoTuneInterval = executorAutoTuneInterval;
+	}
+
+	public Integer getExecutorAutoTuneWaitThreshold() {
+		return executorAutoTuneWaitThreshold;
+	}
+
+	public void setExecutorAutoTuneWaitThreshold(Integer executorAutoTuneWaitThreshold) {
+		this.executorAutoTuneWaitThreshold = executorAutoTuneWaitThreshold;
+	}
+
+	public Integer getExecutorAutoTuneMaxPoolSize() {
+		return executorAutoTuneMaxPoolSize;
+	}
+
+	public void setExecutorAutoTuneMaxPoolSize(Integer executorAutoTuneMaxPoolSize) {
+		this.executorAutoTuneMaxPoolSize = executorAutoTuneMaxPoolSize;
+	}
+
+	public Integer getRetryBackoffDelay() {
+		return retryBackoffDelay;
+	}
+
+	public void setRetryBackoffDelay(Integer retryBackoffDelay) {
+		this.retryBackoffDelay = retryBackoffDelay;
+	}
+
+	public Integer getRetryBackoffMaxDelay() {
+		return retryBackoffMaxDelay;
+	}
+
+	public void setRetryBackoffMaxDelay(Integer retryBackoffMaxDelay) {
+		this.retryBackoffMaxDelay = retryBackoffMaxDelay;
+	}
+
+	public Double getRetryBackoffMultiplier() {
+		return retryBackoffMultiplier;
+	}
+
+	public void setRetryBackoffMultiplier(Double retryBackoffMultiplier) {
+		this.retryBackoffMultiplier = retryBackoffMultiplier;
+	}
+
+	public Double getRetryBackoffJitter() {
+		return retryBackoffJitter;
+	}
+
+	public void setRetryBackoffJitter(Double retryBackoffJitter) {
+		this.retryBackoffJitter = retryBackoffJitter;
+	}
+
+	public Integer getRetryBudgetPercent() {
+		return retryBudgetPercent;
+	}
+
+	public void setRetryBudgetPercent(Integer retryBudgetPercent) {
+		this.retryBudgetPercent = retryBudgetPercent;
+	}
+
+	public Integer getRetryBudgetCapacity() {
+		return retryBudgetCapacity;
+	}
+
+	public void setRetryBudgetCapacity(Integer retryBudgetCapacity) {
+		this.retryBudgetCapacity = retryBudgetCapacity;
+	}
 }
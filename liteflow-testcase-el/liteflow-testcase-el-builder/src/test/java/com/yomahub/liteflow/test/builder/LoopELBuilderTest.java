@@ -305,4 +305,18 @@ public class LoopELBuilderTest extends BaseTest {
         Assertions.assertTrue(LiteFlowChainELBuilder.validate(ELBus.iteratorOpt(ELBus.node("a")).doOpt(ELBus.then(ELBus.node("b"), ELBus.node("c").data("iteratorData", name2Value))).toEL(true)));
     }
 
+    // 并行循环最大并发数测试
+    @Test
+    public void testLoop21(){
+        String expectedStr = "FOR(node(\"a\")).parallel(true).maxConcurrency(2).DO(THEN(node(\"b\"),node(\"c\")));";
+        Assertions.assertEquals(expectedStr,
+                ELBus.forOpt(ELBus.node("a")).doOpt(ELBus.then(ELBus.node("b"), ELBus.node("c"))).parallel(true).maxConcurrency(2).toEL());
+        Assertions.assertTrue(LiteFlowChainELBuilder.validate(ELBus.forOpt(ELBus.node("a")).doOpt(ELBus.then(ELBus.node("b"), ELBus.node("c"))).parallel(true).maxConcurrency(2).toEL()));
+        // 非并行循环上的maxConcurrency依然输出，EL在构建的时候报错
+        expectedStr = "ITERATOR(node(\"a\")).maxConcurrency(2).DO(node(\"b\"));";
+        Assertions.assertEquals(expectedStr,
+                ELBus.iteratorOpt(ELBus.node("a")).doOpt(ELBus.node("b")).maxConcurrency(2).toEL());
+        Assertions.assertFalse(LiteFlowChainELBuilder.validate(expectedStr));
+    }
+
 }
@@ -0,0 +1,107 @@
+package com.yomahub.liteflow.test.asyncStage;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * execute2Stage异步执行测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class AsyncStageTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("asyncStage/flow.el.xml");
+		// 全局线程池只有一个线程，同步执行嵌套的WHEN会一直等到超时，异步执行不会占用线程去等待
+		config.setGlobalThreadPoolSize(1);
+		config.setWhenMaxWaitSeconds(5);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	// 串行和并行混合
+	@Test
+	public void testThenWhen() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chain1", "arg").toCompletableFuture().get(3, TimeUnit.SECONDS);
+		Assertions.assertTrue(response.isSuccess());
+		List<String> stepList = Arrays.asList(response.getExecuteStepStr().split("==>"));
+		Assertions.assertEquals(4, stepList.size());
+		Assertions.assertEquals("a", stepList.get(0));
+		Assertions.assertEquals("d", stepList.get(3));
+		Assertions.assertEquals("arg", response.getSlot().getChainReqData("chain1"));
+	}
+
+	// 多层嵌套的WHEN以及子流程，只有一个线程也可以执行完
+	@Test
+	public void testNestedWhen() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chain2").toCompletableFuture().get(3, TimeUnit.SECONDS);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(8, response.getExecuteStepStr().split("==>").length);
+	}
+
+	// 并行分支出错，后续不执行，FINALLY依然执行
+	@Test
+	public void testError() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chain3").toCompletableFuture().get(3, TimeUnit.SECONDS);
+		Assertions.assertFalse(response.isSuccess());
+		Assertions.assertEquals(IllegalStateException.class, response.getCause().getClass());
+		Assertions.assertFalse(response.getExecuteStepStr().contains("c"));
+		DefaultContext context = response.getFirstContextBean();
+		boolean finallyExecuted = context.getData("finally");
+		Assertions.assertTrue(finallyExecuted);
+	}
+
+	// 并行循环中嵌套WHEN
+	@Test
+	public void testParallelFor() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chain4").toCompletableFuture().get(3, TimeUnit.SECONDS);
+		Assertions.assertTrue(response.isSuccess());
+		List<String> stepList = Arrays.asList(response.getExecuteStepStr().split("==>"));
+		Assertions.assertEquals(3, stepList.stream().filter("a"::equals).count());
+		Assertions.assertEquals("d", stepList.get(stepList.size() - 1));
+	}
+
+	// 没有并行的流程，在调用线程上就已经执行完了
+	@Test
+	public void testCompletedInCallerThread() {
+		CompletableFuture<LiteflowResponse> future = flowExecutor.execute2Stage("chain5").toCompletableFuture();
+		Assertions.assertTrue(future.isDone());
+		Assertions.assertEquals("a==>b", future.join().getExecuteStepStr());
+	}
+
+	// 分支超时之后，后续的条件不在超时的调度线程上执行，并且依然带着requestId
+	@Test
+	public void testContinueAfterTimeout() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chain6").toCompletableFuture().get(3, TimeUnit.SECONDS);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertTrue(response.getSlot().getTimeoutItemList().contains("slow"));
+		DefaultContext context = response.getFirstContextBean();
+		String threadName = context.getData("threadName");
+		Assertions.assertNotEquals("CompletableFutureExpandUtilsDelayScheduler", threadName);
+		Assertions.assertEquals(response.getRequestId(), context.getData("requestId"));
+	}
+
+	// chain不存在
+	@Test
+	public void testChainNotFound() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chainNotExist").toCompletableFuture().get(3, TimeUnit.SECONDS);
+		Assertions.assertFalse(response.isSuccess());
+	}
+
+}
@@ -0,0 +1,13 @@
+package com.yomahub.liteflow.test.asyncStage.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class BCmp extends NodeComponent {
+
+	@Override
+	public void process() throws Exception {
+		Thread.sleep(50);
+		System.out.println("BCmp executed!");
+	}
+
+}
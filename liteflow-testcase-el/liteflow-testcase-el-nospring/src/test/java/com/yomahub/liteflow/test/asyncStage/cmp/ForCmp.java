@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.asyncStage.cmp;
+
+import com.yomahub.liteflow.core.NodeForComponent;
+
+public class ForCmp extends NodeForComponent {
+
+	@Override
+	public int processFor() {
+		return 3;
+	}
+
+}
@@ -0,0 +1,13 @@
+package com.yomahub.liteflow.test.asyncStage.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class SlowCmp extends NodeComponent {
+
+	@Override
+	public void process() throws Exception {
+		Thread.sleep(2000);
+		System.out.println("SlowCmp executed!");
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.yomahub.liteflow.test.asyncStage.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.log.LFLoggerManager;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+public class ThreadCmp extends NodeComponent {
+
+	@Override
+	public void process() throws Exception {
+		DefaultContext context = this.getFirstContextBean();
+		context.setData("threadName", Thread.currentThread().getName());
+		context.setData("requestId", LFLoggerManager.getRequestId());
+	}
+
+}
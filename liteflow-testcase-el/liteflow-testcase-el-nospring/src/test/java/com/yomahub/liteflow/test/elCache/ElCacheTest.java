@@ -0,0 +1,114 @@
+package com.yomahub.liteflow.test.elCache;
+
+import cn.hutool.core.util.ReflectUtil;
+import com.yomahub.liteflow.core.ElChainCache;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * execute2RespWithEL的EL缓存测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ElCacheTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("elCache/flow.el.xml");
+		config.setElCacheCapacity(2);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	@BeforeEach
+	public void clearCache() {
+		flowExecutor.getElChainCache().clear();
+	}
+
+	// 第二次执行同样的EL命中缓存，并且和规则文件中相同的chain是同一个
+	@Test
+	public void testHit() {
+		ElChainCache cache = flowExecutor.getElChainCache();
+		long hitCount = cache.getHitCount();
+		long missCount = cache.getMissCount();
+
+		LiteflowResponse response1 = flowExecutor.execute2RespWithEL("THEN(a, b, c);");
+		Assertions.assertTrue(response1.isSuccess());
+		Assertions.assertEquals("chain1", response1.getChainId());
+
+		LiteflowResponse response2 = flowExecutor.execute2RespWithEL("THEN(a, b, c);");
+		Assertions.assertTrue(response2.isSuccess());
+		Assertions.assertEquals("chain1", response2.getChainId());
+
+		Assertions.assertEquals(hitCount + 1, cache.getHitCount());
+		Assertions.assertEquals(missCount + 1, cache.getMissCount());
+	}
+
+	// 超过容量之后会淘汰
+	@Test
+	public void testEviction() {
+		ElChainCache cache = flowExecutor.getElChainCache();
+		long evictionCount = cache.getEvictionCount();
+
+		Assertions.assertTrue(flowExecutor.execute2RespWithEL("THEN(a);").isSuccess());
+		Assertions.assertTrue(flowExecutor.execute2RespWithEL("THEN(b);").isSuccess());
+		Assertions.assertTrue(flowExecutor.execute2RespWithEL("THEN(c);").isSuccess());
+
+		Assertions.assertTrue(cache.size() <= 2);
+		Assertions.assertTrue(cache.getEvictionCount() > evictionCount);
+	}
+
+	// chain被移除之后，缓存失效，重新编译出新的chain
+	@Test
+	public void testChainRemoved() {
+		LiteflowResponse response1 = flowExecutor.execute2RespWithEL("THEN(c, b);");
+		Assertions.assertTrue(response1.isSuccess());
+
+		FlowBus.removeChain(response1.getChainId());
+
+		LiteflowResponse response2 = flowExecutor.execute2RespWithEL("THEN(c, b);");
+		Assertions.assertTrue(response2.isSuccess());
+		Assertions.assertNotEquals(response1.getChainId(), response2.getChainId());
+		Assertions.assertEquals("c==>b", response2.getExecuteStepStr());
+	}
+
+	// 错误的EL不会被缓存
+	@Test
+	public void testErrorEl() {
+		LiteflowResponse response = flowExecutor.execute2RespWithEL("THEN(a, x);");
+		Assertions.assertFalse(response.isSuccess());
+		Assertions.assertEquals(0, flowExecutor.getElChainCache().size());
+	}
+
+	// 容量小于等于0时不开启缓存，execute2RespWithEL依然可以正常执行
+	@Test
+	public void testDisabled() {
+		ElChainCache cache = flowExecutor.getElChainCache();
+		LiteflowConfig config = flowExecutor.getLiteflowConfig();
+		try {
+			config.setElCacheCapacity(0);
+			ReflectUtil.setFieldValue(flowExecutor, "elChainCache", null);
+			Assertions.assertNull(flowExecutor.getElChainCache());
+			LiteflowResponse response = flowExecutor.execute2RespWithEL("THEN(a, c);");
+			Assertions.assertTrue(response.isSuccess());
+			Assertions.assertEquals("a==>c", response.getExecuteStepStr());
+			Assertions.assertNull(flowExecutor.getElChainCache());
+		}
+		finally {
+			config.setElCacheCapacity(2);
+			ReflectUtil.setFieldValue(flowExecutor, "elChainCache", cache);
+		}
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.test.executorManage;
+
+import com.yomahub.liteflow.thread.ExecutorBuilder;
+
+import java.util.concurrent.ExecutorService;
+
+public class CustomChainThreadExecutor implements ExecutorBuilder {
+
+	@Override
+	public ExecutorService buildExecutor() {
+		return buildDefaultExecutor(4, 4, 64, "manage-chain-thread-");
+	}
+
+}
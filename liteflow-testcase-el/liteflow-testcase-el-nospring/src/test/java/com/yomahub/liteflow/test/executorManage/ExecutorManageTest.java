@@ -0,0 +1,153 @@
+package com.yomahub.liteflow.test.executorManage;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.enums.ExecutorLevelEnum;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.executorManage.cmp.LatchCmp;
+import com.yomahub.liteflow.thread.ExecutorHelper;
+import com.yomahub.liteflow.thread.ExecutorMetric;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 线程池指标、自动调整以及回收的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ExecutorManageTest extends BaseTest {
+
+	// chain层级线程池的提交、完成、排队指标
+	@Test
+	public void testMetrics() {
+		FlowExecutor flowExecutor = load();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+
+		ExecutorMetric metric = findMetric("chain1");
+		Assertions.assertEquals(ExecutorLevelEnum.CHAIN, metric.getLevel());
+		Assertions.assertFalse(metric.isRetired());
+		Assertions.assertEquals(2L, metric.getSubmittedCount());
+		// 分支的结果返回之后，执行分支的线程可能还没有退出任务
+		Assertions.assertEquals(2L, metric.getCompletedCount() + metric.getActiveCount());
+		Assertions.assertEquals(0L, metric.getRejectedCount());
+		Assertions.assertEquals(0, metric.getQueueSize());
+		Assertions.assertEquals(4, metric.getCorePoolSize());
+		Assertions.assertTrue(metric.getMaxWaitNanos() >= metric.getAvgWaitNanos());
+	}
+
+	// chain被移除之后，它的线程池被回收
+	@Test
+	public void testReclaimOnRemove() throws Exception {
+		FlowExecutor flowExecutor = load();
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain1", "arg").isSuccess());
+		Assertions.assertNotNull(findMetric("chain1"));
+
+		// 等待执行分支的线程退出任务，这样移除的时候就能马上回收
+		Thread.sleep(100);
+		FlowBus.removeChain("chain1");
+		Assertions.assertNull(findMetric("chain1"));
+	}
+
+	// 规则重新加载之后，老condition的线程池被回收，chain层级的线程池继续使用
+	@Test
+	public void testReclaimOnReload() throws Exception {
+		FlowExecutor flowExecutor = load();
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain1", "arg").isSuccess());
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain3", "arg").isSuccess());
+		String chainKey = findMetric("chain1").getKey();
+		ExecutorMetric conditionMetric = findMetric("chain3");
+		Assertions.assertEquals(ExecutorLevelEnum.CONDITION, conditionMetric.getLevel());
+
+		Thread.sleep(100);
+		flowExecutor.reloadRule();
+		Assertions.assertNull(findMetric("chain3"));
+		Assertions.assertEquals(chainKey, findMetric("chain1").getKey());
+
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain3", "arg").isSuccess());
+		ExecutorMetric metric = findMetric("chain3");
+		Assertions.assertNotEquals(conditionMetric.getKey(), metric.getKey());
+		Assertions.assertEquals(2L, metric.getSubmittedCount());
+	}
+
+	// 排队时间超过阈值的时候扩大核心线程数，空闲之后再缩小到初始大小
+	@Test
+	public void testAutoTune() throws Exception {
+		FlowExecutor flowExecutor = load();
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain2", "arg").isSuccess());
+		Thread.sleep(100);
+		ExecutorMetric metric = findMetric("chain2");
+		Assertions.assertEquals(1, metric.getCorePoolSize());
+		Assertions.assertTrue(metric.getMaxWaitNanos() > 0L);
+
+		ExecutorHelper.loadInstance().tuneExecutors();
+		Assertions.assertEquals(2, findMetric("chain2").getCorePoolSize());
+		Assertions.assertEquals(2, findMetric("chain2").getMaximumPoolSize());
+
+		// 没有任务的时候逐步缩小
+		ExecutorHelper.loadInstance().tuneExecutors();
+		Assertions.assertEquals(1, findMetric("chain2").getCorePoolSize());
+		Assertions.assertEquals(1, findMetric("chain2").getMaximumPoolSize());
+	}
+
+	// 用户自己构建的线程池不会被调整
+	@Test
+	public void testNotTuneUserExecutor() throws Exception {
+		FlowExecutor flowExecutor = load();
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain4", "arg").isSuccess());
+		Thread.sleep(100);
+		Assertions.assertTrue(findMetric("chain4").getMaxWaitNanos() > 0L);
+
+		ExecutorHelper.loadInstance().tuneExecutors();
+		Assertions.assertEquals(1, findMetric("chain4").getCorePoolSize());
+		Assertions.assertEquals(1, findMetric("chain4").getMaximumPoolSize());
+	}
+
+	// chain被移除的时候还在执行的请求，不会再为这个chain新建线程池
+	@Test
+	public void testNotRecreateRetiredExecutor() throws Exception {
+		FlowExecutor flowExecutor = load();
+		LatchCmp.started = new CountDownLatch(1);
+		LatchCmp.release = new CountDownLatch(1);
+		Future<LiteflowResponse> future = flowExecutor.execute2Future("chain5", "arg");
+		Assertions.assertTrue(LatchCmp.started.await(5, TimeUnit.SECONDS));
+		FlowBus.removeChain("chain5");
+		LatchCmp.release.countDown();
+
+		Assertions.assertTrue(future.get(5, TimeUnit.SECONDS).isSuccess());
+		Assertions.assertNull(findMetric("chain5"));
+	}
+
+	private ExecutorMetric findMetric(String chainId) {
+		List<ExecutorMetric> metricList = ExecutorHelper.loadInstance()
+			.getExecutorMetrics()
+			.stream()
+			.filter(metric -> chainId.equals(metric.getChainId()))
+			.collect(Collectors.toList());
+		Assertions.assertTrue(metricList.size() <= 1);
+		return metricList.isEmpty() ? null : metricList.get(0);
+	}
+
+	private FlowExecutor load() {
+		FlowBus.cleanCache();
+		ExecutorHelper.loadInstance().clearExecutorServiceMap();
+		LiteflowConfigGetter.clean();
+		FlowExecutorHolder.clean();
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("executorManage/flow.el.xml");
+		config.setExecutorAutoTuneWaitThreshold(5);
+		return FlowExecutorHolder.loadInstance(config);
+	}
+
+}
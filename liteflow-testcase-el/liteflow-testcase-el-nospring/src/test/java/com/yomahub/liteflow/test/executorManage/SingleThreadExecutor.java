@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.test.executorManage;
+
+import com.yomahub.liteflow.thread.ExecutorBuilder;
+
+import java.util.concurrent.ExecutorService;
+
+public class SingleThreadExecutor implements ExecutorBuilder {
+
+	@Override
+	public ExecutorService buildExecutor() {
+		return buildDefaultExecutor(1, 1, 64, "manage-single-thread-");
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.yomahub.liteflow.test.executorManage.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LatchCmp extends NodeComponent {
+
+	public static volatile CountDownLatch started = new CountDownLatch(1);
+
+	public static volatile CountDownLatch release = new CountDownLatch(1);
+
+	@Override
+	public void process() throws Exception {
+		started.countDown();
+		release.await(5, TimeUnit.SECONDS);
+	}
+
+}
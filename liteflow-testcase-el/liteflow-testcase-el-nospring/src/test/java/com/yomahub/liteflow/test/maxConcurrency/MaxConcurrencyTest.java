@@ -0,0 +1,131 @@
+package com.yomahub.liteflow.test.maxConcurrency;
+
+import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.exception.WhenCancelledException;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.flow.element.condition.ForCondition;
+import com.yomahub.liteflow.flow.element.condition.LoopCondition;
+import com.yomahub.liteflow.flow.parallel.LoopFutureObj;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.maxConcurrency.cmp.ECmp;
+import com.yomahub.liteflow.test.maxConcurrency.cmp.WCmp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 有界并发的并行循环测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class MaxConcurrencyTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("maxConcurrency/flow.el.xml");
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	@BeforeEach
+	public void reset() {
+		WCmp.running.set(0);
+		WCmp.maxRunning.set(0);
+		WCmp.executed.clear();
+		ECmp.started.set(0);
+		ECmp.interrupted = false;
+	}
+
+	// 同一时间执行的子项不会超过maxConcurrency，并且所有子项都会执行
+	@Test
+	public void testFor() {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(20, WCmp.executed.size());
+		Assertions.assertTrue(WCmp.maxRunning.get() <= 2);
+	}
+
+	// 迭代循环按需取值
+	@Test
+	public void testIterator() {
+		List<String> list = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			list.add("item" + i);
+		}
+		LiteflowResponse response = flowExecutor.execute2Resp("chain2", list);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(10, WCmp.executed.size());
+		Assertions.assertTrue(WCmp.executed.containsAll(list));
+		Assertions.assertTrue(WCmp.maxRunning.get() <= 3);
+	}
+
+	// break之后不再提交新的子项
+	@Test
+	public void testBreak() {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain3");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(5, WCmp.executed.size());
+		Assertions.assertTrue(WCmp.maxRunning.get() <= 2);
+	}
+
+	// 有子项失败的时候，循环直接失败，正在执行的子项会被取消，剩下的子项不再提交
+	@Test
+	public void testFailFast() throws Exception {
+		long start = System.currentTimeMillis();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain4");
+		long cost = System.currentTimeMillis() - start;
+		Assertions.assertFalse(response.isSuccess());
+		Assertions.assertEquals("loop item 1 failed", response.getCause().getMessage());
+		Assertions.assertTrue(cost < 1500);
+		Assertions.assertEquals(2, ECmp.started.get());
+		// 第0个子项是在被中断之后结束的
+		for (int i = 0; i < 50 && !ECmp.interrupted; i++) {
+			Thread.sleep(20);
+		}
+		Assertions.assertTrue(ECmp.interrupted);
+	}
+
+	// 异步执行的时候同样受maxConcurrency的限制
+	@Test
+	public void testAsync() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chain5")
+			.toCompletableFuture()
+			.get(5, TimeUnit.SECONDS);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(10, WCmp.executed.size());
+		Assertions.assertTrue(WCmp.maxRunning.get() <= 3);
+	}
+
+	// maxConcurrency只能用在并行循环上，在规则构建的时候就会报错
+	@Test
+	public void testNotParallel() {
+		Assertions.assertTrue(LiteFlowChainELBuilder.validate("FOR(2).parallel(true).maxConcurrency(2).DO(w);"));
+		Assertions.assertFalse(LiteFlowChainELBuilder.validate("FOR(2).maxConcurrency(2).DO(w);"));
+		Assertions.assertFalse(LiteFlowChainELBuilder.validate("FOR(2).parallel(true).maxConcurrency(2).parallel(false).DO(w);"));
+	}
+
+	// 还没开始就被取消的子项，以WhenCancelledException失败
+	@Test
+	public void testCancelledBeforeStart() {
+		LoopCondition.LoopParallelSupplier supplier = new ForCondition().new LoopParallelSupplier(FlowBus.getNode("w"),
+				"chain1", 0, 0);
+		supplier.cancel();
+		LoopFutureObj loopFutureObj = supplier.get();
+		Assertions.assertFalse(loopFutureObj.isSuccess());
+		Assertions.assertInstanceOf(WhenCancelledException.class, loopFutureObj.getEx());
+		Assertions.assertTrue(WCmp.executed.isEmpty());
+	}
+
+}
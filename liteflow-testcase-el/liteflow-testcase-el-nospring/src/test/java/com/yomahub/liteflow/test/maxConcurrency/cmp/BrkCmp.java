@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.maxConcurrency.cmp;
+
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+
+public class BrkCmp extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() throws Exception {
+		return this.getLoopIndex() >= 4;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.yomahub.liteflow.test.maxConcurrency.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ECmp extends NodeComponent {
+
+	public static final AtomicInteger started = new AtomicInteger();
+
+	public static volatile boolean interrupted;
+
+	@Override
+	public void process() throws Exception {
+		started.incrementAndGet();
+		if (this.getLoopIndex() == 1) {
+			Thread.sleep(100);
+			throw new RuntimeException("loop item 1 failed");
+		}
+		try {
+			Thread.sleep(2000);
+		}
+		catch (InterruptedException e) {
+			interrupted = true;
+			throw e;
+		}
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.yomahub.liteflow.test.maxConcurrency.cmp;
+
+import com.yomahub.liteflow.core.NodeIteratorComponent;
+
+import java.util.Iterator;
+import java.util.List;
+
+public class ITCmp extends NodeIteratorComponent {
+
+	@Override
+	public Iterator<?> processIterator() throws Exception {
+		List<String> list = this.getRequestData();
+		return list.iterator();
+	}
+
+}
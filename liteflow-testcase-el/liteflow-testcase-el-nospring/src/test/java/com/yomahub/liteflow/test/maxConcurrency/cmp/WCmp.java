@@ -0,0 +1,31 @@
+package com.yomahub.liteflow.test.maxConcurrency.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WCmp extends NodeComponent {
+
+	public static final AtomicInteger running = new AtomicInteger();
+
+	public static final AtomicInteger maxRunning = new AtomicInteger();
+
+	public static final Set<Object> executed = ConcurrentHashMap.newKeySet();
+
+	@Override
+	public void process() throws Exception {
+		int current = running.incrementAndGet();
+		maxRunning.accumulateAndGet(current, Math::max);
+		try {
+			Thread.sleep(30);
+			Object loopObj = this.getCurrLoopObj();
+			executed.add(loopObj == null ? this.getLoopIndex() : loopObj);
+		}
+		finally {
+			running.decrementAndGet();
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.yomahub.liteflow.test.nodeDataCache;
+
+import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.exception.ELParseException;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.flow.element.Node;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.nodeDataCache.cmp.Param;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * 组件参数反序列化缓存的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class NodeDataCacheTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("nodeDataCache/flow.el.xml");
+		config.setEnableNodeDataCache(true);
+		config.setEnableNodeDataEagerParse(true);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	// 多次执行拿到的是同一个反序列化之后的对象
+	@Test
+	public void testCache() {
+		DefaultContext context1 = execute("chain1");
+		DefaultContext context2 = execute("chain1");
+
+		Param cmpData = context1.getData("cmpData");
+		Assertions.assertEquals("jack", cmpData.getName());
+		Assertions.assertSame(cmpData, context2.getData("cmpData"));
+
+		Param bindData = context1.getData("bindData");
+		Assertions.assertEquals(30, bindData.getAge());
+		Assertions.assertSame(bindData, context2.getData("bindData"));
+	}
+
+	// 缓存的list不能被修改
+	@Test
+	public void testCacheList() {
+		DefaultContext context = execute("chain2");
+		List<Param> list = context.getData("cmpDataList");
+		Assertions.assertEquals(2, list.size());
+		Assertions.assertSame(list, execute("chain2").getData("cmpDataList"));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> list.add(new Param()));
+	}
+
+	// 重新加载chain之后缓存失效
+	@Test
+	public void testReloadChain() {
+		Param before = execute("chain3").getData("cmpData");
+		Assertions.assertSame(before, execute("chain3").getData("cmpData"));
+		FlowBus.reloadChain("chain3", "THEN(a.data('{\"name\":\"peter\",\"age\":40}'));");
+		Param after = execute("chain3").getData("cmpData");
+		Assertions.assertNotSame(before, after);
+		Assertions.assertEquals("peter", after.getName());
+	}
+
+	// 开启eager parse之后，data中的json格式不正确在构建的时候就会报错，普通字符串不受影响
+	@Test
+	public void testEagerParse() {
+		Assertions.assertThrows(ELParseException.class, () -> LiteFlowChainELBuilder.createChain()
+			.setChainId("chain4")
+			.setEL("THEN(a.data('{\"name\":\"jack\",'));")
+			.build());
+		LiteFlowChainELBuilder.createChain().setChainId("chain5").setEL("THEN(a.data('plain text'));").build();
+		Assertions.assertTrue(FlowBus.containChain("chain5"));
+	}
+
+	// 反序列化的过程中data被修改了，旧的对象即使写进了缓存，之后也不会再被拿到
+	@Test
+	public void testDataChangedWhileParsing() {
+		Node node = new Node();
+		node.setCmpData("{\"name\":\"jack\"}");
+		Param oldParam = new Param();
+		Param newParam = new Param();
+		node.getParsedData(null, node.getCmpData(), Param.class, false, () -> {
+			node.setCmpData("{\"name\":\"peter\"}");
+			return oldParam;
+		});
+		Assertions.assertSame(newParam, node.getParsedData(null, node.getCmpData(), Param.class, false, () -> newParam));
+		Assertions.assertSame(newParam, node.getParsedData(null, node.getCmpData(), Param.class, false, () -> null));
+	}
+
+	private DefaultContext execute(String chainId) {
+		LiteflowResponse response = flowExecutor.execute2Resp(chainId);
+		Assertions.assertTrue(response.isSuccess());
+		return response.getFirstContextBean();
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.yomahub.liteflow.test.nodeDataCache.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+public class ACmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		DefaultContext context = this.getFirstContextBean();
+		context.setData("cmpData", this.getCmpData(Param.class));
+		Param bindData = this.getBindData("k", Param.class);
+		if (bindData != null) {
+			context.setData("bindData", bindData);
+		}
+	}
+
+}
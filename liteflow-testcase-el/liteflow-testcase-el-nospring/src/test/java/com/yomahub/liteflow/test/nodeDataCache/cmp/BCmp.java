@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.test.nodeDataCache.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+public class BCmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		DefaultContext context = this.getFirstContextBean();
+		context.setData("cmpDataList", this.getCmpDataList(Param.class));
+	}
+
+}
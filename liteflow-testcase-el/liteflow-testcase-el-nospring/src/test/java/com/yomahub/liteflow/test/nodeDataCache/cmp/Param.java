@@ -0,0 +1,25 @@
+package com.yomahub.liteflow.test.nodeDataCache.cmp;
+
+public class Param {
+
+	private String name;
+
+	private Integer age;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Integer getAge() {
+		return age;
+	}
+
+	public void setAge(Integer age) {
+		this.age = age;
+	}
+
+}
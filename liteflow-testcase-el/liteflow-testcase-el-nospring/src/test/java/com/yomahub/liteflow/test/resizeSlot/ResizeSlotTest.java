@@ -1,6 +1,5 @@
 package com.yomahub.liteflow.test.resizeSlot;
 
-import cn.hutool.core.util.ReflectUtil;
 import com.yomahub.liteflow.core.FlowExecutor;
 import com.yomahub.liteflow.core.FlowExecutorHolder;
 import com.yomahub.liteflow.flow.LiteflowResponse;
@@ -11,10 +10,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -52,15 +49,10 @@ public class ResizeSlotTest extends BaseTest {
 				Assertions.assertTrue(future.get().isSuccess());
 			}
 
-			// 取到static的对象QUEUE
-			Field field = ReflectUtil.getField(DataBus.class, "QUEUE");
-			ConcurrentLinkedQueue<Integer> queue = (ConcurrentLinkedQueue<Integer>) ReflectUtil
-				.getStaticFieldValue(field);
-
-			// 因为初始slotSize是4，按照0.75的扩容比，要满足100个线程，应该扩容5~6次，5次=65，6次=114
-			// 为什么不是直接114呢？
-			// 因为在单测中根据机器的性能，在多线程情况下，有些机器跑的慢一点，也就是说65个就足够了。有些机器跑的快一点，是能真正扩容到114个的
-			Assertions.assertTrue(queue.size() > 4);
+			// 初始slotSize是4，默认的分配器第一段最小为16，之后每次扩容追加一段，段的长度翻倍，所以容量只能是16、48、112、240...
+			// 根据机器的性能，在多线程情况下不一定会真正扩容，但是100个并发请求最多只需要扩容到112，不应该多追加段
+			int capacity = DataBus.getSlotAllocator().capacity();
+			Assertions.assertTrue(capacity == 16 || capacity == 48 || capacity == 112, "unexpected capacity: " + capacity);
 		}
 		catch (Exception e) {
 			e.printStackTrace();
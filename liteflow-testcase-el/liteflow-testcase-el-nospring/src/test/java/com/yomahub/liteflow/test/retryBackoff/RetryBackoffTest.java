@@ -0,0 +1,190 @@
+package com.yomahub.liteflow.test.retryBackoff;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.retry.RetryBudget;
+import com.yomahub.liteflow.retry.RetryHelper;
+import com.yomahub.liteflow.retry.RetryMetric;
+import com.yomahub.liteflow.retry.RetryPolicy;
+import com.yomahub.liteflow.retry.RetryStatistics;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.retryBackoff.cmp.CCmp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重试的退避等待、重试预算以及统计的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class RetryBackoffTest extends BaseTest {
+
+	// EL中设置的退避等待，每次重试的等待时间翻倍
+	@Test
+	public void testBackoffEL() {
+		FlowExecutor flowExecutor = load();
+		long start = System.nanoTime();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		long elapsed = System.nanoTime() - start;
+		Assertions.assertFalse(response.isSuccess());
+		// 50 + 100 + 200
+		Assertions.assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(350));
+
+		RetryMetric metric = RetryStatistics.getRetryMetrics().get("chain1:b");
+		Assertions.assertEquals(1L, metric.getCallCount());
+		Assertions.assertEquals(3L, metric.getRetryCount());
+		Assertions.assertEquals(1L, metric.getExhaustedCount());
+		Assertions.assertEquals(0L, metric.getRecoveredCount());
+	}
+
+	// 重试预算用完之后不再重试
+	@Test
+	public void testRetryBudget() {
+		FlowExecutor flowExecutor = load();
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertFalse(flowExecutor.execute2Resp("chain2", "arg").isSuccess());
+		}
+
+		// 预算一开始可以重试10次，前两次调用各重试5次，第三次调用没有预算了
+		RetryMetric metric = RetryStatistics.getRetryMetrics().get("chain2:b");
+		Assertions.assertEquals(3L, metric.getCallCount());
+		Assertions.assertEquals(10L, metric.getRetryCount());
+		Assertions.assertEquals(1L, metric.getDeniedCount());
+		Assertions.assertEquals(2L, metric.getExhaustedCount());
+	}
+
+	// @LiteflowRetry上设置的退避等待
+	@Test
+	public void testBackoffAnnotation() {
+		FlowExecutor flowExecutor = load();
+		CCmp.COUNT.set(0);
+		long start = System.nanoTime();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain3", "arg");
+		long elapsed = System.nanoTime() - start;
+		Assertions.assertTrue(response.isSuccess());
+		// 50 + 100
+		Assertions.assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(150));
+
+		RetryMetric metric = RetryStatistics.getRetryMetrics().get("c");
+		Assertions.assertEquals(2L, metric.getRetryCount());
+		Assertions.assertEquals(1L, metric.getRecoveredCount());
+		// 没有配置重试的组件不统计
+		Assertions.assertNull(RetryStatistics.getRetryMetrics().get("a"));
+	}
+
+	// 异步执行的时候退避等待交给定时器调度，调用线程不会被占用
+	@Test
+	public void testAsyncBackoffEL() throws Exception {
+		FlowExecutor flowExecutor = load();
+		long start = System.nanoTime();
+		CompletableFuture<LiteflowResponse> future = flowExecutor.execute2Stage("chain1", "arg").toCompletableFuture();
+		Assertions.assertFalse(future.isDone());
+		LiteflowResponse response = future.get(3, TimeUnit.SECONDS);
+		long elapsed = System.nanoTime() - start;
+		Assertions.assertFalse(response.isSuccess());
+		Assertions.assertEquals("BCmp always fails", response.getCause().getMessage());
+		// 50 + 100 + 200
+		Assertions.assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(350));
+
+		RetryMetric metric = RetryStatistics.getRetryMetrics().get("chain1:b");
+		Assertions.assertEquals(1L, metric.getCallCount());
+		Assertions.assertEquals(3L, metric.getRetryCount());
+		Assertions.assertEquals(1L, metric.getExhaustedCount());
+		Assertions.assertEquals(0L, metric.getRecoveredCount());
+	}
+
+	// 异步执行的时候，@LiteflowRetry上设置的退避等待同样交给定时器调度
+	@Test
+	public void testAsyncBackoffAnnotation() throws Exception {
+		FlowExecutor flowExecutor = load();
+		CCmp.COUNT.set(0);
+		long start = System.nanoTime();
+		CompletableFuture<LiteflowResponse> future = flowExecutor.execute2Stage("chain3", "arg").toCompletableFuture();
+		Assertions.assertFalse(future.isDone());
+		LiteflowResponse response = future.get(3, TimeUnit.SECONDS);
+		long elapsed = System.nanoTime() - start;
+		Assertions.assertTrue(response.isSuccess());
+		// 和同步执行一样，每次重试都会记录一个步骤
+		Assertions.assertEquals("a==>c==>c==>c", response.getExecuteStepStr());
+		// 50 + 100
+		Assertions.assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(150));
+
+		RetryMetric metric = RetryStatistics.getRetryMetrics().get("c");
+		Assertions.assertEquals(1L, metric.getCallCount());
+		Assertions.assertEquals(2L, metric.getRetryCount());
+		Assertions.assertEquals(1L, metric.getRecoveredCount());
+		Assertions.assertEquals(0L, metric.getExhaustedCount());
+	}
+
+	// 异步执行的时候重试预算用完同样不再重试
+	@Test
+	public void testAsyncRetryBudget() throws Exception {
+		FlowExecutor flowExecutor = load();
+		for (int i = 0; i < 3; i++) {
+			LiteflowResponse response = flowExecutor.execute2Stage("chain2", "arg").toCompletableFuture().get(3, TimeUnit.SECONDS);
+			Assertions.assertFalse(response.isSuccess());
+		}
+
+		RetryMetric metric = RetryStatistics.getRetryMetrics().get("chain2:b");
+		Assertions.assertEquals(3L, metric.getCallCount());
+		Assertions.assertEquals(10L, metric.getRetryCount());
+		Assertions.assertEquals(1L, metric.getDeniedCount());
+		Assertions.assertEquals(2L, metric.getExhaustedCount());
+	}
+
+	// 抖动之后的等待时间在[等待时间 * (1 - jitter), 等待时间]之间，并且不超过上限
+	@Test
+	public void testJitter() {
+		RetryPolicy policy = new RetryPolicy(100, 300, 2, 0.5, 0, 10);
+		for (int i = 0; i < 100; i++) {
+			long first = policy.getBackoffNanos(1);
+			Assertions.assertTrue(first >= TimeUnit.MILLISECONDS.toNanos(50) && first <= TimeUnit.MILLISECONDS.toNanos(100));
+			long third = policy.getBackoffNanos(3);
+			Assertions.assertTrue(third >= TimeUnit.MILLISECONDS.toNanos(150) && third <= TimeUnit.MILLISECONDS.toNanos(300));
+		}
+		Assertions.assertNull(policy.newBudget());
+	}
+
+	// 退避等待被取消的时候不消耗重试预算
+	@Test
+	public void testCancelledWaitKeepsBudget() {
+		RetryStatistics.reset();
+		RetryBudget budget = new RetryBudget(10, 2);
+		RetryPolicy policy = new RetryPolicy(1000, 1000, 2, 0, 0, 10);
+		Thread.currentThread().interrupt();
+		try {
+			Assertions.assertFalse(RetryHelper.awaitRetry("cancelled", policy, budget, 1));
+		}
+		finally {
+			Thread.interrupted();
+		}
+		Assertions.assertEquals(2d, budget.getAvailableRetries());
+
+		// 预算用完之后不再等待
+		Assertions.assertTrue(budget.tryAcquire());
+		Assertions.assertTrue(budget.tryAcquire());
+		long start = System.nanoTime();
+		Assertions.assertFalse(RetryHelper.awaitRetry("cancelled", policy, budget, 1));
+		Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+		Assertions.assertEquals(1L, RetryStatistics.getRetryMetrics().get("cancelled").getDeniedCount());
+	}
+
+	private FlowExecutor load() {
+		FlowBus.cleanCache();
+		LiteflowConfigGetter.clean();
+		FlowExecutorHolder.clean();
+		RetryStatistics.reset();
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("retryBackoff/flow.el.xml");
+		return FlowExecutorHolder.loadInstance(config);
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.retryBackoff.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class BCmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		throw new RuntimeException("BCmp always fails");
+	}
+
+}
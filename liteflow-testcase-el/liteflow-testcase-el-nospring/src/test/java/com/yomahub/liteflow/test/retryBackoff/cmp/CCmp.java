@@ -0,0 +1,21 @@
+package com.yomahub.liteflow.test.retryBackoff.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowRetry;
+import com.yomahub.liteflow.core.NodeComponent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@LiteflowRetry(retry = 2, backoffDelay = 50, backoffJitter = 0)
+public class CCmp extends NodeComponent {
+
+	public static final AtomicInteger COUNT = new AtomicInteger();
+
+	@Override
+	public void process() {
+		// 前两次失败，第三次成功
+		if (COUNT.incrementAndGet() <= 2) {
+			throw new RuntimeException("CCmp fails");
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.yomahub.liteflow.test.slotAllocator;
+
+import cn.hutool.core.collection.ConcurrentHashSet;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.slot.ConcurrentMapSlotAllocator;
+import com.yomahub.liteflow.slot.DataBus;
+import com.yomahub.liteflow.slot.DefaultSlotAllocator;
+import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.slot.SlotAllocator;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * slot分配器测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class SlotAllocatorTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("slotAllocator/flow.el.xml");
+		config.setSlotSize(4);
+		config.setSlotAllocatorClass(ConcurrentMapSlotAllocator.class.getName());
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	// 通过配置切换成老的分配器
+	@Test
+	public void testConfigAllocator() throws Exception {
+		Assertions.assertInstanceOf(ConcurrentMapSlotAllocator.class, DataBus.getSlotAllocator());
+		ExecutorService pool = Executors.newFixedThreadPool(20);
+		List<Future<LiteflowResponse>> futureList = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			futureList.add(pool.submit(() -> flowExecutor.execute2Resp("chain1", "arg")));
+		}
+		for (Future<LiteflowResponse> future : futureList) {
+			Assertions.assertTrue(future.get().isSuccess());
+		}
+		pool.shutdown();
+		Assertions.assertEquals(0, DataBus.OCCUPY_COUNT.get());
+	}
+
+	// 并发分配和回收，分配出去的下标不能重复，并且能够扩容
+	@Test
+	public void testDefaultAllocatorConcurrent() throws Exception {
+		SlotAllocator allocator = new DefaultSlotAllocator();
+		allocator.init(4);
+		Set<Integer> occupied = new ConcurrentHashSet<>();
+		Set<Integer> duplicated = new ConcurrentHashSet<>();
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		for (int i = 0; i < 64; i++) {
+			pool.execute(() -> {
+				List<Integer> holding = new ArrayList<>();
+				for (int j = 0; j < 2000; j++) {
+					Slot slot = new Slot();
+					int slotIndex = allocator.offer(slot);
+					if (!occupied.add(slotIndex) || allocator.get(slotIndex) != slot) {
+						duplicated.add(slotIndex);
+					}
+					holding.add(slotIndex);
+					// 每个线程同时持有一部分slot，迫使分配器扩容
+					if (holding.size() > 8) {
+						int releaseIndex = holding.remove(0);
+						occupied.remove(releaseIndex);
+						Assertions.assertNotNull(allocator.release(releaseIndex));
+					}
+				}
+				for (Integer releaseIndex : holding) {
+					occupied.remove(releaseIndex);
+					allocator.release(releaseIndex);
+				}
+			});
+		}
+		pool.shutdown();
+		Assertions.assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+		Assertions.assertEquals(0, duplicated.size());
+		Assertions.assertEquals(0, occupied.size());
+	}
+
+	// 占满之后继续分配，分配器会扩容
+	@Test
+	public void testDefaultAllocatorGrow() {
+		SlotAllocator allocator = new DefaultSlotAllocator();
+		allocator.init(16);
+		Set<Integer> indexSet = new ConcurrentHashSet<>();
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertTrue(indexSet.add(allocator.offer(new Slot())));
+		}
+		Assertions.assertTrue(allocator.capacity() >= 100);
+	}
+
+	// 重复回收同一个下标，只有第一次有效
+	@Test
+	public void testDefaultAllocatorReleaseTwice() {
+		SlotAllocator allocator = new DefaultSlotAllocator();
+		allocator.init(16);
+		int slotIndex = allocator.offer(new Slot());
+		Assertions.assertNotNull(allocator.release(slotIndex));
+		Assertions.assertNull(allocator.release(slotIndex));
+		Assertions.assertNull(allocator.get(slotIndex));
+		Assertions.assertNull(allocator.get(Integer.MAX_VALUE - 1));
+	}
+
+	// 刚回收的下标要等到其他空闲下标都分配过之后才会被重新分配
+	@Test
+	public void testDefaultAllocatorDelayReuse() {
+		SlotAllocator allocator = new DefaultSlotAllocator();
+		allocator.init(16);
+		int capacity = allocator.capacity();
+		int slotIndex = allocator.offer(new Slot());
+		allocator.release(slotIndex);
+		Set<Integer> indexSet = new ConcurrentHashSet<>();
+		for (int i = 0; i < capacity - 1; i++) {
+			int newIndex = allocator.offer(new Slot());
+			Assertions.assertNotEquals(slotIndex, newIndex);
+			Assertions.assertTrue(indexSet.add(newIndex));
+		}
+		// 空闲的一组已经取完，这时候才轮到回收的下标，并且不需要扩容
+		Assertions.assertEquals(slotIndex, allocator.offer(new Slot()));
+		Assertions.assertEquals(capacity, allocator.capacity());
+	}
+
+	// 回收的下标按照回收的先后顺序被重新分配，最近回收的下标最后才会被分配
+	@Test
+	public void testDefaultAllocatorReuseInReleaseOrder() {
+		SlotAllocator allocator = new DefaultSlotAllocator();
+		allocator.init(16);
+		int capacity = allocator.capacity();
+		List<Integer> indexList = new ArrayList<>();
+		for (int i = 0; i < capacity; i++) {
+			indexList.add(allocator.offer(new Slot()));
+		}
+		for (Integer slotIndex : indexList) {
+			allocator.release(slotIndex);
+		}
+		for (Integer slotIndex : indexList) {
+			Assertions.assertEquals(slotIndex, allocator.offer(new Slot()));
+		}
+		Assertions.assertEquals(capacity, allocator.capacity());
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.yomahub.liteflow.test.slotPool;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * slot对象池测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class SlotPoolTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("slotPool/flow.el.xml");
+		config.setSlotPoolEnabled(true);
+		config.setSlotPoolCapacity(4);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	// release之后slot会被下一次执行复用，并且被重置干净
+	@Test
+	public void testReuse() {
+		LiteflowResponse response1 = flowExecutor.execute2Resp("chain1", "arg1");
+		Assertions.assertTrue(response1.isSuccess());
+		Slot slot = response1.getSlot();
+		response1.release();
+
+		LiteflowResponse response2 = flowExecutor.execute2Resp("chain1", "arg2");
+		Assertions.assertTrue(response2.isSuccess());
+		Assertions.assertSame(slot, response2.getSlot());
+		Assertions.assertEquals("arg2", response2.getSlot().getResponseData());
+		Assertions.assertEquals("a==>b", response2.getExecuteStepStr());
+		Assertions.assertEquals(1, response2.getSlot().getContextBeanList().size());
+		response2.release();
+	}
+
+	// 没有release的slot不会被复用
+	@Test
+	public void testNotReleased() {
+		LiteflowResponse response1 = flowExecutor.execute2Resp("chain1", "arg1");
+		LiteflowResponse response2 = flowExecutor.execute2Resp("chain1", "arg2");
+		Assertions.assertNotSame(response1.getSlot(), response2.getSlot());
+		Assertions.assertEquals("arg1", response1.getSlot().getResponseData());
+	}
+
+	// copy出来的response在release之后依然可以使用
+	@Test
+	public void testCopyOut() {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg1");
+		LiteflowResponse copy = response.copy();
+		response.release();
+		flowExecutor.execute2Resp("chain1", "arg2").release();
+
+		Assertions.assertTrue(copy.isSuccess());
+		Assertions.assertEquals("arg1", copy.getSlot().getResponseData());
+		Assertions.assertEquals("a==>b", copy.getExecuteStepStr());
+		DefaultContext context = copy.getFirstContextBean();
+		Assertions.assertEquals("arg1", context.getData("a"));
+		Assertions.assertNotNull(copy.getRequestId());
+	}
+
+}
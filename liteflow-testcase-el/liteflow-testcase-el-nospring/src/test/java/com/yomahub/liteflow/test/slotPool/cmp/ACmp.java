@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.test.slotPool.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+public class ACmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		DefaultContext context = this.getFirstContextBean();
+		context.setData("a", this.getRequestData());
+	}
+
+}
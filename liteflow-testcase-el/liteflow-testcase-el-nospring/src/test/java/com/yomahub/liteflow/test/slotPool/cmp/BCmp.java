@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.slotPool.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class BCmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		this.getSlot().setResponseData(this.getRequestData());
+	}
+
+}
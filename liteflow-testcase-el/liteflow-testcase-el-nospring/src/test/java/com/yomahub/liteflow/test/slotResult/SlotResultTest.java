@@ -0,0 +1,120 @@
+package com.yomahub.liteflow.test.slotResult;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.slot.Slot;
+import com.yomahub.liteflow.slot.SlotKeyRegistry;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.slotResult.cmp.SCmp;
+import com.yomahub.liteflow.test.slotResult.cmp.XCmp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * slot中条件结果存取的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class SlotResultTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("slotResult/flow.el.xml");
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	// 用字符串key依然可以取到组件写入的结果
+	@Test
+	public void testStringKeyCompatible() {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("x==>a==>s==>b", response.getExecuteStepStr());
+		Slot slot = response.getSlot();
+		Assertions.assertTrue(slot.getIfResult(XCmp.class.getName()));
+		Assertions.assertEquals("b", slot.getSwitchResult(SCmp.class.getName()));
+		// 相同的key，不同类型的结果互不影响
+		Assertions.assertNull(slot.getSwitchResult(XCmp.class.getName()));
+		Assertions.assertEquals(SlotKeyRegistry.keyOf(XCmp.class.getName()), SlotKeyRegistry.keyOf(XCmp.class.getName()));
+	}
+
+	// 并行分支中的与或非以及选择条件
+	@Test
+	public void testConditionInWhen() {
+		for (int i = 0; i < 10; i++) {
+			LiteflowResponse response = flowExecutor.execute2Resp("chain2");
+			Assertions.assertTrue(response.isSuccess());
+			List<String> stepList = Arrays.asList(response.getExecuteStepStr().split("==>"));
+			Assertions.assertEquals(1, stepList.stream().filter("a"::equals).count());
+			Assertions.assertEquals(2, stepList.stream().filter("b"::equals).count());
+		}
+	}
+
+	// 结果超过初始容量之后扩容，依然可以正确的取到
+	@Test
+	public void testManyResults() {
+		Slot slot = new Slot();
+		for (int i = 0; i < 100; i++) {
+			slot.setForResult(i, i);
+		}
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertEquals(i, slot.getForResult(i));
+			Assertions.assertNull(slot.getIfResult(i));
+		}
+	}
+
+	// 多个线程同时写入各自的结果，互相不影响
+	@Test
+	public void testResultsFromManyThreads() throws Exception {
+		Slot slot = new Slot();
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		List<Future<Boolean>> futureList = new ArrayList<>();
+		for (int t = 0; t < 32; t++) {
+			futureList.add(pool.submit(() -> {
+				long threadId = Thread.currentThread().getId();
+				for (int i = 0; i < 50; i++) {
+					slot.setForResult(i, (int) threadId + i);
+				}
+				for (int i = 0; i < 50; i++) {
+					if (slot.getForResult(i) != (int) threadId + i) {
+						return false;
+					}
+				}
+				return true;
+			}));
+		}
+		for (Future<Boolean> future : futureList) {
+			Assertions.assertTrue(future.get());
+		}
+		pool.shutdown();
+	}
+
+	// 条件对象被回收之后，它的key会被重新分配
+	@Test
+	public void testConditionKeyReuse() throws Exception {
+		int key = SlotKeyRegistry.nextKey(new Object());
+		Set<Integer> keySet = new HashSet<>();
+		for (int i = 0; i < 50 && !keySet.contains(key); i++) {
+			System.gc();
+			Thread.sleep(20);
+			keySet.add(SlotKeyRegistry.nextKey(new Object()));
+		}
+		Assertions.assertTrue(keySet.contains(key));
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.slotResult.cmp;
+
+import com.yomahub.liteflow.core.NodeSwitchComponent;
+
+public class SCmp extends NodeSwitchComponent {
+
+	@Override
+	public String processSwitch() {
+		return "b";
+	}
+
+}
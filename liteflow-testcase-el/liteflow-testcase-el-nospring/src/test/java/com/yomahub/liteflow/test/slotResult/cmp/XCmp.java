@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.slotResult.cmp;
+
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+
+public class XCmp extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() {
+		return true;
+	}
+
+}
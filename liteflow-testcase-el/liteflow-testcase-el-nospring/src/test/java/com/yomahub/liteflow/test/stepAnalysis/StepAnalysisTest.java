@@ -0,0 +1,82 @@
+package com.yomahub.liteflow.test.stepAnalysis;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.flow.entity.BranchAnalysis;
+import com.yomahub.liteflow.flow.entity.StepAnalysis;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 关键路径以及并行效率分析的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class StepAnalysisTest extends BaseTest {
+
+	// 并行分支中只有最慢的分支在关键路径上
+	@Test
+	public void testCriticalPath() {
+		FlowExecutor flowExecutor = load(true);
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+
+		StepAnalysis analysis = response.getStepAnalysis();
+		Assertions.assertEquals("a==>b==>d", analysis.getCriticalPathStr());
+		Assertions.assertEquals(2, analysis.getPeakConcurrency());
+		// c不在关键路径上，但是执行时间算在总的执行时间里
+		Assertions.assertTrue(analysis.getBusyNanos() > analysis.getCriticalPathNanos());
+		Assertions.assertTrue(analysis.getParallelEfficiency() > 0D && analysis.getParallelEfficiency() <= 1D);
+		Assertions.assertTrue(analysis.getWallNanos() >= analysis.getCriticalPathNanos());
+		Assertions.assertTrue(analysis.getCriticalPathNanos() >= TimeUnit.MILLISECONDS.toNanos(120));
+	}
+
+	// 并行分支的排队时间和执行时间
+	@Test
+	public void testBranch() {
+		FlowExecutor flowExecutor = load(true);
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+
+		List<BranchAnalysis> branchList = response.getStepAnalysis().getBranchList();
+		Assertions.assertEquals("[b, c]",
+				branchList.stream().map(BranchAnalysis::getBranchId).sorted().collect(Collectors.toList()).toString());
+		for (BranchAnalysis branch : branchList) {
+			Assertions.assertTrue(branch.getQueueWaitNanos() >= 0L);
+			Assertions.assertEquals(1, branch.getStepList().size());
+			Assertions.assertTrue(branch.getRunNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+		}
+	}
+
+	// 没有开启的时候不做分析
+	@Test
+	public void testDisabled() {
+		FlowExecutor flowExecutor = load(false);
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertNull(response.getStepAnalysis());
+		Assertions.assertEquals(0L, response.getExecuteSteps().get("b").get(0).getStartNanos());
+	}
+
+	private FlowExecutor load(boolean enableStepAnalysis) {
+		// 是否开启分析在初始化的时候读取，每个测试用例重新初始化一遍
+		FlowBus.cleanCache();
+		LiteflowConfigGetter.clean();
+		FlowExecutorHolder.clean();
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("stepAnalysis/flow.el.xml");
+		config.setEnableStepAnalysis(enableStepAnalysis);
+		return FlowExecutorHolder.loadInstance(config);
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.stepAnalysis.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class ACmp extends NodeComponent {
+
+	@Override
+	public void process() throws Exception {
+		Thread.sleep(10);
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.yomahub.liteflow.test.stepRecordMode;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.enums.StepRecordModeEnum;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 步骤记录模式的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class StepRecordModeTest extends BaseTest {
+
+	// 默认记录所有的步骤
+	@Test
+	public void testFull() {
+		FlowExecutor flowExecutor = load(StepRecordModeEnum.FULL, 100);
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("a==>b", response.getExecuteStepStr());
+		Assertions.assertNotNull(response.getExecuteSteps().get("a").get(0).getStartTime());
+	}
+
+	// 不记录步骤
+	@Test
+	public void testOff() {
+		FlowExecutor flowExecutor = load(StepRecordModeEnum.OFF, 100);
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("", response.getExecuteStepStr());
+		Assertions.assertTrue(response.getExecuteSteps().isEmpty());
+	}
+
+	// 只记录失败的步骤，有回滚的组件始终记录，保证回滚能够正常进行
+	@Test
+	public void testErrorOnly() {
+		FlowExecutor flowExecutor = load(StepRecordModeEnum.ERROR_ONLY, 100);
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("", response.getExecuteStepStr());
+
+		response = flowExecutor.execute2Resp("chain2", "arg");
+		Assertions.assertFalse(response.isSuccess());
+		Assertions.assertEquals("c==>d", response.getExecuteStepStr());
+		Assertions.assertFalse(response.getExecuteSteps().get("d").get(0).isSuccess());
+		Assertions.assertEquals("c", response.getRollbackStepStr());
+	}
+
+	// 采样模式下每stepSampleRate个请求记录一个
+	@Test
+	public void testSampled() {
+		FlowExecutor flowExecutor = load(StepRecordModeEnum.SAMPLED, 3);
+		int recordedCount = 0;
+		for (int i = 0; i < 9; i++) {
+			LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+			Assertions.assertTrue(response.isSuccess());
+			if ("a==>b".equals(response.getExecuteStepStr())) {
+				recordedCount++;
+			}
+			else {
+				Assertions.assertEquals("", response.getExecuteStepStr());
+			}
+		}
+		Assertions.assertEquals(3, recordedCount);
+	}
+
+	private FlowExecutor load(StepRecordModeEnum stepRecordMode, int stepSampleRate) {
+		// 步骤记录模式在初始化的时候读取，每个测试用例重新初始化一遍
+		FlowBus.cleanCache();
+		LiteflowConfigGetter.clean();
+		FlowExecutorHolder.clean();
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("stepRecordMode/flow.el.xml");
+		config.setStepRecordMode(stepRecordMode);
+		config.setStepSampleRate(stepSampleRate);
+		return FlowExecutorHolder.loadInstance(config);
+	}
+
+}
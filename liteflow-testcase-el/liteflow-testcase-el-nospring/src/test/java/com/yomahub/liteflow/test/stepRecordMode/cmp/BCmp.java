@@ -0,0 +1,12 @@
+package com.yomahub.liteflow.test.stepRecordMode.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class BCmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		System.out.println("BCmp executed!");
+	}
+
+}
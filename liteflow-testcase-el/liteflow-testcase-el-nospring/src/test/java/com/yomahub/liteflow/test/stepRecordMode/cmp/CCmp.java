@@ -0,0 +1,17 @@
+package com.yomahub.liteflow.test.stepRecordMode.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class CCmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		System.out.println("CCmp executed!");
+	}
+
+	@Override
+	public void rollback() throws Exception {
+		System.out.println("CCmp rollback!");
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.yomahub.liteflow.test.trace;
+
+import cn.hutool.core.io.FileUtil;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.enums.TraceKindEnum;
+import com.yomahub.liteflow.enums.TraceOutcomeEnum;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.trace.TraceEvent;
+import com.yomahub.liteflow.trace.TraceReader;
+import com.yomahub.liteflow.trace.TraceRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 二进制执行轨迹的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class TraceTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	private static String traceFilePath;
+
+	@BeforeAll
+	public static void init() {
+		traceFilePath = System.getProperty("java.io.tmpdir") + File.separator + "liteflow-trace-test.lft";
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("trace/flow.el.xml");
+		config.setEnableTrace(true);
+		config.setTraceFilePath(traceFilePath);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	@AfterAll
+	public static void clean() {
+		TraceRecorder.shutdown();
+		FileUtil.del(traceFilePath);
+	}
+
+	// 轨迹按照chain、condition、组件还原成树，并行分支在其他线程上执行也能挂到WHEN下面
+	@Test
+	public void testTraceTree() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+		TraceRecorder.flush();
+
+		TraceReader reader = TraceReader.read(traceFilePath);
+		TraceEvent root = findRoot(reader, response.getRequestId());
+		Assertions.assertEquals(TraceKindEnum.FLOW, root.getKind());
+		Assertions.assertEquals("chain1", root.getName());
+		Assertions.assertEquals(TraceOutcomeEnum.SUCCESS, root.getOutcome());
+
+		TraceEvent chain = root.getChildren().get(0);
+		Assertions.assertEquals(TraceKindEnum.CHAIN, chain.getKind());
+		TraceEvent then = chain.getChildren().get(0);
+		Assertions.assertEquals("then", then.getName());
+		Assertions.assertEquals("a", then.getChildren().get(0).getName());
+
+		TraceEvent when = then.getChildren().get(1);
+		Assertions.assertEquals("when", when.getName());
+		List<String> branchList = when.getChildren()
+			.stream()
+			.map(TraceEvent::getName)
+			.sorted()
+			.collect(Collectors.toList());
+		Assertions.assertEquals("[b, c]", branchList.toString());
+		Assertions.assertTrue(when.getChildren().stream().allMatch(event -> event.getThreadName() != null));
+
+		Assertions.assertTrue(reader.toFoldedStacks().contains("chain1;chain1;THEN;a "));
+		Assertions.assertTrue(reader.toCriticalPathReport().contains("chain[chain1]"));
+	}
+
+	// 组件的重试次数会记录在事件中
+	@Test
+	public void testRetryCount() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain2", "arg");
+		Assertions.assertTrue(response.isSuccess());
+		TraceRecorder.flush();
+
+		TraceReader reader = TraceReader.read(traceFilePath);
+		TraceEvent root = findRoot(reader, response.getRequestId());
+		TraceEvent d = reader.getCriticalPath(root)
+			.stream()
+			.filter(event -> event.getName().equals("d"))
+			.findFirst()
+			.orElseThrow(IllegalStateException::new);
+		Assertions.assertEquals(TraceKindEnum.NODE, d.getKind());
+		Assertions.assertEquals(2, d.getRetryCount());
+		Assertions.assertEquals(TraceOutcomeEnum.SUCCESS, d.getOutcome());
+	}
+
+	// 异步执行的chain和condition也会记录span，在其他线程上完成的也能还原成树
+	@Test
+	public void testAsyncTraceTree() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Stage("chain1", "arg").toCompletableFuture().get();
+		Assertions.assertTrue(response.isSuccess());
+		TraceRecorder.flush();
+
+		TraceReader reader = TraceReader.read(traceFilePath);
+		TraceEvent root = findRoot(reader, response.getRequestId());
+		TraceEvent chain = root.getChildren().get(0);
+		Assertions.assertEquals(TraceKindEnum.CHAIN, chain.getKind());
+		Assertions.assertEquals("chain1", chain.getName());
+		TraceEvent then = chain.getChildren().get(0);
+		Assertions.assertEquals(TraceKindEnum.CONDITION, then.getKind());
+		Assertions.assertEquals("then", then.getName());
+		Assertions.assertEquals("a", then.getChildren().get(0).getName());
+		TraceEvent when = then.getChildren().get(1);
+		Assertions.assertEquals("when", when.getName());
+		Assertions.assertEquals(2, when.getChildren().size());
+		Assertions.assertTrue(chain.getEndNanos() >= when.getEndNanos());
+	}
+
+	// 结束的线程的缓冲区会被之后的线程复用，复用之后事件记录的是新的线程
+	@Test
+	public void testBufferReuse() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			String threadName = "trace-reuse-" + i;
+			LiteflowResponse[] responses = new LiteflowResponse[1];
+			Thread thread = new Thread(() -> responses[0] = flowExecutor.execute2Resp("chain2", "arg"), threadName);
+			thread.start();
+			thread.join();
+			Assertions.assertTrue(responses[0].isSuccess());
+			TraceRecorder.flush();
+
+			TraceReader reader = TraceReader.read(traceFilePath);
+			TraceEvent root = findRoot(reader, responses[0].getRequestId());
+			Assertions.assertEquals(threadName, root.getChildren().get(0).getThreadName());
+		}
+	}
+
+	private TraceEvent findRoot(TraceReader reader, String requestId) {
+		return reader.getRootEventList()
+			.stream()
+			.filter(event -> requestId.equals(event.getRequestId()))
+			.findFirst()
+			.orElseThrow(IllegalStateException::new);
+	}
+
+}
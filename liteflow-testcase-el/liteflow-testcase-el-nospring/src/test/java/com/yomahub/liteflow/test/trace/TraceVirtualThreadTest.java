@@ -0,0 +1,85 @@
+package com.yomahub.liteflow.test.trace;
+
+import cn.hutool.core.io.FileUtil;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.thread.VirtualThreadEngine;
+import com.yomahub.liteflow.trace.TraceEvent;
+import com.yomahub.liteflow.trace.TraceReader;
+import com.yomahub.liteflow.trace.TraceRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 同时开启执行轨迹和虚拟线程的测试，JDK21以下会自动退回到平台线程池
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class TraceVirtualThreadTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	private static String traceFilePath;
+
+	@BeforeAll
+	public static void init() {
+		traceFilePath = System.getProperty("java.io.tmpdir") + File.separator + "liteflow-trace-virtual-test.lft";
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("trace/flow.el.xml");
+		config.setEnableTrace(true);
+		config.setTraceFilePath(traceFilePath);
+		config.setEnableVirtualThread(true);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	@AfterAll
+	public static void clean() {
+		TraceRecorder.shutdown();
+		FileUtil.del(traceFilePath);
+	}
+
+	// 每个分支都是一个新的虚拟线程，任务结束之后缓冲区马上给之后的虚拟线程复用，不会每个分支都分配一个新的缓冲区
+	@Test
+	public void testBufferReuse() throws Exception {
+		List<String> requestIdList = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+			Assertions.assertTrue(response.isSuccess());
+			requestIdList.add(response.getRequestId());
+		}
+		// 平台线程池的缓冲区数量取决于线程池的大小，这里只检查虚拟线程
+		if (VirtualThreadEngine.isSupported()) {
+			Assertions.assertTrue(TraceRecorder.getBufferCount() <= 16);
+		}
+		TraceRecorder.flush();
+
+		// 复用之后分支的事件仍然记录的是执行它的线程
+		TraceReader reader = TraceReader.read(traceFilePath);
+		for (String requestId : requestIdList) {
+			TraceEvent root = reader.getRootEventList()
+				.stream()
+				.filter(event -> requestId.equals(event.getRequestId()))
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+			TraceEvent when = root.getChildren().get(0).getChildren().get(0).getChildren().get(1);
+			Assertions.assertEquals("when", when.getName());
+			Assertions.assertEquals(2, when.getChildren().size());
+			for (TraceEvent branch : when.getChildren()) {
+				Assertions.assertNotNull(branch.getThreadName());
+				Assertions.assertEquals(VirtualThreadEngine.isSupported(),
+						branch.getThreadName().startsWith(VirtualThreadEngine.THREAD_NAME_PREFIX));
+			}
+		}
+	}
+
+}
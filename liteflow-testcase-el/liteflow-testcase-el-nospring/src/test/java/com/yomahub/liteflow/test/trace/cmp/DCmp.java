@@ -0,0 +1,20 @@
+package com.yomahub.liteflow.test.trace.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowRetry;
+import com.yomahub.liteflow.core.NodeComponent;
+
+@LiteflowRetry(3)
+public class DCmp extends NodeComponent {
+
+	private int count = 0;
+
+	@Override
+	public void process() {
+		// 前两次执行失败，第三次成功
+		count++;
+		if (count < 3) {
+			throw new RuntimeException("test");
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.yomahub.liteflow.test.virtualThread;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.thread.ExecutorHelper;
+import com.yomahub.liteflow.thread.VirtualThreadEngine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 虚拟线程执行引擎测试，JDK21以下会自动退回到平台线程池
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class VirtualThreadTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("virtualThread/flow.el.xml");
+		config.setEnableVirtualThread(true);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	// WHEN的每个分支都跑在虚拟线程上
+	@Test
+	public void testWhen() {
+		DefaultContext context = new DefaultContext();
+		Set<String> threadNames = ConcurrentHashMap.newKeySet();
+		context.setData("threadNames", threadNames);
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", null, context);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(VirtualThreadEngine.isSupported(), ExecutorHelper.loadInstance().isEnabledVirtualThreads());
+		Assertions.assertFalse(threadNames.isEmpty());
+		for (String threadName : threadNames) {
+			Assertions.assertEquals(VirtualThreadEngine.isSupported(), threadName.startsWith(VirtualThreadEngine.THREAD_NAME_PREFIX));
+		}
+	}
+
+	// 并行循环里嵌套WHEN，SWITCH依赖condition栈在子线程中找到所在的循环
+	@Test
+	public void testParallelLoop() {
+		DefaultContext context = new DefaultContext();
+		context.setData("threadNames", ConcurrentHashMap.newKeySet());
+		LiteflowResponse response = flowExecutor.execute2Resp("chain2", null, context);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(10, response.getExecuteStepQueue().stream().filter(step -> step.getNodeId().equals("a")).count());
+		Assertions.assertEquals(5, response.getExecuteStepQueue().stream().filter(step -> step.getNodeId().equals("b")).count());
+		Assertions.assertEquals(5, response.getExecuteStepQueue().stream().filter(step -> step.getNodeId().equals("c")).count());
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.yomahub.liteflow.test.virtualThread.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+import java.util.Set;
+
+public class BCmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		DefaultContext context = this.getFirstContextBean();
+		Set<String> threadNames = context.getData("threadNames");
+		threadNames.add(Thread.currentThread().getName());
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.yomahub.liteflow.test.whenCancel;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.flow.parallel.WhenCancelStatistics;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.property.LiteflowConfigGetter;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.whenCancel.cmp.CoopCmp;
+import com.yomahub.liteflow.test.whenCancel.cmp.NapCmp;
+import com.yomahub.liteflow.test.whenCancel.cmp.SleepCmp;
+import com.yomahub.liteflow.test.whenCancel.cmp.StubbornCmp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 超时以及提前完成的WHEN分支的取消测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class WhenCancelTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("whenCancel/flow.el.xml");
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	@BeforeEach
+	public void reset() {
+		SleepCmp.interrupted = false;
+		SleepCmp.finished = new CountDownLatch(1);
+		StubbornCmp.finished = new CountDownLatch(1);
+		CoopCmp.cancelled = false;
+		CoopCmp.finished = new CountDownLatch(1);
+		NapCmp.interrupted = false;
+		NapCmp.finished = new CountDownLatch(1);
+	}
+
+	// 超时的分支所在的线程会被中断，而不是一直睡到结束
+	@Test
+	public void testTimeoutInterrupt() throws Exception {
+		long stopped = WhenCancelStatistics.getStoppedCount();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertTrue(SleepCmp.finished.await(2, TimeUnit.SECONDS));
+		Assertions.assertTrue(SleepCmp.interrupted);
+		waitFor(() -> WhenCancelStatistics.getStoppedCount() > stopped);
+	}
+
+	// 不响应中断的分支会一直执行到结束，但是它对slot的写入会被忽略
+	@Test
+	public void testFenceLateWrite() throws Exception {
+		long abandoned = WhenCancelStatistics.getAbandonedCount();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain2");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertTrue(StubbornCmp.finished.await(2, TimeUnit.SECONDS));
+		waitFor(() -> WhenCancelStatistics.getAbandonedCount() > abandoned);
+		Assertions.assertNull(response.getSlot().getResponseData());
+	}
+
+	// 组件通过isCancelled主动退出
+	@Test
+	public void testCooperativeCancel() throws Exception {
+		long stopped = WhenCancelStatistics.getStoppedCount();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain3");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertTrue(CoopCmp.finished.await(2, TimeUnit.SECONDS));
+		Assertions.assertTrue(CoopCmp.cancelled);
+		waitFor(() -> WhenCancelStatistics.getStoppedCount() > stopped);
+	}
+
+	// 开启whenCancelAbandoned之后，any提前完成时没有完成的分支也会被取消，还没开始的直接不执行，已经开始的会被中断
+	@Test
+	public void testAnyCancel() throws Exception {
+		LiteflowConfigGetter.get().setWhenCancelAbandoned(true);
+		try {
+			long stopped = WhenCancelStatistics.getStoppedCount();
+			long start = System.currentTimeMillis();
+			LiteflowResponse response = flowExecutor.execute2Resp("chain4");
+			Assertions.assertTrue(response.isSuccess());
+			waitFor(() -> WhenCancelStatistics.getStoppedCount() > stopped);
+			// sleep组件要睡5秒，被取消之后不需要等到它结束
+			Assertions.assertTrue(System.currentTimeMillis() - start < 3000);
+		}
+		finally {
+			LiteflowConfigGetter.get().setWhenCancelAbandoned(false);
+		}
+	}
+
+	// 默认情况下any提前完成之后，没有完成的分支会继续执行到结束，不会被中断
+	@Test
+	public void testAnyNotCancelByDefault() throws Exception {
+		long cancelled = WhenCancelStatistics.getCancelledCount();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain5");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertTrue(NapCmp.finished.await(2, TimeUnit.SECONDS));
+		Assertions.assertFalse(NapCmp.interrupted);
+		Assertions.assertEquals(cancelled, WhenCancelStatistics.getCancelledCount());
+	}
+
+	// 统计是在分支线程结束的时候记录的，稍微等待一下
+	private void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + 2000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		Assertions.assertTrue(condition.getAsBoolean());
+	}
+
+}
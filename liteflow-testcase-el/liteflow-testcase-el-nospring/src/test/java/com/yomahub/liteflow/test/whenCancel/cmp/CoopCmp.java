@@ -0,0 +1,28 @@
+package com.yomahub.liteflow.test.whenCancel.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 通过isCancelled主动退出
+ */
+public class CoopCmp extends NodeComponent {
+
+	public static volatile boolean cancelled;
+
+	public static volatile CountDownLatch finished = new CountDownLatch(1);
+
+	@Override
+	public void process() {
+		long end = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < end) {
+			if (this.isCancelled()) {
+				cancelled = true;
+				break;
+			}
+		}
+		finished.countDown();
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.yomahub.liteflow.test.whenCancel.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+import java.util.concurrent.CountDownLatch;
+
+public class NapCmp extends NodeComponent {
+
+	public static volatile boolean interrupted;
+
+	public static volatile CountDownLatch finished = new CountDownLatch(1);
+
+	@Override
+	public void process() throws Exception {
+		try {
+			Thread.sleep(500);
+		}
+		catch (InterruptedException e) {
+			interrupted = true;
+			throw e;
+		}
+		finally {
+			finished.countDown();
+		}
+	}
+
+}
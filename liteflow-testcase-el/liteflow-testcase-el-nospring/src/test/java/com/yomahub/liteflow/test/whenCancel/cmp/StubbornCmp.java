@@ -0,0 +1,27 @@
+package com.yomahub.liteflow.test.whenCancel.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.Slot;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 不响应中断，一直执行到结束，最后往slot里写数据
+ */
+public class StubbornCmp extends NodeComponent {
+
+	public static volatile CountDownLatch finished = new CountDownLatch(1);
+
+	@Override
+	public void process() {
+		// 持有slot的引用，模拟超时之后依然往原来的slot里写数据
+		Slot slot = this.getSlot();
+		long end = System.currentTimeMillis() + 600;
+		while (System.currentTimeMillis() < end) {
+			// 忙等，不理会中断
+		}
+		slot.setResponseData("late");
+		finished.countDown();
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.yomahub.liteflow.test.whenParallelAccess;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.core.FlowExecutorHolder;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.property.LiteflowConfig;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.whenParallelAccess.cmp.ACmp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * WHEN分支在各自的异步任务中判断isAccess的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class WhenParallelAccessTest extends BaseTest {
+
+	private static FlowExecutor flowExecutor;
+
+	@BeforeAll
+	public static void init() {
+		LiteflowConfig config = new LiteflowConfig();
+		config.setRuleSource("whenParallelAccess/flow.el.xml");
+		config.setWhenParallelAccess(true);
+		flowExecutor = FlowExecutorHolder.loadInstance(config);
+	}
+
+	// 各个分支的isAccess是并行判断的，并且每个分支的isAccess只执行一次
+	@Test
+	public void testAccessOverlap() {
+		ACmp.accessCount.set(0);
+		long start = System.currentTimeMillis();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1");
+		long cost = System.currentTimeMillis() - start;
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(5, ACmp.accessCount.get());
+		Assertions.assertTrue(cost < 400);
+		Assertions.assertEquals(5, response.getExecuteStepQueue().size());
+	}
+
+	// any会忽略掉isAccess为false的分支，而不是把它们当成最先完成的分支
+	@Test
+	public void testAnyIgnoreSkipped() {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain2");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("s", response.getExecuteStepStr());
+	}
+
+	// percentage只按照isAccess为true的分支计算阈值
+	@Test
+	public void testPercentageIgnoreSkipped() {
+		long start = System.currentTimeMillis();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain3");
+		long cost = System.currentTimeMillis() - start;
+		Assertions.assertTrue(response.isSuccess());
+		// 等到s完成才结束，但是不用等待t
+		Assertions.assertTrue(cost >= 200);
+		Assertions.assertTrue(cost < 1500);
+	}
+
+	// 所有分支都被跳过的时候直接结束
+	@Test
+	public void testAllSkipped() {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain4");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("", response.getExecuteStepStr());
+
+		response = flowExecutor.execute2Resp("chain5");
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("", response.getExecuteStepStr());
+	}
+
+	// must指定的分支都被跳过的时候，不算完成，退回到等待所有任务完成
+	@Test
+	public void testMustSkipped() {
+		long start = System.currentTimeMillis();
+		LiteflowResponse response = flowExecutor.execute2Resp("chain6");
+		long cost = System.currentTimeMillis() - start;
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("s", response.getExecuteStepStr());
+		Assertions.assertTrue(cost >= 200);
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.yomahub.liteflow.test.whenParallelAccess.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * isAccess比较耗时的组件，比如要去查询开关或者缓存
+ */
+public class ACmp extends NodeComponent {
+
+	public static final AtomicInteger accessCount = new AtomicInteger();
+
+	@Override
+	public boolean isAccess() {
+		accessCount.incrementAndGet();
+		try {
+			Thread.sleep(100);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return true;
+	}
+
+	@Override
+	public void process() {
+		System.out.println("ACmp executed!");
+	}
+
+}
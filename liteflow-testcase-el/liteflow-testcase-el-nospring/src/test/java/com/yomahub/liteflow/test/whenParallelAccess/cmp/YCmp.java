@@ -0,0 +1,17 @@
+package com.yomahub.liteflow.test.whenParallelAccess.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+
+public class YCmp extends NodeComponent {
+
+	@Override
+	public boolean isAccess() {
+		return false;
+	}
+
+	@Override
+	public void process() {
+		System.out.println("YCmp executed!");
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.yomahub.liteflow.test.isolation;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * springboot环境下各个route之间隔离的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@TestPropertySource(value = "classpath:/isolation/application.properties")
+@SpringBootTest(classes = RouteSpringbootIsolationTest.class)
+@EnableAutoConfiguration
+@ComponentScan({ "com.yomahub.liteflow.test.isolation.cmp" })
+public class RouteSpringbootIsolationTest extends BaseTest {
+
+	@Resource
+	private FlowExecutor flowExecutor;
+
+	// 前一个route写入的上下文数据以及抛出的异常，不会影响后面的route和最终执行的chain
+	@Test
+	public void testIsolation() throws Exception {
+		List<LiteflowResponse> responseList = flowExecutor.executeRouteChain(1, DefaultContext.class);
+		Assertions.assertEquals(1, responseList.size());
+		LiteflowResponse response = responseList.get(0);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("r_chain2", response.getChainId());
+		Assertions.assertFalse(response.getContextBean(DefaultContext.class).hasData("dirty"));
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.yomahub.liteflow.test.isolation.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+// 往上下文中写入数据之后抛出异常
+@LiteflowComponent("r1")
+public class R1 extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() throws Exception {
+		DefaultContext context = this.getFirstContextBean();
+		context.setData("dirty", true);
+		throw new RuntimeException("route error");
+	}
+
+}
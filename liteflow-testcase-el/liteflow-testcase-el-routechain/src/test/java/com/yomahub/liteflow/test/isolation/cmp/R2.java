@@ -0,0 +1,17 @@
+package com.yomahub.liteflow.test.isolation.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+// 上下文是干净的，并且slot里没有之前route的异常时才匹配
+@LiteflowComponent("r2")
+public class R2 extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() throws Exception {
+		DefaultContext context = this.getFirstContextBean();
+		return !context.hasData("dirty") && this.getSlot().getException() == null;
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.yomahub.liteflow.test.matchLimit;
+
+import com.yomahub.liteflow.builder.el.LiteFlowChainELBuilder;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.FlowBus;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * springboot环境下route最多匹配数量以及route索引的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@TestPropertySource(value = "classpath:/matchLimit/application.properties")
+@SpringBootTest(classes = RouteSpringbootMatchLimitTest.class)
+@EnableAutoConfiguration
+@ComponentScan({ "com.yomahub.liteflow.test.matchLimit.cmp" })
+public class RouteSpringbootMatchLimitTest extends BaseTest {
+
+	@Resource
+	private FlowExecutor flowExecutor;
+
+	// 两个都满足，但是只按照注册顺序取第一个匹配的
+	@Test
+	public void testFirstMatch() throws Exception {
+		List<LiteflowResponse> responseList = flowExecutor.executeRouteChain(15, DefaultContext.class);
+		Assertions.assertEquals(1, responseList.size());
+		LiteflowResponse response = responseList.get(0);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("r_chain1", response.getChainId());
+		Assertions.assertEquals("b==>a", response.getExecuteStepStr());
+		Assertions.assertNotNull(response.getRouteTimeSpent());
+	}
+
+	// 移除和重新构建chain的时候，route索引会跟着变化
+	@Test
+	public void testRouteIndex() throws Exception {
+		Assertions.assertEquals(2, FlowBus.getRouteChains("default").size());
+
+		FlowBus.removeChain("r_chain1");
+		List<LiteflowResponse> responseList = flowExecutor.executeRouteChain(15, DefaultContext.class);
+		Assertions.assertEquals(1, responseList.size());
+		Assertions.assertEquals("r_chain2", responseList.get(0).getChainId());
+
+		// 重新加入的chain排在后面
+		LiteFlowChainELBuilder.createChain().setChainId("r_chain1").setEL("THEN(b,a);").setRoute("r1").build();
+		responseList = flowExecutor.executeRouteChain(15, DefaultContext.class);
+		Assertions.assertEquals("r_chain2", responseList.get(0).getChainId());
+
+		// 重新构建的chain保持原来的位置
+		LiteFlowChainELBuilder.createChain().setChainId("r_chain2").setEL("THEN(a,b);").setRoute("r2").build();
+		Assertions.assertEquals("r_chain2", FlowBus.getRouteChains("default").get(0).getChainId());
+		responseList = flowExecutor.executeRouteChain(15, DefaultContext.class);
+		Assertions.assertEquals("r_chain1", responseList.get(0).getChainId());
+
+		// 去掉route之后不再是route chain
+		LiteFlowChainELBuilder.createChain().setChainId("r_chain2").setEL("THEN(a,b);").build();
+		Assertions.assertEquals(1, FlowBus.getRouteChains("default").size());
+	}
+
+}
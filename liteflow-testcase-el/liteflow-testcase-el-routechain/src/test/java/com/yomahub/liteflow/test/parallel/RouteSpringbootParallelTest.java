@@ -0,0 +1,44 @@
+package com.yomahub.liteflow.test.parallel;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * springboot环境下route并行执行的测试
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@TestPropertySource(value = "classpath:/parallel/application.properties")
+@SpringBootTest(classes = RouteSpringbootParallelTest.class)
+@EnableAutoConfiguration
+@ComponentScan({ "com.yomahub.liteflow.test.parallel.cmp" })
+public class RouteSpringbootParallelTest extends BaseTest {
+
+	@Resource
+	private FlowExecutor flowExecutor;
+
+	// route是并行执行的，耗时不是各个route耗时的累加，并且按顺序确定了匹配的chain之后，不再等待后面的route
+	@Test
+	public void testParallelRoute() throws Exception {
+		List<LiteflowResponse> responseList = flowExecutor.executeRouteChain(1, DefaultContext.class);
+		Assertions.assertEquals(1, responseList.size());
+		LiteflowResponse response = responseList.get(0);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals("r_chain2", response.getChainId());
+		Assertions.assertTrue(response.getRouteTimeSpent() >= 500);
+		Assertions.assertTrue(response.getRouteTimeSpent() < 900);
+	}
+
+}
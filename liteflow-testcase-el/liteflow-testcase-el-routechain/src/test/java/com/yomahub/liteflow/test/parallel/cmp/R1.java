@@ -0,0 +1,16 @@
+package com.yomahub.liteflow.test.parallel.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+
+// 耗时的route，不匹配
+@LiteflowComponent("r1")
+public class R1 extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() throws Exception {
+		Thread.sleep(500);
+		return false;
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.yomahub.liteflow.test.parallel.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeBooleanComponent;
+
+// 非常耗时的route，排在匹配的route后面，不需要等待它
+@LiteflowComponent("r3")
+public class R3 extends NodeBooleanComponent {
+
+	@Override
+	public boolean processBoolean() throws Exception {
+		Thread.sleep(3000);
+		return true;
+	}
+
+}
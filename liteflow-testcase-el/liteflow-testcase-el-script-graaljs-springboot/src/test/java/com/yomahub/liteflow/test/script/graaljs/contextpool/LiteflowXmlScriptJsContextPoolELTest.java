@@ -0,0 +1,88 @@
+package com.yomahub.liteflow.test.script.graaljs.contextpool;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.test.script.graaljs.contextpool.cmp.TestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 测试复用的Context在两次执行之间会被重置
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:/contextpool/application.properties")
+@SpringBootTest(classes = LiteflowXmlScriptJsContextPoolELTest.class)
+@EnableAutoConfiguration
+@ComponentScan({ "com.yomahub.liteflow.test.script.graaljs.contextpool.cmp" })
+public class LiteflowXmlScriptJsContextPoolELTest extends BaseTest {
+
+	@Resource
+	private FlowExecutor flowExecutor;
+
+	// 脚本自己定义的全局变量在globals策略下不会带到下一次执行
+	@Test
+	public void testResetGlobals() {
+		for (int i = 0; i < 3; i++) {
+			LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg" + i);
+			Assertions.assertTrue(response.isSuccess());
+			DefaultContext context = response.getFirstContextBean();
+			Assertions.assertEquals(1, ((Number) context.getData("counter")).intValue());
+			Assertions.assertEquals("arg" + i, context.getData("requestData"));
+		}
+	}
+
+	// 上一次执行绑定的上下文不会留在复用的Context里
+	@Test
+	public void testResetBindings() {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain2", null, DefaultContext.class,
+				TestContext.class);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(true, response.getContextBean(DefaultContext.class).getData("hasTestContext"));
+
+		response = flowExecutor.execute2Resp("chain2", null, DefaultContext.class);
+		Assertions.assertTrue(response.isSuccess());
+		Assertions.assertEquals(false, response.getContextBean(DefaultContext.class).getData("hasTestContext"));
+	}
+
+	// 并发数超过池的大小时，多出来的Context用完之后直接关闭
+	@Test
+	public void testConcurrent() throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<LiteflowResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				String arg = "arg" + i;
+				futures.add(executorService.submit(() -> flowExecutor.execute2Resp("chain1", arg)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				LiteflowResponse response = futures.get(i).get();
+				Assertions.assertTrue(response.isSuccess());
+				DefaultContext context = response.getFirstContextBean();
+				Assertions.assertEquals(1, ((Number) context.getData("counter")).intValue());
+				Assertions.assertEquals("arg" + i, context.getData("requestData"));
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.yomahub.liteflow.test.script.graaljs.contextpool.cmp;
+
+public class TestContext {
+
+	private String name;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+}
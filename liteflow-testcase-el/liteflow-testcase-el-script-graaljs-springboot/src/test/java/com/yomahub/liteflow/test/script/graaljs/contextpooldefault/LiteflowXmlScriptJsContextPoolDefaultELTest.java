@@ -0,0 +1,58 @@
+package com.yomahub.liteflow.test.script.graaljs.contextpooldefault;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.annotation.Resource;
+
+/**
+ * 测试默认的重置策略下，复用的Context不会带着上一次执行的全局变量
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:/contextpooldefault/application.properties")
+@SpringBootTest(classes = LiteflowXmlScriptJsContextPoolDefaultELTest.class)
+@EnableAutoConfiguration
+@ComponentScan({ "com.yomahub.liteflow.test.script.graaljs.contextpooldefault.cmp" })
+public class LiteflowXmlScriptJsContextPoolDefaultELTest extends BaseTest {
+
+	@Resource
+	private FlowExecutor flowExecutor;
+
+	// 隐式的全局变量、var和function声明都不会带到下一次执行
+	@Test
+	public void testResetGlobals() {
+		for (int i = 0; i < 3; i++) {
+			LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+			Assertions.assertTrue(response.isSuccess());
+			DefaultContext context = response.getFirstContextBean();
+			Assertions.assertEquals(1, ((Number) context.getData("counter")).intValue());
+			Assertions.assertEquals(1, ((Number) context.getData("varCounter")).intValue());
+			Assertions.assertEquals(1, ((Number) context.getData("helperCount")).intValue());
+		}
+	}
+
+	// 脚本给脚本bean重新赋值之后，下一次执行拿到的还是原来的bean
+	@Test
+	public void testRestoreScriptBean() {
+		for (int i = 0; i < 3; i++) {
+			LiteflowResponse response = flowExecutor.execute2Resp("chain2", "arg");
+			Assertions.assertTrue(response.isSuccess());
+			DefaultContext context = response.getFirstContextBean();
+			Assertions.assertEquals("hello", context.getData("hello"));
+		}
+	}
+
+}
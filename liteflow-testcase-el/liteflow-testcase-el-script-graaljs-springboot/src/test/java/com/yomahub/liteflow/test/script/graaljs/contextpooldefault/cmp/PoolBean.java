@@ -0,0 +1,14 @@
+package com.yomahub.liteflow.test.script.graaljs.contextpooldefault.cmp;
+
+import com.yomahub.liteflow.script.annotation.ScriptBean;
+import org.springframework.stereotype.Component;
+
+@Component
+@ScriptBean("poolBean")
+public class PoolBean {
+
+	public String hello() {
+		return "hello";
+	}
+
+}
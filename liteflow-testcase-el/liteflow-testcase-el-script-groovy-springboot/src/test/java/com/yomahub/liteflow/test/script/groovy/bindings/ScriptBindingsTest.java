@@ -0,0 +1,171 @@
+package com.yomahub.liteflow.test.script.groovy.bindings;
+
+import com.yomahub.liteflow.core.ScriptCommonComponent;
+import com.yomahub.liteflow.enums.ScriptTypeEnum;
+import com.yomahub.liteflow.flow.element.Node;
+import com.yomahub.liteflow.script.ScriptExecuteWrap;
+import com.yomahub.liteflow.script.ScriptExecutor;
+import com.yomahub.liteflow.script.jsr223.LayeredBindings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 测试脚本绑定表的分层和wrap的复用范围
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+public class ScriptBindingsTest {
+
+	// 读取时上层覆盖下层
+	@Test
+	public void testLayerPrecedence() {
+		Map<String, Object> base = new HashMap<>();
+		base.put("a", "base");
+		base.put("b", "base");
+		Map<String, Object> shared = new HashMap<>();
+		shared.put("a", "shared");
+		shared.put("b", "shared");
+		shared.put("c", "shared");
+
+		LayeredBindings bindings = new LayeredBindings(base, shared);
+		bindings.put("a", "local");
+
+		Assertions.assertEquals("local", bindings.get("a"));
+		Assertions.assertEquals("base", bindings.get("b"));
+		Assertions.assertEquals("shared", bindings.get("c"));
+		Assertions.assertFalse(bindings.containsKey("d"));
+		Assertions.assertEquals(3, bindings.entrySet().size());
+		Assertions.assertEquals("local", bindings.entrySet()
+			.stream()
+			.filter(entry -> entry.getKey().equals("a"))
+			.findFirst()
+			.get()
+			.getValue());
+
+		// 上层放入null值也会覆盖下层
+		bindings.put("b", null);
+		Assertions.assertTrue(bindings.containsKey("b"));
+		Assertions.assertNull(bindings.get("b"));
+	}
+
+	// 删除只作用于最上层，下层的值不受影响
+	@Test
+	public void testRemoveOnlyLocal() {
+		Map<String, Object> base = new HashMap<>();
+		base.put("a", "base");
+		Map<String, Object> shared = new HashMap<>();
+		shared.put("b", "shared");
+
+		LayeredBindings bindings = new LayeredBindings(base, shared);
+		Assertions.assertNull(bindings.remove("a"));
+		Assertions.assertNull(bindings.remove("b"));
+		Assertions.assertEquals("base", bindings.get("a"));
+		Assertions.assertEquals("shared", bindings.get("b"));
+
+		bindings.put("a", "local");
+		Assertions.assertEquals("local", bindings.remove("a"));
+		Assertions.assertEquals("base", bindings.get("a"));
+		Assertions.assertEquals("base", base.get("a"));
+		Assertions.assertEquals("shared", shared.get("b"));
+
+		// 同一次节点执行的另一次调用看不到上一次调用写入的值
+		bindings.put("c", "local");
+		Assertions.assertFalse(new LayeredBindings(base, shared).containsKey("c"));
+		Assertions.assertFalse(base.containsKey("c"));
+	}
+
+	// 同一次节点执行中各个生命周期方法共用wrap和绑定，换了slot或者循环下标之后不再复用
+	@Test
+	public void testNoWrapReuseAcrossSlots() {
+		Node node = new Node();
+		ScriptCommonComponent cmp = new ScriptCommonComponent();
+		cmp.setNodeId("s1");
+		node.setInstance(cmp);
+		BindCountExecutor executor = new BindCountExecutor();
+
+		try {
+			cmp.setRefNode(node);
+
+			node.setSlotIndex(1);
+			ScriptExecuteWrap wrap1 = cmp.buildWrap(cmp);
+			Map<String, Object> bindingMap1 = executor.getBindingMap(wrap1);
+			Assertions.assertSame(wrap1, cmp.buildWrap(cmp));
+			Assertions.assertSame(bindingMap1, executor.getBindingMap(cmp.buildWrap(cmp)));
+			Assertions.assertEquals(1, executor.bindSlotList.size());
+			Assertions.assertEquals(1, bindingMap1.get("slot"));
+
+			node.setSlotIndex(2);
+			ScriptExecuteWrap wrap2 = cmp.buildWrap(cmp);
+			Assertions.assertNotSame(wrap1, wrap2);
+			Assertions.assertEquals(2, wrap2.getSlotIndex());
+			Map<String, Object> bindingMap2 = executor.getBindingMap(wrap2);
+			Assertions.assertNotSame(bindingMap1, bindingMap2);
+			Assertions.assertEquals(2, bindingMap2.get("slot"));
+			Assertions.assertEquals(2, executor.bindSlotList.size());
+
+			// wrap的属性被修改之后绑定重新构建
+			wrap2.setSlotIndex(3);
+			Assertions.assertEquals(3, executor.getBindingMap(wrap2).get("slot"));
+		}
+		finally {
+			node.removeSlotIndex();
+			node.removeScriptWrap();
+			cmp.removeRefNode();
+		}
+	}
+
+	/**
+	 * 不依赖slot，只记录绑定被构建了几次
+	 */
+	private static class BindCountExecutor extends ScriptExecutor {
+
+		private final List<Integer> bindSlotList = new ArrayList<>();
+
+		@Override
+		public void bindParam(ScriptExecuteWrap wrap, BiConsumer<String, Object> putConsumer) {
+			bindSlotList.add(wrap.getSlotIndex());
+			putConsumer.accept("slot", wrap.getSlotIndex());
+		}
+
+		@Override
+		public void load(String nodeId, String script) {
+		}
+
+		@Override
+		public void unLoad(String nodeId) {
+		}
+
+		@Override
+		public List<String> getNodeIds() {
+			return new ArrayList<>();
+		}
+
+		@Override
+		public Object executeScript(ScriptExecuteWrap wrap) {
+			return null;
+		}
+
+		@Override
+		public void cleanCache() {
+		}
+
+		@Override
+		public ScriptTypeEnum scriptType() {
+			return ScriptTypeEnum.GROOVY;
+		}
+
+		@Override
+		public Object compile(String script) {
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.yomahub.liteflow.test.script.java.bytecodecache;
+
+import cn.hutool.core.io.FileUtil;
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.annotation.Resource;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 测试java脚本的字节码磁盘缓存和启动时的并行编译
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:/bytecodecache/application.properties")
+@SpringBootTest(classes = ScriptJavaBytecodeCacheELTest.class)
+@EnableAutoConfiguration
+@ComponentScan({ "com.yomahub.liteflow.test.script.java.common.cmp" })
+public class ScriptJavaBytecodeCacheELTest extends BaseTest {
+
+    private static final File CACHE_DIR = new File("target/liteflow-bytecode-cache");
+
+    @Resource
+    private FlowExecutor flowExecutor;
+
+    @BeforeAll
+    public static void cleanCacheDir() {
+        FileUtil.del(CACHE_DIR);
+    }
+
+    // 第一次启动时编译并写入缓存，重新加载规则时直接使用缓存的字节码，不再写文件
+    @Test
+    public void testBytecodeCache() {
+        assertResponse(flowExecutor.execute2Resp("chain1", "arg"));
+        List<File> cacheFiles = FileUtil.loopFiles(CACHE_DIR);
+        Assertions.assertEquals(3, cacheFiles.size());
+        Map<String, Long> lastModifiedMap = cacheFiles.stream()
+                .collect(Collectors.toMap(File::getName, File::lastModified));
+
+        flowExecutor.reloadRule();
+        assertResponse(flowExecutor.execute2Resp("chain1", "arg"));
+        cacheFiles = FileUtil.loopFiles(CACHE_DIR);
+        Assertions.assertEquals(3, cacheFiles.size());
+        for (File cacheFile : cacheFiles) {
+            Assertions.assertEquals(lastModifiedMap.get(cacheFile.getName()), cacheFile.lastModified());
+        }
+    }
+
+    private void assertResponse(LiteflowResponse response) {
+        DefaultContext context = response.getFirstContextBean();
+        Assertions.assertTrue(response.isSuccess());
+        Assertions.assertEquals(6, (int) context.getData("s1"));
+        Assertions.assertEquals("hello,jack", context.getData("hi"));
+    }
+
+}
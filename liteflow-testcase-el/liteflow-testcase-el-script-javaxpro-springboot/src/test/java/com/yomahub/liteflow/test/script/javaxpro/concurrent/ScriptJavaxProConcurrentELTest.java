@@ -0,0 +1,73 @@
+package com.yomahub.liteflow.test.script.javaxpro.concurrent;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 测试javax-pro脚本组件在多线程下执行，每个线程使用自己的组件实例，脚本里的成员变量互不干扰
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:/concurrent/application.properties")
+@SpringBootTest(classes = ScriptJavaxProConcurrentELTest.class)
+@EnableAutoConfiguration
+public class ScriptJavaxProConcurrentELTest extends BaseTest {
+
+    @Resource
+    private FlowExecutor flowExecutor;
+
+    // 同一个脚本节点同时被多个请求执行，beforeProcess里设置的成员变量在process里读到的还是自己请求的值
+    @Test
+    public void testConcurrent() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<LiteflowResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int requestData = i;
+                String chainId = i % 2 == 0 ? "chain1" : "chain2";
+                futures.add(executorService.submit(() -> flowExecutor.execute2Resp(chainId, requestData)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                LiteflowResponse response = futures.get(i).get();
+                Assertions.assertTrue(response.isSuccess());
+                DefaultContext context = response.getFirstContextBean();
+                Assertions.assertEquals(i * 2, (int) context.getData("s1"));
+                Assertions.assertEquals(i + 1, (int) context.getData("s2"));
+                Assertions.assertEquals(i % 2 == 0 ? "chain1" : "chain2", context.getData("s2Chain"));
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+
+    // 组件实例只在一次节点执行的各个生命周期方法之间共用，不会留在线程上带到下一次执行
+    @Test
+    public void testInstancePerExecution() {
+        for (int i = 0; i < 3; i++) {
+            LiteflowResponse response = flowExecutor.execute2Resp("chain3", i);
+            Assertions.assertTrue(response.isSuccess());
+            DefaultContext context = response.getFirstContextBean();
+            Assertions.assertEquals(2, (int) context.getData("s3"));
+        }
+    }
+
+}
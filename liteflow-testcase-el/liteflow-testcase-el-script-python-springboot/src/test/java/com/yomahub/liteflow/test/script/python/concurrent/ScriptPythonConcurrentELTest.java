@@ -0,0 +1,63 @@
+package com.yomahub.liteflow.test.script.python.concurrent;
+
+import com.yomahub.liteflow.core.FlowExecutor;
+import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.slot.DefaultContext;
+import com.yomahub.liteflow.test.BaseTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 测试python脚本在多线程下并发执行，每个请求的绑定参数和返回值互不干扰
+ *
+ * @author Bryan.Zhang
+ * @since 2.15.0
+ */
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:/concurrent/application.properties")
+@SpringBootTest(classes = ScriptPythonConcurrentELTest.class)
+@EnableAutoConfiguration
+@ComponentScan({ "com.yomahub.liteflow.test.script.python.concurrent.cmp" })
+public class ScriptPythonConcurrentELTest extends BaseTest {
+
+	@Resource
+	private FlowExecutor flowExecutor;
+
+	// 并发的请求数超过解释器池的大小，同时每个请求里还有并行的python节点
+	@Test
+	public void testConcurrent() throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<LiteflowResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				int requestData = i;
+				futures.add(executorService.submit(() -> flowExecutor.execute2Resp("chain1", requestData)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				LiteflowResponse response = futures.get(i).get();
+				Assertions.assertTrue(response.isSuccess());
+				DefaultContext context = response.getFirstContextBean();
+				Assertions.assertEquals(i * 2, (int) context.getData("s1"));
+				Assertions.assertEquals(i + 1, (int) context.getData("s2"));
+				Assertions.assertEquals(i % 2 == 0 ? "a" : "b", context.getData("branch"));
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+	}
+
+}
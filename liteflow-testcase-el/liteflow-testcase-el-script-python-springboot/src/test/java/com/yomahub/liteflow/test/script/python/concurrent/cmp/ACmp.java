@@ -0,0 +1,16 @@
+package com.yomahub.liteflow.test.script.python.concurrent.cmp;
+
+import com.yomahub.liteflow.annotation.LiteflowComponent;
+import com.yomahub.liteflow.core.NodeComponent;
+import com.yomahub.liteflow.slot.DefaultContext;
+
+@LiteflowComponent("a")
+public class ACmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		DefaultContext context = this.getContextBean(DefaultContext.class);
+		context.setData("branch", "a");
+	}
+
+}
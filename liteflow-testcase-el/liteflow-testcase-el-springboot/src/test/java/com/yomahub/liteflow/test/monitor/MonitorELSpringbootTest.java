@@ -2,9 +2,12 @@ package com.yomahub.liteflow.test.monitor;
 
 import com.yomahub.liteflow.core.FlowExecutor;
 import com.yomahub.liteflow.flow.LiteflowResponse;
+import com.yomahub.liteflow.monitor.CompStatistics;
+import com.yomahub.liteflow.monitor.MetricSnapshot;
 import com.yomahub.liteflow.monitor.MonitorBus;
 import com.yomahub.liteflow.spi.holder.ContextAwareHolder;
 import com.yomahub.liteflow.test.BaseTest;
+import com.yomahub.liteflow.util.BoundedPriorityBlockingQueue;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.test.context.TestPropertySource;
 
 import javax.annotation.Resource;
+import java.util.Map;
 
 /**
  * springboot环境最普通的例子测试
@@ -38,6 +42,72 @@ public class MonitorELSpringbootTest extends BaseTest {
 		Thread.sleep(10000);
 	}
 
+	// 按照组件和chain统计窗口内的次数以及耗时分布
+	@Test
+	public void testMonitorSnapshot() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+
+		MonitorBus monitorBus = ContextAwareHolder.loadContextAware().getBean(MonitorBus.class);
+		Map<String, MetricSnapshot> nodeSnapshots = monitorBus.getNodeSnapshots();
+		for (String nodeId : new String[] { "a", "b", "c" }) {
+			MetricSnapshot snapshot = nodeSnapshots.get(nodeId);
+			Assertions.assertTrue(snapshot.getCount() >= 1);
+			Assertions.assertEquals(0, snapshot.getErrorCount());
+			Assertions.assertTrue(snapshot.getP50() <= snapshot.getP95());
+			Assertions.assertTrue(snapshot.getP95() <= snapshot.getP99());
+			Assertions.assertTrue(snapshot.getP99() <= snapshot.getMax());
+		}
+		// chain的耗时是单独记录的，每执行一次chain只记一次，并且不会比其中任何一个组件的耗时短
+		MetricSnapshot chainSnapshot = monitorBus.getChainSnapshots().get("chain1");
+		Assertions.assertEquals(nodeSnapshots.get("a").getCount(), chainSnapshot.getCount());
+		for (String nodeId : new String[] { "a", "b", "c" }) {
+			Assertions.assertTrue(chainSnapshot.getMax() >= nodeSnapshots.get(nodeId).getMax());
+		}
+	}
+
+	// 同一个组件在不同的chain中分别统计，合起来和按组件统计的次数一致
+	@Test
+	public void testChainNodeSnapshot() throws Exception {
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain1", "arg").isSuccess());
+		Assertions.assertTrue(flowExecutor.execute2Resp("chain2", "arg").isSuccess());
+
+		MonitorBus monitorBus = ContextAwareHolder.loadContextAware().getBean(MonitorBus.class);
+		Map<String, MetricSnapshot> nodeSnapshots = monitorBus.getNodeSnapshots();
+		Map<String, Map<String, MetricSnapshot>> chainNodeSnapshots = monitorBus.getChainNodeSnapshots();
+		Map<String, MetricSnapshot> chain1Snapshots = chainNodeSnapshots.get("chain1");
+		Map<String, MetricSnapshot> chain2Snapshots = chainNodeSnapshots.get("chain2");
+		Assertions.assertEquals(3, chain1Snapshots.size());
+		Assertions.assertEquals(2, chain2Snapshots.size());
+		Assertions.assertFalse(chain2Snapshots.containsKey("c"));
+		Assertions.assertEquals("chain2/a", chain2Snapshots.get("a").getName());
+		for (String nodeId : new String[] { "a", "b" }) {
+			Assertions.assertTrue(chain2Snapshots.get(nodeId).getCount() >= 1);
+			Assertions.assertEquals(nodeSnapshots.get(nodeId).getCount(),
+					chain1Snapshots.get(nodeId).getCount() + chain2Snapshots.get(nodeId).getCount());
+		}
+		Assertions.assertEquals(nodeSnapshots.get("c").getCount(), chain1Snapshots.get("c").getCount());
+	}
+
+	// 老的统计接口从直方图中还原样本
+	@Test
+	public void testStatisticsMap() throws Exception {
+		LiteflowResponse response = flowExecutor.execute2Resp("chain1", "arg");
+		Assertions.assertTrue(response.isSuccess());
+
+		MonitorBus monitorBus = ContextAwareHolder.loadContextAware().getBean(MonitorBus.class);
+		Map<String, MetricSnapshot> nodeSnapshots = monitorBus.getNodeSnapshots();
+		Map<String, BoundedPriorityBlockingQueue<CompStatistics>> statisticsMap = monitorBus.getStatisticsMap();
+		for (String nodeId : new String[] { "a", "b", "c" }) {
+			BoundedPriorityBlockingQueue<CompStatistics> queue = statisticsMap.get(nodeId);
+			Assertions.assertEquals(nodeSnapshots.get(nodeId).getCount(), queue.size());
+			for (CompStatistics statistics : queue) {
+				Assertions.assertEquals(nodeId, statistics.getComponentClazzName());
+				Assertions.assertTrue(statistics.getTimeSpent() <= nodeSnapshots.get(nodeId).getMax());
+			}
+		}
+	}
+
 	@AfterAll
 	public static void clean() {
 		MonitorBus monitorBus = ContextAwareHolder.loadContextAware().getBean(MonitorBus.class);
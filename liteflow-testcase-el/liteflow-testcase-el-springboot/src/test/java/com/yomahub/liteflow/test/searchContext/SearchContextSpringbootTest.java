@@ -109,4 +109,19 @@ public class SearchContextSpringbootTest extends BaseTest {
 		Assertions.assertEquals("v1", context.getData("test"));
 	}
 
+	// 测试多级属性路径，以及路径中的属性不存在的情况
+	@Test
+	public void testSearchContext7() throws Exception {
+		OrderContext orderContext = new OrderContext();
+		orderContext.setOrderCode("SO1234");
+		orderContext.setMember(new Member("M0001","jack"));
+
+		LiteflowResponse response = flowExecutor.execute2Resp("chain7", "arg", orderContext, new DefaultContext());
+		Assertions.assertTrue(response.isSuccess());
+		DefaultContext context = response.getContextBean(DefaultContext.class);
+		Assertions.assertEquals("null", context.getData("missing"));
+		Assertions.assertEquals("jack", context.getData("memberName"));
+		Assertions.assertEquals("tom", orderContext.getMember().getMemberName());
+	}
+
 }
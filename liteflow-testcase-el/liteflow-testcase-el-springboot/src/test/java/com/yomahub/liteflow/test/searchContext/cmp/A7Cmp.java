@@ -0,0 +1,17 @@
+package com.yomahub.liteflow.test.searchContext.cmp;
+
+import com.yomahub.liteflow.core.NodeComponent;
+import org.springframework.stereotype.Component;
+
+@Component("a7")
+public class A7Cmp extends NodeComponent {
+
+	@Override
+	public void process() {
+		Object missing = this.getContextValue("member.notExist");
+		String memberName = this.getContextValue("orderContext.member.memberName");
+		this.setContextValue("orderContext.member.setMemberName", "tom");
+		this.setContextValue("setData", "missing", missing == null ? "null" : missing);
+		this.setContextValue("setData", "memberName", memberName);
+	}
+}